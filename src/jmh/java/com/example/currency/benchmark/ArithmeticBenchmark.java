@@ -0,0 +1,86 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.service.ConversionArithmetic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArithmeticBenchmark {
+
+    private static final int SIZE = 1024;
+
+    private BigDecimal[] amounts;
+    private BigDecimal fromRate;
+    private BigDecimal toRate;
+    private int fromScale;
+    private int toScale;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        amounts = BenchmarkData.amounts(SIZE);
+        fromRate = new BigDecimal("3.2418");
+        toRate = new BigDecimal("3.5277");
+        fromScale = 1;
+        toScale = 100;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal amount = amounts[cursor++ & (SIZE - 1)];
+        BigDecimal fromPerUnit = fromRate.divide(BigDecimal.valueOf(fromScale), 6, RoundingMode.HALF_UP);
+        BigDecimal toPerUnit = toRate.divide(BigDecimal.valueOf(toScale), 6, RoundingMode.HALF_UP);
+        return amount.multiply(fromPerUnit).divide(toPerUnit, 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public double primitiveDouble() {
+        double amount = amounts[cursor++ & (SIZE - 1)].doubleValue();
+        double result = amount * (fromRate.doubleValue() / fromScale) / (toRate.doubleValue() / toScale);
+        return Math.round(result * 100) / 100.0;
+    }
+
+    @Benchmark
+    public long scaledLong() {
+        BigDecimal amount = amounts[cursor++ & (SIZE - 1)];
+        long fromPerUnit = divideHalfUp(fromRate.unscaledValue().longValueExact() * 100, fromScale);
+        long toPerUnit = divideHalfUp(toRate.unscaledValue().longValueExact() * 100, toScale);
+        long numerator = Math.multiplyExact(Math.multiplyExact(amount.unscaledValue().longValueExact(), fromPerUnit), 100);
+        return divideHalfUp(numerator, Math.multiplyExact(toPerUnit, pow10(amount.scale())));
+    }
+
+    @Benchmark
+    public BigDecimal conversionArithmetic() {
+        return ConversionArithmetic.convert(amounts[cursor++ & (SIZE - 1)], fromRate, fromScale, toRate, toScale);
+    }
+
+    @Benchmark
+    public BigDecimal conversionArithmeticExact() {
+        return ConversionArithmetic.convertExact(amounts[cursor++ & (SIZE - 1)], fromRate, fromScale, toRate, toScale);
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        return remainder * 2 >= divisor ? quotient + 1 : quotient;
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
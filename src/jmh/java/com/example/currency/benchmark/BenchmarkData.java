@@ -0,0 +1,79 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkData {
+
+    static final int CURRENCY_COUNT = 30;
+    static final int HISTORY_DAYS = 365;
+
+    private static final String[] ABBREVIATIONS = {
+            "USD", "EUR", "RUB", "PLN", "UAH", "CNY", "GBP", "JPY", "CHF", "CZK",
+            "SEK", "NOK", "DKK", "CAD", "AUD", "TRY", "KZT", "ISK", "KGS", "MDL",
+            "AMD", "AZN", "GEL", "IRR", "KRW", "SGD", "NZD", "BGN", "HUF", "AED"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static List<CurrencyInfo> currencies() {
+        List<CurrencyInfo> currencies = new ArrayList<>(CURRENCY_COUNT);
+        for (int i = 0; i < CURRENCY_COUNT; i++) {
+            CurrencyInfo info = new CurrencyInfo();
+            info.setCurId(400 + i);
+            info.setCurCode(String.valueOf(800 + i));
+            info.setCurAbbreviation(ABBREVIATIONS[i]);
+            info.setCurName("Currency " + ABBREVIATIONS[i]);
+            info.setCurScale(scaleOf(i));
+            currencies.add(info);
+        }
+        return currencies;
+    }
+
+    static CurrencyRate rate(CurrencyInfo currency, LocalDate date, Random random) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setId(currency.getCurId() * 100_000 + (int) date.toEpochDay() % 100_000);
+        rate.setCurrency(currency);
+        rate.setDate(date);
+        rate.setCurScale(currency.getCurScale());
+        rate.setCurOfficialRate(BigDecimal.valueOf(0.5 + random.nextDouble() * 4).setScale(4, RoundingMode.HALF_UP));
+        return rate;
+    }
+
+    static List<CurrencyRate> history(List<CurrencyInfo> currencies, int days) {
+        Random random = new Random(42);
+        LocalDate start = LocalDate.now().minusDays(days);
+        List<CurrencyRate> rates = new ArrayList<>(currencies.size() * days);
+        for (CurrencyInfo currency : currencies) {
+            for (int day = 0; day < days; day++) {
+                rates.add(rate(currency, start.plusDays(day), random));
+            }
+        }
+        return rates;
+    }
+
+    static BigDecimal[] amounts(int count) {
+        Random random = new Random(7);
+        BigDecimal[] amounts = new BigDecimal[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = BigDecimal.valueOf(1 + random.nextInt(1_000_000), 2);
+        }
+        return amounts;
+    }
+
+    private static int scaleOf(int index) {
+        return switch (index % 5) {
+            case 2 -> 100;
+            case 4 -> 10;
+            default -> 1;
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.CurrentDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Key construction as the services used to do it (concatenated strings) against {@link CacheKey}, and
+ * the three cache probes of a warm conversion in both forms. Run with {@code -prof gc} for bytes per op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheKeyBenchmark {
+
+    private Integer fromCurId;
+    private Integer toCurId;
+    private BigDecimal amount;
+    private String abbreviation;
+    private final Map<String, Object> stringKeyed = new ConcurrentHashMap<>();
+    private final Map<CacheKey, Object> typedKeyed = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setUp() {
+        fromCurId = 431;
+        toCurId = 451;
+        amount = new BigDecimal("1250.75");
+        abbreviation = "USD";
+        LocalDate today = LocalDate.now();
+        stringKeyed.put("convert:" + fromCurId + ":" + toCurId + ":" + amount, amount);
+        stringKeyed.put("rate:" + fromCurId + ":" + today, amount);
+        stringKeyed.put("rate:" + toCurId + ":" + today, amount);
+        typedKeyed.put(CacheKey.convert(fromCurId, toCurId, amount), amount);
+        typedKeyed.put(CacheKey.rate(fromCurId, today), amount);
+        typedKeyed.put(CacheKey.rate(toCurId, today), amount);
+    }
+
+    @Benchmark
+    public int rateKey() {
+        return ("rate:" + fromCurId + ":" + LocalDate.now()).hashCode();
+    }
+
+    @Benchmark
+    public int convertKey() {
+        return ("convert:" + fromCurId + ":" + toCurId + ":" + amount.toString()).hashCode();
+    }
+
+    @Benchmark
+    public int rateByAbbreviationKey() {
+        return ("rateByAbbreviation:" + abbreviation + ":" + LocalDate.now()).hashCode();
+    }
+
+    @Benchmark
+    public int typedRateKey() {
+        return CacheKey.rate(fromCurId, CurrentDay.epochDay()).hashCode();
+    }
+
+    @Benchmark
+    public int typedConvertKey() {
+        return CacheKey.convert(fromCurId, toCurId, amount).hashCode();
+    }
+
+    @Benchmark
+    public int typedRateByAbbreviationKey() {
+        return CacheKey.rateByAbbreviation(abbreviation, CurrentDay.epochDay()).hashCode();
+    }
+
+    @Benchmark
+    public void conversionLookups(Blackhole blackhole) {
+        blackhole.consume(stringKeyed.get("convert:" + fromCurId + ":" + toCurId + ":" + amount.toString()));
+        blackhole.consume(stringKeyed.get("rate:" + fromCurId + ":" + LocalDate.now()));
+        blackhole.consume(stringKeyed.get("rate:" + toCurId + ":" + LocalDate.now()));
+    }
+
+    @Benchmark
+    public void typedConversionLookups(Blackhole blackhole) {
+        blackhole.consume(typedKeyed.get(CacheKey.convert(fromCurId, toCurId, amount)));
+        blackhole.consume(typedKeyed.get(CacheKey.rate(fromCurId, CurrentDay.epochDay())));
+        blackhole.consume(typedKeyed.get(CacheKey.rate(toCurId, CurrentDay.epochDay())));
+    }
+}
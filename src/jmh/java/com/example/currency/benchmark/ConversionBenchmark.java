@@ -0,0 +1,65 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.service.CurrencyConversionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConversionBenchmark {
+
+    private static final int DISTINCT_AMOUNTS = 1 << 16;
+
+    private SimpleCache cache;
+    private CurrencyConversionService conversionService;
+    private BigDecimal[] amounts;
+    private int from;
+    private int to;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        List<CurrencyInfo> currencies = BenchmarkData.currencies();
+        cache = new SimpleCache(false);
+        conversionService = new CurrencyConversionService(new StubCurrencyService(cache, currencies), null, cache, null, null, null);
+        amounts = BenchmarkData.amounts(DISTINCT_AMOUNTS);
+        from = currencies.get(0).getCurId();
+        to = currencies.get(2).getCurId();
+        cursor = 0;
+        conversionService.convertCurrencyWithValidation(from, to, amounts[0]);
+    }
+
+    @Benchmark
+    public Map<String, Object> warmCache() {
+        return conversionService.convertCurrencyWithValidation(from, to, amounts[0]);
+    }
+
+    @Benchmark
+    public Map<String, Object> coldResultWarmRates() {
+        int index = cursor++ & (DISTINCT_AMOUNTS - 1);
+        if (index == 0) {
+            cache.clear();
+        }
+        return conversionService.convertCurrencyWithValidation(from, to, amounts[index]);
+    }
+
+    @Benchmark
+    public Map<String, Object> coldCache() {
+        cache.clear();
+        return conversionService.convertCurrencyWithValidation(from, to, amounts[cursor++ & (DISTINCT_AMOUNTS - 1)]);
+    }
+}
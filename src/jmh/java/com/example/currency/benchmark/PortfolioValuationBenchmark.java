@@ -0,0 +1,89 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.analytics.PortfolioValuation;
+import com.example.currency.history.RateSeries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ten years of daily valuation of a portfolio over published-rate history with gaps, in one pass
+ * and as forked yearly chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PortfolioValuationBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2015, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+
+    @Param({"10", "50"})
+    private int holdings;
+
+    private PortfolioValuation valuation;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        int days = (int) ChronoUnit.DAYS.between(FROM, TO) + 1;
+        List<RateSeries> series = new ArrayList<>();
+        BigDecimal[] amounts = BenchmarkData.amounts(holdings);
+        for (int h = 0; h <= holdings; h++) {
+            int[] epochDays = new int[days];
+            long[] rates = new long[days];
+            int length = 0;
+            long rate = 1_000_000L + random.nextInt(5_000_000);
+            for (int d = 0; d < days; d++) {
+                // Rates are skipped on weekends and on some holidays, as published.
+                if (d % 7 >= 5 || random.nextInt(40) == 0) {
+                    continue;
+                }
+                rate = Math.max(1_000L, rate + random.nextInt(20_001) - 10_000);
+                epochDays[length] = (int) FROM.toEpochDay() + d;
+                rates[length++] = rate;
+            }
+            series.add(RateSeries.of(epochDays, rates, length));
+        }
+        valuation = new PortfolioValuation(series.subList(0, holdings), List.of(amounts), series.get(holdings));
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long sequential() {
+        PortfolioValuation.Chunk chunk = valuation.value(FROM, TO);
+        return chunk.values()[chunk.length() - 1];
+    }
+
+    @Benchmark
+    public long forkedYearlyChunks() {
+        long last = 0;
+        for (ForkJoinTask<PortfolioValuation.Chunk> task : valuation.fork(pool, FROM, TO, 366)) {
+            PortfolioValuation.Chunk chunk = task.join();
+            last = chunk.values()[chunk.length() - 1];
+        }
+        return last;
+    }
+}
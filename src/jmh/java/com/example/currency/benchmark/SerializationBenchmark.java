@@ -0,0 +1,55 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    private ObjectMapper mapper;
+    private List<CurrencyInfo> currencies;
+    private List<CurrencyRate> rateHistory;
+    private CurrencyRate singleRate;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        currencies = BenchmarkData.currencies();
+        rateHistory = BenchmarkData.history(currencies, BenchmarkData.HISTORY_DAYS);
+        singleRate = rateHistory.get(0);
+    }
+
+    @Benchmark
+    public byte[] currencyList() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(currencies);
+    }
+
+    @Benchmark
+    public byte[] singleRate() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(singleRate);
+    }
+
+    @Benchmark
+    public byte[] rateHistory() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(rateHistory);
+    }
+}
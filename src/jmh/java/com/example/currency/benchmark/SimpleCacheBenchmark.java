@@ -0,0 +1,78 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SimpleCacheBenchmark {
+
+    private SimpleCache cache;
+    private CacheKey[] keys;
+    private Object[] values;
+
+    @Setup
+    public void setUp() {
+        cache = new SimpleCache(false);
+        List<CurrencyInfo> currencies = BenchmarkData.currencies();
+        List<CurrencyRate> history = BenchmarkData.history(currencies, BenchmarkData.HISTORY_DAYS);
+        keys = new CacheKey[history.size()];
+        values = new Object[history.size()];
+        for (int i = 0; i < history.size(); i++) {
+            CurrencyRate rate = history.get(i);
+            keys[i] = CacheKey.rate(rate.getCurrency().getCurId(), rate.getDate());
+            values[i] = List.of(rate);
+            cache.put(keys[i], values[i]);
+        }
+    }
+
+    private CacheKey randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Object> getContended() {
+        return cache.get(randomKey());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public Optional<Object> mixedGet() {
+        return cache.get(randomKey());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixedPut() {
+        int index = ThreadLocalRandom.current().nextInt(keys.length);
+        cache.put(keys[index], values[index]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Object> getMissUncontended() {
+        return cache.get(CacheKey.rate(0, LocalDate.MIN));
+    }
+}
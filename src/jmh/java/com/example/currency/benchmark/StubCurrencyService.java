@@ -0,0 +1,43 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.CurrentDay;
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.CurrencyService;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+class StubCurrencyService extends CurrencyService {
+
+    private final SimpleCache cache;
+    private final Map<Integer, CurrencyRate> todayRates = new HashMap<>();
+
+    StubCurrencyService(SimpleCache cache, List<CurrencyInfo> currencies) {
+        super(null, null, null, cache, null, null, null);
+        this.cache = cache;
+        Random random = new Random(1);
+        for (CurrencyInfo currency : currencies) {
+            todayRates.put(currency.getCurId(), BenchmarkData.rate(currency, LocalDate.now(), random));
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CurrencyRate getCurrencyRate(Integer curId) {
+        CacheKey cacheKey = CacheKey.rate(curId, CurrentDay.epochDay());
+        Optional<Object> cached = cache.get(cacheKey);
+        if (cached.isPresent()) {
+            return ((List<CurrencyRate>) cached.get()).get(0);
+        }
+        CurrencyRate rate = todayRates.get(curId);
+        cache.put(cacheKey, List.of(rate));
+        return rate;
+    }
+}
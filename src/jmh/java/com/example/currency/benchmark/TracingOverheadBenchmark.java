@@ -0,0 +1,84 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.aspect.LoggingAspect;
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.controller.CurrencyRateController;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link LoggingAspect} on the convert path: the controller and the conversion service
+ * are wrapped in the same AspectJ proxies Spring builds, so {@code traced} pays for two spans
+ * per call as a request does, against the same objects called directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TracingOverheadBenchmark {
+
+    @Param({"disabled", "0.01", "1.0"})
+    private String sampling;
+
+    private Tracer tracer;
+    private CurrencyRateController plainController;
+    private CurrencyRateController tracedController;
+    private BigDecimal amount;
+    private int from;
+    private int to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean enabled = !"disabled".equals(sampling);
+        tracer = new Tracer(enabled, enabled ? Double.parseDouble(sampling) : 0, 8192);
+        LoggingAspect aspect = new LoggingAspect(tracer);
+        List<CurrencyInfo> currencies = BenchmarkData.currencies();
+        SimpleCache cache = new SimpleCache(false);
+        CurrencyConversionService conversionService =
+                new CurrencyConversionService(new StubCurrencyService(cache, currencies), null, cache, null, null, null);
+        plainController = new CurrencyRateController(conversionService);
+        tracedController = new CurrencyRateController(proxy(conversionService, aspect));
+        tracedController = proxy(tracedController, aspect);
+        amount = new BigDecimal("100.00");
+        from = currencies.get(0).getCurId();
+        to = currencies.get(1).getCurId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        tracer.shutdown();
+    }
+
+    @Benchmark
+    public ResponseEntity<?> untraced() {
+        return plainController.convert(from, to, amount, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> traced() {
+        return tracedController.convert(from, to, amount, null);
+    }
+
+    private static <T> T proxy(T target, LoggingAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.currency.benchmark;
+
+import com.example.currency.models.RateView;
+import com.example.currency.wire.ProtobufWireFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a rate-history list per wire format. The payload size of each format
+ * is printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<RateView>> RATE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private List<RateView> rates;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> mapper(new CBORFactory());
+            case "smile" -> mapper(new SmileFactory());
+            default -> mapper(new JsonFactory());
+        };
+        rates = BenchmarkData.history(BenchmarkData.currencies(), BenchmarkData.HISTORY_DAYS).stream()
+                .map(RateView::of)
+                .toList();
+        encoded = encode();
+        System.out.printf("%n%s: %d rates, %d bytes, %.1f bytes/rate%n",
+                format, rates.size(), encoded.length, (double) encoded.length / rates.size());
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return "protobuf".equals(format) ? ProtobufWireFormat.encodeRates(rates) : mapper.writeValueAsBytes(rates);
+    }
+
+    @Benchmark
+    public List<RateView> decode() throws IOException {
+        return "protobuf".equals(format) ? ProtobufWireFormat.decodeRates(encoded) : mapper.readValue(encoded, RATE_LIST);
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -2,10 +2,15 @@ package com.example.currency;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class Application {
+    private static final int STARTUP_EVENT_CAPACITY = 4096;
+
     public static void main(String[] args) {
-        SpringApplication.run(Application.class, args);
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_EVENT_CAPACITY));
+        application.run(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.example.currency.admission;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class AdmissionManager implements MetricsSource {
+
+    private static final double CRITICAL_PRESSURE_THRESHOLD = 0.8;
+
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionManager(
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.retry-after-seconds:1}") int retryAfterSeconds,
+            @Value("${admission.critical.max-concurrency:150}") int criticalMax,
+            @Value("${admission.standard.max-concurrency:60}") int standardMax,
+            @Value("${admission.bulk.max-concurrency:10}") int bulkMax
+    ) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        limiters.put(EndpointClass.CRITICAL, new AdaptiveConcurrencyLimiter(criticalMax / 2, 10, criticalMax));
+        limiters.put(EndpointClass.STANDARD, new AdaptiveConcurrencyLimiter(standardMax / 2, 4, standardMax));
+        limiters.put(EndpointClass.BULK, new AdaptiveConcurrencyLimiter(bulkMax / 2, 1, bulkMax));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public boolean tryAdmit(EndpointClass endpointClass) {
+        if (endpointClass != EndpointClass.CRITICAL && isCriticalUnderPressure()) {
+            limiters.get(endpointClass).recordRejected();
+            return false;
+        }
+        return limiters.get(endpointClass).tryAcquire();
+    }
+
+    public void complete(EndpointClass endpointClass, long latencyNanos) {
+        limiters.get(endpointClass).release(latencyNanos);
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("admission_limit", "gauge", "Current adaptive concurrency limit per endpoint class");
+        limiters.forEach((endpointClass, limiter) ->
+                writer.sample("admission_limit", limiter.getLimit(), "class", endpointClass.name()));
+        writer.metric("admission_in_flight", "gauge", "Requests currently admitted per endpoint class");
+        limiters.forEach((endpointClass, limiter) ->
+                writer.sample("admission_in_flight", limiter.getInFlight(), "class", endpointClass.name()));
+        writer.metric("admission_rejected_total", "counter", "Requests shed with 503 per endpoint class");
+        limiters.forEach((endpointClass, limiter) ->
+                writer.sample("admission_rejected_total", limiter.getRejected(), "class", endpointClass.name()));
+    }
+
+    private boolean isCriticalUnderPressure() {
+        AdaptiveConcurrencyLimiter critical = limiters.get(EndpointClass.CRITICAL);
+        return critical.getInFlight() >= critical.getLimit() * CRITICAL_PRESSURE_THRESHOLD;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.currency.admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public enum EndpointClass {
+    CRITICAL,
+    STANDARD,
+    BULK;
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if (path.equals("/api/currency/rates/convert") || path.equals("/currencies/convert")) {
+            return CRITICAL;
+        }
+        if ("GET".equals(method) && (path.equals("/api/currency/rates")
+                || path.equals("/api/currency/info")
+                || path.equals("/api/currency/info/db")
+                || path.equals("/currencies"))) {
+            return BULK;
+        }
+        if ("POST".equals(method) && (path.equals("/api/currency/rates/bulk-rates")
+                || path.equals("/api/analytics/portfolio/valuation")
+                || path.equals("/api/jobs/conversions"))) {
+            return BULK;
+        }
+        return STANDARD;
+    }
+
+    /**
+     * Probes and the metrics scrape, which must answer even when the service sheds load.
+     */
+    public static boolean isExempt(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals("/metrics") || path.equals("/health/live") || path.equals("/health/ready");
+    }
+}
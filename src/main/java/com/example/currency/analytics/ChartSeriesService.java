@@ -0,0 +1,125 @@
+package com.example.currency.analytics;
+
+import com.example.currency.models.RateRollup;
+import com.example.currency.models.RateRollup.Granularity;
+import com.example.currency.repository.RateRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chart series backed by the rate rollups. The finest granularity whose bucket count stays within
+ * {@code analytics.series.oversample} times the requested points is read, and the bucket closes
+ * are downsampled to the requested size, so the rows read and points returned are bounded by the
+ * point count rather than by the length of the range.
+ */
+@Service
+public class ChartSeriesService {
+
+    public enum Method {
+        LTTB,
+        MINMAX
+    }
+
+    private static final int MIN_POINTS = 4;
+
+    private final RateRollupRepository rollupRepository;
+    private final int maxPoints;
+    private final int oversample;
+
+    @Autowired
+    public ChartSeriesService(
+            RateRollupRepository rollupRepository,
+            @Value("${analytics.series.max-points:5000}") int maxPoints,
+            @Value("${analytics.series.oversample:4}") int oversample
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.maxPoints = maxPoints;
+        this.oversample = oversample;
+    }
+
+    public Map<String, Object> series(Integer base, Integer quote, LocalDate from, LocalDate to, int points, Method method) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+        }
+        if (points < MIN_POINTS || points > maxPoints) {
+            throw new IllegalArgumentException("Points must be between " + MIN_POINTS + " and " + maxPoints);
+        }
+        Granularity granularity = granularityFor(from, to, (long) points * oversample);
+        List<LocalDate> dates = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        Map<LocalDate, BigDecimal> quoteCloses = quote != null ? closes(quote, granularity, from, to) : Map.of();
+        for (RateRollup rollup : rollupRepository.findRange(base, granularity, granularity.bucketStart(from), to)) {
+            BigDecimal value = rollup.getLastRate();
+            if (quote != null) {
+                BigDecimal quoteClose = quoteCloses.get(rollup.getBucketStart());
+                if (quoteClose == null || quoteClose.signum() == 0) {
+                    continue;
+                }
+                value = value.divide(quoteClose, RollupStats.RATE_SCALE, RoundingMode.HALF_UP);
+            }
+            dates.add(rollup.getLastDate());
+            values.add(value.doubleValue());
+        }
+
+        double[] x = new double[dates.size()];
+        double[] y = new double[values.size()];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = dates.get(i).toEpochDay();
+            y[i] = values.get(i);
+        }
+        int[] selected = method == Method.MINMAX ? Downsampling.minMax(y, points) : Downsampling.lttb(x, y, points);
+
+        List<LocalDate> selectedDates = new ArrayList<>(selected.length);
+        List<Double> selectedValues = new ArrayList<>(selected.length);
+        for (int index : selected) {
+            selectedDates.add(dates.get(index));
+            selectedValues.add(values.get(index));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("base", base);
+        if (quote != null) {
+            result.put("quote", quote);
+        }
+        result.put("from", from);
+        result.put("to", to);
+        result.put("granularity", granularity);
+        result.put("method", method);
+        result.put("sourcePoints", x.length);
+        result.put("dates", selectedDates);
+        result.put("values", selectedValues);
+        return result;
+    }
+
+    private Map<LocalDate, BigDecimal> closes(Integer currencyId, Granularity granularity, LocalDate from, LocalDate to) {
+        Map<LocalDate, BigDecimal> closes = new HashMap<>();
+        for (RateRollup rollup : rollupRepository.findRange(currencyId, granularity, granularity.bucketStart(from), to)) {
+            closes.put(rollup.getBucketStart(), rollup.getLastRate());
+        }
+        return closes;
+    }
+
+    static Granularity granularityFor(LocalDate from, LocalDate to, long maxBuckets) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days <= maxBuckets) {
+            return Granularity.DAY;
+        }
+        if (ChronoUnit.WEEKS.between(from, to) + 2 <= maxBuckets) {
+            return Granularity.WEEK;
+        }
+        if (ChronoUnit.MONTHS.between(from, to) + 2 <= maxBuckets) {
+            return Granularity.MONTH;
+        }
+        return Granularity.YEAR;
+    }
+}
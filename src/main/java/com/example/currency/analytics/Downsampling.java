@@ -0,0 +1,112 @@
+package com.example.currency.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Shape-preserving point selection for charts. Both methods return indices into the input in
+ * ascending order and always keep the first and last point.
+ */
+public final class Downsampling {
+
+    private Downsampling() {
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets: from each bucket keeps the point forming the largest triangle
+     * with the previously kept point and the average of the next bucket.
+     */
+    public static int[] lttb(double[] x, double[] y, int threshold) {
+        if (threshold < 3) {
+            throw new IllegalArgumentException("LTTB needs at least 3 points, got " + threshold);
+        }
+        int n = x.length;
+        if (threshold >= n) {
+            return all(n);
+        }
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        selected[0] = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        selected[threshold - 1] = n - 1;
+        return selected;
+    }
+
+    /**
+     * Splits the points into {@code (threshold - 2) / 2} buckets and keeps the minimum and maximum of
+     * each, so every peak and trough survives.
+     */
+    public static int[] minMax(double[] y, int threshold) {
+        if (threshold < 4) {
+            throw new IllegalArgumentException("Min/max downsampling needs at least 4 points, got " + threshold);
+        }
+        int n = y.length;
+        if (threshold >= n) {
+            return all(n);
+        }
+        int buckets = (threshold - 2) / 2;
+        int[] selected = new int[buckets * 2 + 2];
+        int count = 0;
+        selected[count++] = 0;
+        double bucketSize = (double) n / buckets;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize);
+            int end = Math.min((int) Math.floor((bucket + 1) * bucketSize), n);
+            int min = start;
+            int max = start;
+            for (int i = start + 1; i < end; i++) {
+                if (y[i] < y[min]) {
+                    min = i;
+                }
+                if (y[i] > y[max]) {
+                    max = i;
+                }
+            }
+            int first = Math.min(min, max);
+            int second = Math.max(min, max);
+            if (first > selected[count - 1]) {
+                selected[count++] = first;
+            }
+            if (second > selected[count - 1]) {
+                selected[count++] = second;
+            }
+        }
+        if (selected[count - 1] != n - 1) {
+            selected[count++] = n - 1;
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private static int[] all(int n) {
+        int[] indices = new int[n];
+        Arrays.setAll(indices, i -> i);
+        return indices;
+    }
+}
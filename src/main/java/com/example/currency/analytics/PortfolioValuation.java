@@ -0,0 +1,183 @@
+package com.example.currency.analytics;
+
+import com.example.currency.history.RateSeries;
+import com.example.currency.service.ConversionArithmetic;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Value of fixed holdings in a base currency on every weekday of a range. Each holding is
+ * converted as {@code /convert} on that date would, using the rate in force (published that day or
+ * carried forward from the latest earlier day), and the results are summed in hundredths. Days
+ * before every currency has a rate are left out. A chunk walks each rate series with a cursor, so
+ * valuing a range costs one pass over the days and the rates inside it.
+ */
+public final class PortfolioValuation {
+
+    private static final long ONE_PER_UNIT = 1_000_000L;
+
+    /**
+     * Values of the weekdays of a date range, the first {@code length} entries being used.
+     */
+    public record Chunk(int[] days, long[] values, int length) {
+    }
+
+    private final RateSeries[] series;
+    private final BigDecimal[] amounts;
+    private final long[] unscaledAmounts;
+    private final int[] amountScales;
+    private final boolean[] fitsLong;
+    private final RateSeries base;
+
+    /**
+     * @param base the base currency's series, or null when values are in BYN
+     */
+    public PortfolioValuation(List<RateSeries> series, List<BigDecimal> amounts, RateSeries base) {
+        if (series.size() != amounts.size()) {
+            throw new IllegalArgumentException("One amount per series expected");
+        }
+        this.series = series.toArray(new RateSeries[0]);
+        this.amounts = amounts.toArray(new BigDecimal[0]);
+        this.unscaledAmounts = new long[this.amounts.length];
+        this.amountScales = new int[this.amounts.length];
+        this.fitsLong = new boolean[this.amounts.length];
+        for (int i = 0; i < this.amounts.length; i++) {
+            fitsLong[i] = this.amounts[i].unscaledValue().bitLength() < Long.SIZE;
+            unscaledAmounts[i] = this.amounts[i].unscaledValue().longValue();
+            amountScales[i] = this.amounts[i].scale();
+        }
+        this.base = base;
+    }
+
+    /**
+     * Whether every day's value fits the {@code long} hundredths of a {@link Chunk}. The bound takes
+     * each holding at its highest rate and the base at its lowest, plus a hundredth of rounding per
+     * holding, so a range that passes cannot overflow while it is valued.
+     */
+    public boolean fitsChunk() {
+        BigDecimal baseLow = BigDecimal.ONE;
+        if (base != null) {
+            long lowest = Long.MAX_VALUE;
+            for (int i = 0; i < base.size(); i++) {
+                lowest = Math.min(lowest, base.scaledRate(i));
+            }
+            if (lowest <= 0) {
+                return false;
+            }
+            baseLow = BigDecimal.valueOf(lowest, RateSeries.RATE_SCALE);
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < series.length; i++) {
+            long highest = 0;
+            for (int j = 0; j < series[i].size(); j++) {
+                highest = Math.max(highest, Math.abs(series[i].scaledRate(j)));
+            }
+            total = total.add(amounts[i].abs().multiply(BigDecimal.valueOf(highest, RateSeries.RATE_SCALE)));
+        }
+        BigDecimal hundredths = total.movePointRight(2).divide(baseLow, 0, RoundingMode.CEILING)
+                .add(BigDecimal.valueOf(series.length));
+        return hundredths.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) <= 0;
+    }
+
+    /**
+     * First date on which every currency has a rate, or null when one of them has none.
+     */
+    public LocalDate firstValuedDate() {
+        int first = base != null ? firstDay(base) : Integer.MIN_VALUE;
+        for (RateSeries holding : series) {
+            first = Math.max(first, firstDay(holding));
+        }
+        return first == Integer.MAX_VALUE ? null : first == Integer.MIN_VALUE ? LocalDate.MIN : LocalDate.ofEpochDay(first);
+    }
+
+    public Chunk value(LocalDate from, LocalDate to) {
+        int start = (int) from.toEpochDay();
+        int end = (int) to.toEpochDay();
+        int[] cursors = new int[series.length];
+        for (int i = 0; i < series.length; i++) {
+            cursors[i] = series[i].floorIndex(from);
+        }
+        int baseCursor = base != null ? base.floorIndex(from) : 0;
+        int capacity = Math.max(0, end - start + 1);
+        int[] days = new int[capacity];
+        long[] values = new long[capacity];
+        int length = 0;
+        for (int day = start; day <= end; day++) {
+            if (Math.floorMod(day + 3, 7) >= 5) {
+                continue;
+            }
+            long basePerUnit = ONE_PER_UNIT;
+            if (base != null) {
+                baseCursor = advance(base, baseCursor, day);
+                if (baseCursor < 0) {
+                    continue;
+                }
+                basePerUnit = base.scaledRate(baseCursor);
+            }
+            long total = 0;
+            boolean complete = true;
+            for (int i = 0; i < series.length; i++) {
+                cursors[i] = advance(series[i], cursors[i], day);
+                if (cursors[i] < 0) {
+                    complete = false;
+                    break;
+                }
+                total = Math.addExact(total, convert(i, series[i].scaledRate(cursors[i]), basePerUnit));
+            }
+            if (complete) {
+                days[length] = day;
+                values[length] = total;
+                length++;
+            }
+        }
+        return new Chunk(days, values, length);
+    }
+
+    /**
+     * Splits the range into chunks of {@code chunkDays} calendar days and submits each to the pool;
+     * the tasks are returned in date order, so joining them in turn yields the series in order
+     * while later chunks are still running.
+     */
+    public List<ForkJoinTask<Chunk>> fork(ForkJoinPool pool, LocalDate from, LocalDate to, int chunkDays) {
+        List<ForkJoinTask<Chunk>> chunks = new ArrayList<>();
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(chunkDays)) {
+            LocalDate chunkFrom = start;
+            LocalDate chunkTo = start.plusDays(chunkDays - 1L).isAfter(to) ? to : start.plusDays(chunkDays - 1L);
+            chunks.add(pool.submit(() -> value(chunkFrom, chunkTo)));
+        }
+        return chunks;
+    }
+
+    private long convert(int holding, long fromPerUnit, long toPerUnit) {
+        if (fitsLong[holding]) {
+            try {
+                return ConversionArithmetic.convertPerUnit(unscaledAmounts[holding], amountScales[holding], fromPerUnit, toPerUnit);
+            } catch (ArithmeticException e) {
+                // Falls through to the reference.
+            }
+        }
+        return ConversionArithmetic.convertExact(amounts[holding],
+                BigDecimal.valueOf(fromPerUnit, RateSeries.RATE_SCALE), 1,
+                BigDecimal.valueOf(toPerUnit, RateSeries.RATE_SCALE), 1).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Moves a cursor to the latest rate on or before {@code day}; -1 while the series starts later.
+     */
+    private static int advance(RateSeries rates, int index, int day) {
+        while (index + 1 < rates.size() && rates.epochDay(index + 1) <= day) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int firstDay(RateSeries rates) {
+        return rates.isEmpty() ? Integer.MAX_VALUE : rates.epochDay(0);
+    }
+}
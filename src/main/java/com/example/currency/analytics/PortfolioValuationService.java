@@ -0,0 +1,192 @@
+package com.example.currency.analytics;
+
+import com.example.currency.history.RateHistoryStore;
+import com.example.currency.history.RateSeries;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Portfolio time series over {@link RateHistoryStore}: a request is validated and resolved to rate
+ * series up front, then valued in {@code analytics.valuation.chunk-days} chunks on a dedicated
+ * fork-join pool and written out as JSON chunk by chunk, in date order, as the chunks complete.
+ */
+@Service
+public class PortfolioValuationService implements MetricsSource {
+
+    public record Holding(Integer curId, BigDecimal amount) {
+    }
+
+    /**
+     * @param base the currency values are expressed in; BYN when null
+     */
+    public record Request(List<Holding> holdings, Integer base, LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * A validated request ready to be written.
+     */
+    public record Prepared(Request request, PortfolioValuation valuation, LocalDate from, LocalDate to, int holdings) {
+    }
+
+    private final RateHistoryStore rateHistory;
+    private final ObjectMapper objectMapper;
+    private final ForkJoinPool pool;
+    private final int chunkDays;
+    private final int maxHoldings;
+    private final long maxDays;
+
+    private final LongAdder valuations = new LongAdder();
+    private final LongAdder valuedDays = new LongAdder();
+    private volatile long lastValuationNanos;
+
+    @Autowired
+    public PortfolioValuationService(
+            RateHistoryStore rateHistory,
+            ObjectMapper objectMapper,
+            @Value("${analytics.valuation.parallelism:0}") int parallelism,
+            @Value("${analytics.valuation.chunk-days:366}") int chunkDays,
+            @Value("${analytics.valuation.max-holdings:200}") int maxHoldings,
+            @Value("${analytics.valuation.max-days:36600}") long maxDays
+    ) {
+        this.rateHistory = rateHistory;
+        this.objectMapper = objectMapper;
+        this.chunkDays = chunkDays;
+        this.maxHoldings = maxHoldings;
+        this.maxDays = maxDays;
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                forkJoinPool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                    thread.setName("valuation-" + threads.incrementAndGet());
+                    return thread;
+                }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Checks the request and looks up the rate series, so every error is reported before the
+     * response starts.
+     *
+     * @throws IllegalArgumentException if the request is incomplete, too large, names a currency without
+     *                                  rates or could be worth more than a value can hold
+     */
+    public Prepared prepare(Request request) {
+        if (request == null || request.holdings() == null || request.holdings().isEmpty()) {
+            throw new IllegalArgumentException("At least one holding is required");
+        }
+        if (request.holdings().size() > maxHoldings) {
+            throw new IllegalArgumentException("At most " + maxHoldings + " holdings are allowed");
+        }
+        if (request.from() == null || request.to() == null) {
+            throw new IllegalArgumentException("Both from and to are required");
+        }
+        if (request.from().isAfter(request.to())) {
+            throw new IllegalArgumentException("Range start " + request.from() + " is after its end " + request.to());
+        }
+        if (ChronoUnit.DAYS.between(request.from(), request.to()) + 1 > maxDays) {
+            throw new IllegalArgumentException("Ranges are limited to " + maxDays + " days");
+        }
+        Map<Integer, BigDecimal> amounts = new LinkedHashMap<>();
+        for (Holding holding : request.holdings()) {
+            if (holding == null || holding.curId() == null || holding.amount() == null) {
+                throw new IllegalArgumentException("Every holding needs a curId and an amount");
+            }
+            amounts.merge(holding.curId(), holding.amount(), BigDecimal::add);
+        }
+        List<RateSeries> series = new ArrayList<>(amounts.size());
+        for (Integer curId : amounts.keySet()) {
+            series.add(history(curId));
+        }
+        RateSeries base = request.base() != null ? history(request.base()) : null;
+        PortfolioValuation valuation = new PortfolioValuation(series, new ArrayList<>(amounts.values()), base);
+        if (!valuation.fitsChunk()) {
+            throw new IllegalArgumentException("Holdings are too large to be valued");
+        }
+        LocalDate first = valuation.firstValuedDate();
+        LocalDate from = first.isAfter(request.from()) ? first : request.from();
+        return new Prepared(request, valuation, from, request.to(), amounts.size());
+    }
+
+    public void write(Prepared prepared, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        List<ForkJoinTask<PortfolioValuation.Chunk>> chunks = prepared.from().isAfter(prepared.to())
+                ? List.of()
+                : prepared.valuation().fork(pool, prepared.from(), prepared.to(), chunkDays);
+        int days = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            // The curId of the base currency, null for BYN.
+            json.writeFieldName("base");
+            if (prepared.request().base() != null) {
+                json.writeNumber(prepared.request().base());
+            } else {
+                json.writeNull();
+            }
+            json.writeStringField("from", prepared.request().from().toString());
+            json.writeStringField("to", prepared.request().to().toString());
+            json.writeNumberField("holdings", prepared.holdings());
+            json.writeArrayFieldStart("values");
+            for (ForkJoinTask<PortfolioValuation.Chunk> task : chunks) {
+                PortfolioValuation.Chunk chunk = task.join();
+                for (int i = 0; i < chunk.length(); i++) {
+                    json.writeStartObject();
+                    json.writeStringField("date", LocalDate.ofEpochDay(chunk.days()[i]).toString());
+                    json.writeNumberField("value", BigDecimal.valueOf(chunk.values()[i], 2));
+                    json.writeEndObject();
+                }
+                days += chunk.length();
+                json.flush();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        } finally {
+            chunks.forEach(task -> task.cancel(false));
+        }
+        valuations.increment();
+        valuedDays.add(days);
+        lastValuationNanos = System.nanoTime() - start;
+    }
+
+    private RateSeries history(Integer curId) {
+        RateSeries series = rateHistory.history(curId);
+        if (series.isEmpty()) {
+            throw new IllegalArgumentException("No rates for currency " + curId);
+        }
+        return series;
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("portfolio_valuations_total", "counter", "Portfolio valuations written");
+        writer.sample("portfolio_valuations_total", valuations.sum());
+        writer.metric("portfolio_valued_days_total", "counter", "Days valued across all portfolio valuations");
+        writer.sample("portfolio_valued_days_total", valuedDays.sum());
+        writer.metric("portfolio_valuation_seconds", "gauge", "Duration of the last portfolio valuation, writing included");
+        writer.sample("portfolio_valuation_seconds", lastValuationNanos / 1e9);
+    }
+}
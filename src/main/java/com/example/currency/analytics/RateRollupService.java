@@ -0,0 +1,356 @@
+package com.example.currency.analytics;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.models.RateRollup;
+import com.example.currency.models.RateRollup.Granularity;
+import com.example.currency.repository.CurrencyRateRepository;
+import com.example.currency.repository.RateRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains day, week, month and year rollups of per-unit rates. A rate change recomputes its day
+ * from raw rows, the enclosing week and month from their days and the year from its months, so
+ * each change touches a bounded number of rows. Recomputation runs after the rate transaction
+ * commits, in its own transaction; {@link #rebuild()} restores the tables from raw history.
+ * Range queries are answered by merging the fewest aligned buckets that cover the range.
+ */
+@Service
+public class RateRollupService implements ApplicationRunner, MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(RateRollupService.class);
+
+    public record Bucket(Granularity granularity, LocalDate start) {
+    }
+
+    private record DirtyDay(Integer currencyId, LocalDate date) {
+    }
+
+    private final RateRollupRepository rollupRepository;
+    private final CurrencyRateRepository currencyRateRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStart;
+
+    private final LongAdder recomputes = new LongAdder();
+    private final LongAdder recomputeErrors = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder bucketsRead = new LongAdder();
+    private volatile long lastRebuildNanos;
+
+    @Autowired
+    public RateRollupService(
+            RateRollupRepository rollupRepository,
+            CurrencyRateRepository currencyRateRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${analytics.rollup.rebuild-on-start:true}") boolean rebuildOnStart
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.currencyRateRepository = currencyRateRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildOnStart = rebuildOnStart;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStart && rollupRepository.count() == 0 && currencyRateRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    public void rateChanged(CurrencyInfo currency, LocalDate date) {
+        if (currency == null || currency.getCurId() == null || date == null) {
+            return;
+        }
+        DirtyDay day = new DirtyDay(currency.getCurId(), date);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recomputeSafely(Set.of(day));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<DirtyDay> pending = (Set<DirtyDay>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<DirtyDay> days = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, days);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recomputeSafely(days);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RateRollupService.this);
+                }
+            });
+            pending = days;
+        }
+        pending.add(day);
+    }
+
+    private void recomputeSafely(Set<DirtyDay> days) {
+        for (DirtyDay day : days) {
+            try {
+                try {
+                    recompute(day);
+                } catch (DataIntegrityViolationException e) {
+                    // Another node inserted the same bucket concurrently; its row now exists, so retry once.
+                    recompute(day);
+                }
+            } catch (RuntimeException e) {
+                recomputeErrors.increment();
+                log.warn("Could not update rollups for currency {} on {}: {}", day.currencyId(), day.date(), e.getMessage());
+            }
+        }
+    }
+
+    private void recompute(DirtyDay day) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Integer currencyId = day.currencyId();
+            LocalDate date = day.date();
+            RollupStats dayStats = RollupStats.empty();
+            for (CurrencyRate rate : currencyRateRepository.findByCurrencyIdAndDate(currencyId, date)) {
+                if (rate.getCurOfficialRate() != null) {
+                    dayStats.merge(RollupStats.of(date, RollupStats.perUnit(rate.getCurOfficialRate(), rate.getCurScale())));
+                }
+            }
+            store(currencyId, Granularity.DAY, date, dayStats);
+            store(currencyId, Granularity.WEEK, Granularity.WEEK.bucketStart(date),
+                    mergeStored(currencyId, Granularity.DAY, Granularity.WEEK, date));
+            store(currencyId, Granularity.MONTH, Granularity.MONTH.bucketStart(date),
+                    mergeStored(currencyId, Granularity.DAY, Granularity.MONTH, date));
+            store(currencyId, Granularity.YEAR, Granularity.YEAR.bucketStart(date),
+                    mergeStored(currencyId, Granularity.MONTH, Granularity.YEAR, date));
+        });
+        recomputes.increment();
+    }
+
+    private RollupStats mergeStored(Integer currencyId, Granularity child, Granularity parent, LocalDate date) {
+        LocalDate start = parent.bucketStart(date);
+        RollupStats stats = RollupStats.empty();
+        for (RateRollup rollup : rollupRepository.findRange(currencyId, child, start, parent.bucketEnd(start))) {
+            stats.merge(RollupStats.from(rollup));
+        }
+        return stats;
+    }
+
+    private void store(Integer currencyId, Granularity granularity, LocalDate start, RollupStats stats) {
+        RateRollup rollup = rollupRepository.findByCurrencyIdAndGranularityAndBucketStart(currencyId, granularity, start)
+                .orElse(null);
+        if (stats.isEmpty()) {
+            if (rollup != null) {
+                rollupRepository.delete(rollup);
+            }
+            return;
+        }
+        if (rollup == null) {
+            rollup = new RateRollup();
+            rollup.setCurrencyId(currencyId);
+            rollup.setGranularity(granularity);
+            rollup.setBucketStart(start);
+        }
+        stats.applyTo(rollup);
+        rollupRepository.save(rollup);
+    }
+
+    public int rebuild() {
+        long start = System.nanoTime();
+        Integer written = transactionTemplate.execute(status -> {
+            rollupRepository.deleteAllInBatch();
+            Map<Integer, TreeMap<LocalDate, RollupStats>> days = new LinkedHashMap<>();
+            for (Object[] row : currencyRateRepository.findAllRateValuesOrdered()) {
+                if (row[0] == null || row[2] == null) {
+                    continue;
+                }
+                LocalDate date = (LocalDate) row[1];
+                BigDecimal rate = RollupStats.perUnit((BigDecimal) row[2], (Integer) row[3]);
+                days.computeIfAbsent((Integer) row[0], id -> new TreeMap<>())
+                        .computeIfAbsent(date, d -> RollupStats.empty())
+                        .merge(RollupStats.of(date, rate));
+            }
+            List<RateRollup> rollups = new ArrayList<>();
+            days.forEach((currencyId, byDay) -> {
+                Map<Granularity, Map<LocalDate, RollupStats>> buckets = new EnumMap<>(Granularity.class);
+                byDay.forEach((date, stats) -> {
+                    for (Granularity granularity : Granularity.values()) {
+                        buckets.computeIfAbsent(granularity, g -> new LinkedHashMap<>())
+                                .computeIfAbsent(granularity.bucketStart(date), d -> RollupStats.empty())
+                                .merge(stats);
+                    }
+                });
+                buckets.forEach((granularity, byStart) -> byStart.forEach((bucketStart, stats) -> {
+                    RateRollup rollup = new RateRollup();
+                    rollup.setCurrencyId(currencyId);
+                    rollup.setGranularity(granularity);
+                    rollup.setBucketStart(bucketStart);
+                    stats.applyTo(rollup);
+                    rollups.add(rollup);
+                }));
+            });
+            rollupRepository.saveAll(rollups);
+            return rollups.size();
+        });
+        lastRebuildNanos = System.nanoTime() - start;
+        log.info("Rebuilt {} rate rollups in {} ms", written, TimeUnit.NANOSECONDS.toMillis(lastRebuildNanos));
+        return written == null ? 0 : written;
+    }
+
+    /**
+     * Covers {@code [from, to]} with aligned buckets: whole years first, then whole months in the
+     * remaining head and tail, then weeks and days. Any range needs at most a few dozen buckets.
+     */
+    public static List<Bucket> plan(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+        }
+        List<Bucket> buckets = new ArrayList<>();
+        cover(from, to, Granularity.YEAR, buckets);
+        return buckets;
+    }
+
+    private static void cover(LocalDate from, LocalDate to, Granularity granularity, List<Bucket> buckets) {
+        if (from.isAfter(to)) {
+            return;
+        }
+        if (granularity == Granularity.DAY) {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                buckets.add(new Bucket(Granularity.DAY, day));
+            }
+            return;
+        }
+        Granularity finer = Granularity.values()[granularity.ordinal() - 1];
+        LocalDate first = granularity.bucketStart(from).equals(from)
+                ? from
+                : granularity.bucketEnd(granularity.bucketStart(from)).plusDays(1);
+        LocalDate next = first;
+        while (!granularity.bucketEnd(next).isAfter(to)) {
+            next = granularity.bucketEnd(next).plusDays(1);
+        }
+        if (next.equals(first)) {
+            cover(from, to, finer, buckets);
+            return;
+        }
+        cover(from, first.minusDays(1), finer, buckets);
+        for (LocalDate start = first; start.isBefore(next); start = granularity.bucketEnd(start).plusDays(1)) {
+            buckets.add(new Bucket(granularity, start));
+        }
+        cover(next, to, finer, buckets);
+    }
+
+    public RollupStats rangeStats(Integer currencyId, LocalDate from, LocalDate to) {
+        List<Bucket> plan = plan(from, to);
+        Map<Granularity, List<LocalDate>> starts = new EnumMap<>(Granularity.class);
+        for (Bucket bucket : plan) {
+            starts.computeIfAbsent(bucket.granularity(), g -> new ArrayList<>()).add(bucket.start());
+        }
+        Map<Bucket, RateRollup> stored = new HashMap<>();
+        starts.forEach((granularity, dates) -> {
+            for (RateRollup rollup : rollupRepository.findByCurrencyIdAndGranularityAndBucketStartIn(
+                    currencyId, granularity, dates)) {
+                stored.put(new Bucket(granularity, rollup.getBucketStart()), rollup);
+            }
+        });
+        queries.increment();
+        bucketsRead.add(stored.size());
+
+        RollupStats stats = RollupStats.empty();
+        for (Bucket bucket : plan) {
+            RateRollup rollup = stored.get(bucket);
+            if (rollup != null) {
+                stats.merge(RollupStats.from(rollup));
+            }
+        }
+        return stats;
+    }
+
+    public List<Map<String, Object>> series(Integer currencyId, Granularity granularity, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+        }
+        List<RateRollup> rollups = rollupRepository.findRange(currencyId, granularity, granularity.bucketStart(from), to);
+        queries.increment();
+        bucketsRead.add(rollups.size());
+        List<Map<String, Object>> series = new ArrayList<>(rollups.size());
+        for (RateRollup rollup : rollups) {
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("bucketStart", rollup.getBucketStart());
+            point.putAll(RollupStats.from(rollup).toSummary());
+            series.add(point);
+        }
+        return series;
+    }
+
+    /**
+     * Cross-rate statistics of {@code base} priced in {@code quote}. Open and close are exact cross
+     * rates at the first and last samples; the average is the ratio of the two averages.
+     */
+    public Map<String, Object> pairStats(Integer base, Integer quote, LocalDate from, LocalDate to) {
+        RollupStats baseStats = rangeStats(base, from, to);
+        RollupStats quoteStats = rangeStats(quote, from, to);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("base", base);
+        result.put("quote", quote);
+        result.put("from", from);
+        result.put("to", to);
+        if (!baseStats.isEmpty() && !quoteStats.isEmpty()) {
+            BigDecimal open = ratio(baseStats.getFirstRate(), quoteStats.getFirstRate());
+            BigDecimal close = ratio(baseStats.getLastRate(), quoteStats.getLastRate());
+            result.put("open", open);
+            result.put("close", close);
+            result.put("changePercent", open == null || close == null ? null : RollupStats.percentChange(open, close));
+            result.put("averageRatio", ratio(baseStats.getAverage(), quoteStats.getAverage()));
+        }
+        result.put("baseStats", baseStats.toSummary());
+        result.put("quoteStats", quoteStats.toSummary());
+        return result;
+    }
+
+    private static BigDecimal ratio(BigDecimal numerator, BigDecimal denominator) {
+        if (denominator.signum() == 0) {
+            return null;
+        }
+        return numerator.divide(denominator, RollupStats.RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("analytics_rollup_recomputes_total", "counter", "Rate days whose rollups were recomputed");
+        writer.sample("analytics_rollup_recomputes_total", recomputes.sum());
+        writer.metric("analytics_rollup_errors_total", "counter", "Rollup recomputations that failed");
+        writer.sample("analytics_rollup_errors_total", recomputeErrors.sum());
+        writer.metric("analytics_queries_total", "counter", "Analytics range queries served from rollups");
+        writer.sample("analytics_queries_total", queries.sum());
+        writer.metric("analytics_buckets_read_total", "counter", "Rollup rows read by analytics queries");
+        writer.sample("analytics_buckets_read_total", bucketsRead.sum());
+        writer.metric("analytics_rebuild_seconds", "gauge", "Duration of the last full rollup rebuild");
+        writer.sample("analytics_rebuild_seconds", lastRebuildNanos / 1e9);
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.currency.analytics;
+
+import com.example.currency.models.RateRollup;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mergeable summary of per-unit rates over a date range. Every field combines associatively, so
+ * the statistics of a range are the merge of its buckets in date order. Log returns between
+ * consecutive samples are kept as sums; merging adds the one return across the bucket boundary.
+ */
+public final class RollupStats {
+
+    public static final int RATE_SCALE = 6;
+
+    private long count;
+    private BigDecimal sum = BigDecimal.ZERO;
+    private BigDecimal sumSquares = BigDecimal.ZERO;
+    private BigDecimal min;
+    private BigDecimal max;
+    private LocalDate firstDate;
+    private BigDecimal firstRate;
+    private LocalDate lastDate;
+    private BigDecimal lastRate;
+    private long returnCount;
+    private double logReturnSum;
+    private double logReturnSumSquares;
+
+    public static RollupStats empty() {
+        return new RollupStats();
+    }
+
+    public static RollupStats of(LocalDate date, BigDecimal rate) {
+        RollupStats stats = new RollupStats();
+        stats.count = 1;
+        stats.sum = rate;
+        stats.sumSquares = rate.multiply(rate);
+        stats.min = rate;
+        stats.max = rate;
+        stats.firstDate = date;
+        stats.firstRate = rate;
+        stats.lastDate = date;
+        stats.lastRate = rate;
+        return stats;
+    }
+
+    public static BigDecimal perUnit(BigDecimal officialRate, Integer scale) {
+        return officialRate.divide(BigDecimal.valueOf(scale == null || scale == 0 ? 1 : scale),
+                RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    public static RollupStats from(RateRollup rollup) {
+        RollupStats stats = new RollupStats();
+        stats.count = rollup.getCount();
+        stats.sum = rollup.getSum();
+        stats.sumSquares = rollup.getSumSquares();
+        stats.min = rollup.getMin();
+        stats.max = rollup.getMax();
+        stats.firstDate = rollup.getFirstDate();
+        stats.firstRate = rollup.getFirstRate();
+        stats.lastDate = rollup.getLastDate();
+        stats.lastRate = rollup.getLastRate();
+        stats.returnCount = rollup.getReturnCount();
+        stats.logReturnSum = rollup.getLogReturnSum();
+        stats.logReturnSumSquares = rollup.getLogReturnSumSquares();
+        return stats;
+    }
+
+    public void applyTo(RateRollup rollup) {
+        rollup.setCount(count);
+        rollup.setSum(sum);
+        rollup.setSumSquares(sumSquares);
+        rollup.setMin(min);
+        rollup.setMax(max);
+        rollup.setFirstDate(firstDate);
+        rollup.setFirstRate(firstRate);
+        rollup.setLastDate(lastDate);
+        rollup.setLastRate(lastRate);
+        rollup.setReturnCount(returnCount);
+        rollup.setLogReturnSum(logReturnSum);
+        rollup.setLogReturnSumSquares(logReturnSumSquares);
+    }
+
+    /**
+     * Appends {@code next}, which must not start before this summary ends.
+     */
+    public RollupStats merge(RollupStats next) {
+        if (next.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            copyFrom(next);
+            return this;
+        }
+        double boundary = Math.log(next.firstRate.doubleValue() / lastRate.doubleValue());
+        count += next.count;
+        sum = sum.add(next.sum);
+        sumSquares = sumSquares.add(next.sumSquares);
+        min = min.min(next.min);
+        max = max.max(next.max);
+        lastDate = next.lastDate;
+        lastRate = next.lastRate;
+        returnCount += next.returnCount + 1;
+        logReturnSum += next.logReturnSum + boundary;
+        logReturnSumSquares += next.logReturnSumSquares + boundary * boundary;
+        return this;
+    }
+
+    private void copyFrom(RollupStats other) {
+        count = other.count;
+        sum = other.sum;
+        sumSquares = other.sumSquares;
+        min = other.min;
+        max = other.max;
+        firstDate = other.firstDate;
+        firstRate = other.firstRate;
+        lastDate = other.lastDate;
+        lastRate = other.lastRate;
+        returnCount = other.returnCount;
+        logReturnSum = other.logReturnSum;
+        logReturnSumSquares = other.logReturnSumSquares;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    public BigDecimal getMax() {
+        return max;
+    }
+
+    public BigDecimal getFirstRate() {
+        return firstRate;
+    }
+
+    public BigDecimal getLastRate() {
+        return lastRate;
+    }
+
+    public LocalDate getFirstDate() {
+        return firstDate;
+    }
+
+    public LocalDate getLastDate() {
+        return lastDate;
+    }
+
+    public BigDecimal getAverage() {
+        return isEmpty() ? null : sum.divide(BigDecimal.valueOf(count), RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    public BigDecimal getStdDev() {
+        if (isEmpty()) {
+            return null;
+        }
+        BigDecimal n = BigDecimal.valueOf(count);
+        BigDecimal mean = sum.divide(n, MathContext.DECIMAL64);
+        BigDecimal variance = sumSquares.divide(n, MathContext.DECIMAL64).subtract(mean.multiply(mean));
+        if (variance.signum() <= 0) {
+            return BigDecimal.ZERO.setScale(RATE_SCALE);
+        }
+        return variance.sqrt(MathContext.DECIMAL64).setScale(RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Sample standard deviation of log returns between consecutive samples.
+     */
+    public Double getVolatility() {
+        if (returnCount < 2) {
+            return null;
+        }
+        double mean = logReturnSum / returnCount;
+        double variance = (logReturnSumSquares - returnCount * mean * mean) / (returnCount - 1);
+        return Math.sqrt(Math.max(0, variance));
+    }
+
+    public Map<String, Object> toSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        if (isEmpty()) {
+            return summary;
+        }
+        summary.put("firstDate", firstDate);
+        summary.put("lastDate", lastDate);
+        summary.put("open", firstRate);
+        summary.put("close", lastRate);
+        summary.put("min", min);
+        summary.put("max", max);
+        summary.put("average", getAverage());
+        summary.put("stdDev", getStdDev());
+        summary.put("change", lastRate.subtract(firstRate));
+        summary.put("changePercent", percentChange(firstRate, lastRate));
+        summary.put("volatility", getVolatility());
+        return summary;
+    }
+
+    static BigDecimal percentChange(BigDecimal from, BigDecimal to) {
+        if (from.signum() == 0) {
+            return null;
+        }
+        return to.subtract(from).multiply(BigDecimal.valueOf(100)).divide(from, 4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.currency.archive;
+
+import com.example.currency.cache.CurrentDay;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.RateArchiveSegment;
+import com.example.currency.models.RateView;
+import com.example.currency.repository.RateArchiveSegmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold tier of rate storage: the {@code currency_rate_archive} table, holding one gzip-compressed
+ * segment per year and archival run. It lives in the same database as {@code currency_rate}, so
+ * every node reads what the lease holder archived, and a segment is inserted in the transaction
+ * that deletes its rows from the table. A node keeps the last few years it read in memory and
+ * reloads a year when a newer segment appears. Dates from {@link #cutoff()} on are never looked up
+ * here, so current reads do not touch the archive.
+ */
+@Component
+public class RateArchive implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(RateArchive.class);
+
+    private static final int CACHED_YEARS = 4;
+    private static final byte HAS_CURRENCY = 1;
+    private static final byte HAS_RATE = 2;
+    private static final byte HAS_SCALE = 4;
+
+    static final Comparator<RateView> HISTORY_ORDER = Comparator
+            .comparing(RateView::curId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(RateView::date)
+            .thenComparing(RateView::id);
+
+    private final RateArchiveSegmentRepository segments;
+    private final boolean enabled;
+    private final int keepYears;
+
+    private final Map<Integer, CachedYear> cached = new LinkedHashMap<>(8, 0.75f, true);
+    private final LongAdder appendedRates = new LongAdder();
+    private final LongAdder databaseReads = new LongAdder();
+    private final LongAdder cachedReads = new LongAdder();
+
+    /**
+     * Rates of a year as of its segment with the highest id.
+     */
+    private record CachedYear(long lastSegmentId, List<RateView> rates) {
+    }
+
+    @Autowired
+    public RateArchive(
+            RateArchiveSegmentRepository segments,
+            @Value("${rates.archive.enabled:false}") boolean enabled,
+            @Value("${rates.archive.keep-years:2}") int keepYears
+    ) {
+        this.segments = segments;
+        this.enabled = enabled;
+        this.keepYears = keepYears;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * First day kept in the database: January 1st, {@code rates.archive.keep-years} years back.
+     */
+    public LocalDate cutoff() {
+        return LocalDate.of(CurrentDay.date().getYear() - keepYears, 1, 1);
+    }
+
+    /**
+     * Whether rates of the date may be in the archive.
+     */
+    public boolean isArchived(LocalDate date) {
+        return enabled && date != null && date.isBefore(cutoff());
+    }
+
+    public List<Integer> years() {
+        return enabled ? segments.findYears() : List.of();
+    }
+
+    /**
+     * Archived rates of a year, one per id, in currency, date and id order.
+     */
+    public synchronized List<RateView> read(int year) {
+        Long lastSegmentId = segments.findLastIdByYear(year);
+        if (lastSegmentId == null) {
+            cached.remove(year);
+            return List.of();
+        }
+        CachedYear entry = cached.get(year);
+        if (entry != null && entry.lastSegmentId() == lastSegmentId) {
+            cachedReads.increment();
+            return entry.rates();
+        }
+        List<RateView> rates = new ArrayList<>();
+        long lastId = 0;
+        for (RateArchiveSegment segment : segments.findByYearOrderById(year)) {
+            rates.addAll(decode(segment.getRates(), segment.getRateCount()));
+            lastId = segment.getId();
+        }
+        rates = distinct(rates);
+        databaseReads.increment();
+        cached.put(year, new CachedYear(lastId, rates));
+        if (cached.size() > CACHED_YEARS) {
+            cached.remove(cached.keySet().iterator().next());
+        }
+        return rates;
+    }
+
+    public List<RateView> onDate(LocalDate date) {
+        if (!isArchived(date)) {
+            return List.of();
+        }
+        return read(date.getYear()).stream().filter(rate -> rate.date().equals(date)).toList();
+    }
+
+    /**
+     * Every archived rate in currency, date and id order.
+     */
+    public List<RateView> all() {
+        List<RateView> rates = new ArrayList<>();
+        for (int year : years()) {
+            rates.addAll(read(year));
+        }
+        rates.sort(HISTORY_ORDER);
+        return rates;
+    }
+
+    /**
+     * Stores the rates as a new segment of the year. Runs in the caller's transaction, which should
+     * also delete the rates from {@code currency_rate}.
+     */
+    public void append(int year, List<RateView> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        RateArchiveSegment segment = new RateArchiveSegment();
+        segment.setYear(year);
+        segment.setRateCount(rates.size());
+        segment.setRates(encode(rates));
+        segments.save(segment);
+        appendedRates.add(rates.size());
+        log.info("Archived {} rates of {} in a {} byte segment", rates.size(), year, segment.getRates().length);
+    }
+
+    static byte[] encode(List<RateView> rates) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(compressed))) {
+            for (RateView rate : rates) {
+                byte flags = 0;
+                flags |= rate.curId() != null ? HAS_CURRENCY : 0;
+                flags |= rate.curOfficialRate() != null ? HAS_RATE : 0;
+                flags |= rate.curScale() != null ? HAS_SCALE : 0;
+                out.writeInt(rate.id());
+                out.writeInt((int) rate.date().toEpochDay());
+                out.writeByte(flags);
+                if (rate.curId() != null) {
+                    out.writeInt(rate.curId());
+                }
+                if (rate.curOfficialRate() != null) {
+                    out.writeUTF(rate.curOfficialRate().toString());
+                }
+                if (rate.curScale() != null) {
+                    out.writeInt(rate.curScale());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    static List<RateView> decode(byte[] segment, int count) {
+        List<RateView> rates = new ArrayList<>(count);
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(segment)))) {
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                LocalDate date = LocalDate.ofEpochDay(in.readInt());
+                byte flags = in.readByte();
+                Integer curId = (flags & HAS_CURRENCY) != 0 ? in.readInt() : null;
+                BigDecimal rate = (flags & HAS_RATE) != 0 ? new BigDecimal(in.readUTF()) : null;
+                Integer scale = (flags & HAS_SCALE) != 0 ? in.readInt() : null;
+                rates.add(new RateView(id, curId, date, rate, scale));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt rate archive segment", e);
+        }
+        return rates;
+    }
+
+    private static List<RateView> distinct(List<RateView> rates) {
+        Map<Integer, RateView> byId = new LinkedHashMap<>();
+        for (RateView rate : rates) {
+            byId.put(rate.id(), rate);
+        }
+        List<RateView> result = new ArrayList<>(byId.values());
+        result.sort(HISTORY_ORDER);
+        return List.copyOf(result);
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("rates_archive_appended_total", "counter", "Rates appended to the archive by this node");
+        writer.sample("rates_archive_appended_total", appendedRates.sum());
+        writer.metric("rates_archive_reads_total", "counter", "Archive year lookups by source");
+        writer.sample("rates_archive_reads_total", databaseReads.sum(), "source", "database");
+        writer.sample("rates_archive_reads_total", cachedReads.sum(), "source", "memory");
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.currency.archive;
+
+import com.example.currency.coordination.LeaderElection;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.RateView;
+import com.example.currency.repository.CurrencyRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves rates dated before {@link RateArchive#cutoff()} out of {@code currency_rate}, one year at a
+ * time: one transaction appends the year's rates to the archive and deletes them by id, so every
+ * node finds a rate in exactly one of the two, and a rate inserted for that year meanwhile stays for
+ * the next run. Runs on the {@link LeaderElection} lease holder. Reads see the same rates before and
+ * after a run, so no cache is invalidated; a currency's {@code rates} collection only holds rates
+ * still in the table.
+ */
+@Component
+public class RateArchiver implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(RateArchiver.class);
+
+    private static final int DELETE_BATCH = 1000;
+
+    private final CurrencyRateRepository currencyRateRepository;
+    private final RateArchive archive;
+    private final RatePartitionManager partitions;
+    private final LeaderElection leaderElection;
+    private final TransactionTemplate transaction;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder moved = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lastRunMillis;
+
+    @Autowired
+    public RateArchiver(
+            CurrencyRateRepository currencyRateRepository,
+            RateArchive archive,
+            RatePartitionManager partitions,
+            LeaderElection leaderElection,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.currencyRateRepository = currencyRateRepository;
+        this.archive = archive;
+        this.partitions = partitions;
+        this.leaderElection = leaderElection;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${rates.archive.interval-ms:86400000}",
+            initialDelayString = "${rates.archive.initial-delay-ms:60000}")
+    public void scheduledArchive() {
+        if (!archive.isEnabled() || (leaderElection.isEnabled() && !leaderElection.isLeader())) {
+            return;
+        }
+        try {
+            archiveColdYears();
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Rate archival failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of rates moved to the archive
+     */
+    public synchronized int archiveColdYears() {
+        if (!archive.isEnabled()) {
+            return 0;
+        }
+        runs.increment();
+        LocalDate cutoff = archive.cutoff();
+        int total = 0;
+        LocalDate oldest;
+        while ((oldest = currencyRateRepository.findOldestDateBefore(cutoff)) != null) {
+            LocalDate from = oldest;
+            LocalDate end = LocalDate.of(from.getYear() + 1, 1, 1);
+            LocalDate to = end.isBefore(cutoff) ? end : cutoff;
+            int count = transaction.execute(status -> archiveYear(from, to));
+            total += count;
+            moved.add(count);
+        }
+        if (partitions.isEnabled()) {
+            try {
+                partitions.dropEmptyBefore(cutoff);
+            } catch (SQLException e) {
+                log.warn("Could not drop archived rate partitions: {}", e.getMessage());
+            }
+        }
+        lastRunMillis = System.currentTimeMillis();
+        if (total > 0) {
+            log.info("Moved {} rates dated before {} to the archive", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveYear(LocalDate from, LocalDate to) {
+        List<RateView> rates = currencyRateRepository.findViewsBetween(from, to);
+        archive.append(from.getYear(), rates);
+        List<Integer> ids = rates.stream().map(RateView::id).toList();
+        for (int start = 0; start < ids.size(); start += DELETE_BATCH) {
+            currencyRateRepository.deleteByIdIn(ids.subList(start, Math.min(ids.size(), start + DELETE_BATCH)));
+        }
+        return rates.size();
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("rates_archive_runs_total", "counter", "Archival runs on this node");
+        writer.sample("rates_archive_runs_total", runs.sum());
+        writer.metric("rates_archive_moved_total", "counter", "Rates moved from the table to the archive");
+        writer.sample("rates_archive_moved_total", moved.sum());
+        writer.metric("rates_archive_failures_total", "counter", "Archival runs that failed");
+        writer.sample("rates_archive_failures_total", failures.sum());
+        writer.metric("rates_archive_last_run_age_seconds", "gauge", "Seconds since the last completed archival run");
+        writer.sample("rates_archive_last_run_age_seconds",
+                lastRunMillis == 0 ? -1 : (System.currentTimeMillis() - lastRunMillis) / 1000);
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.currency.archive;
+
+import com.example.currency.coordination.LeaderElection;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps {@code currency_rate} range-partitioned by month on MySQL, so lookups for a date prune to
+ * one partition and archived months can be dropped instead of deleted row by row. The first check
+ * after enabling converts an unpartitioned table: it drops the foreign key to {@code currency_info}
+ * (partitioned InnoDB tables cannot have one), widens the primary key to {@code (id, date)} and
+ * rebuilds the table, which blocks writes for the duration of the copy. The mapping keeps the
+ * foreign key for unpartitioned deployments, so after conversion Hibernate's schema update logs a
+ * warning when it fails to add it back. Later checks create {@code rates.partitioning.months-ahead}
+ * months in advance. Other databases are left as they are.
+ */
+@Component
+public class RatePartitionManager implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(RatePartitionManager.class);
+
+    private static final String PARTITIONS = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '" + RatePartitions.TABLE + "' "
+            + "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION";
+    private static final String FOREIGN_KEYS = "SELECT CONSTRAINT_NAME FROM information_schema.REFERENTIAL_CONSTRAINTS "
+            + "WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = '" + RatePartitions.TABLE + "'";
+
+    private final DataSource dataSource;
+    private final LeaderElection leaderElection;
+    private final boolean enabled;
+    private final int monthsAhead;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private volatile int partitionCount;
+    private volatile boolean unsupportedLogged;
+
+    @Autowired
+    public RatePartitionManager(
+            DataSource dataSource,
+            LeaderElection leaderElection,
+            @Value("${rates.partitioning.enabled:false}") boolean enabled,
+            @Value("${rates.partitioning.months-ahead:3}") int monthsAhead
+    ) {
+        this.dataSource = dataSource;
+        this.leaderElection = leaderElection;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${rates.partitioning.check-interval-ms:3600000}",
+            initialDelayString = "${rates.partitioning.initial-delay-ms:30000}")
+    public void check() {
+        if (!enabled || (leaderElection.isEnabled() && !leaderElection.isLeader())) {
+            return;
+        }
+        try {
+            maintain();
+        } catch (SQLException | RuntimeException e) {
+            errors.increment();
+            log.warn("Rate partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void maintain() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!supported(connection)) {
+                return;
+            }
+            YearMonth through = YearMonth.now().plusMonths(monthsAhead);
+            List<RatePartitions.Partition> existing = partitions(connection);
+            if (existing.isEmpty()) {
+                convert(connection, through);
+                return;
+            }
+            Optional<String> rollover = RatePartitions.rollover(existing, through);
+            if (rollover.isPresent()) {
+                execute(connection, rollover.get());
+                int before = existing.size();
+                existing = partitions(connection);
+                created.add(existing.size() - before);
+                log.info("Created rate partitions through {}", through);
+            }
+            partitionCount = existing.size();
+        }
+    }
+
+    /**
+     * Drops the empty partitions that hold only dates before {@code cutoff}. Rows dated inside a
+     * dropped range later land in the next partition up.
+     *
+     * @return the number of partitions dropped
+     */
+    public synchronized int dropEmptyBefore(LocalDate cutoff) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!supported(connection)) {
+                return 0;
+            }
+            List<String> empty = new ArrayList<>();
+            for (String name : RatePartitions.before(partitions(connection), cutoff)) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet resultSet = statement.executeQuery(
+                             "SELECT 1 FROM " + RatePartitions.TABLE + " PARTITION (" + name + ") LIMIT 1")) {
+                    if (!resultSet.next()) {
+                        empty.add(name);
+                    }
+                }
+            }
+            if (!empty.isEmpty()) {
+                execute(connection, "ALTER TABLE " + RatePartitions.TABLE + " DROP PARTITION " + String.join(", ", empty));
+                dropped.add(empty.size());
+                partitionCount = partitions(connection).size();
+                log.info("Dropped {} archived rate partitions before {}", empty.size(), cutoff);
+            }
+            return empty.size();
+        }
+    }
+
+    private void convert(Connection connection, YearMonth through) throws SQLException {
+        long undated = queryLong(connection, "SELECT COUNT(*) FROM " + RatePartitions.TABLE + " WHERE `date` IS NULL");
+        if (undated > 0) {
+            throw new IllegalStateException(undated + " rates have no date; they cannot be placed in a partition");
+        }
+        LocalDate oldest;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MIN(`date`) FROM " + RatePartitions.TABLE)) {
+            resultSet.next();
+            Date min = resultSet.getDate(1);
+            oldest = min != null ? min.toLocalDate() : LocalDate.now();
+        }
+        log.info("Partitioning {} by month from {} through {}", RatePartitions.TABLE, YearMonth.from(oldest), through);
+        List<String> foreignKeys = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(FOREIGN_KEYS)) {
+            while (resultSet.next()) {
+                foreignKeys.add(resultSet.getString(1));
+            }
+        }
+        for (String foreignKey : foreignKeys) {
+            execute(connection, "ALTER TABLE " + RatePartitions.TABLE + " DROP FOREIGN KEY `" + foreignKey + "`");
+        }
+        execute(connection, "ALTER TABLE " + RatePartitions.TABLE
+                + " MODIFY `date` DATE NOT NULL, DROP PRIMARY KEY, ADD PRIMARY KEY (id, `date`)");
+        execute(connection, RatePartitions.partitionBy(YearMonth.from(oldest), through));
+        partitionCount = partitions(connection).size();
+        created.add(partitionCount);
+    }
+
+    private boolean supported(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        if ("MySQL".equalsIgnoreCase(product)) {
+            return true;
+        }
+        if (!unsupportedLogged) {
+            unsupportedLogged = true;
+            log.info("Rate partitioning is only managed on MySQL, leaving {} on {} unpartitioned",
+                    RatePartitions.TABLE, product);
+        }
+        return false;
+    }
+
+    private List<RatePartitions.Partition> partitions(Connection connection) throws SQLException {
+        List<RatePartitions.Partition> partitions = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PARTITIONS)) {
+            while (resultSet.next()) {
+                partitions.add(new RatePartitions.Partition(resultSet.getString(1),
+                        RatePartitions.parseBound(resultSet.getString(2))));
+            }
+        }
+        return partitions;
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        log.debug("Executing {}", sql);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("rates_partitions", "gauge", "Partitions of the currency_rate table");
+        writer.sample("rates_partitions", partitionCount);
+        writer.metric("rates_partition_changes_total", "counter", "Rate partitions created and dropped");
+        writer.sample("rates_partition_changes_total", created.sum(), "operation", "create");
+        writer.sample("rates_partition_changes_total", dropped.sum(), "operation", "drop");
+        writer.metric("rates_partition_errors_total", "counter", "Failed partition maintenance runs");
+        writer.sample("rates_partition_errors_total", errors.sum());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.currency.archive;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * DDL for the monthly {@code RANGE COLUMNS(date)} layout of {@code currency_rate}: partition
+ * {@code p202405} holds May 2024 and {@code pfuture} takes every date past the last month created.
+ * Rollover splits {@code pfuture}, which only holds rows dated beyond the managed window, so it
+ * moves no data in the normal case.
+ */
+final class RatePartitions {
+
+    static final String TABLE = "currency_rate";
+    static final String FUTURE = "pfuture";
+
+    /**
+     * A partition and its exclusive upper bound; {@code lessThan} is null for {@code MAXVALUE}.
+     */
+    record Partition(String name, LocalDate lessThan) {
+    }
+
+    private RatePartitions() {
+    }
+
+    static String name(YearMonth month) {
+        return String.format("p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * Parses {@code PARTITION_DESCRIPTION} from {@code information_schema.PARTITIONS}.
+     */
+    static LocalDate parseBound(String description) {
+        if (description == null || description.equalsIgnoreCase("MAXVALUE")) {
+            return null;
+        }
+        return LocalDate.parse(description.replace("'", "").trim());
+    }
+
+    static String partitionBy(YearMonth from, YearMonth through) {
+        StringJoiner partitions = new StringJoiner(", ", " (", ")");
+        for (YearMonth month = from; !month.isAfter(through); month = month.plusMonths(1)) {
+            partitions.add(definition(month));
+        }
+        partitions.add("PARTITION " + FUTURE + " VALUES LESS THAN (MAXVALUE)");
+        return "ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(`date`)" + partitions;
+    }
+
+    /**
+     * The statement creating monthly partitions up to and including {@code through}, or empty when
+     * they already exist.
+     */
+    static Optional<String> rollover(List<Partition> existing, YearMonth through) {
+        LocalDate covered = null;
+        boolean future = false;
+        for (Partition partition : existing) {
+            if (partition.lessThan() == null) {
+                future = true;
+            } else if (covered == null || partition.lessThan().isAfter(covered)) {
+                covered = partition.lessThan();
+            }
+        }
+        if (covered == null) {
+            return Optional.empty();
+        }
+        List<String> added = new ArrayList<>();
+        for (YearMonth month = YearMonth.from(covered); !month.isAfter(through); month = month.plusMonths(1)) {
+            added.add(definition(month));
+        }
+        if (added.isEmpty()) {
+            return Optional.empty();
+        }
+        if (future) {
+            added.add("PARTITION " + FUTURE + " VALUES LESS THAN (MAXVALUE)");
+            return Optional.of("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + FUTURE
+                    + " INTO (" + String.join(", ", added) + ")");
+        }
+        return Optional.of("ALTER TABLE " + TABLE + " ADD PARTITION (" + String.join(", ", added) + ")");
+    }
+
+    /**
+     * Partitions holding only dates before {@code cutoff}: the ones the archive may drop once empty.
+     */
+    static List<String> before(List<Partition> existing, LocalDate cutoff) {
+        List<String> names = new ArrayList<>();
+        for (Partition partition : existing) {
+            if (partition.lessThan() != null && !partition.lessThan().isAfter(cutoff)) {
+                names.add(partition.name());
+            }
+        }
+        return names;
+    }
+
+    private static String definition(YearMonth month) {
+        return "PARTITION " + name(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+}
@@ -1,22 +1,51 @@
 package com.example.currency.aspect;
 
+import com.example.currency.tracing.Tracer;
 import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
 import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Aspect
 @Component
 public class LoggingAspect {
 
-    @Before("execution(* com.example.currency.controller.*.*(..))")
-    public void logBeforeControllerMethods(JoinPoint joinPoint) {
-        System.out.println("Entering method: " + joinPoint.getSignature().getName() + " with arguments: " + joinPoint.getArgs());
+    private static final Logger log = LoggerFactory.getLogger(LoggingAspect.class);
+
+    private final Tracer tracer;
+
+    @Autowired
+    public LoggingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(* com.example.currency.controller.*.*(..)) || execution(* com.example.currency.service.*Service.*(..))")
+    public Object traceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = tracer.enter();
+        Throwable error = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            if (start != Tracer.NOT_SAMPLED) {
+                Signature signature = joinPoint.getSignature();
+                tracer.exit(start, signature.getDeclaringType().getSimpleName(), signature.getName(), error);
+            } else {
+                tracer.exit(start, null, null, null);
+            }
+        }
     }
 
     @AfterThrowing(pointcut = "execution(* com.example.currency.controller.*.*(..))", throwing = "e")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable e) {
-        System.out.println("Exception in method: " + joinPoint.getSignature().getName() + " with message: " + e.getMessage());
+        log.warn("Exception in method: {} with message: {}", joinPoint.getSignature().getName(), e.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,213 @@
+package com.example.currency.cache;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/**
+ * A cache key as a region plus up to three components: two primitive slots and one reference (an
+ * abbreviation or an amount). The hash is computed once at construction, keys without components are
+ * shared constants, and building any other key costs one small object instead of a date, a builder
+ * and a string. {@link #toString()} keeps the {@code region:part:part} layout used by hot-key files
+ * and snapshots, and {@link #parse(String)} reads it back.
+ */
+public final class CacheKey {
+
+    public enum Region {
+        ALL_CURRENCIES("allCurrencies"),
+        ALL_CURRENCIES_FROM_DB("allCurrenciesFromDb"),
+        ALL_RATES("allRates"),
+        CURRENCY("currency"),
+        CURRENCY_WITH_RATES("currencyWithRates"),
+        RATE("rate"),
+        RATE_BY_ABBREVIATION("rateByAbbreviation"),
+        RATES("rates"),
+        RATE_BY_ID("rateById"),
+        CONVERT("convert");
+
+        private final String label;
+
+        Region(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Region fromLabel(String label) {
+            for (Region region : values()) {
+                if (region.label.equals(label)) {
+                    return region;
+                }
+            }
+            throw new IllegalArgumentException("Unknown cache region: " + label);
+        }
+    }
+
+    public static final CacheKey ALL_CURRENCIES = new CacheKey(Region.ALL_CURRENCIES, 0, 0, null);
+    public static final CacheKey ALL_CURRENCIES_FROM_DB = new CacheKey(Region.ALL_CURRENCIES_FROM_DB, 0, 0, null);
+    public static final CacheKey ALL_RATES = new CacheKey(Region.ALL_RATES, 0, 0, null);
+
+    private final Region region;
+    private final long first;
+    private final long second;
+    private final Object reference;
+    private final int hash;
+
+    private CacheKey(Region region, long first, long second, Object reference) {
+        this.region = region;
+        this.first = first;
+        this.second = second;
+        this.reference = reference;
+        int h = region.ordinal();
+        h = 31 * h + Long.hashCode(first);
+        h = 31 * h + Long.hashCode(second);
+        this.hash = 31 * h + (reference != null ? reference.hashCode() : 0);
+    }
+
+    public static CacheKey currency(int curId) {
+        return new CacheKey(Region.CURRENCY, curId, 0, null);
+    }
+
+    public static CacheKey currencyWithRates(int curId) {
+        return new CacheKey(Region.CURRENCY_WITH_RATES, curId, 0, null);
+    }
+
+    public static CacheKey rate(int curId, long epochDay) {
+        return new CacheKey(Region.RATE, curId, epochDay, null);
+    }
+
+    public static CacheKey rate(int curId, LocalDate date) {
+        return rate(curId, date.toEpochDay());
+    }
+
+    public static CacheKey rateByAbbreviation(String abbreviation, long epochDay) {
+        return new CacheKey(Region.RATE_BY_ABBREVIATION, 0, epochDay, Objects.requireNonNull(abbreviation));
+    }
+
+    public static CacheKey rateByAbbreviation(String abbreviation, LocalDate date) {
+        return rateByAbbreviation(abbreviation, date.toEpochDay());
+    }
+
+    public static CacheKey rates(String abbreviation, LocalDate date) {
+        return new CacheKey(Region.RATES, 0, date.toEpochDay(), Objects.requireNonNull(abbreviation));
+    }
+
+    public static CacheKey rateById(long rateId) {
+        return new CacheKey(Region.RATE_BY_ID, rateId, 0, null);
+    }
+
+    public static CacheKey convert(int fromCurId, int toCurId, BigDecimal amount) {
+        return new CacheKey(Region.CONVERT, fromCurId, toCurId, Objects.requireNonNull(amount));
+    }
+
+    /**
+     * Reads a key back from its {@link #toString()} form.
+     *
+     * @throws IllegalArgumentException if the region is unknown or the components do not fit it
+     */
+    public static CacheKey parse(String key) {
+        String[] parts = key.split(":", -1);
+        Region region = Region.fromLabel(parts[0]);
+        int components = switch (region) {
+            case ALL_CURRENCIES, ALL_CURRENCIES_FROM_DB, ALL_RATES -> 0;
+            case CURRENCY, CURRENCY_WITH_RATES, RATE_BY_ID -> 1;
+            case RATE, RATE_BY_ABBREVIATION, RATES -> 2;
+            case CONVERT -> 3;
+        };
+        if (parts.length != components + 1) {
+            throw new IllegalArgumentException("Malformed cache key: " + key);
+        }
+        try {
+            return switch (region) {
+                case ALL_CURRENCIES -> ALL_CURRENCIES;
+                case ALL_CURRENCIES_FROM_DB -> ALL_CURRENCIES_FROM_DB;
+                case ALL_RATES -> ALL_RATES;
+                case CURRENCY -> currency(Integer.parseInt(parts[1]));
+                case CURRENCY_WITH_RATES -> currencyWithRates(Integer.parseInt(parts[1]));
+                case RATE -> rate(Integer.parseInt(parts[1]), LocalDate.parse(parts[2]));
+                case RATE_BY_ABBREVIATION -> rateByAbbreviation(parts[1], LocalDate.parse(parts[2]));
+                case RATES -> rates(parts[1], LocalDate.parse(parts[2]));
+                case RATE_BY_ID -> rateById(Long.parseLong(parts[1]));
+                case CONVERT -> convert(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), new BigDecimal(parts[3]));
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cache key: " + key, e);
+        }
+    }
+
+    public Region region() {
+        return region;
+    }
+
+    /**
+     * The currency id of a currency or rate key, or the source currency of a conversion.
+     */
+    public int curId() {
+        return (int) first;
+    }
+
+    /**
+     * The target currency of a conversion key.
+     */
+    public int toCurId() {
+        return (int) second;
+    }
+
+    /**
+     * The amount of a conversion key.
+     */
+    public BigDecimal amount() {
+        return (BigDecimal) reference;
+    }
+
+    /**
+     * True for keys looked up by currency id: the currency itself, its rates, and conversions from or
+     * to it.
+     */
+    public boolean isForCurrency(int curId) {
+        return switch (region) {
+            case CURRENCY, CURRENCY_WITH_RATES, RATE -> first == curId;
+            case CONVERT -> first == curId || second == curId;
+            default -> false;
+        };
+    }
+
+    /**
+     * True for keys looked up by {@code abbreviation}.
+     */
+    public boolean isForAbbreviation(String abbreviation) {
+        return (region == Region.RATE_BY_ABBREVIATION || region == Region.RATES) && reference.equals(abbreviation);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof CacheKey other
+                && hash == other.hash
+                && region == other.region
+                && first == other.first
+                && second == other.second
+                && Objects.equals(reference, other.reference);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return switch (region) {
+            case ALL_CURRENCIES, ALL_CURRENCIES_FROM_DB, ALL_RATES -> region.label;
+            case CURRENCY, CURRENCY_WITH_RATES, RATE_BY_ID -> region.label + ":" + first;
+            case RATE -> region.label + ":" + first + ":" + LocalDate.ofEpochDay(second);
+            case RATE_BY_ABBREVIATION, RATES -> region.label + ":" + reference + ":" + LocalDate.ofEpochDay(second);
+            case CONVERT -> region.label + ":" + first + ":" + second + ":" + reference;
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.currency.cache;
+
+import com.example.currency.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CacheRegionStats {
+
+    private final String region;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+    private final LatencyHistogram loadLatency = new LatencyHistogram();
+
+    public CacheRegionStats(String region) {
+        this.region = region;
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordLoad(long nanos) {
+        loadLatency.recordNanos(nanos);
+    }
+
+    void recordPut(boolean replaced, long bytesDelta) {
+        puts.increment();
+        if (!replaced) {
+            entries.incrementAndGet();
+        }
+        estimatedBytes.addAndGet(bytesDelta);
+    }
+
+    void recordEviction(long bytes) {
+        evictions.increment();
+        entries.decrementAndGet();
+        estimatedBytes.addAndGet(-bytes);
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRatio() {
+        long h = getHits();
+        long total = h + getMisses();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getEntries() {
+        return entries.get();
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    public long getLoads() {
+        return loadLatency.getCount();
+    }
+
+    public long getLoadP50Micros() {
+        return loadLatency.quantileMicros(0.5);
+    }
+
+    public long getLoadP99Micros() {
+        return loadLatency.quantileMicros(0.99);
+    }
+
+    public long getLoadSumMicros() {
+        return loadLatency.getSumMicros();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.currency.cache;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Rough retained-size estimate for cached values, assuming compressed oops. Collections are
+ * sampled rather than walked so that estimating a large rate list stays cheap.
+ */
+final class CacheSizeEstimator {
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int SAMPLE_SIZE = 16;
+
+    private CacheSizeEstimator() {
+    }
+
+    static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String s) {
+            return OBJECT_HEADER + 8 + align(OBJECT_HEADER + s.length());
+        }
+        if (value instanceof BigDecimal) {
+            return 40 + 32;
+        }
+        if (value instanceof Number) {
+            return OBJECT_HEADER + 8;
+        }
+        if (value instanceof CurrencyRate) {
+            return OBJECT_HEADER + 5 * REFERENCE + 72 + 16 + 24;
+        }
+        if (value instanceof CurrencyInfo info) {
+            return OBJECT_HEADER + 6 * REFERENCE + 16 + 16
+                    + estimate(info.getCurCode()) + estimate(info.getCurAbbreviation()) + estimate(info.getCurName());
+        }
+        if (value instanceof Collection<?> collection) {
+            return OBJECT_HEADER + 24 + (long) collection.size() * REFERENCE
+                    + sampledAverage(collection.iterator(), collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return OBJECT_HEADER + 48 + (long) map.size() * 32
+                    + sampledAverage(map.keySet().iterator(), map.size())
+                    + sampledAverage(map.values().iterator(), map.size());
+        }
+        return OBJECT_HEADER + 32;
+    }
+
+    private static long sampledAverage(Iterator<?> iterator, int size) {
+        if (size == 0) {
+            return 0;
+        }
+        long sampled = 0;
+        int count = 0;
+        while (iterator.hasNext() && count < SAMPLE_SIZE) {
+            sampled += estimate(iterator.next());
+            count++;
+        }
+        return count == 0 ? 0 : sampled * size / count;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.currency.cache;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import org.hibernate.Hibernate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary cache snapshot. Layout: a 32-byte header (magic, format version, data version, creation
+ * time, payload length, CRC32 of the payload) followed by a currency table and the cache entries.
+ * Rates refer to currencies by id so restored entries share one {@link CurrencyInfo} instance per
+ * currency. A currency keeps its rates when any cached instance of it had them loaded. Values of
+ * any other type are not written.
+ */
+public final class CacheSnapshot {
+
+    static final int MAGIC = 0x43435331;
+    static final int FORMAT_VERSION = 2;
+    static final int HEADER_BYTES = 32;
+
+    private static final byte CURRENCY = 1;
+    private static final byte CURRENCY_LIST = 2;
+    private static final byte RATE = 3;
+    private static final byte RATE_LIST = 4;
+    private static final byte DECIMAL = 5;
+
+    private static final int NO_CURRENCY = -1;
+    private static final int RATES_NOT_LOADED = -1;
+
+    public record Contents(long dataVersion, long createdAtMillis, Map<String, Object> entries) {
+    }
+
+    private CacheSnapshot() {
+    }
+
+    public static int write(Path file, long dataVersion, Map<String, Object> entries) throws IOException {
+        Map<Integer, CurrencyInfo> currencies = new LinkedHashMap<>();
+        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+        DataOutputStream entryOut = new DataOutputStream(entryBytes);
+        int written = 0;
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+            DataOutputStream valueOut = new DataOutputStream(valueBytes);
+            Map<Integer, CurrencyInfo> referenced = new LinkedHashMap<>();
+            try {
+                if (!writeValue(valueOut, entry.getValue(), referenced)) {
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                continue;
+            }
+            for (CurrencyInfo info : referenced.values()) {
+                reference(info, currencies);
+            }
+            writeString(entryOut, entry.getKey());
+            valueBytes.writeTo(entryOut);
+            written++;
+        }
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(entryBytes.size() + currencies.size() * 32 + 8);
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeInt(currencies.size());
+        for (CurrencyInfo info : currencies.values()) {
+            out.writeInt(info.getCurId());
+            writeString(out, info.getCurCode());
+            writeString(out, info.getCurAbbreviation());
+            writeString(out, info.getCurName());
+            writeInteger(out, info.getCurScale());
+            if (hasRates(info)) {
+                out.writeInt(info.getRates().size());
+                for (CurrencyRate rate : info.getRates()) {
+                    writeRateFields(out, rate);
+                }
+            } else {
+                out.writeInt(RATES_NOT_LOADED);
+            }
+        }
+        out.writeInt(written);
+        entryBytes.writeTo(out);
+        byte[] body = payload.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(dataVersion)
+                .putLong(System.currentTimeMillis())
+                .putInt(body.length)
+                .putInt((int) crc.getValue())
+                .flip();
+
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(new ByteBuffer[]{header, ByteBuffer.wrap(body)});
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    public static Contents read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot has invalid size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a cache snapshot");
+            }
+            int formatVersion = buffer.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format " + formatVersion);
+            }
+            long dataVersion = buffer.getLong();
+            long createdAt = buffer.getLong();
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length != size - HEADER_BYTES) {
+                throw new IOException("Snapshot is truncated");
+            }
+            ByteBuffer body = buffer.slice(HEADER_BYTES, length);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+            try {
+                return new Contents(dataVersion, createdAt, readEntries(body));
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                throw new IOException("Snapshot payload is malformed", e);
+            }
+        }
+    }
+
+    private static Map<String, Object> readEntries(ByteBuffer in) {
+        int currencyCount = readCount(in);
+        Map<Integer, CurrencyInfo> currencies = new LinkedHashMap<>(currencyCount * 2);
+        for (int i = 0; i < currencyCount; i++) {
+            CurrencyInfo info = new CurrencyInfo();
+            info.setCurId(in.getInt());
+            info.setCurCode(readString(in));
+            info.setCurAbbreviation(readString(in));
+            info.setCurName(readString(in));
+            info.setCurScale(readInteger(in));
+            int rateCount = in.getInt();
+            if (rateCount != RATES_NOT_LOADED) {
+                if (rateCount < 0 || rateCount > in.remaining()) {
+                    throw new IllegalArgumentException("Count " + rateCount + " exceeds payload");
+                }
+                for (int j = 0; j < rateCount; j++) {
+                    CurrencyRate rate = readRateFields(in);
+                    rate.setCurrency(info);
+                    info.getRates().add(rate);
+                }
+            }
+            currencies.put(info.getCurId(), info);
+        }
+        int entryCount = readCount(in);
+        Map<String, Object> entries = new LinkedHashMap<>(entryCount * 2);
+        for (int i = 0; i < entryCount; i++) {
+            String key = readString(in);
+            entries.put(key, readValue(in, currencies));
+        }
+        return entries;
+    }
+
+    private static boolean writeValue(DataOutputStream out, Object value, Map<Integer, CurrencyInfo> currencies)
+            throws IOException {
+        if (value instanceof CurrencyInfo info) {
+            out.writeByte(CURRENCY);
+            out.writeInt(reference(info, currencies));
+            return true;
+        }
+        if (value instanceof CurrencyRate rate) {
+            out.writeByte(RATE);
+            writeRate(out, rate, currencies);
+            return true;
+        }
+        if (value instanceof BigDecimal decimal) {
+            out.writeByte(DECIMAL);
+            writeDecimal(out, decimal);
+            return true;
+        }
+        if (value instanceof List<?> list && !list.isEmpty()) {
+            if (list.stream().allMatch(CurrencyInfo.class::isInstance)) {
+                out.writeByte(CURRENCY_LIST);
+                out.writeInt(list.size());
+                for (Object item : list) {
+                    out.writeInt(reference((CurrencyInfo) item, currencies));
+                }
+                return true;
+            }
+            if (list.stream().allMatch(CurrencyRate.class::isInstance)) {
+                out.writeByte(RATE_LIST);
+                out.writeInt(list.size());
+                for (Object item : list) {
+                    writeRate(out, (CurrencyRate) item, currencies);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object readValue(ByteBuffer in, Map<Integer, CurrencyInfo> currencies) {
+        byte type = in.get();
+        switch (type) {
+            case CURRENCY:
+                return currency(in.getInt(), currencies);
+            case RATE:
+                return readRate(in, currencies);
+            case DECIMAL:
+                return readDecimal(in);
+            case CURRENCY_LIST: {
+                int size = readCount(in);
+                List<CurrencyInfo> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(currency(in.getInt(), currencies));
+                }
+                return list;
+            }
+            case RATE_LIST: {
+                int size = readCount(in);
+                List<CurrencyRate> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readRate(in, currencies));
+                }
+                return List.copyOf(list);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown value type " + type);
+        }
+    }
+
+    private static void writeRate(DataOutputStream out, CurrencyRate rate, Map<Integer, CurrencyInfo> currencies)
+            throws IOException {
+        writeRateFields(out, rate);
+        out.writeInt(rate.getCurrency() != null ? reference(rate.getCurrency(), currencies) : NO_CURRENCY);
+    }
+
+    private static CurrencyRate readRate(ByteBuffer in, Map<Integer, CurrencyInfo> currencies) {
+        CurrencyRate rate = readRateFields(in);
+        int currencyId = in.getInt();
+        rate.setCurrency(currencyId != NO_CURRENCY ? currency(currencyId, currencies) : null);
+        return rate;
+    }
+
+    private static void writeRateFields(DataOutputStream out, CurrencyRate rate) throws IOException {
+        writeInteger(out, rate.getId());
+        writeDecimal(out, rate.getCurOfficialRate());
+        writeInteger(out, rate.getCurScale());
+        out.writeLong(rate.getDate() != null ? rate.getDate().toEpochDay() : Long.MIN_VALUE);
+    }
+
+    private static CurrencyRate readRateFields(ByteBuffer in) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setId(readInteger(in));
+        rate.setCurOfficialRate(readDecimal(in));
+        rate.setCurScale(readInteger(in));
+        long epochDay = in.getLong();
+        rate.setDate(epochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null);
+        return rate;
+    }
+
+    /**
+     * Registers the currency, preferring an instance whose rates are loaded over one whose are not.
+     */
+    private static int reference(CurrencyInfo info, Map<Integer, CurrencyInfo> currencies) {
+        Integer id = info.getCurId();
+        if (id == null || id == NO_CURRENCY) {
+            throw new IllegalArgumentException("Currency without id cannot be snapshotted");
+        }
+        CurrencyInfo known = currencies.get(id);
+        if (known == null || !hasRates(known) && hasRates(info)) {
+            currencies.put(id, info);
+        }
+        return id;
+    }
+
+    private static boolean hasRates(CurrencyInfo info) {
+        return Hibernate.isInitialized(info) && info.getRates() != null && Hibernate.isInitialized(info.getRates());
+    }
+
+    private static CurrencyInfo currency(int id, Map<Integer, CurrencyInfo> currencies) {
+        CurrencyInfo info = currencies.get(id);
+        if (info == null) {
+            throw new IllegalArgumentException("Unknown currency reference " + id);
+        }
+        return info;
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("Decimal length " + length + " exceeds payload");
+        }
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.getInt());
+    }
+
+    private static int readCount(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining()) {
+            throw new IllegalArgumentException("Count " + count + " exceeds payload");
+        }
+        return count;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(ByteBuffer in) {
+        return in.get() != 0 ? in.getInt() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds payload");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.currency.cache;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class CacheSnapshotService implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+    private final SimpleCache cache;
+    private final DataVersionSource dataVersionSource;
+    private final boolean enabled;
+    private final Path file;
+    private final Set<String> regions;
+    private final Duration maxAge;
+
+    private final Map<String, LongAdder> rejected = new ConcurrentHashMap<>();
+    private volatile int lastWrittenEntries;
+    private volatile long lastWrittenBytes;
+    private volatile long lastWrittenAtMillis;
+    private volatile int restoredEntries;
+    private volatile long restoreNanos;
+
+    @Autowired
+    public CacheSnapshotService(
+            SimpleCache cache,
+            DataVersionSource dataVersionSource,
+            @Value("${cache.snapshot.enabled:true}") boolean enabled,
+            @Value("${cache.snapshot.file:data/cache.snapshot}") String file,
+            @Value("${cache.snapshot.regions:allCurrencies,allCurrenciesFromDb,currency,rate,rateByAbbreviation,convert}")
+            Set<String> regions,
+            @Value("${cache.snapshot.max-age-minutes:1440}") long maxAgeMinutes
+    ) {
+        this.cache = cache;
+        this.dataVersionSource = dataVersionSource;
+        this.enabled = enabled;
+        this.file = Path.of(file);
+        this.regions = Set.copyOf(regions);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+    }
+
+    @Scheduled(fixedDelayString = "${cache.snapshot.interval-ms:300000}",
+            initialDelayString = "${cache.snapshot.interval-ms:300000}")
+    public void scheduledWrite() {
+        if (enabled) {
+            write();
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (enabled) {
+            write();
+        }
+    }
+
+    public synchronized void write() {
+        Map<String, Object> entries = new HashMap<>();
+        cache.forEach((key, value) -> {
+            if (regions.contains(key.region().getLabel())) {
+                entries.put(key.toString(), value);
+            }
+        });
+        try {
+            lastWrittenEntries = CacheSnapshot.write(file, dataVersionSource.currentVersion(), entries);
+            lastWrittenBytes = Files.size(file);
+            lastWrittenAtMillis = System.currentTimeMillis();
+            log.debug("Cache snapshot written: {} entries, {} bytes", lastWrittenEntries, lastWrittenBytes);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write cache snapshot to {}", file, e);
+        }
+    }
+
+    public boolean restore() {
+        if (!enabled || !Files.isRegularFile(file)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        CacheSnapshot.Contents contents;
+        try {
+            contents = CacheSnapshot.read(file);
+        } catch (IOException e) {
+            return reject("corrupt", e.getMessage());
+        }
+        if (System.currentTimeMillis() - contents.createdAtMillis() > maxAge.toMillis()) {
+            return reject("expired", "created at " + contents.createdAtMillis());
+        }
+        long currentVersion = dataVersionSource.currentVersion();
+        if (contents.dataVersion() != currentVersion) {
+            return reject("stale", "data version " + contents.dataVersion() + " != " + currentVersion);
+        }
+        Map<CacheKey, Object> entries = new HashMap<>();
+        try {
+            contents.entries().forEach((key, value) -> entries.put(CacheKey.parse(key), value));
+        } catch (IllegalArgumentException e) {
+            return reject("corrupt", e.getMessage());
+        }
+        entries.forEach(cache::put);
+        restoredEntries = contents.entries().size();
+        restoreNanos = System.nanoTime() - start;
+        log.info("Cache snapshot restored: {} entries in {} ms",
+                restoredEntries, TimeUnit.NANOSECONDS.toMillis(restoreNanos));
+        return true;
+    }
+
+    private boolean reject(String reason, String detail) {
+        rejected.computeIfAbsent(reason, k -> new LongAdder()).increment();
+        log.warn("Ignoring cache snapshot {} ({}): {}", file, reason, detail);
+        return false;
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("cache_snapshot_entries", "gauge", "Entries in the last snapshot written and restored");
+        writer.sample("cache_snapshot_entries", lastWrittenEntries, "operation", "write");
+        writer.sample("cache_snapshot_entries", restoredEntries, "operation", "restore");
+        writer.metric("cache_snapshot_bytes", "gauge", "Size of the last snapshot written");
+        writer.sample("cache_snapshot_bytes", lastWrittenBytes);
+        writer.metric("cache_snapshot_age_seconds", "gauge", "Seconds since the last snapshot was written");
+        writer.sample("cache_snapshot_age_seconds",
+                lastWrittenAtMillis == 0 ? -1 : (System.currentTimeMillis() - lastWrittenAtMillis) / 1000);
+        writer.metric("cache_snapshot_restore_seconds", "gauge", "Time taken to restore the snapshot at startup");
+        writer.sample("cache_snapshot_restore_seconds", restoreNanos / 1e9);
+        writer.metric("cache_snapshot_rejected_total", "counter", "Snapshots ignored at startup per reason");
+        rejected.forEach((reason, count) -> writer.sample("cache_snapshot_rejected_total", count.sum(), "reason", reason));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.currency.cache;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Today's date in the system zone without allocating on every call: the date is recomputed only when
+ * the clock leaves the cached day. A change of the default zone at runtime is not picked up until
+ * the next day boundary.
+ */
+public final class CurrentDay {
+
+    private record Day(LocalDate date, long epochDay, long startMillis, long endMillis) {
+    }
+
+    private static volatile Day current = compute(System.currentTimeMillis());
+
+    private CurrentDay() {
+    }
+
+    public static LocalDate date() {
+        return day().date();
+    }
+
+    public static long epochDay() {
+        return day().epochDay();
+    }
+
+    private static Day day() {
+        long now = System.currentTimeMillis();
+        Day day = current;
+        if (now < day.startMillis() || now >= day.endMillis()) {
+            day = compute(now);
+            current = day;
+        }
+        return day;
+    }
+
+    private static Day compute(long now) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate date = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+        return new Day(date, date.toEpochDay(),
+                date.atStartOfDay(zone).toInstant().toEpochMilli(),
+                date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.currency.cache;
+
+public interface DataVersionSource {
+
+    long currentVersion();
+}
@@ -1,38 +1,183 @@
 package com.example.currency.cache;
 
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 @Component
-public class SimpleCache {
-    private final Map<String, Object> cache = new HashMap<>();
+public class SimpleCache implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(SimpleCache.class);
 
-    public void put(String key, Object value) {
-        System.out.println("Cache put: key=" + key + ", value=" + value);
-        cache.put(key, value);
+    private static final int MAX_TRACKED_KEYS = 10_000;
+    private static final int MAX_PENDING_LOADS = 16;
+    // Header, region reference, two longs, one reference and the hash; components are shared with the caller.
+    private static final long KEY_BYTES = 48;
+
+    private record Entry(Object value, long estimatedBytes, CacheRegionStats stats) {
+    }
+
+    public record HotKey(String key, long hits) {
     }
 
-    public Optional<Object> get(String key) {
-        System.out.println("Cache get: key=" + key);
-        Optional<Object> result = Optional.ofNullable(cache.get(key));
-        if (result.isPresent()) {
-            System.out.println("Cache hit: key=" + key + ", value=" + result.get());
-        } else {
-            System.out.println("Cache miss: key=" + key);
+    private final Map<CacheKey, Entry> cache = new ConcurrentHashMap<>();
+    private final CacheRegionStats[] regions;
+    private final Map<CacheKey, LongAdder> keyHits = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<CacheKey, Long>> pendingLoads = ThreadLocal.withInitial(HashMap::new);
+    private final boolean trackKeys;
+
+    public SimpleCache(@Value("${cache.stats.track-keys:false}") boolean trackKeys) {
+        this.trackKeys = trackKeys;
+        CacheKey.Region[] all = CacheKey.Region.values();
+        this.regions = new CacheRegionStats[all.length];
+        for (CacheKey.Region region : all) {
+            regions[region.ordinal()] = new CacheRegionStats(region.getLabel());
         }
-        return result;
     }
 
-    public void remove(String key) {
-        System.out.println("Cache remove: key=" + key);
-        cache.remove(key);
+    public void put(CacheKey key, Object value) {
+        log.trace("Cache put: key={}", key);
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        CacheRegionStats stats = regionOf(key);
+        Entry entry = new Entry(value, KEY_BYTES + CacheSizeEstimator.estimate(value), stats);
+        Entry previous = cache.put(key, entry);
+        stats.recordPut(previous != null, entry.estimatedBytes() - (previous != null ? previous.estimatedBytes() : 0));
+
+        Long missedAt = pendingLoads.get().remove(key);
+        if (missedAt != null) {
+            stats.recordLoad(System.nanoTime() - missedAt);
+        }
+    }
+
+    public Optional<Object> get(CacheKey key) {
+        Entry entry = cache.get(key);
+        if (entry != null) {
+            entry.stats().recordHit();
+            if (trackKeys) {
+                recordKeyHit(key);
+            }
+            log.trace("Cache hit: key={}", key);
+            return Optional.of(entry.value());
+        }
+
+        regionOf(key).recordMiss();
+        Map<CacheKey, Long> pending = pendingLoads.get();
+        if (pending.size() >= MAX_PENDING_LOADS) {
+            pending.clear();
+        }
+        pending.put(key, System.nanoTime());
+        log.trace("Cache miss: key={}", key);
+        return Optional.empty();
+    }
+
+    public void remove(CacheKey key) {
+        log.trace("Cache remove: key={}", key);
+        Entry removed = cache.remove(key);
+        if (removed != null) {
+            removed.stats().recordEviction(removed.estimatedBytes());
+        }
+    }
+
+    public int removeIf(Predicate<CacheKey> keyFilter) {
+        int removed = 0;
+        for (CacheKey key : cache.keySet()) {
+            if (keyFilter.test(key)) {
+                Entry entry = cache.remove(key);
+                if (entry != null) {
+                    entry.stats().recordEviction(entry.estimatedBytes());
+                    removed++;
+                }
+            }
+        }
+        return removed;
     }
 
     public void clear() {
-        System.out.println("Cache clear: all entries removed");
-        cache.clear();
+        log.debug("Cache clear: all entries removed");
+        cache.keySet().forEach(this::remove);
+    }
+
+    public void forEach(BiConsumer<CacheKey, Object> action) {
+        cache.forEach((key, entry) -> action.accept(key, entry.value()));
+    }
+
+    public List<CacheRegionStats> getRegionStats() {
+        List<CacheRegionStats> stats = new ArrayList<>(List.of(regions));
+        stats.sort(Comparator.comparing(CacheRegionStats::getRegion));
+        return stats;
+    }
+
+    public boolean isTrackingKeys() {
+        return trackKeys;
+    }
+
+    public List<HotKey> getHotKeys(int limit) {
+        return keyHits.entrySet().stream()
+                .map(e -> new HotKey(e.getKey().toString(), e.getValue().sum()))
+                .sorted(Comparator.comparingLong(HotKey::hits).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void recordKeyHit(CacheKey key) {
+        LongAdder hits = keyHits.get(key);
+        if (hits == null) {
+            if (keyHits.size() >= MAX_TRACKED_KEYS) {
+                return;
+            }
+            hits = keyHits.computeIfAbsent(key, k -> new LongAdder());
+        }
+        hits.increment();
+    }
+
+    private CacheRegionStats regionOf(CacheKey key) {
+        return regions[key.region().ordinal()];
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        CacheRegionStats[] snapshot = regions;
+        writer.metric("cache_requests_total", "counter", "Cache lookups per region and result");
+        for (CacheRegionStats stats : snapshot) {
+            writer.sample("cache_requests_total", stats.getHits(), "region", stats.getRegion(), "result", "hit");
+            writer.sample("cache_requests_total", stats.getMisses(), "region", stats.getRegion(), "result", "miss");
+        }
+        writer.metric("cache_evictions_total", "counter", "Entries removed from the cache per region");
+        for (CacheRegionStats stats : snapshot) {
+            writer.sample("cache_evictions_total", stats.getEvictions(), "region", stats.getRegion());
+        }
+        writer.metric("cache_entries", "gauge", "Entries currently cached per region");
+        for (CacheRegionStats stats : snapshot) {
+            writer.sample("cache_entries", stats.getEntries(), "region", stats.getRegion());
+        }
+        writer.metric("cache_estimated_bytes", "gauge", "Estimated retained size of cached entries per region");
+        for (CacheRegionStats stats : snapshot) {
+            writer.sample("cache_estimated_bytes", stats.getEstimatedBytes(), "region", stats.getRegion());
+        }
+        writer.metric("cache_load_duration_seconds", "summary", "Time from a cache miss to the put that filled it");
+        for (CacheRegionStats stats : snapshot) {
+            writer.sample("cache_load_duration_seconds", stats.getLoadP50Micros() / 1e6,
+                    "region", stats.getRegion(), "quantile", "0.5");
+            writer.sample("cache_load_duration_seconds", stats.getLoadP99Micros() / 1e6,
+                    "region", stats.getRegion(), "quantile", "0.99");
+            writer.sample("cache_load_duration_seconds_sum", stats.getLoadSumMicros() / 1e6, "region", stats.getRegion());
+            writer.sample("cache_load_duration_seconds_count", stats.getLoads(), "region", stats.getRegion());
+        }
     }
-}
\ No newline at end of file
+}
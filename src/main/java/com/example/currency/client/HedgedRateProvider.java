@@ -0,0 +1,401 @@
+package com.example.currency.client;
+
+import com.example.currency.metrics.LatencyHistogram;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.metrics.RollingHistogram;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link RateProvider} the services use: {@link NbrbApiClient} backed by the NBRB-compatible
+ * mirrors in {@code rates.providers.secondary-urls}. A rate request goes to the primary; when it
+ * has not answered within its recent {@code rates.providers.hedge-quantile} latency, or fails, the
+ * same request goes to the first trusted secondary, the first valid answer wins and the other call
+ * is cancelled. A sample of answers is checked against every secondary off the request path, and a
+ * secondary that disagrees with the primary is not trusted for
+ * {@code rates.providers.agreement.quarantine-ms}. Without secondaries calls go straight through.
+ */
+@Component
+@Primary
+public class HedgedRateProvider implements RateProvider, MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(HedgedRateProvider.class);
+
+    private static final int WINDOW_SLICES = 6;
+    private static final long SLICE_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long MIN_SAMPLES = 20;
+    private static final long DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final Upstream primary;
+    private final List<Upstream> secondaries = new ArrayList<>();
+    private final ThreadPoolExecutor executor;
+    private final double hedgeQuantile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final double agreementSampleRate;
+    private final long quarantineMillis;
+
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder unhedged = new LongAdder();
+    private volatile long hedgeDelayNanos;
+    private volatile long hedgeDelayComputedAt;
+
+    @Autowired
+    public HedgedRateProvider(
+            NbrbApiClient nbrbApiClient,
+            RestTemplateBuilder restTemplateBuilder,
+            @Value("${rates.providers.secondary-urls:}") String secondaryUrls,
+            @Value("${rates.providers.threads:16}") int threads,
+            @Value("${rates.providers.hedge-quantile:0.95}") double hedgeQuantile,
+            @Value("${rates.providers.hedge-initial-delay-ms:300}") long initialDelayMs,
+            @Value("${rates.providers.hedge-min-delay-ms:10}") long minDelayMs,
+            @Value("${rates.providers.agreement.sample-rate:0.02}") double agreementSampleRate,
+            @Value("${rates.providers.agreement.quarantine-ms:600000}") long quarantineMs
+    ) {
+        this(nbrbApiClient, mirrors(restTemplateBuilder, secondaryUrls), threads, hedgeQuantile,
+                initialDelayMs, minDelayMs, agreementSampleRate, quarantineMs);
+    }
+
+    HedgedRateProvider(RateProvider primary, List<RateProvider> secondaries, int threads, double hedgeQuantile,
+                       long initialDelayMs, long minDelayMs, double agreementSampleRate, long quarantineMs) {
+        this.primary = new Upstream(primary);
+        secondaries.forEach(provider -> this.secondaries.add(new Upstream(provider)));
+        this.hedgeQuantile = hedgeQuantile;
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(initialDelayMs);
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        this.agreementSampleRate = agreementSampleRate;
+        this.quarantineMillis = quarantineMs;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "rate-provider-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    private static List<RateProvider> mirrors(RestTemplateBuilder restTemplateBuilder, String urls) {
+        List<RateProvider> mirrors = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (!url.isBlank()) {
+                mirrors.add(new NbrbApiClient(restTemplateBuilder, url.trim()));
+            }
+        }
+        return mirrors;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String name() {
+        return primary.provider.name();
+    }
+
+    @Override
+    public List<CurrencyInfo> getAllCurrencies() {
+        try {
+            return primary.currencies();
+        } catch (RuntimeException e) {
+            for (Upstream secondary : secondaries) {
+                if (secondary.isTrusted()) {
+                    try {
+                        List<CurrencyInfo> currencies = secondary.currencies();
+                        log.warn("Fetched currencies from {} after {} failed: {}", secondary.name(), primary.name(), e.getMessage());
+                        return currencies;
+                    } catch (RuntimeException secondaryFailure) {
+                        // Tries the next one.
+                    }
+                }
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CurrencyRate getCurrencyRate(Integer curId) {
+        Upstream backup = secondaries.stream().filter(Upstream::isTrusted).findFirst().orElse(null);
+        if (backup == null) {
+            return checked(curId, primary.rate(curId));
+        }
+        Call first;
+        try {
+            first = start(primary, curId);
+        } catch (RejectedExecutionException e) {
+            unhedged.increment();
+            return checked(curId, primary.rate(curId));
+        }
+        try {
+            CurrencyRate rate = first.result.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            if (isValid(rate)) {
+                return checked(curId, rate);
+            }
+        } catch (TimeoutException | ExecutionException e) {
+            // Hedges below: the primary is slow or failed.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            first.cancel();
+            throw new RuntimeException("Interrupted while fetching rate for currency ID " + curId);
+        }
+        Call second;
+        try {
+            second = start(backup, curId);
+        } catch (RejectedExecutionException e) {
+            unhedged.increment();
+            return checked(curId, outcome(first));
+        }
+        hedges.increment();
+        Call winner = firstValid(first, second, curId);
+        if (winner == null) {
+            return checked(curId, outcome(first));
+        }
+        (winner == first ? second : first).cancel();
+        winner.upstream.wins.increment();
+        return winner == first ? checked(curId, outcome(first)) : outcome(second);
+    }
+
+    private Call start(Upstream upstream, Integer curId) {
+        Call call = new Call(upstream);
+        call.task = executor.submit(() -> {
+            try {
+                call.result.complete(upstream.rate(curId));
+            } catch (RuntimeException e) {
+                call.result.completeExceptionally(e);
+            }
+        });
+        return call;
+    }
+
+    /**
+     * The call that answers first with a valid rate, or null when neither does.
+     */
+    private static Call firstValid(Call first, Call second, Integer curId) {
+        CompletableFuture<Call> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        for (Call call : List.of(first, second)) {
+            call.result.whenComplete((rate, error) -> {
+                if (error == null && isValid(rate)) {
+                    winner.complete(call);
+                } else if (pending.decrementAndGet() == 0) {
+                    winner.complete(null);
+                }
+            });
+        }
+        try {
+            return winner.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            first.cancel();
+            second.cancel();
+            throw new RuntimeException("Interrupted while fetching rate for currency ID " + curId);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CurrencyRate outcome(Call call) {
+        try {
+            return call.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Returns the primary's answer, having queued a check of it against the secondaries for a
+     * sample of requests.
+     */
+    private CurrencyRate checked(Integer curId, CurrencyRate reference) {
+        if (secondaries.isEmpty() || !isValid(reference)
+                || ThreadLocalRandom.current().nextDouble() >= agreementSampleRate) {
+            return reference;
+        }
+        for (Upstream secondary : secondaries) {
+            try {
+                executor.execute(() -> compare(secondary, curId, reference));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        return reference;
+    }
+
+    private void compare(Upstream secondary, Integer curId, CurrencyRate reference) {
+        CurrencyRate other;
+        try {
+            other = secondary.rate(curId);
+        } catch (RuntimeException e) {
+            return;
+        }
+        secondary.agreementChecks.increment();
+        if (!agrees(reference, other)) {
+            secondary.disagreements.increment();
+            secondary.quarantinedUntil = System.currentTimeMillis() + quarantineMillis;
+            log.warn("Rate provider {} disagrees with {} on currency {}: {} per {} on {} against {} per {} on {}; "
+                            + "not hedging to it for {} ms", secondary.name(), primary.name(), curId,
+                    other == null ? null : other.getCurOfficialRate(), other == null ? null : other.getCurScale(),
+                    other == null ? null : other.getDate(), reference.getCurOfficialRate(), reference.getCurScale(),
+                    reference.getDate(), quarantineMillis);
+        }
+    }
+
+    /**
+     * Whether two answers give the same rate per unit on the same date.
+     */
+    static boolean agrees(CurrencyRate reference, CurrencyRate other) {
+        if (!isValid(other) || !Objects.equals(reference.getDate(), other.getDate())) {
+            return false;
+        }
+        BigDecimal referenceScale = BigDecimal.valueOf(reference.getCurScale() != null ? reference.getCurScale() : 1);
+        BigDecimal otherScale = BigDecimal.valueOf(other.getCurScale() != null ? other.getCurScale() : 1);
+        return reference.getCurOfficialRate().multiply(otherScale)
+                .compareTo(other.getCurOfficialRate().multiply(referenceScale)) == 0;
+    }
+
+    private static boolean isValid(CurrencyRate rate) {
+        return rate != null && rate.getCurOfficialRate() != null && rate.getCurOfficialRate().signum() > 0
+                && (rate.getCurScale() == null || rate.getCurScale() > 0);
+    }
+
+    /**
+     * How long to wait for the primary before hedging: its recent latency quantile, refreshed once
+     * a second, or the initial delay until enough calls have been timed.
+     */
+    long hedgeDelayNanos() {
+        long now = System.nanoTime();
+        if (hedgeDelayComputedAt != 0 && now - hedgeDelayComputedAt < DELAY_REFRESH_NANOS) {
+            return hedgeDelayNanos;
+        }
+        LatencyHistogram window = primary.latency.snapshot();
+        long delay = window.getCount() < MIN_SAMPLES
+                ? initialDelayNanos
+                : Math.max(minDelayNanos, TimeUnit.MICROSECONDS.toNanos(window.quantileMicros(hedgeQuantile)));
+        hedgeDelayNanos = delay;
+        hedgeDelayComputedAt = now;
+        return delay;
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        List<Upstream> upstreams = new ArrayList<>();
+        upstreams.add(primary);
+        upstreams.addAll(secondaries);
+        writer.metric("rate_provider_calls_total", "counter", "Calls to each upstream rate provider");
+        upstreams.forEach(upstream -> writer.sample("rate_provider_calls_total", upstream.calls.sum(), "provider", upstream.name()));
+        writer.metric("rate_provider_errors_total", "counter", "Upstream rate provider calls that failed");
+        upstreams.forEach(upstream -> writer.sample("rate_provider_errors_total", upstream.errors.sum(), "provider", upstream.name()));
+        writer.metric("rate_provider_latency_seconds", "summary", "Latency of successful upstream calls over the last minute");
+        for (Upstream upstream : upstreams) {
+            LatencyHistogram window = upstream.latency.snapshot();
+            for (double quantile : QUANTILES) {
+                writer.sample("rate_provider_latency_seconds", window.quantileMicros(quantile) / 1e6,
+                        "provider", upstream.name(), "quantile", String.valueOf(quantile));
+            }
+        }
+        writer.metric("rate_provider_hedges_total", "counter", "Rate requests also sent to a secondary provider");
+        writer.sample("rate_provider_hedges_total", hedges.sum());
+        writer.metric("rate_provider_hedge_wins_total", "counter", "Hedged rate requests answered first by each provider");
+        upstreams.forEach(upstream -> writer.sample("rate_provider_hedge_wins_total", upstream.wins.sum(), "provider", upstream.name()));
+        writer.metric("rate_provider_unhedged_total", "counter", "Rate requests not hedged because every provider thread was busy");
+        writer.sample("rate_provider_unhedged_total", unhedged.sum());
+        writer.metric("rate_provider_hedge_delay_seconds", "gauge", "Current wait for the primary before hedging");
+        writer.sample("rate_provider_hedge_delay_seconds", hedgeDelayNanos / 1e9);
+        writer.metric("rate_provider_agreement_checks_total", "counter", "Sampled answers compared with each secondary provider");
+        secondaries.forEach(upstream -> writer.sample("rate_provider_agreement_checks_total", upstream.agreementChecks.sum(), "provider", upstream.name()));
+        writer.metric("rate_provider_disagreements_total", "counter", "Sampled answers on which a secondary provider disagreed with the primary");
+        secondaries.forEach(upstream -> writer.sample("rate_provider_disagreements_total", upstream.disagreements.sum(), "provider", upstream.name()));
+        writer.metric("rate_provider_quarantined", "gauge", "1 while a secondary provider is not trusted after a disagreement");
+        secondaries.forEach(upstream -> writer.sample("rate_provider_quarantined", upstream.isTrusted() ? 0 : 1, "provider", upstream.name()));
+    }
+
+    private static final class Upstream {
+        private final RateProvider provider;
+        private final RollingHistogram latency = new RollingHistogram(WINDOW_SLICES, SLICE_NANOS);
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder wins = new LongAdder();
+        private final LongAdder agreementChecks = new LongAdder();
+        private final LongAdder disagreements = new LongAdder();
+        private volatile long quarantinedUntil;
+
+        private Upstream(RateProvider provider) {
+            this.provider = provider;
+        }
+
+        private String name() {
+            return provider.name();
+        }
+
+        private boolean isTrusted() {
+            return System.currentTimeMillis() >= quarantinedUntil;
+        }
+
+        private CurrencyRate rate(Integer curId) {
+            calls.increment();
+            long start = System.nanoTime();
+            try {
+                CurrencyRate rate = provider.getCurrencyRate(curId);
+                latency.recordNanos(System.nanoTime() - start);
+                return rate;
+            } catch (RuntimeException e) {
+                errors.increment();
+                throw e;
+            }
+        }
+
+        private List<CurrencyInfo> currencies() {
+            calls.increment();
+            try {
+                return provider.getAllCurrencies();
+            } catch (RuntimeException e) {
+                errors.increment();
+                throw e;
+            }
+        }
+    }
+
+    private static final class Call {
+        private final Upstream upstream;
+        private final CompletableFuture<CurrencyRate> result = new CompletableFuture<>();
+        private volatile Future<?> task;
+
+        private Call(Upstream upstream) {
+            this.upstream = upstream;
+        }
+
+        private void cancel() {
+            Future<?> running = task;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+    }
+}
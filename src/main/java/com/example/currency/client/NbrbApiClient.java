@@ -2,28 +2,42 @@ package com.example.currency.client;
 
 import com.example.currency.models.CurrencyInfo;
 import com.example.currency.models.CurrencyRate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 @Component
-public class NbrbApiClient {
+public class NbrbApiClient implements RateProvider {
 
     private final RestTemplate restTemplate;
-    private static final String API_BASE_URL = "https://api.nbrb.by/exrates/";
+    private final String apiBaseUrl;
+    private final String name;
 
-    public NbrbApiClient(RestTemplateBuilder restTemplateBuilder) {
+    public NbrbApiClient(
+            RestTemplateBuilder restTemplateBuilder,
+            @Value("${nbrb.api.base-url:https://api.nbrb.by/exrates/}") String apiBaseUrl
+    ) {
         this.restTemplate = restTemplateBuilder.build();
+        this.apiBaseUrl = apiBaseUrl.endsWith("/") ? apiBaseUrl : apiBaseUrl + "/";
+        this.name = URI.create(this.apiBaseUrl).getAuthority();
     }
 
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
     public List<CurrencyInfo> getAllCurrencies() {
-        String url = API_BASE_URL + "currencies";
+        String url = apiBaseUrl + "currencies";
         try {
             ResponseEntity<CurrencyInfo[]> response = restTemplate.getForEntity(url, CurrencyInfo[].class);
             return Arrays.asList(Objects.requireNonNull(response.getBody()));
@@ -32,8 +46,9 @@ public class NbrbApiClient {
         }
     }
 
+    @Override
     public CurrencyRate getCurrencyRate(Integer curId) {
-        String url = API_BASE_URL + "rates/" + curId;
+        String url = apiBaseUrl + "rates/" + curId;
         try {
             return restTemplate.getForObject(url, CurrencyRate.class);
         } catch (RestClientException e) {
@@ -0,0 +1,22 @@
+package com.example.currency.client;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+
+import java.util.List;
+
+/**
+ * An upstream source of currencies and official rates. Implementations block until the upstream
+ * answers and report failures as runtime exceptions.
+ */
+public interface RateProvider {
+
+    /**
+     * Short name used in logs and metric labels.
+     */
+    String name();
+
+    List<CurrencyInfo> getAllCurrencies();
+
+    CurrencyRate getCurrencyRate(Integer curId);
+}
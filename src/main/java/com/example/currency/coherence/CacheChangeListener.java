@@ -0,0 +1,11 @@
+package com.example.currency.coherence;
+
+import com.example.currency.models.CacheChange;
+
+/**
+ * Receives every change applied on this node, both local commits and changes polled from other nodes.
+ */
+public interface CacheChangeListener {
+
+    void onChange(CacheChange change);
+}
@@ -0,0 +1,114 @@
+package com.example.currency.coherence;
+
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.models.CacheChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Maps a change-log entry to the cache keys it can make stale and evicts exactly those. Rates
+ * and currencies reference each other, so a currency edit also drops the cached rates that carry it.
+ */
+@Component
+public class CacheInvalidator {
+
+    private static final List<CacheKey> CURRENCY_LISTS = List.of(CacheKey.ALL_CURRENCIES, CacheKey.ALL_CURRENCIES_FROM_DB);
+
+    private final SimpleCache cache;
+    private final List<CacheChangeListener> listeners;
+
+    @Autowired
+    public CacheInvalidator(SimpleCache cache, List<CacheChangeListener> listeners) {
+        this.cache = cache;
+        this.listeners = List.copyOf(listeners);
+    }
+
+    public int apply(CacheChange change) {
+        int removed = cache.removeIf(affectedKeys(change, LocalDate.now()));
+        for (CacheChangeListener listener : listeners) {
+            listener.onChange(change);
+        }
+        return removed;
+    }
+
+    static Predicate<CacheKey> affectedKeys(CacheChange change, LocalDate today) {
+        Set<CacheKey> exact = new HashSet<>();
+        List<Predicate<CacheKey>> groups = new ArrayList<>();
+        Integer id = change.getCurrencyId();
+        boolean conversions = false;
+
+        switch (change.getType()) {
+            case CURRENCY_CREATED -> exact.addAll(CURRENCY_LISTS);
+            case CURRENCY_UPDATED, CURRENCY_DELETED -> {
+                exact.addAll(CURRENCY_LISTS);
+                exact.add(CacheKey.ALL_RATES);
+                groups.add(key -> key.region() == CacheKey.Region.RATE_BY_ID);
+                if (id != null) {
+                    exact.add(CacheKey.currency(id));
+                    exact.add(CacheKey.currencyWithRates(id));
+                    groups.add(key -> key.region() == CacheKey.Region.RATE && key.isForCurrency(id));
+                }
+                for (String abbreviation : abbreviations(change)) {
+                    groups.add(key -> key.isForAbbreviation(abbreviation));
+                }
+                conversions = change.getType() == CacheChange.Type.CURRENCY_DELETED;
+            }
+            case RATE_CHANGED -> {
+                // Cached currencies carry their rates, so they go stale with any rate of theirs.
+                exact.add(CacheKey.ALL_RATES);
+                exact.add(CacheKey.ALL_CURRENCIES_FROM_DB);
+                if (change.getRateId() != null) {
+                    exact.add(CacheKey.rateById(change.getRateId()));
+                }
+                if (id != null) {
+                    exact.add(CacheKey.currency(id));
+                    exact.add(CacheKey.currencyWithRates(id));
+                }
+                LocalDate date = change.getRateDate();
+                if (date != null) {
+                    if (id != null) {
+                        exact.add(CacheKey.rate(id, date));
+                    }
+                    for (String abbreviation : abbreviations(change)) {
+                        exact.add(CacheKey.rateByAbbreviation(abbreviation, date));
+                        exact.add(CacheKey.rates(abbreviation, date));
+                    }
+                }
+                conversions = date == null || date.equals(today);
+            }
+        }
+
+        if (conversions && id != null) {
+            groups.add(key -> key.region() == CacheKey.Region.CONVERT && key.isForCurrency(id));
+        }
+        return key -> exact.contains(key) || matchesAny(key, groups);
+    }
+
+    private static List<String> abbreviations(CacheChange change) {
+        List<String> abbreviations = new ArrayList<>(2);
+        if (change.getAbbreviation() != null) {
+            abbreviations.add(change.getAbbreviation());
+        }
+        if (change.getPreviousAbbreviation() != null && !change.getPreviousAbbreviation().equals(change.getAbbreviation())) {
+            abbreviations.add(change.getPreviousAbbreviation());
+        }
+        return abbreviations;
+    }
+
+    private static boolean matchesAny(CacheKey key, List<Predicate<CacheKey>> groups) {
+        for (Predicate<CacheKey> group : groups) {
+            if (group.test(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
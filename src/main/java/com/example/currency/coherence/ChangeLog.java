@@ -0,0 +1,94 @@
+package com.example.currency.coherence;
+
+import com.example.currency.cache.DataVersionSource;
+import com.example.currency.models.CacheChange;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.repository.CacheChangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Records cache-relevant mutations in the change-log table inside the caller's transaction. The
+ * local cache is invalidated after commit; other nodes pick the entry up through {@link ChangeLogPoller}.
+ * The highest change id doubles as the data version of the cache.
+ */
+@Component
+public class ChangeLog implements DataVersionSource {
+
+    private final CacheChangeRepository repository;
+    private final CacheInvalidator invalidator;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    public ChangeLog(CacheChangeRepository repository, CacheInvalidator invalidator) {
+        this.repository = repository;
+        this.invalidator = invalidator;
+    }
+
+    public void currencyCreated(CurrencyInfo currency) {
+        record(change(CacheChange.Type.CURRENCY_CREATED, currency.getCurId(), currency.getCurAbbreviation()));
+    }
+
+    public void currencyUpdated(CurrencyInfo currency, String previousAbbreviation) {
+        CacheChange change = change(CacheChange.Type.CURRENCY_UPDATED, currency.getCurId(), currency.getCurAbbreviation());
+        change.setPreviousAbbreviation(previousAbbreviation);
+        record(change);
+    }
+
+    public void currencyDeleted(Integer currencyId, String abbreviation) {
+        record(change(CacheChange.Type.CURRENCY_DELETED, currencyId, abbreviation));
+    }
+
+    public void rateChanged(CurrencyRate rate) {
+        rateChanged(rate.getCurrency(), rate.getId(), rate.getDate());
+    }
+
+    public void rateChanged(CurrencyInfo currency, Integer rateId, LocalDate date) {
+        CacheChange change = change(CacheChange.Type.RATE_CHANGED,
+                currency != null ? currency.getCurId() : null,
+                currency != null ? currency.getCurAbbreviation() : null);
+        change.setRateId(rateId != null ? rateId.longValue() : null);
+        change.setRateDate(date);
+        record(change);
+    }
+
+    private CacheChange change(CacheChange.Type type, Integer currencyId, String abbreviation) {
+        CacheChange change = new CacheChange();
+        change.setType(type);
+        change.setCurrencyId(currencyId);
+        change.setAbbreviation(abbreviation);
+        return change;
+    }
+
+    private void record(CacheChange change) {
+        change.setOriginNode(nodeId);
+        change.setCreatedAt(Instant.now());
+        repository.save(change);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidator.apply(change);
+                }
+            });
+        } else {
+            invalidator.apply(change);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public long currentVersion() {
+        return repository.findMaxId();
+    }
+}
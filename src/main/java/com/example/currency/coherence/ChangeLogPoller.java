@@ -0,0 +1,170 @@
+package com.example.currency.coherence;
+
+import com.example.currency.metrics.LatencyHistogram;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CacheChange;
+import com.example.currency.repository.CacheChangeRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tails the change log by id. Identity ids are assigned at insert but become visible at commit, so a
+ * skipped id may still appear later; such gaps are re-checked until {@code coherence.gap-timeout-ms}.
+ */
+@Component
+public class ChangeLogPoller implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogPoller.class);
+
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final CacheChangeRepository repository;
+    private final CacheInvalidator invalidator;
+    private final String nodeId;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final Duration retention;
+
+    private final Map<Long, Long> gaps = new ConcurrentHashMap<>();
+    private final LatencyHistogram lag = new LatencyHistogram();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder pollErrors = new LongAdder();
+    private volatile long lastVersion = -1;
+    private volatile long lastLagMillis;
+
+    @Autowired
+    public ChangeLogPoller(
+            CacheChangeRepository repository,
+            CacheInvalidator invalidator,
+            ChangeLog changeLog,
+            @Value("${coherence.enabled:true}") boolean enabled,
+            @Value("${coherence.batch-size:500}") int batchSize,
+            @Value("${coherence.gap-timeout-ms:10000}") long gapTimeoutMillis,
+            @Value("${coherence.retention-hours:24}") long retentionHours
+    ) {
+        this.repository = repository;
+        this.invalidator = invalidator;
+        this.nodeId = changeLog.getNodeId();
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeoutMillis;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            lastVersion = repository.findMaxId();
+        } catch (RuntimeException e) {
+            log.warn("Could not read change log version at startup, will retry on the first poll: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${coherence.poll-interval-ms:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            pollOnce();
+        } catch (RuntimeException e) {
+            pollErrors.increment();
+            log.warn("Change log poll failed: {}", e.getMessage());
+        }
+    }
+
+    synchronized int pollOnce() {
+        if (lastVersion < 0) {
+            lastVersion = repository.findMaxId();
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int count = 0;
+        if (!gaps.isEmpty()) {
+            for (CacheChange change : repository.findByIdIn(gaps.keySet())) {
+                gaps.remove(change.getId());
+                count += apply(change, now);
+            }
+            gaps.values().removeIf(firstSeen -> now - firstSeen > gapTimeoutMillis);
+        }
+
+        List<CacheChange> changes = repository.findAfter(lastVersion, PageRequest.of(0, batchSize));
+        long maxLag = 0;
+        for (CacheChange change : changes) {
+            if (change.getId() - lastVersion <= MAX_TRACKED_GAP) {
+                for (long missing = lastVersion + 1; missing < change.getId(); missing++) {
+                    gaps.putIfAbsent(missing, now);
+                }
+            }
+            count += apply(change, now);
+            maxLag = Math.max(maxLag, now - change.getCreatedAt().toEpochMilli());
+            lastVersion = change.getId();
+        }
+        lastLagMillis = maxLag;
+        return count;
+    }
+
+    private int apply(CacheChange change, long now) {
+        if (nodeId.equals(change.getOriginNode())) {
+            return 0;
+        }
+        invalidator.apply(change);
+        applied.increment();
+        lag.recordNanos(TimeUnit.MILLISECONDS.toNanos(Math.max(0, now - change.getCreatedAt().toEpochMilli())));
+        return 1;
+    }
+
+    @Scheduled(fixedDelayString = "${coherence.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int deleted = repository.deleteOlderThan(Instant.now().minus(retention));
+            log.debug("Removed {} change log entries older than {}", deleted, retention);
+        } catch (RuntimeException e) {
+            log.warn("Change log cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    public long getLastVersion() {
+        return lastVersion;
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("coherence_version", "gauge", "Highest change log id applied by this node");
+        writer.sample("coherence_version", lastVersion);
+        writer.metric("coherence_lag_seconds", "gauge", "Age of the oldest change applied by the last poll");
+        writer.sample("coherence_lag_seconds", lastLagMillis / 1e3);
+        writer.metric("coherence_apply_lag_seconds", "summary", "Time from commit on another node to eviction on this node");
+        writer.sample("coherence_apply_lag_seconds", lag.quantileMicros(0.5) / 1e6, "quantile", "0.5");
+        writer.sample("coherence_apply_lag_seconds", lag.quantileMicros(0.99) / 1e6, "quantile", "0.99");
+        writer.sample("coherence_apply_lag_seconds_sum", lag.getSumMicros() / 1e6);
+        writer.sample("coherence_apply_lag_seconds_count", lag.getCount());
+        writer.metric("coherence_changes_applied_total", "counter", "Remote changes applied to the local cache");
+        writer.sample("coherence_changes_applied_total", applied.sum());
+        writer.metric("coherence_pending_gaps", "gauge", "Skipped change ids still awaited");
+        writer.sample("coherence_pending_gaps", gaps.size());
+        writer.metric("coherence_poll_errors_total", "counter", "Change log polls that failed");
+        writer.sample("coherence_poll_errors_total", pollErrors.sum());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.currency.config;
+
+import com.example.currency.admission.AdmissionManager;
+import com.example.currency.admission.EndpointClass;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionManager admissionManager;
+
+    @Autowired
+    public AdmissionControlFilter(AdmissionManager admissionManager) {
+        this.admissionManager = admissionManager;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionManager.isEnabled() || EndpointClass.isExempt(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+        if (!admissionManager.tryAdmit(endpointClass)) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(admissionManager.getRetryAfterSeconds()));
+            response.setContentType("text/plain");
+            response.getWriter().write("Service Unavailable: server is overloaded, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Streaming and other async responses hold their permit until they finish.
+                AsyncCompletion.register(request, failed -> admissionManager.complete(endpointClass, System.nanoTime() - start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                admissionManager.complete(endpointClass, System.nanoTime() - start);
+            }
+        }
+    }
+}
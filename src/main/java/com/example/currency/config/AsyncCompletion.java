@@ -0,0 +1,56 @@
+package com.example.currency.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a filter's end-of-request work once when an async request ends, however it ends. Streaming
+ * and other async responses do their work after the first dispatch has returned through the filter.
+ */
+final class AsyncCompletion implements AsyncListener {
+
+    @FunctionalInterface
+    interface Callback {
+        void completed(boolean failed);
+    }
+
+    private final Callback callback;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private AsyncCompletion(Callback callback) {
+        this.callback = callback;
+    }
+
+    static void register(HttpServletRequest request, Callback callback) {
+        request.getAsyncContext().addListener(new AsyncCompletion(callback));
+    }
+
+    private void complete(boolean failed) {
+        if (completed.compareAndSet(false, true)) {
+            callback.completed(failed);
+        }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        complete(false);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        complete(true);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        complete(true);
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // Listeners are dropped when async processing restarts; stay until the last cycle ends.
+        event.getAsyncContext().addListener(this);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.currency.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Marks beans from the packages in {@code faststart.lazy-bean-packages} as lazy so that
+ * non-critical infrastructure such as springdoc is built on first use instead of at startup.
+ * Under AOT the flags are evaluated at build time and baked into the generated definitions.
+ */
+@Component
+public class LazyBeansPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private List<String> packages = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        String[] configured = environment.getProperty("faststart.lazy-bean-packages", String[].class, new String[0]);
+        this.packages = List.of(configured);
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (packages.isEmpty()) {
+            return;
+        }
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (matches(definition.getBeanClassName())) {
+                definition.setLazyInit(true);
+                continue;
+            }
+            String factoryBean = definition.getFactoryBeanName();
+            if (factoryBean != null && beanFactory.containsBeanDefinition(factoryBean)
+                    && matches(beanFactory.getBeanDefinition(factoryBean).getBeanClassName())) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private boolean matches(String className) {
+        if (className == null) {
+            return false;
+        }
+        for (String prefix : packages) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
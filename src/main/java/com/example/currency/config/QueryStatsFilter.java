@@ -0,0 +1,166 @@
+package com.example.currency.config;
+
+import com.example.currency.sql.QueryStats;
+import com.example.currency.sql.QueryStatsContext;
+import com.example.currency.sql.SqlMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private static final String UNMATCHED_ROUTE = "unmatched";
+    private static final String ASYNC_INTERCEPTOR = QueryStatsFilter.class.getName() + ".stats";
+
+    private final SqlMetrics sqlMetrics;
+    private final boolean enabled;
+    private final boolean exposeHeaders;
+
+    @Autowired
+    public QueryStatsFilter(
+            SqlMetrics sqlMetrics,
+            @Value("${sql.stats.enabled:true}") boolean enabled,
+            @Value("${sql.stats.headers:false}") boolean exposeHeaders
+    ) {
+        this.sqlMetrics = sqlMetrics;
+        this.enabled = enabled;
+        this.exposeHeaders = exposeHeaders;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStatsContext.begin();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ASYNC_INTERCEPTOR, new AsyncStatsInterceptor(stats));
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, exposeHeaders ? new StatsHeaderResponse(response, stats) : response);
+            if (request.isAsyncStarted()) {
+                AsyncCompletion.register(request, failed -> record(request, stats));
+                async = true;
+            }
+        } finally {
+            QueryStatsContext.end();
+            if (!async) {
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        sqlMetrics.record(request.getMethod(), pattern != null ? pattern.toString() : UNMATCHED_ROUTE, stats);
+    }
+
+    /**
+     * Counts the statements a streaming or {@link Callable} response issues on
+     * its worker thread towards the request.
+     */
+    private static final class AsyncStatsInterceptor implements CallableProcessingInterceptor {
+
+        private final QueryStats stats;
+
+        private AsyncStatsInterceptor(QueryStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            QueryStatsContext.resume(stats);
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            QueryStatsContext.end();
+        }
+    }
+
+    /**
+     * Adds the query headers just before the response is committed, so they cover every statement
+     * issued up to the first byte of the body. Lazy loads during rendering only reach the metrics.
+     */
+    private static final class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final QueryStats stats;
+        private boolean written;
+
+        private StatsHeaderResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        private void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, Long.toString(stats.getStatements()));
+            setHeader(ROWS_HEADER, Long.toString(stats.getRows()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.getMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
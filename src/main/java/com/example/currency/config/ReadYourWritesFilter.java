@@ -0,0 +1,151 @@
+package com.example.currency.config;
+
+import com.example.currency.routing.ReplicaRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.Callable;
+
+/**
+ * Keeps a client on the primary after it writes. The highest change id committed by the request is
+ * returned in a cookie, and later requests carrying it read from the replica only once the replica
+ * has applied that change.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "read-after";
+
+    private static final String ASYNC_INTERCEPTOR = ReadYourWritesFilter.class.getName() + ".session";
+
+    private final int maxAgeSeconds;
+
+    public ReadYourWritesFilter(int maxAgeSeconds) {
+        this.maxAgeSeconds = maxAgeSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long readAfter = parse(WebUtils.getCookie(request, COOKIE));
+        ReplicaRouting.beginSession(readAfter);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ASYNC_INTERCEPTOR, new AsyncSessionInterceptor());
+        try {
+            SessionVersionResponse wrapped = new SessionVersionResponse(response, readAfter);
+            filterChain.doFilter(request, wrapped);
+            wrapped.writeCookie();
+        } finally {
+            ReplicaRouting.endSession();
+        }
+    }
+
+    private static long parse(Cookie cookie) {
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Carries the session to the thread that runs a streaming or {@link Callable} response, so its
+     * reads still wait for the replica to apply the session's writes.
+     */
+    private static final class AsyncSessionInterceptor implements CallableProcessingInterceptor {
+
+        private volatile long version;
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            version = ReplicaRouting.sessionVersion();
+        }
+
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            ReplicaRouting.beginSession(version);
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            ReplicaRouting.endSession();
+        }
+    }
+
+    /**
+     * Sets the cookie just before the response is committed; by then the request's writes have
+     * committed and reported their change ids.
+     */
+    private final class SessionVersionResponse extends HttpServletResponseWrapper {
+
+        private final long readAfter;
+        private boolean written;
+
+        private SessionVersionResponse(HttpServletResponse response, long readAfter) {
+            super(response);
+            this.readAfter = readAfter;
+        }
+
+        private void writeCookie() {
+            long version = ReplicaRouting.sessionVersion();
+            if (written || version <= readAfter || isCommitted()) {
+                return;
+            }
+            written = true;
+            Cookie cookie = new Cookie(COOKIE, Long.toString(version));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge(maxAgeSeconds);
+            addCookie(cookie);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeCookie();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeCookie();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeCookie();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeCookie();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeCookie();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeCookie();
+            super.sendRedirect(location);
+        }
+    }
+}
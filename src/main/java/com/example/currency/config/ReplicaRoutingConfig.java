@@ -0,0 +1,90 @@
+package com.example.currency.config;
+
+import com.example.currency.routing.ReplicaLagMonitor;
+import com.example.currency.routing.ReplicaRouting;
+import com.example.currency.routing.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions to a replica pool and everything else to the primary. Only the
+ * routing data source is a bean, so SQL instrumentation wraps it once; the lag monitor talks to the
+ * two pools directly.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig implements DisposableBean {
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+
+    public ReplicaRoutingConfig(
+            DataSourceProperties primaryProperties,
+            @Value("${datasource.replica.url}") String replicaUrl,
+            @Value("${datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}") String replicaDriver,
+            @Value("${datasource.replica.maximum-pool-size:10}") int replicaPoolSize
+    ) {
+        this.primary = primaryProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.primary.setPoolName("primary");
+        this.replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .driverClassName(replicaDriver.isEmpty() ? null : replicaDriver)
+                .build();
+        this.replica.setPoolName("replica");
+        this.replica.setMaximumPoolSize(replicaPoolSize);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Value("${datasource.replica.max-lag-ms:2000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMillis);
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(ReplicaLagMonitor monitor) {
+        return new ReplicaRouting(monitor);
+    }
+
+    @Bean
+    public DataSource dataSource(ReplicaRouting routing) {
+        return new LazyConnectionDataSourceProxy(new RoutingDataSource(primary, replica, routing));
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${datasource.replica.read-your-writes-seconds:60}") int maxAgeSeconds) {
+        return new ReadYourWritesFilter(maxAgeSeconds);
+    }
+
+    /**
+     * Hibernate otherwise holds a request's first connection until the open-in-view session closes,
+     * so a replica connection picked up by a read could end up serving a later write.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Override
+    public void destroy() {
+        replica.close();
+        primary.close();
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.currency.config;
 
-import com.example.currency.service.RequestCounter;
+import com.example.currency.metrics.RequestMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,19 +14,42 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
 public class RequestCounterFilter extends OncePerRequestFilter {
 
-    private final RequestCounter requestCounter;
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final RequestMetrics requestMetrics;
 
     @Autowired
-    public RequestCounterFilter(RequestCounter requestCounter) {
-        this.requestCounter = requestCounter;
+    public RequestCounterFilter(RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        requestCounter.increment();
-        filterChain.doFilter(request, response);
+        long start = System.nanoTime();
+        boolean failed = true;
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+            if (request.isAsyncStarted()) {
+                AsyncCompletion.register(request, asyncFailed -> record(request, response, asyncFailed, start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                record(request, response, failed, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, boolean failed, long start) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : UNMATCHED_ROUTE;
+        int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+        requestMetrics.record(request.getMethod(), route, status, System.nanoTime() - start);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.example.currency.config;
+
+import com.example.currency.models.RateView;
+import com.example.currency.wire.ProtobufViewHttpMessageConverter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary representations chosen through the Accept header: CBOR and Smile share the application's
+ * Jackson configuration, protobuf covers rates and currencies. JSON stays first in the converter
+ * list, so it remains the default for callers that accept anything. Rate views keep their currency
+ * id in every binary format; JSON leaves it out to match the entity.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).mixIn(RateView.class, BinaryRateView.class).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).mixIn(RateView.class, BinaryRateView.class).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufViewHttpMessageConverter());
+    }
+
+    /**
+     * Replaces the JSON exclusion of {@link RateView#curId()}.
+     */
+    @JsonIgnoreProperties({})
+    private abstract static class BinaryRateView {
+    }
+}
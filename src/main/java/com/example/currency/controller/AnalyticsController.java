@@ -0,0 +1,128 @@
+package com.example.currency.controller;
+
+import com.example.currency.analytics.ChartSeriesService;
+import com.example.currency.analytics.PortfolioValuationService;
+import com.example.currency.analytics.RateRollupService;
+import com.example.currency.models.RateRollup;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "Analytics", description = "API for rate statistics over date ranges")
+public class AnalyticsController {
+
+    private final RateRollupService rollupService;
+    private final ChartSeriesService chartSeriesService;
+    private final PortfolioValuationService valuationService;
+
+    @Autowired
+    public AnalyticsController(RateRollupService rollupService, ChartSeriesService chartSeriesService,
+                               PortfolioValuationService valuationService) {
+        this.rollupService = rollupService;
+        this.chartSeriesService = chartSeriesService;
+        this.valuationService = valuationService;
+    }
+
+    @GetMapping("/currencies/{curId}/stats")
+    @Operation(summary = "Get rate statistics for a currency",
+            description = "Returns open, close, min, max, average, standard deviation and volatility of the per-unit rate over a date range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully computed statistics"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range")
+    })
+    public ResponseEntity<Map<String, Object>> getCurrencyStats(
+            @PathVariable Integer curId,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("curId", curId);
+        result.put("from", from);
+        result.put("to", to);
+        result.putAll(rollupService.rangeStats(curId, from, to).toSummary());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/currencies/{curId}/series")
+    @Operation(summary = "Get rate statistics per period",
+            description = "Returns statistics for each day, week, month or year bucket overlapping a date range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully computed statistics"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or granularity")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getCurrencySeries(
+            @PathVariable Integer curId,
+            @RequestParam(defaultValue = "MONTH") RateRollup.Granularity granularity,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to) {
+        return ResponseEntity.ok(rollupService.series(curId, granularity, from, to));
+    }
+
+    @GetMapping("/pairs")
+    @Operation(summary = "Get cross-rate statistics for a currency pair",
+            description = "Returns the cross rate of base in quote at the start and end of a range and the statistics of both currencies")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully computed statistics"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range")
+    })
+    public ResponseEntity<Map<String, Object>> getPairStats(
+            @RequestParam Integer base,
+            @RequestParam Integer quote,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to) {
+        return ResponseEntity.ok(rollupService.pairStats(base, quote, from, to));
+    }
+
+    @GetMapping("/chart")
+    @Operation(summary = "Get a downsampled chart series",
+            description = "Returns at most the requested number of points for a currency, or a pair when quote is given, using LTTB or min/max buckets")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully built the series"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range, point count or method")
+    })
+    public ResponseEntity<Map<String, Object>> getChartSeries(
+            @RequestParam Integer base,
+            @RequestParam(required = false) Integer quote,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to,
+            @RequestParam(defaultValue = "500") int points,
+            @RequestParam(defaultValue = "LTTB") ChartSeriesService.Method method) {
+        return ResponseEntity.ok(chartSeriesService.series(base, quote, from, to, points, method));
+    }
+
+    @PostMapping("/rollups/rebuild")
+    @Operation(summary = "Rebuild rate rollups", description = "Recomputes all rollup buckets from the raw rate history")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rollups rebuilt")
+    })
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        return ResponseEntity.ok(Map.of("rollups", rollupService.rebuild()));
+    }
+
+    @PostMapping("/portfolio/valuation")
+    @Operation(summary = "Value a portfolio over a date range",
+            description = "Returns the value of the holdings in the base currency (BYN when omitted) for every weekday of the range, "
+                    + "using the latest rate on or before each day; days before every currency has a rate are left out")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Valuation streamed in date order"),
+            @ApiResponse(responseCode = "400", description = "Missing holdings, invalid range or a currency without rates")
+    })
+    public ResponseEntity<StreamingResponseBody> valuePortfolio(@RequestBody PortfolioValuationService.Request request) {
+        PortfolioValuationService.Prepared prepared = valuationService.prepare(request);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> valuationService.write(prepared, out));
+    }
+}
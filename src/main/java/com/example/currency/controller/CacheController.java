@@ -0,0 +1,50 @@
+package com.example.currency.controller;
+
+import com.example.currency.cache.CacheRegionStats;
+import com.example.currency.cache.SimpleCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "API for inspecting cache efficiency")
+public class CacheController {
+
+    private final SimpleCache cache;
+
+    @Autowired
+    public CacheController(SimpleCache cache) {
+        this.cache = cache;
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get cache statistics", description = "Returns hits, misses, load latency, evictions and estimated size per cache region")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
+    })
+    public ResponseEntity<List<CacheRegionStats>> getStats() {
+        return ResponseEntity.ok(cache.getRegionStats());
+    }
+
+    @GetMapping("/hot-keys")
+    @Operation(summary = "Get hottest cache keys", description = "Returns the most frequently hit keys; requires cache.stats.track-keys=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved hot keys"),
+            @ApiResponse(responseCode = "404", description = "Key tracking is disabled")
+    })
+    public ResponseEntity<List<SimpleCache.HotKey>> getHotKeys(@RequestParam(defaultValue = "20") int limit) {
+        if (!cache.isTrackingKeys()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Hot key tracking is disabled");
+        }
+        return ResponseEntity.ok(cache.getHotKeys(limit));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.currency.controller;
+
+import com.example.currency.jobs.ConversionJob;
+import com.example.currency.jobs.ConversionJobManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/jobs/conversions")
+@Tag(name = "Conversion jobs", description = "API for converting large CSV files in the background")
+public class ConversionJobController {
+
+    private final ConversionJobManager jobManager;
+
+    @Autowired
+    public ConversionJobController(ConversionJobManager jobManager) {
+        this.jobManager = jobManager;
+    }
+
+    @PostMapping
+    @Operation(summary = "Submit a CSV conversion", description = "Stores the CSV request body and converts the amount column of every line to the target currency in the background")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job accepted; poll the Location for its status"),
+            @ApiResponse(responseCode = "400", description = "Unknown target currency or invalid columns")
+    })
+    public ResponseEntity<Map<String, Object>> submit(
+            @RequestParam String to,
+            @RequestParam(defaultValue = "0") int amountColumn,
+            @RequestParam(defaultValue = "1") int currencyColumn,
+            InputStream body
+    ) throws IOException {
+        ConversionJob job = jobManager.submit(body, to, amountColumn, currencyColumn);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(job.getId()).toUri())
+                .body(job.toStatus());
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get job status", description = "Returns the state, progress and line counts of a conversion job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved status"),
+            @ApiResponse(responseCode = "404", description = "No such job")
+    })
+    public ResponseEntity<Map<String, Object>> getStatus(@PathVariable String id) {
+        return jobManager.get(id)
+                .map(job -> ResponseEntity.ok(job.toStatus()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/result")
+    @Operation(summary = "Download the converted CSV", description = "Returns the input lines with the converted amount and an error column appended")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Converted file"),
+            @ApiResponse(responseCode = "404", description = "No such job"),
+            @ApiResponse(responseCode = "409", description = "The job has not completed")
+    })
+    public ResponseEntity<Resource> getResult(@PathVariable String id) {
+        Optional<ConversionJob> job = jobManager.get(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<Path> result = jobManager.result(job.get());
+        if (result.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("conversion-" + id + ".csv").build().toString())
+                .body(new FileSystemResource(result.get()));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel or discard a job", description = "Cancels a queued or running job; a finished job is discarded with its files")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cancellation requested or job discarded"),
+            @ApiResponse(responseCode = "404", description = "No such job")
+    })
+    public ResponseEntity<Map<String, Object>> cancel(@PathVariable String id) {
+        return jobManager.cancel(id)
+                .map(job -> ResponseEntity.ok(job.toStatus()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
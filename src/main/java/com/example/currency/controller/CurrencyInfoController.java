@@ -1,6 +1,7 @@
 package com.example.currency.controller;
 
 import com.example.currency.models.CurrencyInfo;
+import com.example.currency.search.CurrencySearchIndex;
 import com.example.currency.service.CurrencyService;
 import com.example.currency.service.RequestCounter;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,11 +25,14 @@ public class CurrencyInfoController {
 
     private final CurrencyService currencyService;
     private final RequestCounter requestCounter;
+    private final CurrencySearchIndex searchIndex;
 
     @Autowired
-    public CurrencyInfoController(CurrencyService currencyService, RequestCounter requestCounter) {
+    public CurrencyInfoController(CurrencyService currencyService, RequestCounter requestCounter,
+                                  CurrencySearchIndex searchIndex) {
         this.currencyService = currencyService;
         this.requestCounter = requestCounter;
+        this.searchIndex = searchIndex;
     }
 
     @GetMapping
@@ -51,6 +55,17 @@ public class CurrencyInfoController {
         return ResponseEntity.ok(currencyService.getAllCurrenciesFromDb());
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search currencies", description = "Returns currencies whose abbreviation, code or name words start with the query words, best matches first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully searched currencies")
+    })
+    public ResponseEntity<List<CurrencySearchIndex.SearchResult>> searchCurrencies(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(searchIndex.search(q, Math.min(limit, 100)));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get currency by ID", description = "Returns a currency by its ID")
     @ApiResponses(value = {
@@ -109,7 +124,7 @@ public class CurrencyInfoController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved counter value"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<Integer> getCounter() {
+    public ResponseEntity<Long> getCounter() {
         return ResponseEntity.ok(requestCounter.getCount());
     }
 
@@ -1,6 +1,7 @@
 package com.example.currency.controller;
 
 import com.example.currency.models.CurrencyRate;
+import com.example.currency.models.RateView;
 import com.example.currency.service.CurrencyConversionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -32,7 +33,7 @@ public class CurrencyRateController {
     }
 
     @GetMapping("/convert")
-    @Operation(summary = "Convert currency", description = "Converts an amount from one currency to another")
+    @Operation(summary = "Convert currency", description = "Converts an amount from one currency to another, at the rates in force on the given date if one is passed")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Conversion successful"),
             @ApiResponse(responseCode = "400", description = "Invalid input or amount less than or equal to zero"),
@@ -41,9 +42,12 @@ public class CurrencyRateController {
     public ResponseEntity<?> convert(
             @RequestParam Integer from,
             @RequestParam Integer to,
-            @RequestParam BigDecimal amount) {
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) LocalDate date) {
         try {
-            Map<String, Object> result = conversionService.convertCurrencyWithValidation(from, to, amount);
+            Map<String, Object> result = date == null
+                    ? conversionService.convertCurrencyWithValidation(from, to, amount)
+                    : conversionService.convertCurrencyOnDate(from, to, amount, date);
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             throw new IllegalArgumentException("Conversion error: " + e.getMessage());
@@ -56,7 +60,7 @@ public class CurrencyRateController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved rates"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<List<CurrencyRate>> getAllRates() {
+    public ResponseEntity<List<RateView>> getAllRates() {
         return ResponseEntity.ok(conversionService.getAllRates());
     }
 
@@ -0,0 +1,60 @@
+package com.example.currency.controller;
+
+import com.example.currency.warmup.WarmupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.LivenessState;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/health")
+@Tag(name = "Health", description = "Liveness and readiness probes")
+public class HealthController {
+
+    private final ApplicationAvailability availability;
+    private final WarmupService warmupService;
+
+    @Autowired
+    public HealthController(ApplicationAvailability availability, WarmupService warmupService) {
+        this.availability = availability;
+        this.warmupService = warmupService;
+    }
+
+    @GetMapping("/live")
+    @Operation(summary = "Liveness probe", description = "Returns 200 while the application is in a correct state")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Application is live"),
+            @ApiResponse(responseCode = "503", description = "Application is broken")
+    })
+    public ResponseEntity<Map<String, Object>> live() {
+        boolean live = availability.getLivenessState() == LivenessState.CORRECT;
+        return ResponseEntity.status(live ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("status", live ? "UP" : "DOWN"));
+    }
+
+    @GetMapping("/ready")
+    @Operation(summary = "Readiness probe", description = "Returns 200 once startup warm-up has finished and the node accepts traffic")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Node is ready"),
+            @ApiResponse(responseCode = "503", description = "Node is still warming up")
+    })
+    public ResponseEntity<Map<String, Object>> ready() {
+        boolean ready = availability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC
+                && warmupService.isFinished();
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of(
+                        "status", ready ? "UP" : "OUT_OF_SERVICE",
+                        "warmupMillis", warmupService.getDurationMillis(),
+                        "warmupFailures", warmupService.getFailures()
+                ));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.currency.controller;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@Tag(name = "Metrics", description = "Prometheus metrics export")
+public class MetricsController {
+
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final List<MetricsSource> sources;
+
+    @Autowired
+    public MetricsController(List<MetricsSource> sources) {
+        this.sources = sources;
+    }
+
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_CONTENT_TYPE)
+    @Operation(summary = "Export metrics", description = "Returns all metrics in Prometheus text exposition format")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully exported metrics")
+    })
+    public ResponseEntity<String> metrics() {
+        PrometheusWriter writer = new PrometheusWriter();
+        sources.forEach(source -> source.collect(writer));
+        return ResponseEntity.ok(writer.toString());
+    }
+}
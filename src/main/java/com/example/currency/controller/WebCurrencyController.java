@@ -3,6 +3,7 @@ package com.example.currency.controller;
 import com.example.currency.models.CurrencyInfo;
 import com.example.currency.service.CurrencyConversionService;
 import com.example.currency.service.CurrencyService;
+import com.example.currency.web.FragmentCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -17,16 +18,20 @@ public class WebCurrencyController {
 
     private final CurrencyService currencyService;
     private final CurrencyConversionService conversionService;
+    private final FragmentCache fragmentCache;
 
     @Autowired
-    public WebCurrencyController(CurrencyService currencyService, CurrencyConversionService conversionService) {
+    public WebCurrencyController(CurrencyService currencyService, CurrencyConversionService conversionService,
+                                 FragmentCache fragmentCache) {
         this.currencyService = currencyService;
         this.conversionService = conversionService;
+        this.fragmentCache = fragmentCache;
     }
 
     @GetMapping
     public String listCurrencies(Model model) {
-        model.addAttribute("currencies", currencyService.getAllCurrenciesFromDb());
+        model.addAttribute("currencyRows", fragmentCache.currencyList("currencies/fragments :: currencyRows",
+                () -> Map.of("currencies", currencyService.getAllCurrencies())));
         return "currencies/list";
     }
 
@@ -44,8 +49,8 @@ public class WebCurrencyController {
 
     @GetMapping("/{id}")
     public String viewCurrency(@PathVariable Integer id, Model model) {
-        CurrencyInfo currency = currencyService.getCurrencyByIdWithRates(id).orElseThrow();
-        model.addAttribute("currency", currency);
+        model.addAttribute("currencyDetails", fragmentCache.currency(id, "currencies/fragments :: currencyDetails",
+                () -> Map.of("currency", currencyService.getCurrencyByIdWithRates(id).orElseThrow())));
         return "currencies/view";
     }
 
@@ -70,7 +75,7 @@ public class WebCurrencyController {
 
     @GetMapping("/convert")
     public String convertForm(Model model) {
-        model.addAttribute("currencies", currencyService.getAllCurrenciesFromDb());
+        model.addAttribute("currencyOptions", currencyOptions());
         return "convert";
     }
 
@@ -85,7 +90,19 @@ public class WebCurrencyController {
         model.addAttribute("from", result.get("from"));
         model.addAttribute("to", result.get("to"));
         model.addAttribute("amount", result.get("amount"));
-        model.addAttribute("currencies", currencyService.getAllCurrenciesFromDb());
+        model.addAttribute("fromAbbreviation", abbreviation(from));
+        model.addAttribute("toAbbreviation", abbreviation(to));
+        model.addAttribute("currencyOptions", currencyOptions());
         return "convert";
     }
+
+    private String currencyOptions() {
+        // The dropdown needs only ids and abbreviations, not the rate history getAllCurrenciesFromDb loads.
+        return fragmentCache.currencyList("currencies/fragments :: currencyOptions",
+                () -> Map.of("currencies", currencyService.getAllCurrencies()));
+    }
+
+    private String abbreviation(Integer curId) {
+        return currencyService.getCurrencyById(curId).map(CurrencyInfo::getCurAbbreviation).orElse(String.valueOf(curId));
+    }
 }
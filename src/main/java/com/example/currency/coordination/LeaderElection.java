@@ -0,0 +1,168 @@
+package com.example.currency.coordination;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.LeaderLease;
+import com.example.currency.repository.LeaderLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lease-based leader election on a single database row. Takeover only succeeds on an expired lease
+ * and increments the fencing token; writes made under the lease call {@link #fence(long)} in their
+ * transaction, which row-locks the lease and fails once another node holds a newer token. Expiry
+ * uses node clocks, so {@code leader.lease.ttl-ms} should comfortably exceed expected clock skew.
+ */
+@Component
+public class LeaderElection implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(LeaderElection.class);
+
+    public static final String RATE_INGESTION = "rate-ingestion";
+
+    private final LeaderLeaseRepository repository;
+    private final String leaseName;
+    private final String holder;
+    private final Duration ttl;
+    private final Clock clock;
+    private final boolean enabled;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder losses = new LongAdder();
+    private volatile long token;
+    private volatile Instant localExpiry = Instant.EPOCH;
+
+    @Autowired
+    public LeaderElection(
+            LeaderLeaseRepository repository,
+            @Value("${leader.enabled:true}") boolean enabled,
+            @Value("${leader.lease.ttl-ms:15000}") long ttlMillis
+    ) {
+        this(repository, RATE_INGESTION, defaultHolder(), Duration.ofMillis(ttlMillis), Clock.systemUTC(), enabled);
+    }
+
+    LeaderElection(LeaderLeaseRepository repository, String leaseName, String holder, Duration ttl, Clock clock,
+                   boolean enabled) {
+        this.repository = repository;
+        this.leaseName = leaseName;
+        this.holder = holder;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${leader.lease.renew-interval-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            tryAcquireOrRenew();
+        } catch (RuntimeException e) {
+            log.warn("Lease {} heartbeat failed: {}", leaseName, e.getMessage());
+        }
+    }
+
+    public synchronized boolean tryAcquireOrRenew() {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(ttl);
+        if (isLeader() && repository.renew(leaseName, holder, token, expiresAt) == 1) {
+            localExpiry = expiresAt;
+            return true;
+        }
+        if (isLeader()) {
+            losses.increment();
+            log.warn("Lost lease {} with token {}", leaseName, token);
+        }
+        localExpiry = Instant.EPOCH;
+
+        ensureLeaseRow();
+        if (repository.takeOver(leaseName, holder, now, expiresAt) == 1) {
+            token = repository.findById(leaseName).map(LeaderLease::getToken).orElse(0L);
+            localExpiry = expiresAt;
+            acquisitions.increment();
+            log.info("Acquired lease {} as {} with fencing token {}", leaseName, holder, token);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isLeader() {
+        return clock.instant().isBefore(localExpiry);
+    }
+
+    public OptionalLong currentToken() {
+        return isLeader() ? OptionalLong.of(token) : OptionalLong.empty();
+    }
+
+    public void fence(long fencingToken) {
+        if (repository.fence(leaseName, holder, fencingToken, clock.instant()) != 1) {
+            throw new IllegalStateException("Lease " + leaseName + " is no longer held with token " + fencingToken);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void release() {
+        if (isLeader()) {
+            repository.renew(leaseName, holder, token, clock.instant());
+            localExpiry = Instant.EPOCH;
+        }
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    private void ensureLeaseRow() {
+        if (repository.existsById(leaseName)) {
+            return;
+        }
+        LeaderLease lease = new LeaderLease();
+        lease.setName(leaseName);
+        lease.setExpiresAt(Instant.EPOCH);
+        try {
+            repository.saveAndFlush(lease);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lease {} row was created concurrently", leaseName);
+        }
+    }
+
+    private static String defaultHolder() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("leader_is_leader", "gauge", "1 if this node currently holds the lease");
+        writer.sample("leader_is_leader", isLeader() ? 1 : 0, "lease", leaseName);
+        writer.metric("leader_fencing_token", "gauge", "Fencing token of the lease held by this node");
+        writer.sample("leader_fencing_token", isLeader() ? token : 0, "lease", leaseName);
+        writer.metric("leader_transitions_total", "counter", "Lease acquisitions and losses on this node");
+        writer.sample("leader_transitions_total", acquisitions.sum(), "lease", leaseName, "event", "acquired");
+        writer.sample("leader_transitions_total", losses.sum(), "lease", leaseName, "event", "lost");
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.currency.history;
+
+import com.example.currency.analytics.RollupStats;
+import com.example.currency.coherence.CacheChangeListener;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CacheChange;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.repository.CurrencyRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Full rate history of every currency held as {@link RateSeries}, about 12 bytes per rate instead
+ * of an entity graph. Built from the database at startup and kept current from rate changes applied
+ * on this node, so historical lookups never query the database. When several rows share a currency
+ * and day, the latest row is the rate of that day.
+ */
+@Component
+public class RateHistoryStore implements ApplicationRunner, CacheChangeListener, MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(RateHistoryStore.class);
+
+    private final CurrencyRateRepository currencyRateRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private volatile Map<Integer, RateSeries> series = Map.of();
+    private volatile boolean loaded;
+
+    @Autowired
+    public RateHistoryStore(CurrencyRateRepository currencyRateRepository, PlatformTransactionManager transactionManager) {
+        this.currencyRateRepository = currencyRateRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Could not load rate history at startup, will retry on first lookup: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        Map<Integer, RateSeries> next = readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = currencyRateRepository.streamAllRateValuesOrdered()) {
+                return build(rows.iterator());
+            }
+        });
+        series = next;
+        loaded = true;
+        log.info("Loaded rate history for {} currencies, {} rates in {} ms", next.size(), rateCount(next),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static Map<Integer, RateSeries> build(Iterator<Object[]> rows) {
+        Map<Integer, RateSeries> built = new HashMap<>();
+        Integer currencyId = null;
+        int[] days = new int[64];
+        long[] rates = new long[64];
+        int length = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            if (row[0] == null || row[1] == null || row[2] == null) {
+                continue;
+            }
+            if (!row[0].equals(currencyId)) {
+                if (currencyId != null) {
+                    built.put(currencyId, RateSeries.of(days, rates, length));
+                }
+                currencyId = (Integer) row[0];
+                length = 0;
+            }
+            int day = RateSeries.toEpochDay((LocalDate) row[1]);
+            long rate = RateSeries.toScaledRate(RollupStats.perUnit((BigDecimal) row[2], (Integer) row[3]));
+            if (length > 0 && days[length - 1] == day) {
+                rates[length - 1] = rate;
+                continue;
+            }
+            if (length == days.length) {
+                days = Arrays.copyOf(days, length * 2);
+                rates = Arrays.copyOf(rates, length * 2);
+            }
+            days[length] = day;
+            rates[length] = rate;
+            length++;
+        }
+        if (currencyId != null) {
+            built.put(currencyId, RateSeries.of(days, rates, length));
+        }
+        return built;
+    }
+
+    public RateSeries history(Integer currencyId) {
+        if (!loaded) {
+            reload();
+        }
+        lookups.increment();
+        return series.getOrDefault(currencyId, RateSeries.EMPTY);
+    }
+
+    public RateSeries range(Integer currencyId, LocalDate from, LocalDate to) {
+        return history(currencyId).range(from, to);
+    }
+
+    public Optional<BigDecimal> rateOn(Integer currencyId, LocalDate date) {
+        RateSeries history = history(currencyId);
+        int index = history.indexOf(date);
+        return index < 0 ? Optional.empty() : Optional.of(history.rate(index));
+    }
+
+    /**
+     * Per-unit rate in force on {@code date}: the one published that day or the latest before it.
+     */
+    public Optional<BigDecimal> rateAtOrBefore(Integer currencyId, LocalDate date) {
+        RateSeries history = history(currencyId);
+        int index = history.floorIndex(date);
+        return index < 0 ? Optional.empty() : Optional.of(history.rate(index));
+    }
+
+    @Override
+    public void onChange(CacheChange change) {
+        if (!loaded || change.getCurrencyId() == null) {
+            return;
+        }
+        try {
+            if (change.getType() == CacheChange.Type.CURRENCY_DELETED) {
+                replace(change.getCurrencyId(), null);
+            } else if (change.getType() == CacheChange.Type.RATE_CHANGED && change.getRateDate() != null) {
+                refreshDay(change.getCurrencyId(), change.getRateDate());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not update rate history for currency {}, reloading on next lookup: {}",
+                    change.getCurrencyId(), e.getMessage());
+            loaded = false;
+        }
+    }
+
+    private synchronized void refreshDay(Integer currencyId, LocalDate date) {
+        // Read under the lock so two changes to the same day cannot apply out of order.
+        List<CurrencyRate> rows = currencyRateRepository.findByCurrencyIdAndDate(currencyId, date);
+        CurrencyRate latest = null;
+        for (CurrencyRate row : rows) {
+            if (row.getCurOfficialRate() != null) {
+                latest = row;
+            }
+        }
+        RateSeries current = series.getOrDefault(currencyId, RateSeries.EMPTY);
+        int day = RateSeries.toEpochDay(date);
+        replace(currencyId, latest == null
+                ? current.without(day)
+                : current.with(day, RateSeries.toScaledRate(RollupStats.perUnit(latest.getCurOfficialRate(), latest.getCurScale()))));
+    }
+
+    private synchronized void replace(Integer currencyId, RateSeries next) {
+        RateSeries current = series.get(currencyId);
+        if (current == next || (current == null && (next == null || next.isEmpty()))) {
+            return;
+        }
+        Map<Integer, RateSeries> copy = new HashMap<>(series);
+        if (next == null || next.isEmpty()) {
+            copy.remove(currencyId);
+        } else {
+            copy.put(currencyId, next);
+        }
+        series = copy;
+        updates.increment();
+    }
+
+    public long size() {
+        return rateCount(series);
+    }
+
+    public long footprintBytes() {
+        long bytes = 0;
+        for (RateSeries history : series.values()) {
+            bytes += history.footprintBytes();
+        }
+        return bytes;
+    }
+
+    private static long rateCount(Map<Integer, RateSeries> series) {
+        long count = 0;
+        for (RateSeries history : series.values()) {
+            count += history.size();
+        }
+        return count;
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        Map<Integer, RateSeries> current = series;
+        writer.metric("rate_history_currencies", "gauge", "Currencies held in the in-memory rate history");
+        writer.sample("rate_history_currencies", current.size());
+        writer.metric("rate_history_rates", "gauge", "Rates held in the in-memory rate history");
+        writer.sample("rate_history_rates", rateCount(current));
+        writer.metric("rate_history_bytes", "gauge", "Estimated heap retained by the rate history arrays");
+        writer.sample("rate_history_bytes", footprintBytes());
+        writer.metric("rate_history_lookups_total", "counter", "Rate history lookups");
+        writer.sample("rate_history_lookups_total", lookups.sum());
+        writer.metric("rate_history_updates_total", "counter", "Rate history series replaced after a change");
+        writer.sample("rate_history_updates_total", updates.sum());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.currency.history;
+
+import com.example.currency.analytics.RollupStats;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * One currency's rate history as parallel primitive arrays: epoch days in ascending order and
+ * per-unit rates in millionths. A series is immutable; {@link #with} and {@link #without} copy the
+ * arrays, and {@link #range} returns a view sharing them.
+ */
+public final class RateSeries {
+    public static final int RATE_SCALE = RollupStats.RATE_SCALE;
+    static final RateSeries EMPTY = new RateSeries(new int[0], new long[0], 0, 0);
+
+    private final int[] days;
+    private final long[] rates;
+    private final int start;
+    private final int end;
+
+    private RateSeries(int[] days, long[] rates, int start, int end) {
+        this.days = days;
+        this.rates = rates;
+        this.start = start;
+        this.end = end;
+    }
+
+    public static RateSeries of(int[] days, long[] rates, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+        return new RateSeries(Arrays.copyOf(days, length), Arrays.copyOf(rates, length), 0, length);
+    }
+
+    public int size() {
+        return end - start;
+    }
+
+    public boolean isEmpty() {
+        return end == start;
+    }
+
+    public int epochDay(int index) {
+        return days[start + checkIndex(index)];
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDay(index));
+    }
+
+    public long scaledRate(int index) {
+        return rates[start + checkIndex(index)];
+    }
+
+    public BigDecimal rate(int index) {
+        return BigDecimal.valueOf(scaledRate(index), RATE_SCALE);
+    }
+
+    /**
+     * Index of the rate published on {@code date}, or -1.
+     */
+    public int indexOf(LocalDate date) {
+        int found = Arrays.binarySearch(days, start, end, toEpochDay(date));
+        return found >= 0 ? found - start : -1;
+    }
+
+    /**
+     * Index of the latest rate published on or before {@code date}, or -1 when the history starts later.
+     */
+    public int floorIndex(LocalDate date) {
+        int found = Arrays.binarySearch(days, start, end, toEpochDay(date));
+        return found >= 0 ? found - start : -found - 2 - start;
+    }
+
+    public RateSeries range(LocalDate from, LocalDate to) {
+        int low = lowerBound(toEpochDay(from));
+        int high = lowerBound(toEpochDay(to.plusDays(1)));
+        return low >= high ? EMPTY : new RateSeries(days, rates, low, high);
+    }
+
+    RateSeries with(int epochDay, long scaledRate) {
+        int found = Arrays.binarySearch(days, start, end, epochDay);
+        if (found >= 0) {
+            if (rates[found] == scaledRate) {
+                return this;
+            }
+            long[] nextRates = Arrays.copyOfRange(rates, start, end);
+            nextRates[found - start] = scaledRate;
+            return new RateSeries(Arrays.copyOfRange(days, start, end), nextRates, 0, size());
+        }
+        int insertAt = -found - 1 - start;
+        int[] nextDays = new int[size() + 1];
+        long[] nextRates = new long[size() + 1];
+        System.arraycopy(days, start, nextDays, 0, insertAt);
+        System.arraycopy(rates, start, nextRates, 0, insertAt);
+        nextDays[insertAt] = epochDay;
+        nextRates[insertAt] = scaledRate;
+        System.arraycopy(days, start + insertAt, nextDays, insertAt + 1, size() - insertAt);
+        System.arraycopy(rates, start + insertAt, nextRates, insertAt + 1, size() - insertAt);
+        return new RateSeries(nextDays, nextRates, 0, nextDays.length);
+    }
+
+    RateSeries without(int epochDay) {
+        int found = Arrays.binarySearch(days, start, end, epochDay);
+        if (found < 0) {
+            return this;
+        }
+        int removeAt = found - start;
+        if (size() == 1) {
+            return EMPTY;
+        }
+        int[] nextDays = new int[size() - 1];
+        long[] nextRates = new long[size() - 1];
+        System.arraycopy(days, start, nextDays, 0, removeAt);
+        System.arraycopy(rates, start, nextRates, 0, removeAt);
+        System.arraycopy(days, found + 1, nextDays, removeAt, end - found - 1);
+        System.arraycopy(rates, found + 1, nextRates, removeAt, end - found - 1);
+        return new RateSeries(nextDays, nextRates, 0, nextDays.length);
+    }
+
+    /**
+     * Retained heap of the backing arrays and this header; views report the arrays they pin.
+     */
+    long footprintBytes() {
+        return 24 + 16 + 4L * days.length + 16 + 8L * rates.length;
+    }
+
+    private int lowerBound(int epochDay) {
+        int found = Arrays.binarySearch(days, start, end, epochDay);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        return index;
+    }
+
+    static int toEpochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    static long toScaledRate(BigDecimal perUnitRate) {
+        return perUnitRate.setScale(RATE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.currency.jobs;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One CSV conversion: its files, settings and progress. Progress is written by the thread running
+ * the job and read by status requests, so the mutable fields are volatile.
+ */
+public final class ConversionJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    private final String id;
+    private final String target;
+    private final int amountColumn;
+    private final int currencyColumn;
+    private final Path directory;
+    private final long inputBytes;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long processedBytes;
+    private volatile long lines;
+    private volatile long failedLines;
+    private volatile String error;
+    private volatile Instant finishedAt;
+    private volatile boolean cancelRequested;
+
+    ConversionJob(String id, String target, int amountColumn, int currencyColumn, Path directory, long inputBytes) {
+        this.id = id;
+        this.target = target;
+        this.amountColumn = amountColumn;
+        this.currencyColumn = currencyColumn;
+        this.directory = directory;
+        this.inputBytes = inputBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    int getAmountColumn() {
+        return amountColumn;
+    }
+
+    int getCurrencyColumn() {
+        return currencyColumn;
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    Path getInput() {
+        return directory.resolve("input.csv");
+    }
+
+    Path getOutput() {
+        return directory.resolve("output.csv");
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void progress(long bytes, long convertedLines, long failed) {
+        processedBytes += bytes;
+        lines += convertedLines;
+        failedLines += failed;
+    }
+
+    void finish(Status finalStatus, String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    public Map<String, Object> toStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("id", id);
+        status.put("status", this.status);
+        status.put("to", target);
+        status.put("inputBytes", inputBytes);
+        status.put("processedBytes", processedBytes);
+        status.put("progress", inputBytes == 0 ? (this.status == Status.COMPLETED ? 1.0 : 0.0) : (double) processedBytes / inputBytes);
+        status.put("lines", lines);
+        status.put("failedLines", failedLines);
+        status.put("createdAt", createdAt.toString());
+        status.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+        status.put("error", error);
+        return status;
+    }
+}
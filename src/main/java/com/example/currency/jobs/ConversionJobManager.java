@@ -0,0 +1,340 @@
+package com.example.currency.jobs;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.CurrencyConversionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Converts uploaded CSV files in the background. An upload is stored under {@code jobs.dir} and
+ * queued; a job maps the file {@code jobs.chunk-bytes} at a time, cuts each region at its last line
+ * end and converts the chunks on a shared worker pool, keeping at most two chunks per worker in
+ * flight, so memory stays bounded whatever the file size. Results are written to the output file in
+ * input order as they complete. Every job converts with its own {@link RateSnapshot} of today's
+ * rates. Jobs live on the node that accepted them and are forgotten on restart.
+ */
+@Component
+public class ConversionJobManager implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(ConversionJobManager.class);
+
+    private static final long CANCEL_CHECK_MILLIS = 200;
+
+    private final CurrencyConversionService conversionService;
+    private final TransactionTemplate transaction;
+    private final Path directory;
+    private final int chunkBytes;
+    private final int maxInFlight;
+    private final Duration retention;
+    private final ExecutorService runners;
+    private final ExecutorService workers;
+    private final Map<String, ConversionJob> jobs = new ConcurrentHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final Map<ConversionJob.Status, LongAdder> finished = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder convertedLines = new LongAdder();
+    private final LongAdder convertedBytes = new LongAdder();
+
+    @Autowired
+    public ConversionJobManager(
+            CurrencyConversionService conversionService,
+            PlatformTransactionManager transactionManager,
+            @Value("${jobs.dir:data/jobs}") String directory,
+            @Value("${jobs.parallelism:0}") int parallelism,
+            @Value("${jobs.chunk-bytes:4194304}") int chunkBytes,
+            @Value("${jobs.max-running:2}") int maxRunning,
+            @Value("${jobs.retention-hours:24}") long retentionHours
+    ) {
+        int workerThreads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.conversionService = conversionService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.directory = Paths.get(directory);
+        this.chunkBytes = chunkBytes;
+        this.maxInFlight = workerThreads * 2;
+        this.retention = Duration.ofHours(retentionHours);
+        AtomicInteger runnerIds = new AtomicInteger();
+        this.runners = Executors.newFixedThreadPool(maxRunning, runnable -> {
+            Thread thread = new Thread(runnable, "conversion-job-" + runnerIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger workerIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "conversion-worker-" + workerIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(ConversionJob::requestCancel);
+        runners.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Stores the upload and queues its conversion. The target currency is resolved first, so an
+     * unknown one is rejected before the body is read.
+     *
+     * @param amountColumn   zero-based column holding the amount
+     * @param currencyColumn zero-based column holding the currency abbreviation
+     * @throws IllegalArgumentException if the target currency or the columns are invalid
+     */
+    public ConversionJob submit(InputStream csv, String target, int amountColumn, int currencyColumn) throws IOException {
+        if (target == null || target.isBlank()) {
+            throw new IllegalArgumentException("Target currency is required");
+        }
+        if (amountColumn < 0 || currencyColumn < 0 || amountColumn == currencyColumn) {
+            throw new IllegalArgumentException("Amount and currency columns must be distinct and not negative");
+        }
+        CurrencyRate targetRate = conversionService.getRateByAbbreviation(target);
+        if (targetRate == null || targetRate.getCurOfficialRate() == null) {
+            throw new IllegalArgumentException("No rate for currency " + target);
+        }
+        String id = UUID.randomUUID().toString();
+        Path jobDirectory = directory.resolve(id);
+        Files.createDirectories(jobDirectory);
+        long size;
+        try {
+            size = Files.copy(csv, jobDirectory.resolve("input.csv"));
+        } catch (IOException e) {
+            FileSystemUtils.deleteRecursively(jobDirectory);
+            throw e;
+        }
+        ConversionJob job = new ConversionJob(id, target, amountColumn, currencyColumn, jobDirectory, size);
+        jobs.put(id, job);
+        submitted.increment();
+        runners.execute(() -> run(job, targetRate));
+        return job;
+    }
+
+    public Optional<ConversionJob> get(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * The converted file of a completed job.
+     */
+    public Optional<Path> result(ConversionJob job) {
+        return job.getStatus() == ConversionJob.Status.COMPLETED && Files.exists(job.getOutput())
+                ? Optional.of(job.getOutput())
+                : Optional.empty();
+    }
+
+    /**
+     * Cancels a queued or running job; a finished job is forgotten and its files are deleted.
+     */
+    public Optional<ConversionJob> cancel(String id) {
+        ConversionJob job = jobs.get(id);
+        if (job == null) {
+            return Optional.empty();
+        }
+        job.requestCancel();
+        if (job.getStatus().isFinished() && jobs.remove(id, job)) {
+            delete(job);
+        }
+        return Optional.of(job);
+    }
+
+    void run(ConversionJob job, CurrencyRate targetRate) {
+        if (job.isCancelRequested()) {
+            finish(job, ConversionJob.Status.CANCELLED, null);
+            return;
+        }
+        job.start();
+        running.incrementAndGet();
+        try {
+            convert(job, targetRate);
+            Files.deleteIfExists(job.getInput());
+            finish(job, ConversionJob.Status.COMPLETED, null);
+        } catch (CancellationException e) {
+            finish(job, ConversionJob.Status.CANCELLED, null);
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.warn("Conversion job {} failed: {}", job.getId(), cause.toString());
+            finish(job, ConversionJob.Status.FAILED, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, ConversionJob.Status.CANCELLED, null);
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+
+    private void convert(ConversionJob job, CurrencyRate targetRate)
+            throws IOException, ExecutionException, InterruptedException {
+        CsvChunkConverter converter = new CsvChunkConverter(
+                new RateSnapshot(abbreviation -> transaction.execute(status -> conversionService.getRateByAbbreviation(abbreviation))),
+                job.getTarget(), targetRate, job.getAmountColumn(), job.getCurrencyColumn());
+        Path partial = job.getDirectory().resolve("output.csv.part");
+        Deque<Chunk> inFlight = new ArrayDeque<>();
+        try (FileChannel input = FileChannel.open(job.getInput(), StandardOpenOption.READ);
+             OutputStream output = new BufferedOutputStream(Files.newOutputStream(partial), 1 << 16)) {
+            long size = input.size();
+            long position = 0;
+            while (position < size || !inFlight.isEmpty()) {
+                while (position < size && inFlight.size() < maxInFlight) {
+                    MappedByteBuffer region = input.map(FileChannel.MapMode.READ_ONLY, position, Math.min(chunkBytes, size - position));
+                    int length = completeLines(region, position, position + region.limit() == size);
+                    ByteBuffer lines = region.slice(0, length);
+                    boolean first = position == 0;
+                    inFlight.add(new Chunk(workers.submit(() -> converter.convert(lines, first)), length));
+                    position += length;
+                }
+                Chunk next = inFlight.peek();
+                CsvChunkConverter.Result result = await(job, next.result());
+                inFlight.poll();
+                output.write(result.output());
+                job.progress(next.length(), result.lines(), result.failed());
+                convertedLines.add(result.lines());
+                convertedBytes.add(next.length());
+            }
+            output.flush();
+        } catch (IOException | ExecutionException | InterruptedException | RuntimeException e) {
+            inFlight.forEach(chunk -> chunk.result().cancel(true));
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, job.getOutput(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static CsvChunkConverter.Result await(ConversionJob job, Future<CsvChunkConverter.Result> result)
+            throws ExecutionException, InterruptedException {
+        while (true) {
+            if (job.isCancelRequested()) {
+                throw new CancellationException();
+            }
+            try {
+                return result.get(CANCEL_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Checks for cancellation again.
+            }
+        }
+    }
+
+    /**
+     * Length of the region up to and including its last line end; the whole region at the end of
+     * the file.
+     */
+    private int completeLines(ByteBuffer region, long position, boolean last) throws IOException {
+        if (last) {
+            return region.limit();
+        }
+        for (int i = region.limit() - 1; i >= 0; i--) {
+            if (region.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        throw new IOException("Line at byte " + position + " is longer than jobs.chunk-bytes (" + chunkBytes + ")");
+    }
+
+    private void finish(ConversionJob job, ConversionJob.Status status, String error) {
+        if (status != ConversionJob.Status.COMPLETED) {
+            delete(job);
+        }
+        job.finish(status, error);
+        finished.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Forgets finished jobs older than {@code jobs.retention-hours} and deletes their files, along
+     * with directories no job owns, left by an earlier run of the service.
+     */
+    @Scheduled(fixedDelayString = "${jobs.cleanup-interval-ms:600000}",
+            initialDelayString = "${jobs.cleanup-interval-ms:600000}")
+    public void cleanup() {
+        Instant expired = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.getStatus().isFinished() && job.getFinishedAt().isBefore(expired)) {
+                delete(job);
+                return true;
+            }
+            return false;
+        });
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (!jobs.containsKey(entry.getFileName().toString())
+                        && Files.getLastModifiedTime(entry).toInstant().isBefore(expired)) {
+                    FileSystemUtils.deleteRecursively(entry);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void delete(ConversionJob job) {
+        try {
+            FileSystemUtils.deleteRecursively(job.getDirectory());
+        } catch (IOException e) {
+            log.warn("Could not delete files of conversion job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("conversion_jobs_submitted_total", "counter", "CSV conversion jobs accepted");
+        writer.sample("conversion_jobs_submitted_total", submitted.sum());
+        writer.metric("conversion_jobs_finished_total", "counter", "CSV conversion jobs finished, by final status");
+        for (ConversionJob.Status status : ConversionJob.Status.values()) {
+            if (status.isFinished()) {
+                LongAdder count = finished.get(status);
+                writer.sample("conversion_jobs_finished_total", count != null ? count.sum() : 0, "status", status.name().toLowerCase());
+            }
+        }
+        writer.metric("conversion_jobs_running", "gauge", "CSV conversion jobs running now");
+        writer.sample("conversion_jobs_running", running.get());
+        writer.metric("conversion_jobs_lines_total", "counter", "CSV lines converted or rejected by conversion jobs");
+        writer.sample("conversion_jobs_lines_total", convertedLines.sum());
+        writer.metric("conversion_jobs_bytes_total", "counter", "Input bytes processed by conversion jobs");
+        writer.sample("conversion_jobs_bytes_total", convertedBytes.sum());
+    }
+
+    private record Chunk(Future<CsvChunkConverter.Result> result, int length) {
+    }
+}
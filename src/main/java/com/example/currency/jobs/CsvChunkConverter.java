@@ -0,0 +1,126 @@
+package com.example.currency.jobs;
+
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.ConversionArithmetic;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Converts a chunk of complete CSV lines. Fields are split on commas without quoting rules; the
+ * amount and currency columns are read and every line is copied through byte for byte with the
+ * converted amount and an error column appended, so other columns may hold any encoding. A first
+ * line whose amount is not a number is taken as the header. Blank lines are dropped and line ends
+ * are written as {@code \n}.
+ */
+final class CsvChunkConverter {
+
+    record Result(byte[] output, long lines, long failed) {
+    }
+
+    private static final String INVALID_AMOUNT = "invalid amount";
+
+    private final RateSnapshot rates;
+    private final CurrencyRate target;
+    private final byte[] headerSuffix;
+    private final int amountColumn;
+    private final int currencyColumn;
+
+    CsvChunkConverter(RateSnapshot rates, String targetAbbreviation, CurrencyRate target, int amountColumn, int currencyColumn) {
+        this.rates = rates;
+        this.target = target;
+        this.headerSuffix = (",amount_" + targetAbbreviation + ",error\n").getBytes(StandardCharsets.US_ASCII);
+        this.amountColumn = amountColumn;
+        this.currencyColumn = currencyColumn;
+    }
+
+    Result convert(ByteBuffer chunk, boolean firstChunk) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.remaining() + chunk.remaining() / 4 + 64);
+        int[] starts = new int[Math.max(amountColumn, currencyColumn) + 2];
+        long lines = 0;
+        long failed = 0;
+        int position = chunk.position();
+        int limit = chunk.limit();
+        boolean firstLine = firstChunk;
+        while (position < limit) {
+            int end = position;
+            while (end < limit && chunk.get(end) != '\n') {
+                end++;
+            }
+            int next = end + 1;
+            if (end > position && chunk.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end > position) {
+                byte[] line = new byte[end - position];
+                chunk.get(position, line);
+                out.write(line, 0, line.length);
+                String error = convertLine(line, starts, out);
+                if (firstLine && error == INVALID_AMOUNT) {
+                    out.write(headerSuffix, 0, headerSuffix.length);
+                } else {
+                    lines++;
+                    if (error != null) {
+                        failed++;
+                        writeAscii(out, ",," + error + "\n");
+                    }
+                }
+                firstLine = false;
+            }
+            position = next;
+        }
+        return new Result(out.toByteArray(), lines, failed);
+    }
+
+    /**
+     * Appends {@code ,result,\n} and returns null, or returns the error without writing anything.
+     */
+    private String convertLine(byte[] line, int[] starts, ByteArrayOutputStream out) {
+        int fields = 1;
+        starts[0] = 0;
+        for (int i = 0; i < line.length && fields < starts.length; i++) {
+            if (line[i] == ',') {
+                starts[fields++] = i + 1;
+            }
+        }
+        if (fields <= Math.max(amountColumn, currencyColumn)) {
+            return "missing column";
+        }
+        String amountText = field(line, starts, fields, amountColumn);
+        String currency = field(line, starts, fields, currencyColumn);
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(amountText);
+        } catch (NumberFormatException e) {
+            return INVALID_AMOUNT;
+        }
+        Optional<CurrencyRate> rate = rates.rate(currency);
+        if (rate.isEmpty()) {
+            return "no rate for " + currency.replace(',', ' ');
+        }
+        BigDecimal result;
+        try {
+            result = ConversionArithmetic.convert(amount,
+                    rate.get().getCurOfficialRate(), rate.get().getCurScale(),
+                    target.getCurOfficialRate(), target.getCurScale());
+        } catch (ArithmeticException e) {
+            return "conversion failed";
+        }
+        writeAscii(out, "," + result.toPlainString() + ",\n");
+        return null;
+    }
+
+    private static String field(byte[] line, int[] starts, int fields, int column) {
+        int start = starts[column];
+        int end = column + 1 < fields ? starts[column + 1] - 1 : line.length;
+        return new String(line, start, Math.max(0, end - start), StandardCharsets.ISO_8859_1).trim();
+    }
+
+    private static void writeAscii(ByteArrayOutputStream out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.currency.jobs;
+
+import com.example.currency.models.CurrencyRate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The rates of one job: each currency's rate is looked up the first time the job meets it and then
+ * kept for the rest of the job, so every line in a currency converts at the same rate even if the
+ * rate is republished while the job runs. Currencies the lookup rejects as unknown are remembered
+ * too; any other failure, such as an unreachable NBRB or database, is not cached and fails the job.
+ */
+final class RateSnapshot {
+
+    private final Function<String, CurrencyRate> lookup;
+    private final Map<String, Optional<CurrencyRate>> rates = new ConcurrentHashMap<>();
+
+    RateSnapshot(Function<String, CurrencyRate> lookup) {
+        this.lookup = lookup;
+    }
+
+    Optional<CurrencyRate> rate(String abbreviation) {
+        return rates.computeIfAbsent(abbreviation, this::resolve);
+    }
+
+    int size() {
+        return rates.size();
+    }
+
+    private Optional<CurrencyRate> resolve(String abbreviation) {
+        try {
+            CurrencyRate rate = lookup.apply(abbreviation);
+            return rate == null || rate.getCurOfficialRate() == null ? Optional.empty() : Optional.of(rate);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
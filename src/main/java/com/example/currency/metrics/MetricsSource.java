@@ -0,0 +1,6 @@
+package com.example.currency.metrics;
+
+public interface MetricsSource {
+
+    void collect(PrometheusWriter writer);
+}
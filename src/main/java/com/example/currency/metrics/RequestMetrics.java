@@ -0,0 +1,99 @@
+package com.example.currency.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+@Component
+public class RequestMetrics implements MetricsSource {
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private final Map<RouteKey, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final LongAdder totalRequests = new LongAdder();
+    private final int windowSlices;
+    private final long sliceNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public RequestMetrics(
+            @Value("${metrics.window-seconds:60}") int windowSeconds,
+            @Value("${metrics.window-slices:6}") int windowSlices
+    ) {
+        this(windowSeconds, windowSlices, System::nanoTime);
+    }
+
+    RequestMetrics(int windowSeconds, int windowSlices, LongSupplier clock) {
+        this.windowSlices = windowSlices;
+        this.sliceNanos = TimeUnit.SECONDS.toNanos(windowSeconds) / windowSlices;
+        this.clock = clock;
+    }
+
+    public void record(String method, String route, int status, long latencyNanos) {
+        totalRequests.increment();
+        routes.computeIfAbsent(new RouteKey(method, route), k -> new RouteMetrics(windowSlices, sliceNanos, clock))
+                .record(status, latencyNanos);
+    }
+
+    public void incrementTotal() {
+        totalRequests.increment();
+    }
+
+    public long getTotalRequests() {
+        return totalRequests.sum();
+    }
+
+    public LatencyHistogram getWindow(String method, String route) {
+        RouteMetrics metrics = routes.get(new RouteKey(method, route));
+        return metrics == null ? new LatencyHistogram() : metrics.window.snapshot();
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("http_requests_total", "counter", "Total HTTP requests by route and status");
+        routes.forEach((key, metrics) -> metrics.statusCounts.forEach((status, count) ->
+                writer.sample("http_requests_total", count.sum(),
+                        "method", key.method(), "route", key.route(), "status", String.valueOf(status))));
+
+        writer.metric("http_request_duration_seconds", "summary",
+                "HTTP request latency; quantiles cover the rolling window");
+        routes.forEach((key, metrics) -> {
+            LatencyHistogram window = metrics.window.snapshot();
+            for (double quantile : QUANTILES) {
+                writer.sample("http_request_duration_seconds", window.quantileMicros(quantile) / 1e6,
+                        "method", key.method(), "route", key.route(), "quantile", String.valueOf(quantile));
+            }
+            writer.sample("http_request_duration_seconds_sum", metrics.sumNanos.sum() / 1e9,
+                    "method", key.method(), "route", key.route());
+            writer.sample("http_request_duration_seconds_count", metrics.count.sum(),
+                    "method", key.method(), "route", key.route());
+        });
+    }
+
+    private record RouteKey(String method, String route) {
+    }
+
+    private static final class RouteMetrics {
+        private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        private final RollingHistogram window;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+
+        private RouteMetrics(int windowSlices, long sliceNanos, LongSupplier clock) {
+            this.window = new RollingHistogram(windowSlices, sliceNanos, clock);
+        }
+
+        private void record(int status, long latencyNanos) {
+            statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+            window.recordNanos(latencyNanos);
+            count.increment();
+            sumNanos.add(latencyNanos);
+        }
+    }
+}
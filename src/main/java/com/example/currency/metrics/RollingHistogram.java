@@ -0,0 +1,57 @@
+package com.example.currency.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+public class RollingHistogram {
+
+    private final LatencyHistogram[] slices;
+    private final AtomicLongArray sliceEpochs;
+    private final long sliceNanos;
+    private final LongSupplier clock;
+
+    public RollingHistogram(int sliceCount, long sliceNanos) {
+        this(sliceCount, sliceNanos, System::nanoTime);
+    }
+
+    RollingHistogram(int sliceCount, long sliceNanos, LongSupplier clock) {
+        this.slices = new LatencyHistogram[sliceCount];
+        this.sliceEpochs = new AtomicLongArray(sliceCount);
+        this.sliceNanos = sliceNanos;
+        this.clock = clock;
+        for (int i = 0; i < sliceCount; i++) {
+            slices[i] = new LatencyHistogram();
+            sliceEpochs.set(i, Long.MIN_VALUE);
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        long epoch = clock.getAsLong() / sliceNanos;
+        int index = (int) Math.floorMod(epoch, (long) slices.length);
+        if (sliceEpochs.get(index) != epoch) {
+            rotate(index, epoch);
+        }
+        slices[index].recordNanos(nanos);
+    }
+
+    private void rotate(int index, long epoch) {
+        synchronized (slices[index]) {
+            if (sliceEpochs.get(index) != epoch) {
+                slices[index].reset();
+                sliceEpochs.set(index, epoch);
+            }
+        }
+    }
+
+    public LatencyHistogram snapshot() {
+        long currentEpoch = clock.getAsLong() / sliceNanos;
+        LatencyHistogram merged = new LatencyHistogram();
+        for (int i = 0; i < slices.length; i++) {
+            long epoch = sliceEpochs.get(i);
+            if (epoch != Long.MIN_VALUE && currentEpoch - epoch < slices.length) {
+                merged.add(slices[i]);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.currency.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Breaks boot time into phases once the application is ready. Bean timings are only available
+ * when main() installs a {@link BufferingApplicationStartup}; they are reported exclusive of the
+ * beans instantiated while creating them.
+ */
+@Component
+public class StartupReport implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    private static final String REFRESH_STEP = "spring.context.refresh";
+    private static final String INSTANTIATE_STEP = "spring.beans.instantiate";
+
+    public record BeanTiming(String bean, Duration duration) {
+    }
+
+    private final ApplicationStartup applicationStartup;
+    private final int topBeans;
+    private final Map<String, Duration> phases = new LinkedHashMap<>();
+    private volatile List<BeanTiming> slowestBeans = List.of();
+    private Duration started = Duration.ZERO;
+
+    @Autowired
+    public StartupReport(ApplicationStartup applicationStartup, @Value("${startup.report.top-beans:10}") int topBeans) {
+        this.applicationStartup = applicationStartup;
+        this.topBeans = topBeans;
+    }
+
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        if (event.getTimeTaken() != null) {
+            started = event.getTimeTaken();
+        }
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        Duration ready = event.getTimeTaken() != null ? event.getTimeTaken() : started;
+        Duration uptime = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+        Duration refresh = Duration.ZERO;
+        if (applicationStartup instanceof BufferingApplicationStartup buffering) {
+            List<StartupTimeline.TimelineEvent> events = buffering.drainBufferedTimeline().getEvents();
+            refresh = events.stream()
+                    .filter(e -> e.getStartupStep().getName().equals(REFRESH_STEP))
+                    .map(StartupTimeline.TimelineEvent::getDuration)
+                    .reduce(Duration.ZERO, Duration::plus);
+            slowestBeans = slowestBeans(events, topBeans);
+        }
+
+        synchronized (phases) {
+            phases.clear();
+            phases.put("jvm", positive(uptime.minus(ready)));
+            phases.put("context_refresh", refresh);
+            phases.put("started", started);
+            phases.put("runners", positive(ready.minus(started)));
+            phases.put("total", uptime);
+        }
+        log.info("Startup phases: {}; slowest beans: {}", format(getPhases()), slowestBeans.stream()
+                .map(b -> b.bean() + "=" + b.duration().toMillis() + "ms")
+                .toList());
+    }
+
+    static List<BeanTiming> slowestBeans(List<StartupTimeline.TimelineEvent> events, int limit) {
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (step.getName().equals(INSTANTIATE_STEP) && step.getParentId() != null) {
+                childTime.merge(step.getParentId(), event.getDuration(), Duration::plus);
+            }
+        }
+        List<BeanTiming> timings = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (!step.getName().equals(INSTANTIATE_STEP)) {
+                continue;
+            }
+            String bean = beanName(step);
+            Duration exclusive = event.getDuration().minus(childTime.getOrDefault(step.getId(), Duration.ZERO));
+            timings.add(new BeanTiming(bean, positive(exclusive)));
+        }
+        timings.sort(Comparator.comparing(BeanTiming::duration).reversed());
+        return List.copyOf(timings.subList(0, Math.min(limit, timings.size())));
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (tag.getKey().equals("beanName")) {
+                return tag.getValue();
+            }
+        }
+        return "unknown";
+    }
+
+    public Map<String, Duration> getPhases() {
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    public List<BeanTiming> getSlowestBeans() {
+        return slowestBeans;
+    }
+
+    private static Duration positive(Duration duration) {
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+
+    private static String format(Map<String, Duration> phases) {
+        StringBuilder out = new StringBuilder();
+        phases.forEach((name, duration) -> {
+            if (!out.isEmpty()) {
+                out.append(", ");
+            }
+            out.append(name).append('=').append(duration.toMillis()).append("ms");
+        });
+        return out.toString();
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("startup_phase_seconds", "gauge", "Boot time per startup phase");
+        getPhases().forEach((name, duration) -> writer.sample("startup_phase_seconds", duration.toNanos() / 1e9, "phase", name));
+        writer.metric("startup_bean_init_seconds", "gauge", "Exclusive instantiation time of the slowest beans");
+        for (BeanTiming timing : slowestBeans) {
+            writer.sample("startup_bean_init_seconds", timing.duration().toNanos() / 1e9, "bean", timing.bean());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.currency.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "cache_change_log", indexes = @Index(name = "idx_cache_change_created_at", columnList = "created_at"))
+@Data
+public class CacheChange {
+
+    public enum Type {
+        CURRENCY_CREATED,
+        CURRENCY_UPDATED,
+        CURRENCY_DELETED,
+        RATE_CHANGED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 32)
+    private Type type;
+
+    @Column(name = "currency_id")
+    private Integer currencyId;
+
+    @Column(name = "abbreviation")
+    private String abbreviation;
+
+    @Column(name = "previous_abbreviation")
+    private String previousAbbreviation;
+
+    @Column(name = "rate_id")
+    private Long rateId;
+
+    @Column(name = "rate_date")
+    private LocalDate rateDate;
+
+    @Column(name = "origin_node", length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
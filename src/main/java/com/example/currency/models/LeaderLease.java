@@ -0,0 +1,28 @@
+package com.example.currency.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "leader_lease")
+@Data
+public class LeaderLease {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "holder", length = 128)
+    private String holder;
+
+    @Column(name = "token", nullable = false)
+    private long token;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "fenced_writes", nullable = false)
+    private long fencedWrites;
+}
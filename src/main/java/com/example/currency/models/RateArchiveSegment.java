@@ -0,0 +1,29 @@
+package com.example.currency.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * One archival run's rates of a year, gzip-compressed (see {@link com.example.currency.archive.RateArchive}).
+ */
+@Entity
+@Table(name = "currency_rate_archive",
+        indexes = @Index(name = "idx_rate_archive_year", columnList = "archive_year"))
+@Data
+public class RateArchiveSegment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "archive_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "rate_count", nullable = false)
+    private Integer rateCount;
+
+    @Lob
+    @Column(name = "rates", nullable = false)
+    @ToString.Exclude
+    private byte[] rates;
+}
@@ -0,0 +1,92 @@
+package com.example.currency.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+@Entity
+@Table(name = "rate_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rate_rollup_bucket",
+                columnNames = {"currency_id", "granularity", "bucket_start"}))
+@Data
+public class RateRollup {
+
+    public enum Granularity {
+        DAY,
+        WEEK,
+        MONTH,
+        YEAR;
+
+        public LocalDate bucketStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+                case YEAR -> date.withDayOfYear(1);
+            };
+        }
+
+        public LocalDate bucketEnd(LocalDate start) {
+            return switch (this) {
+                case DAY -> start;
+                case WEEK -> start.plusDays(6);
+                case MONTH -> start.plusMonths(1).minusDays(1);
+                case YEAR -> start.plusYears(1).minusDays(1);
+            };
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "currency_id", nullable = false)
+    private Integer currencyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private Granularity granularity;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "sample_count", nullable = false)
+    private long count;
+
+    @Column(name = "rate_sum", precision = 30, scale = 6)
+    private BigDecimal sum;
+
+    @Column(name = "rate_sum_squares", precision = 40, scale = 12)
+    private BigDecimal sumSquares;
+
+    @Column(name = "min_rate", precision = 24, scale = 6)
+    private BigDecimal min;
+
+    @Column(name = "max_rate", precision = 24, scale = 6)
+    private BigDecimal max;
+
+    @Column(name = "first_date")
+    private LocalDate firstDate;
+
+    @Column(name = "first_rate", precision = 24, scale = 6)
+    private BigDecimal firstRate;
+
+    @Column(name = "last_date")
+    private LocalDate lastDate;
+
+    @Column(name = "last_rate", precision = 24, scale = 6)
+    private BigDecimal lastRate;
+
+    @Column(name = "return_count", nullable = false)
+    private long returnCount;
+
+    @Column(name = "log_return_sum")
+    private double logReturnSum;
+
+    @Column(name = "log_return_sum_squares")
+    private double logReturnSumSquares;
+}
@@ -0,0 +1,23 @@
+package com.example.currency.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only form of a rate for list endpoints: no entity state, no lazy association. Its JSON
+ * is that of the {@link CurrencyRate} entity, which leaves the currency out; the binary formats
+ * carry the currency id as well.
+ */
+@JsonPropertyOrder({"id", "curOfficialRate", "curScale", "date"})
+@JsonIgnoreProperties("curId")
+public record RateView(Integer id, Integer curId, LocalDate date, BigDecimal curOfficialRate, Integer curScale) {
+
+    public static RateView of(CurrencyRate rate) {
+        // Reading the id of a lazy currency proxy does not initialize it.
+        Integer curId = rate.getCurrency() != null ? rate.getCurrency().getCurId() : null;
+        return new RateView(rate.getId(), curId, rate.getDate(), rate.getCurOfficialRate(), rate.getCurScale());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.currency.repository;
+
+import com.example.currency.models.CurrencyRate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Rate reads that also see the {@link com.example.currency.archive.RateArchive}: by-date lookups for
+ * an archived year and the full-history scans return archived rates next to the ones still in the
+ * table. Archived rates come back as detached, read-only entities. Lookups by id and the rate list
+ * only see the table.
+ */
+public interface ArchivedRateReads {
+
+    List<CurrencyRate> findByCurrencyAbbreviationAndDate(String abbreviation, LocalDate date);
+
+    List<CurrencyRate> findByDateWithCurrency(LocalDate date);
+
+    List<CurrencyRate> findByCurrencyIdAndDate(Integer curId, LocalDate date);
+
+    /**
+     * Rows of currency id, date, official rate, scale and rate id, ordered by currency, date and id.
+     */
+    List<Object[]> findAllRateValuesOrdered();
+
+    /**
+     * As {@link #findAllRateValuesOrdered()} without rates lacking a value; the database part is
+     * streamed, so callers hold a transaction and close the stream.
+     */
+    Stream<Object[]> streamAllRateValuesOrdered();
+}
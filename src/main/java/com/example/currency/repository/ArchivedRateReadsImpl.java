@@ -0,0 +1,213 @@
+package com.example.currency.repository;
+
+import com.example.currency.archive.RateArchive;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.models.RateView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs each read against the table and, only for dates before the archive cutoff, adds the archived
+ * rates. Dates from the cutoff on go straight to the database.
+ */
+public class ArchivedRateReadsImpl implements ArchivedRateReads {
+
+    private static final String BY_ABBREVIATION_AND_DATE =
+            "SELECT cr FROM CurrencyRate cr WHERE cr.currency.curAbbreviation = :abbreviation AND cr.date = :date";
+    private static final String BY_DATE_WITH_CURRENCY =
+            "SELECT cr FROM CurrencyRate cr JOIN FETCH cr.currency WHERE cr.date = :date";
+    private static final String BY_CURRENCY_ID_AND_DATE =
+            "SELECT cr FROM CurrencyRate cr WHERE cr.currency.curId = :curId AND cr.date = :date ORDER BY cr.id";
+    private static final String ALL_VALUES =
+            "SELECT cr.currency.curId, cr.date, cr.curOfficialRate, cr.curScale, cr.id FROM CurrencyRate cr "
+                    + "WHERE cr.date IS NOT NULL ORDER BY cr.currency.curId, cr.date, cr.id";
+    private static final String ALL_RATE_VALUES =
+            "SELECT cr.currency.curId, cr.date, cr.curOfficialRate, cr.curScale, cr.id FROM CurrencyRate cr "
+                    + "WHERE cr.date IS NOT NULL AND cr.curOfficialRate IS NOT NULL ORDER BY cr.currency.curId, cr.date, cr.id";
+
+    private static final Comparator<Object[]> HISTORY_ORDER = Comparator
+            .comparing((Object[] row) -> (Integer) row[0])
+            .thenComparing(row -> (LocalDate) row[1])
+            .thenComparing(row -> (Integer) row[4]);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final RateArchive archive;
+
+    @Autowired
+    public ArchivedRateReadsImpl(RateArchive archive) {
+        this.archive = archive;
+    }
+
+    @Override
+    public List<CurrencyRate> findByCurrencyAbbreviationAndDate(String abbreviation, LocalDate date) {
+        List<CurrencyRate> live = entityManager.createQuery(BY_ABBREVIATION_AND_DATE, CurrencyRate.class)
+                .setParameter("abbreviation", abbreviation)
+                .setParameter("date", date)
+                .getResultList();
+        List<RateView> archived = archive.onDate(date);
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Map<Integer, CurrencyInfo> currencies = new HashMap<>();
+        entityManager.createQuery("SELECT c FROM CurrencyInfo c WHERE c.curAbbreviation = :abbreviation", CurrencyInfo.class)
+                .setParameter("abbreviation", abbreviation)
+                .getResultList()
+                .forEach(currency -> currencies.put(currency.getCurId(), currency));
+        return withArchived(live, archived, currencies);
+    }
+
+    @Override
+    public List<CurrencyRate> findByDateWithCurrency(LocalDate date) {
+        List<CurrencyRate> live = entityManager.createQuery(BY_DATE_WITH_CURRENCY, CurrencyRate.class)
+                .setParameter("date", date)
+                .getResultList();
+        List<RateView> archived = archive.onDate(date);
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Set<Integer> ids = new HashSet<>();
+        archived.forEach(rate -> ids.add(rate.curId()));
+        Map<Integer, CurrencyInfo> currencies = new HashMap<>();
+        if (!ids.isEmpty()) {
+            entityManager.createQuery("SELECT c FROM CurrencyInfo c WHERE c.curId IN :ids", CurrencyInfo.class)
+                    .setParameter("ids", ids)
+                    .getResultList()
+                    .forEach(currency -> currencies.put(currency.getCurId(), currency));
+        }
+        return withArchived(live, archived, currencies);
+    }
+
+    @Override
+    public List<CurrencyRate> findByCurrencyIdAndDate(Integer curId, LocalDate date) {
+        List<CurrencyRate> live = entityManager.createQuery(BY_CURRENCY_ID_AND_DATE, CurrencyRate.class)
+                .setParameter("curId", curId)
+                .setParameter("date", date)
+                .getResultList();
+        List<RateView> archived = archive.onDate(date);
+        if (archived.isEmpty()) {
+            return live;
+        }
+        CurrencyInfo currency = entityManager.find(CurrencyInfo.class, curId);
+        return currency == null ? live : withArchived(live, archived, Map.of(curId, currency));
+    }
+
+    @Override
+    public List<Object[]> findAllRateValuesOrdered() {
+        List<Object[]> live = entityManager.createQuery(ALL_VALUES, Object[].class).getResultList();
+        List<Object[]> archived = archivedRows(false);
+        if (archived.isEmpty()) {
+            return live;
+        }
+        List<Object[]> rows = new ArrayList<>(live.size() + archived.size());
+        new MergedRows(archived.iterator(), live.iterator()).forEachRemaining(rows::add);
+        return rows;
+    }
+
+    @Override
+    public Stream<Object[]> streamAllRateValuesOrdered() {
+        Stream<Object[]> live = entityManager.createQuery(ALL_RATE_VALUES, Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .getResultStream();
+        List<Object[]> archived = archivedRows(true);
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Iterator<Object[]> merged = new MergedRows(archived.iterator(), live.iterator());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(live::close);
+    }
+
+    private List<Object[]> archivedRows(boolean withRateOnly) {
+        List<Object[]> rows = new ArrayList<>();
+        for (RateView rate : archive.all()) {
+            if (rate.curId() != null && (!withRateOnly || rate.curOfficialRate() != null)) {
+                rows.add(new Object[]{rate.curId(), rate.date(), rate.curOfficialRate(), rate.curScale(), rate.id()});
+            }
+        }
+        return rows;
+    }
+
+    private static List<CurrencyRate> withArchived(List<CurrencyRate> live, List<RateView> archived,
+                                                   Map<Integer, CurrencyInfo> currencies) {
+        Set<Integer> liveIds = new HashSet<>();
+        live.forEach(rate -> liveIds.add(rate.getId()));
+        List<CurrencyRate> rates = new ArrayList<>(live);
+        for (RateView view : archived) {
+            CurrencyInfo currency = currencies.get(view.curId());
+            // A rate archived between the table query and the archive lookup is returned by both.
+            if (currency != null && !liveIds.contains(view.id())) {
+                CurrencyRate rate = new CurrencyRate();
+                rate.setId(view.id());
+                rate.setCurrency(currency);
+                rate.setDate(view.date());
+                rate.setCurOfficialRate(view.curOfficialRate());
+                rate.setCurScale(view.curScale());
+                rates.add(rate);
+            }
+        }
+        rates.sort(Comparator.comparing(CurrencyRate::getId));
+        return rates;
+    }
+
+    /**
+     * Merges archived and table rows, both in history order, keeping the table's copy of a rate
+     * found in both.
+     */
+    private static final class MergedRows implements Iterator<Object[]> {
+        private final Iterator<Object[]> archived;
+        private final Iterator<Object[]> live;
+        private Object[] nextArchived;
+        private Object[] nextLive;
+
+        MergedRows(Iterator<Object[]> archived, Iterator<Object[]> live) {
+            this.archived = archived;
+            this.live = live;
+            this.nextArchived = archived.hasNext() ? archived.next() : null;
+            this.nextLive = live.hasNext() ? live.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextArchived != null || nextLive != null;
+        }
+
+        @Override
+        public Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int order = nextArchived == null ? 1 : nextLive == null ? -1 : HISTORY_ORDER.compare(nextArchived, nextLive);
+            if (order < 0) {
+                Object[] row = nextArchived;
+                nextArchived = archived.hasNext() ? archived.next() : null;
+                return row;
+            }
+            if (order == 0) {
+                nextArchived = archived.hasNext() ? archived.next() : null;
+            }
+            Object[] row = nextLive;
+            nextLive = live.hasNext() ? live.next() : null;
+            return row;
+        }
+    }
+}
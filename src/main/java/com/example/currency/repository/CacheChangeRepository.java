@@ -0,0 +1,31 @@
+package com.example.currency.repository;
+
+import com.example.currency.models.CacheChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CacheChangeRepository extends JpaRepository<CacheChange, Long> {
+
+    @Query("SELECT c FROM CacheChange c WHERE c.id > :version ORDER BY c.id")
+    List<CacheChange> findAfter(@Param("version") long version, Pageable page);
+
+    List<CacheChange> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheChange c")
+    long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CacheChange c WHERE c.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
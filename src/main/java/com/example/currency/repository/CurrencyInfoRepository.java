@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +15,7 @@ public interface CurrencyInfoRepository extends JpaRepository<CurrencyInfo, Inte
 
     @Query("SELECT c FROM CurrencyInfo c LEFT JOIN FETCH c.rates WHERE c.curId = :id")
     Optional<CurrencyInfo> findByIdWithRates(@Param("id") Integer id);
+
+    @Query("SELECT DISTINCT c FROM CurrencyInfo c LEFT JOIN FETCH c.rates")
+    List<CurrencyInfo> findAllWithRates();
 }
\ No newline at end of file
@@ -1,17 +1,34 @@
 package com.example.currency.repository;
 
 import com.example.currency.models.CurrencyRate;
+import com.example.currency.models.RateView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, Long> {
+public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, Long>, ArchivedRateReads {
 
-    @Query("SELECT cr FROM CurrencyRate cr WHERE cr.currency.curAbbreviation = :abbreviation AND cr.date = :date")
-    List<CurrencyRate> findByCurrencyAbbreviationAndDate(@Param("abbreviation") String abbreviation, @Param("date") LocalDate date);
-}
\ No newline at end of file
+    @Query("SELECT new com.example.currency.models.RateView(cr.id, cr.currency.curId, cr.date, cr.curOfficialRate, cr.curScale) "
+            + "FROM CurrencyRate cr ORDER BY cr.id")
+    List<RateView> findAllViews();
+
+    @Query("SELECT MIN(cr.date) FROM CurrencyRate cr WHERE cr.date < :before")
+    LocalDate findOldestDateBefore(@Param("before") LocalDate before);
+
+    @Query("SELECT new com.example.currency.models.RateView(cr.id, c.curId, cr.date, cr.curOfficialRate, cr.curScale) "
+            + "FROM CurrencyRate cr LEFT JOIN cr.currency c WHERE cr.date >= :from AND cr.date < :to ORDER BY cr.id")
+    List<RateView> findViewsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CurrencyRate cr WHERE cr.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
+}
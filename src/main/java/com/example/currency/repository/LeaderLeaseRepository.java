@@ -0,0 +1,36 @@
+package com.example.currency.repository;
+
+import com.example.currency.models.LeaderLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface LeaderLeaseRepository extends JpaRepository<LeaderLease, String> {
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE LeaderLease l SET l.holder = :holder, l.token = l.token + 1, l.expiresAt = :expiresAt "
+            + "WHERE l.name = :name AND l.expiresAt < :now")
+    int takeOver(@Param("name") String name, @Param("holder") String holder,
+                 @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE LeaderLease l SET l.expiresAt = :expiresAt "
+            + "WHERE l.name = :name AND l.holder = :holder AND l.token = :token")
+    int renew(@Param("name") String name, @Param("holder") String holder,
+              @Param("token") long token, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE LeaderLease l SET l.fencedWrites = l.fencedWrites + 1 "
+            + "WHERE l.name = :name AND l.holder = :holder AND l.token = :token AND l.expiresAt > :now")
+    int fence(@Param("name") String name, @Param("holder") String holder,
+              @Param("token") long token, @Param("now") Instant now);
+}
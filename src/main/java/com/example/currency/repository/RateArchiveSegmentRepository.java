@@ -0,0 +1,21 @@
+package com.example.currency.repository;
+
+import com.example.currency.models.RateArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RateArchiveSegmentRepository extends JpaRepository<RateArchiveSegment, Long> {
+
+    List<RateArchiveSegment> findByYearOrderById(Integer year);
+
+    @Query("SELECT DISTINCT s.year FROM RateArchiveSegment s ORDER BY s.year")
+    List<Integer> findYears();
+
+    @Query("SELECT MAX(s.id) FROM RateArchiveSegment s WHERE s.year = :year")
+    Long findLastIdByYear(@Param("year") Integer year);
+}
@@ -0,0 +1,29 @@
+package com.example.currency.repository;
+
+import com.example.currency.models.RateRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RateRollupRepository extends JpaRepository<RateRollup, Long> {
+
+    Optional<RateRollup> findByCurrencyIdAndGranularityAndBucketStart(
+            Integer currencyId, RateRollup.Granularity granularity, LocalDate bucketStart);
+
+    List<RateRollup> findByCurrencyIdAndGranularityAndBucketStartIn(
+            Integer currencyId, RateRollup.Granularity granularity, Collection<LocalDate> bucketStarts);
+
+    @Query("SELECT r FROM RateRollup r WHERE r.currencyId = :currencyId AND r.granularity = :granularity "
+            + "AND r.bucketStart BETWEEN :from AND :to ORDER BY r.bucketStart")
+    List<RateRollup> findRange(@Param("currencyId") Integer currencyId,
+                               @Param("granularity") RateRollup.Granularity granularity,
+                               @Param("from") LocalDate from,
+                               @Param("to") LocalDate to);
+}
@@ -0,0 +1,136 @@
+package com.example.currency.routing;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples how far the replica trails the primary using the change log as a heartbeat: the replica's
+ * highest change id says what it has applied, and the age of the oldest change it is missing is the
+ * lag. Until the first successful sample the replica counts as unavailable.
+ */
+public class ReplicaLagMonitor implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String MAX_ID = "SELECT COALESCE(MAX(id), 0) FROM cache_change_log";
+    private static final String OLDEST_AFTER = "SELECT MIN(created_at) FROM cache_change_log WHERE id > ?";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagMillis;
+
+    private final LongAdder checkErrors = new LongAdder();
+    private volatile boolean available;
+    private volatile long startVersion = -1;
+    private volatile long primaryVersion;
+    private volatile long replicaVersion;
+    private volatile long lagMillis;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        try {
+            refresh();
+        } catch (SQLException | RuntimeException e) {
+            checkErrors.increment();
+            if (available) {
+                log.warn("Replica lag check failed, reading from the primary: {}", e.getMessage());
+            }
+            available = false;
+        }
+    }
+
+    synchronized void refresh() throws SQLException {
+        // Replica first: a change committed between the two reads then shows up as lag, never as
+        // the replica being ahead.
+        long applied = maxId(replica);
+        long latest = maxId(primary);
+        long lag = 0;
+        if (applied < latest) {
+            Timestamp oldestMissing = oldestAfter(applied);
+            lag = oldestMissing != null ? Math.max(0, System.currentTimeMillis() - oldestMissing.getTime()) : 0;
+        }
+        if (startVersion < 0) {
+            startVersion = latest;
+        }
+        replicaVersion = applied;
+        primaryVersion = latest;
+        lagMillis = lag;
+        available = true;
+    }
+
+    /**
+     * True when the last sample succeeded and the replica was within the lag threshold.
+     */
+    public boolean isWithinLag() {
+        return available && lagMillis <= maxLagMillis;
+    }
+
+    /**
+     * True when the last sample saw change {@code version} on the replica.
+     */
+    public boolean hasApplied(long version) {
+        return replicaVersion >= version;
+    }
+
+    /**
+     * Primary change id at the first successful sample; the local cache may hold anything up to it.
+     */
+    public long getStartVersion() {
+        return startVersion;
+    }
+
+    public long getReplicaVersion() {
+        return replicaVersion;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    private static long maxId(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(MAX_ID);
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private Timestamp oldestAfter(long version) throws SQLException {
+        try (Connection connection = primary.getConnection();
+             PreparedStatement statement = connection.prepareStatement(OLDEST_AFTER)) {
+            statement.setLong(1, version);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getTimestamp(1) : null;
+            }
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("datasource_replica_up", "gauge", "Whether the last replica lag check succeeded");
+        writer.sample("datasource_replica_up", available ? 1 : 0);
+        writer.metric("datasource_replica_lag_seconds", "gauge", "Age of the oldest change log entry missing on the replica");
+        writer.sample("datasource_replica_lag_seconds", lagMillis / 1e3);
+        writer.metric("datasource_replica_behind_changes", "gauge", "Change log entries committed on the primary but not yet on the replica");
+        writer.sample("datasource_replica_behind_changes", Math.max(0, primaryVersion - replicaVersion));
+        writer.metric("datasource_replica_check_errors_total", "counter", "Replica lag checks that failed");
+        writer.sample("datasource_replica_check_errors_total", checkErrors.sum());
+    }
+}
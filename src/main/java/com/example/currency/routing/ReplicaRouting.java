@@ -0,0 +1,101 @@
+package com.example.currency.routing;
+
+import com.example.currency.coherence.CacheChangeListener;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CacheChange;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides per connection whether a read-only transaction may use the replica. Besides the lag
+ * threshold, the replica must hold every change this node's cache has been invalidated for, so a
+ * cache miss is never refilled with data older than the eviction, and every change the current
+ * session wrote, which {@link com.example.currency.config.ReadYourWritesFilter} carries between requests.
+ */
+public class ReplicaRouting implements CacheChangeListener, MetricsSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private static final ThreadLocal<long[]> SESSION_VERSION = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor monitor;
+    private final AtomicLong nodeVersion = new AtomicLong();
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder lagFallbacks = new LongAdder();
+    private final LongAdder staleFallbacks = new LongAdder();
+    private final LongAdder sessionFallbacks = new LongAdder();
+
+    public ReplicaRouting(ReplicaLagMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Binds the session's last written change id to the current thread until {@link #endSession()}.
+     */
+    public static void beginSession(long writtenVersion) {
+        SESSION_VERSION.set(new long[]{writtenVersion});
+    }
+
+    public static long sessionVersion() {
+        long[] version = SESSION_VERSION.get();
+        return version != null ? version[0] : 0;
+    }
+
+    public static void endSession() {
+        SESSION_VERSION.remove();
+    }
+
+    public Target route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+        if (!monitor.isWithinLag()) {
+            lagFallbacks.increment();
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+        if (!monitor.hasApplied(Math.max(nodeVersion.get(), monitor.getStartVersion()))) {
+            staleFallbacks.increment();
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+        if (!monitor.hasApplied(sessionVersion())) {
+            sessionFallbacks.increment();
+            primaryConnections.increment();
+            return Target.PRIMARY;
+        }
+        replicaConnections.increment();
+        return Target.REPLICA;
+    }
+
+    @Override
+    public void onChange(CacheChange change) {
+        if (change.getId() == null) {
+            return;
+        }
+        nodeVersion.accumulateAndGet(change.getId(), Math::max);
+        long[] session = SESSION_VERSION.get();
+        if (session != null) {
+            session[0] = Math.max(session[0], change.getId());
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("datasource_connections_total", "counter", "Connections handed out by target");
+        writer.sample("datasource_connections_total", primaryConnections.sum(), "target", "primary");
+        writer.sample("datasource_connections_total", replicaConnections.sum(), "target", "replica");
+        writer.metric("datasource_replica_fallbacks_total", "counter", "Read-only transactions sent to the primary");
+        writer.sample("datasource_replica_fallbacks_total", lagFallbacks.sum(), "reason", "lag");
+        writer.sample("datasource_replica_fallbacks_total", staleFallbacks.sum(), "reason", "cache");
+        writer.sample("datasource_replica_fallbacks_total", sessionFallbacks.sum(), "reason", "session");
+    }
+}
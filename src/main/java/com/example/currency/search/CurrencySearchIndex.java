@@ -0,0 +1,256 @@
+package com.example.currency.search;
+
+import com.example.currency.coherence.CacheChangeListener;
+import com.example.currency.metrics.LatencyHistogram;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CacheChange;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.repository.CurrencyInfoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory edge-n-gram index over currency abbreviation, code and name. Every prefix of every
+ * case- and diacritic-folded token maps to its postings, so a lookup is one hash probe per query
+ * token. The index is an immutable snapshot replaced on write; currency changes, local or polled
+ * from other nodes, update only the postings of the affected currency.
+ */
+@Component
+public class CurrencySearchIndex implements ApplicationRunner, CacheChangeListener, MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(CurrencySearchIndex.class);
+
+    public enum Field {
+        ABBREVIATION(3),
+        CODE(2),
+        NAME(1);
+
+        private final int weight;
+
+        Field(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    public record SearchResult(Integer curId, String curAbbreviation, String curCode, String curName, double score) {
+    }
+
+    private record Posting(Integer currencyId, Field field, int position, boolean wholeToken) {
+    }
+
+    private record Snapshot(Map<Integer, SearchResult> currencies, Map<Integer, List<String>> gramsByCurrency,
+                            Map<String, List<Posting>> postings) {
+    }
+
+    static final int MAX_GRAM_LENGTH = 24;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of());
+
+    private final CurrencyInfoRepository currencyInfoRepository;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private volatile Snapshot snapshot = EMPTY;
+    private volatile boolean loaded;
+
+    @Autowired
+    public CurrencySearchIndex(CurrencyInfoRepository currencyInfoRepository) {
+        this.currencyInfoRepository = currencyInfoRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Could not build the currency search index at startup, will retry on first search: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        Snapshot next = new Snapshot(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        for (CurrencyInfo currency : currencyInfoRepository.findAll()) {
+            add(next, currency);
+        }
+        snapshot = next;
+        loaded = true;
+    }
+
+    public List<SearchResult> search(String query, int limit) {
+        if (!loaded) {
+            reload();
+        }
+        long start = System.nanoTime();
+        List<String> tokens = tokens(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        Map<Integer, Double> scores = null;
+        for (String token : tokens) {
+            String gram = token.length() > MAX_GRAM_LENGTH ? token.substring(0, MAX_GRAM_LENGTH) : token;
+            Map<Integer, Double> tokenScores = new HashMap<>();
+            for (Posting posting : current.postings().getOrDefault(gram, List.of())) {
+                if (token.length() > MAX_GRAM_LENGTH && !posting.wholeToken()) {
+                    continue;
+                }
+                tokenScores.merge(posting.currencyId(), score(posting, token), Math::max);
+            }
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+
+        List<SearchResult> results = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> {
+            SearchResult currency = current.currencies().get(id);
+            results.add(new SearchResult(currency.curId(), currency.curAbbreviation(), currency.curCode(),
+                    currency.curName(), score));
+        });
+        results.sort(Comparator.comparingDouble(SearchResult::score).reversed()
+                .thenComparing(result -> result.curAbbreviation() == null ? "" : result.curAbbreviation()));
+        latency.recordNanos(System.nanoTime() - start);
+        return results.size() > limit ? List.copyOf(results.subList(0, limit)) : results;
+    }
+
+    private static double score(Posting posting, String token) {
+        double score = posting.field().weight;
+        if (posting.wholeToken()) {
+            score *= 2;
+        } else {
+            score *= 1 + (double) token.length() / MAX_GRAM_LENGTH;
+        }
+        return posting.position() == 0 ? score + 0.5 : score;
+    }
+
+    @Override
+    public void onChange(CacheChange change) {
+        if (change.getType() == CacheChange.Type.RATE_CHANGED || change.getCurrencyId() == null || !loaded) {
+            return;
+        }
+        try {
+            CurrencyInfo currency = change.getType() == CacheChange.Type.CURRENCY_DELETED
+                    ? null
+                    : currencyInfoRepository.findById(change.getCurrencyId()).orElse(null);
+            synchronized (this) {
+                Snapshot next = without(snapshot, change.getCurrencyId());
+                snapshot = currency != null ? with(next, currency) : next;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not update search index for currency {}, rebuilding on next search: {}",
+                    change.getCurrencyId(), e.getMessage());
+            loaded = false;
+        }
+    }
+
+    private static Snapshot with(Snapshot base, CurrencyInfo currency) {
+        Snapshot cleared = without(base, currency.getCurId());
+        Snapshot next = new Snapshot(new HashMap<>(cleared.currencies()), new HashMap<>(cleared.gramsByCurrency()),
+                new HashMap<>(cleared.postings()));
+        add(next, currency);
+        return next;
+    }
+
+    private static void add(Snapshot target, CurrencyInfo currency) {
+        Integer id = currency.getCurId();
+        List<String> grams = new ArrayList<>();
+        index(target.postings(), grams, id, Field.ABBREVIATION, currency.getCurAbbreviation());
+        index(target.postings(), grams, id, Field.CODE, currency.getCurCode());
+        index(target.postings(), grams, id, Field.NAME, currency.getCurName());
+        target.currencies().put(id,
+                new SearchResult(id, currency.getCurAbbreviation(), currency.getCurCode(), currency.getCurName(), 0));
+        target.gramsByCurrency().put(id, List.copyOf(grams));
+    }
+
+    private static Snapshot without(Snapshot base, Integer id) {
+        List<String> grams = base.gramsByCurrency().get(id);
+        if (grams == null) {
+            return base;
+        }
+        Map<String, List<Posting>> postings = new HashMap<>(base.postings());
+        for (String gram : grams) {
+            List<Posting> remaining = new ArrayList<>(postings.getOrDefault(gram, List.of()));
+            remaining.removeIf(posting -> posting.currencyId().equals(id));
+            if (remaining.isEmpty()) {
+                postings.remove(gram);
+            } else {
+                postings.put(gram, List.copyOf(remaining));
+            }
+        }
+        Map<Integer, SearchResult> currencies = new HashMap<>(base.currencies());
+        currencies.remove(id);
+        Map<Integer, List<String>> gramsByCurrency = new HashMap<>(base.gramsByCurrency());
+        gramsByCurrency.remove(id);
+        return new Snapshot(currencies, gramsByCurrency, postings);
+    }
+
+    private static void index(Map<String, List<Posting>> postings, List<String> grams, Integer id, Field field, String value) {
+        List<String> tokens = tokens(value);
+        for (int position = 0; position < tokens.size(); position++) {
+            String token = tokens.get(position);
+            int maxLength = Math.min(token.length(), MAX_GRAM_LENGTH);
+            for (int length = 1; length <= maxLength; length++) {
+                String gram = token.substring(0, length);
+                Posting posting = new Posting(id, field, position, length == token.length());
+                List<Posting> list = new ArrayList<>(postings.getOrDefault(gram, List.of()));
+                list.add(posting);
+                postings.put(gram, List.copyOf(list));
+                grams.add(gram);
+            }
+        }
+    }
+
+    static String fold(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokens(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(value))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public int size() {
+        return snapshot.currencies().size();
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        Snapshot current = snapshot;
+        writer.metric("search_index_currencies", "gauge", "Currencies in the search index");
+        writer.sample("search_index_currencies", current.currencies().size());
+        writer.metric("search_index_grams", "gauge", "Distinct prefixes in the search index");
+        writer.sample("search_index_grams", current.postings().size());
+        writer.metric("search_latency_seconds", "summary", "Search lookup time excluding serialization");
+        writer.sample("search_latency_seconds", latency.quantileMicros(0.5) / 1e6, "quantile", "0.5");
+        writer.sample("search_latency_seconds", latency.quantileMicros(0.99) / 1e6, "quantile", "0.99");
+        writer.sample("search_latency_seconds_sum", latency.getSumMicros() / 1e6);
+        writer.sample("search_latency_seconds_count", latency.getCount());
+    }
+}
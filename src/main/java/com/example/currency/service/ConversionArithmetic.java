@@ -0,0 +1,105 @@
+package com.example.currency.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversion arithmetic on scaled longs. Rates are reduced to per-unit values in millionths and
+ * the result to hundredths, each rounded HALF_UP from the exact quotient, which is what the
+ * {@link BigDecimal} reference computes; results are therefore identical, scale included. Any
+ * operand or intermediate product that does not fit a long falls back to the reference.
+ */
+public final class ConversionArithmetic {
+    public static final int RATE_SCALE = 6;
+    public static final int RESULT_SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+            100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L,
+            1_000_000_000_000_000_000L
+    };
+
+    private ConversionArithmetic() {
+    }
+
+    public static BigDecimal convert(BigDecimal amount, BigDecimal fromRate, Integer fromScale,
+                                     BigDecimal toRate, Integer toScale) {
+        BigDecimal result = tryFixedPoint(amount, fromRate, fromScale, toRate, toScale);
+        return result != null ? result : convertExact(amount, fromRate, fromScale, toRate, toScale);
+    }
+
+    /**
+     * {@code amount * fromPerUnit / toPerUnit} in hundredths for per-unit rates already in
+     * millionths; the same result {@link #convert} gives for those rates with a scale of 1.
+     *
+     * @throws ArithmeticException if {@code toPerUnit} is zero or a value does not fit a long
+     */
+    public static long convertPerUnit(long amountUnscaled, int amountScale, long fromPerUnit, long toPerUnit) {
+        return quotient(Math.multiplyExact(amountUnscaled, fromPerUnit), amountScale, toPerUnit, RESULT_SCALE);
+    }
+
+    /**
+     * The reference implementation, also used as the fallback.
+     */
+    public static BigDecimal convertExact(BigDecimal amount, BigDecimal fromRate, Integer fromScale,
+                                          BigDecimal toRate, Integer toScale) {
+        BigDecimal fromRatePerUnit = fromRate.divide(BigDecimal.valueOf(fromScale), RATE_SCALE, RoundingMode.HALF_UP);
+        BigDecimal toRatePerUnit = toRate.divide(BigDecimal.valueOf(toScale), RATE_SCALE, RoundingMode.HALF_UP);
+        return amount.multiply(fromRatePerUnit).divide(toRatePerUnit, RESULT_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Returns null when an operand is missing, a divisor is zero or a value does not fit a long;
+     * the reference then produces the result or the exception.
+     */
+    static BigDecimal tryFixedPoint(BigDecimal amount, BigDecimal fromRate, Integer fromScale,
+                                    BigDecimal toRate, Integer toScale) {
+        if (amount == null || fromRate == null || toRate == null || fromScale == null || toScale == null) {
+            return null;
+        }
+        try {
+            long fromPerUnit = quotient(unscaled(fromRate), fromRate.scale(), fromScale, RATE_SCALE);
+            long toPerUnit = quotient(unscaled(toRate), toRate.scale(), toScale, RATE_SCALE);
+            // amount * from / to: the per-unit scales cancel, leaving the amount's scale.
+            long numerator = Math.multiplyExact(unscaled(amount), fromPerUnit);
+            return BigDecimal.valueOf(quotient(numerator, amount.scale(), toPerUnit, RESULT_SCALE), RESULT_SCALE);
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@code (unscaled * 10^-scale) / divisor} rounded HALF_UP to {@code targetScale} digits, as an unscaled long.
+     */
+    static long quotient(long unscaled, int scale, long divisor, int targetScale) {
+        long shift = (long) targetScale - scale;
+        if (shift >= 0) {
+            return divideHalfUp(Math.multiplyExact(unscaled, powerOfTen(shift)), divisor);
+        }
+        return divideHalfUp(unscaled, Math.multiplyExact(divisor, powerOfTen(-shift)));
+    }
+
+    static long divideHalfUp(long dividend, long divisor) {
+        if (divisor == 0 || divisor == Long.MIN_VALUE || (dividend == Long.MIN_VALUE && divisor == -1)) {
+            throw new ArithmeticException("Quotient not representable");
+        }
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder != 0 && remainder >= Math.abs(divisor) - remainder) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    private static long powerOfTen(long exponent) {
+        if (exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("10^" + exponent + " overflows a long");
+        }
+        return POWERS_OF_TEN[(int) exponent];
+    }
+
+    private static long unscaled(BigDecimal value) {
+        return value.unscaledValue().longValueExact();
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.currency.service;
 
+import com.example.currency.analytics.RateRollupService;
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.CurrentDay;
 import com.example.currency.cache.SimpleCache;
+import com.example.currency.coherence.ChangeLog;
+import com.example.currency.history.RateHistoryStore;
 import com.example.currency.models.CurrencyRate;
+import com.example.currency.models.RateView;
 import com.example.currency.repository.CurrencyRateRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
@@ -21,16 +27,25 @@ public class CurrencyConversionService {
     private final CurrencyService currencyService;
     private final CurrencyRateRepository currencyRateRepository;
     private final SimpleCache cacheService;
+    private final ChangeLog changeLog;
+    private final RateRollupService rollups;
+    private final RateHistoryStore rateHistory;
 
     @Autowired
     public CurrencyConversionService(
             CurrencyService currencyService,
             CurrencyRateRepository currencyRateRepository,
-            SimpleCache cacheService
+            SimpleCache cacheService,
+            ChangeLog changeLog,
+            RateRollupService rollups,
+            RateHistoryStore rateHistory
     ) {
         this.currencyService = currencyService;
         this.currencyRateRepository = currencyRateRepository;
         this.cacheService = cacheService;
+        this.changeLog = changeLog;
+        this.rollups = rollups;
+        this.rateHistory = rateHistory;
     }
 
     public Map<String, Object> convertCurrencyWithValidation(Integer fromCurId, Integer toCurId, BigDecimal amount) {
@@ -38,7 +53,7 @@ public class CurrencyConversionService {
             throw new IllegalArgumentException("Amount must be greater than zero");
         }
 
-        String cacheKey = "convert:" + fromCurId + ":" + toCurId + ":" + amount.toString();
+        CacheKey cacheKey = CacheKey.convert(fromCurId, toCurId, amount);
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return Map.of(
@@ -52,20 +67,34 @@ public class CurrencyConversionService {
         CurrencyRate fromRate = currencyService.getCurrencyRate(fromCurId);
         CurrencyRate toRate = currencyService.getCurrencyRate(toCurId);
 
-        BigDecimal fromRatePerUnit = fromRate.getCurOfficialRate()
-                .divide(BigDecimal.valueOf(fromRate.getCurScale()), 6, RoundingMode.HALF_UP);
+        BigDecimal result = ConversionArithmetic.convert(amount,
+                fromRate.getCurOfficialRate(), fromRate.getCurScale(),
+                toRate.getCurOfficialRate(), toRate.getCurScale());
 
-        BigDecimal toRatePerUnit = toRate.getCurOfficialRate()
-                .divide(BigDecimal.valueOf(toRate.getCurScale()), 6, RoundingMode.HALF_UP);
+        cacheService.put(cacheKey, result);
+        return Map.of(
+                "amount", amount,
+                "from", fromCurId,
+                "to", toCurId,
+                "result", result
+        );
+    }
 
-        BigDecimal result = amount.multiply(fromRatePerUnit)
-                .divide(toRatePerUnit, 2, RoundingMode.HALF_UP);
+    public Map<String, Object> convertCurrencyOnDate(Integer fromCurId, Integer toCurId, BigDecimal amount, LocalDate date) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        BigDecimal fromRatePerUnit = rateHistory.rateAtOrBefore(fromCurId, date)
+                .orElseThrow(() -> new IllegalArgumentException("No rate for currency " + fromCurId + " on or before " + date));
+        BigDecimal toRatePerUnit = rateHistory.rateAtOrBefore(toCurId, date)
+                .orElseThrow(() -> new IllegalArgumentException("No rate for currency " + toCurId + " on or before " + date));
 
-        cacheService.put(cacheKey, result);
+        BigDecimal result = ConversionArithmetic.convert(amount, fromRatePerUnit, 1, toRatePerUnit, 1);
         return Map.of(
                 "amount", amount,
                 "from", fromCurId,
                 "to", toCurId,
+                "date", date,
                 "result", result
         );
     }
@@ -74,27 +103,30 @@ public class CurrencyConversionService {
         return (BigDecimal) convertCurrencyWithValidation(fromCurId, toCurId, amount).get("result");
     }
 
+    @Transactional
     public CurrencyRate createRate(CurrencyRate rate) {
         CurrencyRate savedRate = currencyRateRepository.save(rate);
-        String cacheKey = generateCacheKey(rate.getCurrency().getCurAbbreviation(), rate.getDate());
-        cacheService.put(cacheKey, List.of(savedRate));
+        changeLog.rateChanged(savedRate);
+        rollups.rateChanged(savedRate.getCurrency(), savedRate.getDate());
         return savedRate;
     }
 
-    public List<CurrencyRate> getAllRates() {
-        String cacheKey = "allRates";
+    @Transactional(readOnly = true)
+    public List<RateView> getAllRates() {
+        CacheKey cacheKey = CacheKey.ALL_RATES;
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
-            return (List<CurrencyRate>) cached.get();
+            return (List<RateView>) cached.get();
         }
 
-        List<CurrencyRate> rates = currencyRateRepository.findAll();
+        List<RateView> rates = currencyRateRepository.findAllViews();
         cacheService.put(cacheKey, rates);
         return rates;
     }
 
+    @Transactional(readOnly = true)
     public Optional<CurrencyRate> getRateById(Long id) {
-        String cacheKey = "rateById:" + id;
+        CacheKey cacheKey = CacheKey.rateById(id);
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return Optional.of((CurrencyRate) cached.get());
@@ -105,37 +137,40 @@ public class CurrencyConversionService {
         return rate;
     }
 
+    @Transactional
     public CurrencyRate updateRate(Long id, CurrencyRate updatedRate) {
         Optional<CurrencyRate> existingRate = currencyRateRepository.findById(id);
         if (existingRate.isPresent()) {
             CurrencyRate rate = existingRate.get();
+            changeLog.rateChanged(rate.getCurrency(), rate.getId(), rate.getDate());
+            rollups.rateChanged(rate.getCurrency(), rate.getDate());
             rate.setCurOfficialRate(updatedRate.getCurOfficialRate());
             rate.setCurScale(updatedRate.getCurScale());
             rate.setDate(updatedRate.getDate());
             rate.setCurrency(updatedRate.getCurrency());
             CurrencyRate savedRate = currencyRateRepository.save(rate);
-            String cacheKey = generateCacheKey(rate.getCurrency().getCurAbbreviation(), rate.getDate());
-            cacheService.put(cacheKey, List.of(savedRate));
-            cacheService.remove("rateById:" + id);
+            changeLog.rateChanged(savedRate);
+            rollups.rateChanged(savedRate.getCurrency(), savedRate.getDate());
             return savedRate;
         }
         throw new RuntimeException("Rate not found with id: " + id);
     }
 
+    @Transactional
     public void deleteRate(Long id) {
         Optional<CurrencyRate> rate = currencyRateRepository.findById(id);
         if (rate.isPresent()) {
-            String cacheKey = generateCacheKey(rate.get().getCurrency().getCurAbbreviation(), rate.get().getDate());
+            changeLog.rateChanged(rate.get());
+            rollups.rateChanged(rate.get().getCurrency(), rate.get().getDate());
             currencyRateRepository.deleteById(id);
-            cacheService.remove(cacheKey);
-            cacheService.remove("rateById:" + id);
         } else {
             throw new RuntimeException("Rate not found with id: " + id);
         }
     }
 
+    @Transactional(readOnly = true)
     public List<CurrencyRate> getRatesByAbbreviationAndDate(String abbreviation, LocalDate date) {
-        String cacheKey = generateCacheKey(abbreviation, date);
+        CacheKey cacheKey = CacheKey.rates(abbreviation, date);
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return (List<CurrencyRate>) cached.get();
@@ -146,23 +181,26 @@ public class CurrencyConversionService {
         return rates;
     }
 
-    private String generateCacheKey(String abbreviation, LocalDate date) {
-        return "rates:" + abbreviation + ":" + date.toString();
-    }
-
     public List<CurrencyRate> getBulkRates(List<String> abbreviations) {
         return abbreviations.stream()
-                .map(abbreviation -> {
-                    String cacheKey = "rateByAbbreviation:" + abbreviation + ":" + LocalDate.now();
-                    Optional<Object> cached = cacheService.get(cacheKey);
-                    if (cached.isPresent()) {
-                        return (CurrencyRate) cached.get();
-                    } else {
-                        CurrencyRate rate = currencyService.getCurrencyRateByAbbreviation(abbreviation);
-                        cacheService.put(cacheKey, rate);
-                        return rate;
-                    }
-                })
+                .map(this::getRateByAbbreviation)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Today's rate of a currency as conversions use it.
+     *
+     * @throws IllegalArgumentException if the abbreviation is missing or no currency has it
+     */
+    public CurrencyRate getRateByAbbreviation(String abbreviation) {
+        CurrencyService.requireAbbreviation(abbreviation);
+        CacheKey cacheKey = CacheKey.rateByAbbreviation(abbreviation, CurrentDay.epochDay());
+        Optional<Object> cached = cacheService.get(cacheKey);
+        if (cached.isPresent()) {
+            return (CurrencyRate) cached.get();
+        }
+        CurrencyRate rate = currencyService.getCurrencyRateByAbbreviation(abbreviation);
+        cacheService.put(cacheKey, rate);
+        return rate;
+    }
 }
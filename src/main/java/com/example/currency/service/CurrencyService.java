@@ -1,41 +1,62 @@
 package com.example.currency.service;
 
+import com.example.currency.analytics.RateRollupService;
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.CurrentDay;
 import com.example.currency.cache.SimpleCache;
-import com.example.currency.client.NbrbApiClient;
+import com.example.currency.client.RateProvider;
+import com.example.currency.coherence.ChangeLog;
 import com.example.currency.models.CurrencyInfo;
 import com.example.currency.models.CurrencyRate;
 import com.example.currency.repository.CurrencyInfoRepository;
 import com.example.currency.repository.CurrencyRateRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 public class CurrencyService {
 
     private final CurrencyInfoRepository currencyInfoRepository;
     private final CurrencyRateRepository currencyRateRepository;
-    private final NbrbApiClient apiClient;
+    private final RateProvider apiClient;
     private final SimpleCache cacheService;
+    private final ChangeLog changeLog;
+    private final RateIngestionService rateIngestion;
+    private final RateRollupService rollups;
+
+    private final ConcurrentMap<Integer, CompletableFuture<CurrencyRate>> rateLookups = new ConcurrentHashMap<>();
 
     @Autowired
     public CurrencyService(
             CurrencyInfoRepository currencyInfoRepository,
             CurrencyRateRepository currencyRateRepository,
-            NbrbApiClient apiClient,
-            SimpleCache cacheService
+            RateProvider apiClient,
+            SimpleCache cacheService,
+            ChangeLog changeLog,
+            RateIngestionService rateIngestion,
+            RateRollupService rollups
     ) {
         this.currencyInfoRepository = currencyInfoRepository;
         this.currencyRateRepository = currencyRateRepository;
         this.apiClient = apiClient;
         this.cacheService = cacheService;
+        this.changeLog = changeLog;
+        this.rateIngestion = rateIngestion;
+        this.rollups = rollups;
     }
 
     public List<CurrencyInfo> getAllCurrencies() {
-        String cacheKey = "allCurrencies";
+        CacheKey cacheKey = CacheKey.ALL_CURRENCIES;
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return (List<CurrencyInfo>) cached.get();
@@ -45,13 +66,43 @@ public class CurrencyService {
         if (dbCurrencies.isEmpty()) {
             List<CurrencyInfo> apiCurrencies = apiClient.getAllCurrencies();
             dbCurrencies = currencyInfoRepository.saveAll(apiCurrencies);
+            dbCurrencies.forEach(changeLog::currencyCreated);
         }
         cacheService.put(cacheKey, dbCurrencies);
         return dbCurrencies;
     }
 
     public CurrencyRate getCurrencyRate(Integer curId) {
-        String cacheKey = "rate:" + curId + ":" + LocalDate.now();
+        CacheKey cacheKey = CacheKey.rate(curId, CurrentDay.epochDay());
+        Optional<Object> cached = cacheService.get(cacheKey);
+        if (cached.isPresent()) {
+            return ((List<CurrencyRate>) cached.get()).get(0);
+        }
+
+        // Concurrent misses for a currency share one lookup, so a cold cache costs one NBRB call
+        // and one stored rate per currency instead of one per waiting request.
+        CompletableFuture<CurrencyRate> lookup = new CompletableFuture<>();
+        CompletableFuture<CurrencyRate> running = rateLookups.putIfAbsent(curId, lookup);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            CurrencyRate rate = loadCurrencyRate(curId, cacheKey);
+            lookup.complete(rate);
+            return rate;
+        } catch (RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            rateLookups.remove(curId, lookup);
+        }
+    }
+
+    private CurrencyRate loadCurrencyRate(Integer curId, CacheKey cacheKey) {
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return ((List<CurrencyRate>) cached.get()).get(0);
@@ -61,7 +112,7 @@ public class CurrencyService {
         if (currency.isPresent()) {
             List<CurrencyRate> rates = currency.get().getRates();
             Optional<CurrencyRate> latestRate = rates.stream()
-                    .filter(rate -> rate.getDate().equals(LocalDate.now()))
+                    .filter(rate -> rate.getDate().equals(CurrentDay.date()))
                     .findFirst();
             if (latestRate.isPresent()) {
                 cacheService.put(cacheKey, List.of(latestRate.get()));
@@ -72,44 +123,85 @@ public class CurrencyService {
         CurrencyRate rate = apiClient.getCurrencyRate(curId);
         if (currency.isPresent()) {
             rate.setCurrency(currency.get());
-            currencyRateRepository.save(rate);
+            persistFetchedRate(rate);
             cacheService.put(cacheKey, List.of(rate));
         }
         return rate;
     }
 
+    @Transactional(readOnly = true)
+    public List<CurrencyRate> preloadRates(LocalDate date) {
+        List<CurrencyRate> rates = currencyRateRepository.findByDateWithCurrency(date);
+        for (CurrencyRate rate : rates) {
+            cacheRate(rate.getCurrency(), rate, date);
+        }
+        return rates;
+    }
+
+    public CurrencyRate fetchAndStoreRate(CurrencyInfo currency) {
+        CurrencyRate rate = apiClient.getCurrencyRate(currency.getCurId());
+        rate.setCurrency(currency);
+        persistFetchedRate(rate);
+        cacheRate(currency, rate, CurrentDay.date());
+        return rate;
+    }
+
+    private void persistFetchedRate(CurrencyRate rate) {
+        // With ingestion on, only the lease holder writes rates; this node serves the fetched value
+        // from cache until the ingested row arrives through the change log.
+        if (!rateIngestion.isEnabled()) {
+            currencyRateRepository.save(rate);
+            changeLog.rateChanged(rate);
+            rollups.rateChanged(rate.getCurrency(), rate.getDate());
+        }
+    }
+
+    private void cacheRate(CurrencyInfo currency, CurrencyRate rate, LocalDate date) {
+        cacheService.put(CacheKey.rate(currency.getCurId(), date), List.of(rate));
+        cacheService.put(CacheKey.rateByAbbreviation(currency.getCurAbbreviation(), date), rate);
+    }
+
+    @Transactional
     public CurrencyInfo createCurrency(CurrencyInfo currencyInfo) {
         CurrencyInfo saved = currencyInfoRepository.save(currencyInfo);
-        cacheService.clear();
+        changeLog.currencyCreated(saved);
         return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<CurrencyInfo> getAllCurrenciesFromDb() {
-        String cacheKey = "allCurrenciesFromDb";
+        CacheKey cacheKey = CacheKey.ALL_CURRENCIES_FROM_DB;
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return (List<CurrencyInfo>) cached.get();
         }
 
-        List<CurrencyInfo> currencies = currencyInfoRepository.findAll();
+        // Cached entities are shared by concurrent requests, so their rates are loaded here rather
+        // than lazily by whichever request serializes them first.
+        List<CurrencyInfo> currencies = currencyInfoRepository.findAllWithRates();
         cacheService.put(cacheKey, currencies);
         return currencies;
     }
 
+    @Transactional(readOnly = true)
     public Optional<CurrencyInfo> getCurrencyById(Integer id) {
-        String cacheKey = "currency:" + id;
+        CacheKey cacheKey = CacheKey.currency(id);
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return Optional.of((CurrencyInfo) cached.get());
         }
 
         Optional<CurrencyInfo> currency = currencyInfoRepository.findById(id);
-        currency.ifPresent(c -> cacheService.put(cacheKey, c));
+        currency.ifPresent(c -> {
+            Hibernate.initialize(c.getRates());
+            cacheService.put(cacheKey, c);
+        });
         return currency;
     }
 
+    @Transactional(readOnly = true)
     public Optional<CurrencyInfo> getCurrencyByIdWithRates(Integer id) {
-        String cacheKey = "currencyWithRates:" + id;
+        CacheKey cacheKey = CacheKey.currencyWithRates(id);
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return Optional.of((CurrencyInfo) cached.get());
@@ -120,28 +212,33 @@ public class CurrencyService {
         return currency;
     }
 
+    @Transactional
     public CurrencyInfo updateCurrency(Integer id, CurrencyInfo updatedCurrency) {
         Optional<CurrencyInfo> existingCurrency = currencyInfoRepository.findById(id);
         if (existingCurrency.isPresent()) {
             CurrencyInfo currency = existingCurrency.get();
+            String previousAbbreviation = currency.getCurAbbreviation();
             currency.setCurCode(updatedCurrency.getCurCode());
             currency.setCurAbbreviation(updatedCurrency.getCurAbbreviation());
             currency.setCurName(updatedCurrency.getCurName());
             currency.setCurScale(updatedCurrency.getCurScale());
             CurrencyInfo saved = currencyInfoRepository.save(currency);
-            cacheService.clear();
+            changeLog.currencyUpdated(saved, previousAbbreviation);
             return saved;
         }
         throw new RuntimeException("Currency not found with id: " + id);
     }
 
+    @Transactional
     public void deleteCurrency(Integer id) {
+        String abbreviation = currencyInfoRepository.findById(id).map(CurrencyInfo::getCurAbbreviation).orElse(null);
         currencyInfoRepository.deleteById(id);
-        cacheService.clear();
+        changeLog.currencyDeleted(id, abbreviation);
     }
 
     public CurrencyRate getCurrencyRateByAbbreviation(String abbreviation) {
-        String cacheKey = "rateByAbbreviation:" + abbreviation + ":" + LocalDate.now();
+        requireAbbreviation(abbreviation);
+        CacheKey cacheKey = CacheKey.rateByAbbreviation(abbreviation, CurrentDay.epochDay());
         Optional<Object> cached = cacheService.get(cacheKey);
         if (cached.isPresent()) {
             return (CurrencyRate) cached.get();
@@ -154,7 +251,7 @@ public class CurrencyService {
 
         List<CurrencyRate> rates = currency.get().getRates();
         Optional<CurrencyRate> latestRate = rates.stream()
-                .filter(rate -> rate.getDate().equals(LocalDate.now()))
+                .filter(rate -> rate.getDate().equals(CurrentDay.date()))
                 .findFirst();
         if (latestRate.isPresent()) {
             cacheService.put(cacheKey, latestRate.get());
@@ -163,8 +260,20 @@ public class CurrencyService {
 
         CurrencyRate rate = apiClient.getCurrencyRate(currency.get().getCurId());
         rate.setCurrency(currency.get());
-        currencyRateRepository.save(rate);
+        persistFetchedRate(rate);
         cacheService.put(cacheKey, rate);
         return rate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Rejects a missing abbreviation before it reaches a cache key, so callers answer 400 rather than 500.
+     */
+    static void requireAbbreviation(String abbreviation) {
+        if (abbreviation == null) {
+            throw new IllegalArgumentException("Currency abbreviation cannot be null");
+        }
+        if (abbreviation.isBlank()) {
+            throw new IllegalArgumentException("Currency abbreviation cannot be empty");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.currency.service;
+
+import com.example.currency.analytics.RateRollupService;
+import com.example.currency.client.RateProvider;
+import com.example.currency.coherence.ChangeLog;
+import com.example.currency.coordination.LeaderElection;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.repository.CurrencyInfoRepository;
+import com.example.currency.repository.CurrencyRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fetches today's NBRB rates on the node holding the {@link LeaderElection#RATE_INGESTION} lease.
+ * Each insert runs in a transaction that first fences on the lease token, so a leader that lost
+ * its lease mid-run cannot write; other nodes pick the rows up through the change log.
+ */
+@Component
+public class RateIngestionService implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(RateIngestionService.class);
+
+    private final CurrencyInfoRepository currencyInfoRepository;
+    private final CurrencyRateRepository currencyRateRepository;
+    private final RateProvider apiClient;
+    private final LeaderElection leaderElection;
+    private final ChangeLog changeLog;
+    private final RateRollupService rollups;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder fetchFailures = new LongAdder();
+    private final LongAdder fenceRejections = new LongAdder();
+
+    @Autowired
+    public RateIngestionService(
+            CurrencyInfoRepository currencyInfoRepository,
+            CurrencyRateRepository currencyRateRepository,
+            RateProvider apiClient,
+            LeaderElection leaderElection,
+            ChangeLog changeLog,
+            RateRollupService rollups,
+            PlatformTransactionManager transactionManager,
+            @Value("${ingestion.enabled:true}") boolean enabled
+    ) {
+        this.currencyInfoRepository = currencyInfoRepository;
+        this.currencyRateRepository = currencyRateRepository;
+        this.apiClient = apiClient;
+        this.leaderElection = leaderElection;
+        this.changeLog = changeLog;
+        this.rollups = rollups;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${ingestion.interval-ms:60000}",
+            initialDelayString = "${ingestion.initial-delay-ms:5000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ingest();
+        } catch (RuntimeException e) {
+            log.warn("Rate ingestion failed: {}", e.getMessage());
+        }
+    }
+
+    public int ingest() {
+        OptionalLong token = leaderElection.currentToken();
+        if (token.isEmpty()) {
+            return 0;
+        }
+        runs.increment();
+        LocalDate today = LocalDate.now();
+        Set<Integer> present = new HashSet<>();
+        for (CurrencyRate rate : currencyRateRepository.findByDateWithCurrency(today)) {
+            present.add(rate.getCurrency().getCurId());
+        }
+        int count = 0;
+        for (CurrencyInfo currency : currencyInfoRepository.findAll()) {
+            if (present.contains(currency.getCurId())) {
+                continue;
+            }
+            CurrencyRate rate;
+            try {
+                rate = apiClient.getCurrencyRate(currency.getCurId());
+            } catch (RuntimeException e) {
+                fetchFailures.increment();
+                log.debug("Could not fetch rate for currency {}: {}", currency.getCurId(), e.getMessage());
+                continue;
+            }
+            if (rate.getDate() == null) {
+                rate.setDate(today);
+            } else if (!rate.getDate().equals(today)) {
+                continue;
+            }
+            try {
+                store(currency, rate, token.getAsLong());
+                count++;
+            } catch (IllegalStateException e) {
+                fenceRejections.increment();
+                log.warn("Stopping rate ingestion: {}", e.getMessage());
+                break;
+            }
+        }
+        if (count > 0) {
+            log.info("Ingested {} rates for {} with fencing token {}", count, today, token.getAsLong());
+        }
+        return count;
+    }
+
+    private void store(CurrencyInfo currency, CurrencyRate rate, long token) {
+        transactionTemplate.executeWithoutResult(status -> {
+            leaderElection.fence(token);
+            rate.setCurrency(currency);
+            currencyRateRepository.save(rate);
+            changeLog.rateChanged(rate);
+            rollups.rateChanged(currency, rate.getDate());
+        });
+        written.increment();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("ingestion_runs_total", "counter", "Ingestion runs started while holding the lease");
+        writer.sample("ingestion_runs_total", runs.sum());
+        writer.metric("ingestion_rates_written_total", "counter", "Rates fetched from NBRB and stored by this node");
+        writer.sample("ingestion_rates_written_total", written.sum());
+        writer.metric("ingestion_errors_total", "counter", "Ingestion failures per reason");
+        writer.sample("ingestion_errors_total", fetchFailures.sum(), "reason", "fetch");
+        writer.sample("ingestion_errors_total", fenceRejections.sum(), "reason", "fenced");
+    }
+}
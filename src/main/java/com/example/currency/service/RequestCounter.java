@@ -1,21 +1,29 @@
 package com.example.currency.service;
 
+import com.example.currency.metrics.RequestMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class RequestCounter {
-    private final AtomicInteger counter = new AtomicInteger(0);
+    private final RequestMetrics requestMetrics;
+    private final AtomicLong resetOffset = new AtomicLong(0);
+
+    @Autowired
+    public RequestCounter(RequestMetrics requestMetrics) {
+        this.requestMetrics = requestMetrics;
+    }
 
     public void increment() {
-        counter.incrementAndGet();
+        requestMetrics.incrementTotal();
     }
 
-    public int getCount() {
-        return counter.get();
+    public long getCount() {
+        return requestMetrics.getTotalRequests() - resetOffset.get();
     }
 
     public void reset() {
-        counter.set(0);
+        resetOffset.set(requestMetrics.getTotalRequests());
     }
-}
\ No newline at end of file
+}
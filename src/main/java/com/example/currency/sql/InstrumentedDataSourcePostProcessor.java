@@ -0,0 +1,36 @@
+package com.example.currency.sql;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+@Component
+public class InstrumentedDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final boolean enabled;
+
+    public InstrumentedDataSourcePostProcessor(Environment environment) {
+        this.enabled = environment.getProperty("sql.stats.enabled", Boolean.class, true);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource)) {
+            return bean;
+        }
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            if (result instanceof Connection connection && invocation.getMethod().getName().equals("getConnection")) {
+                return JdbcInstrumentation.wrap(connection);
+            }
+            return result;
+        });
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.currency.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * JDBC proxies that attribute statement executions, fetched rows and database time to the
+ * {@link QueryStats} of the current thread. Without an active context calls pass straight through.
+ */
+final class JdbcInstrumentation {
+
+    private JdbcInstrumentation() {
+    }
+
+    static Connection wrap(Connection connection) {
+        return (Connection) proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return wrapStatement(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private static Statement wrapStatement(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) proxy(type, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                QueryStats stats = QueryStatsContext.current();
+                if (stats == null) {
+                    return invoke(target, method, args);
+                }
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                long start = System.nanoTime();
+                try {
+                    return wrapResultSet(invoke(target, method, args));
+                } finally {
+                    stats.recordStatement(sql, System.nanoTime() - start);
+                }
+            }
+            if (name.equals("getResultSet")) {
+                return wrapResultSet(invoke(target, method, args));
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static Object wrapResultSet(Object result) {
+        if (!(result instanceof ResultSet resultSet)) {
+            return result;
+        }
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            if (!method.getName().equals("next")) {
+                return invoke(target, method, args);
+            }
+            QueryStats stats = QueryStatsContext.current();
+            if (stats == null) {
+                return invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            Object hasRow = invoke(target, method, args);
+            stats.recordFetch(System.nanoTime() - start);
+            if (Boolean.TRUE.equals(hasRow)) {
+                stats.recordRow();
+            }
+            return hasRow;
+        });
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static Object proxy(Class<?> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                return invoke(target, method, args);
+            }
+            return handler.handle(target, method, args);
+        };
+        return Proxy.newProxyInstance(JdbcInstrumentation.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.currency.sql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class QueryStats {
+
+    private long statements;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (sql != null) {
+            executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    void recordFetch(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public double getMillis() {
+        return nanos / 1e6;
+    }
+
+    public Map<String, Integer> getExecutionsBySql() {
+        return executionsBySql;
+    }
+
+    @Override
+    public String toString() {
+        return "statements=" + statements + ", rows=" + rows + ", timeMs=" + getMillis();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.currency.sql;
+
+public final class QueryStatsContext {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private QueryStatsContext() {
+    }
+
+    public static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Makes the stats of a request current on a thread that continues it, such as the worker of a
+     * streaming response.
+     */
+    public static void resume(QueryStats stats) {
+        CURRENT.set(stats);
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static QueryStats measure(Runnable action) {
+        QueryStats outer = CURRENT.get();
+        QueryStats stats = begin();
+        try {
+            action.run();
+            return stats;
+        } finally {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                end();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.currency.sql;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class SqlMetrics implements MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(SqlMetrics.class);
+
+    private static final class RouteStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder repeatedQueries = new LongAdder();
+    }
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final int repeatThreshold;
+
+    public SqlMetrics(@Value("${sql.stats.repeat-threshold:5}") int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    public void record(String method, String route, QueryStats stats) {
+        RouteStats routeStats = routes.computeIfAbsent(method + " " + route, k -> new RouteStats());
+        routeStats.requests.increment();
+        if (stats.getStatements() == 0) {
+            return;
+        }
+        routeStats.statements.add(stats.getStatements());
+        routeStats.rows.add(stats.getRows());
+        routeStats.nanos.add(stats.getNanos());
+
+        for (Map.Entry<String, Integer> entry : stats.getExecutionsBySql().entrySet()) {
+            if (entry.getValue() >= repeatThreshold) {
+                routeStats.repeatedQueries.increment();
+                log.warn("Possible N+1 on {} {}: statement executed {} times in one request: {}",
+                        method, route, entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("sql_requests_total", "counter", "HTTP requests seen by the SQL instrumentation per route");
+        routes.forEach((key, stats) -> sample(writer, "sql_requests_total", stats.requests.sum(), key));
+        writer.metric("sql_statements_total", "counter", "JDBC statements executed per route");
+        routes.forEach((key, stats) -> sample(writer, "sql_statements_total", stats.statements.sum(), key));
+        writer.metric("sql_rows_total", "counter", "Result set rows fetched per route");
+        routes.forEach((key, stats) -> sample(writer, "sql_rows_total", stats.rows.sum(), key));
+        writer.metric("sql_time_seconds_total", "counter", "Time spent executing statements and fetching rows per route");
+        routes.forEach((key, stats) -> sample(writer, "sql_time_seconds_total", stats.nanos.sum() / 1e9, key));
+        writer.metric("sql_repeated_queries_total", "counter",
+                "Statements executed at least sql.stats.repeat-threshold times within one request");
+        routes.forEach((key, stats) -> sample(writer, "sql_repeated_queries_total", stats.repeatedQueries.sum(), key));
+    }
+
+    private static void sample(PrometheusWriter writer, String name, long value, String key) {
+        int space = key.indexOf(' ');
+        writer.sample(name, value, "method", key.substring(0, space), "route", key.substring(space + 1));
+    }
+
+    private static void sample(PrometheusWriter writer, String name, double value, String key) {
+        int space = key.indexOf(' ');
+        writer.sample(name, value, "method", key.substring(0, space), "route", key.substring(space + 1));
+    }
+}
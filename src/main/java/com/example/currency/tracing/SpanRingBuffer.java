@@ -0,0 +1,90 @@
+package com.example.currency.tracing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded multi-producer, single-consumer queue of preallocated span slots. Producers never
+ * block: when the consumer falls behind, new spans are dropped and counted.
+ */
+public class SpanRingBuffer {
+
+    public interface SpanHandler {
+        void onSpan(long traceId, int depth, String type, String method, long durationNanos, Throwable error);
+    }
+
+    private static final class Slot {
+        private volatile long published = -1;
+        private long traceId;
+        private int depth;
+        private String type;
+        private String method;
+        private long durationNanos;
+        private Throwable error;
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long consumed;
+
+    public SpanRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    public boolean offer(long traceId, int depth, String type, String method, long durationNanos, Throwable error) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.traceId = traceId;
+        slot.depth = depth;
+        slot.type = type;
+        slot.method = method;
+        slot.durationNanos = durationNanos;
+        slot.error = error;
+        slot.published = sequence;
+        return true;
+    }
+
+    public int drain(SpanHandler handler, int maxSpans) {
+        int drained = 0;
+        long next = consumed;
+        while (drained < maxSpans) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.published != next) {
+                break;
+            }
+            handler.onSpan(slot.traceId, slot.depth, slot.type, slot.method, slot.durationNanos, slot.error);
+            slot.type = null;
+            slot.method = null;
+            slot.error = null;
+            next++;
+            consumed = next;
+            drained++;
+        }
+        return drained;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public int size() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.currency.tracing;
+
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+public class Tracer implements MetricsSource {
+
+    public static final long NOT_SAMPLED = 0L;
+
+    private static final Logger SPAN_LOG = LoggerFactory.getLogger("com.example.currency.tracing.spans");
+    private static final int DRAIN_BATCH = 256;
+
+    private static final class TraceContext {
+        private long traceId;
+        private int depth;
+        private boolean sampled;
+    }
+
+    private static final ThreadLocal<TraceContext> CONTEXT = ThreadLocal.withInitial(TraceContext::new);
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final SpanRingBuffer buffer;
+    private final SpanRingBuffer.SpanHandler handler;
+    private final AtomicLong traceIds = new AtomicLong();
+    private final LongAdder recorded = new LongAdder();
+    private final Thread appender;
+    private volatile boolean running = true;
+
+    @Autowired
+    public Tracer(
+            @Value("${tracing.enabled:true}") boolean enabled,
+            @Value("${tracing.sample-rate:0.01}") double sampleRate,
+            @Value("${tracing.buffer-size:8192}") int bufferSize
+    ) {
+        this(enabled, sampleRate, new SpanRingBuffer(bufferSize), Tracer::logSpan);
+    }
+
+    Tracer(boolean enabled, double sampleRate, SpanRingBuffer buffer, SpanRingBuffer.SpanHandler handler) {
+        this.enabled = enabled && sampleRate > 0;
+        this.sampleRate = sampleRate;
+        this.buffer = buffer;
+        this.handler = handler;
+        this.appender = new Thread(this::drainLoop, "span-appender");
+        this.appender.setDaemon(true);
+        if (this.enabled) {
+            this.appender.start();
+        }
+    }
+
+    public long enter() {
+        if (!enabled) {
+            return NOT_SAMPLED;
+        }
+        TraceContext context = CONTEXT.get();
+        if (context.depth++ == 0) {
+            context.sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+            context.traceId = context.sampled ? traceIds.incrementAndGet() : 0;
+        }
+        return context.sampled ? Math.max(1L, System.nanoTime()) : NOT_SAMPLED;
+    }
+
+    public void exit(long startNanos, String type, String method, Throwable error) {
+        if (!enabled) {
+            return;
+        }
+        TraceContext context = CONTEXT.get();
+        int depth = --context.depth;
+        if (startNanos != NOT_SAMPLED) {
+            recorded.increment();
+            buffer.offer(context.traceId, depth, type, method, System.nanoTime() - startNanos, error);
+        }
+    }
+
+    private void drainLoop() {
+        while (running || buffer.size() > 0) {
+            if (buffer.drain(handler, DRAIN_BATCH) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private static void logSpan(long traceId, int depth, String type, String method, long durationNanos, Throwable error) {
+        if (error == null) {
+            SPAN_LOG.info("trace={} depth={} span={}.{} durationUs={}",
+                    traceId, depth, type, method, durationNanos / 1000);
+        } else {
+            SPAN_LOG.info("trace={} depth={} span={}.{} durationUs={} error={}: {}",
+                    traceId, depth, type, method, durationNanos / 1000, error.getClass().getSimpleName(), error.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (appender.isAlive()) {
+            appender.join(TimeUnit.SECONDS.toMillis(1));
+        }
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("tracing_spans_recorded_total", "counter", "Sampled spans handed to the appender");
+        writer.sample("tracing_spans_recorded_total", recorded.sum());
+        writer.metric("tracing_spans_dropped_total", "counter", "Spans dropped because the ring buffer was full");
+        writer.sample("tracing_spans_dropped_total", buffer.getDropped());
+        writer.metric("tracing_buffer_size", "gauge", "Spans waiting in the ring buffer");
+        writer.sample("tracing_buffer_size", buffer.size());
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.currency.warmup;
+
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.CacheSnapshotService;
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the cache before the node reports ready. Spring Boot publishes
+ * {@code ReadinessState.ACCEPTING_TRAFFIC} only after all runners return, so readiness flips
+ * once this finishes or gives up after {@code warmup.timeout-seconds}.
+ */
+@Component
+public class WarmupService implements ApplicationRunner, MetricsSource {
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+
+    private final CurrencyService currencyService;
+    private final CurrencyConversionService conversionService;
+    private final SimpleCache cache;
+    private final CacheSnapshotService snapshotService;
+    private final boolean enabled;
+    private final int parallelism;
+    private final long timeoutSeconds;
+    private final String hotKeysFile;
+    private final int hotKeysLimit;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private final AtomicInteger currencies = new AtomicInteger();
+    private final AtomicInteger ratesFromDb = new AtomicInteger();
+    private final AtomicInteger ratesFromApi = new AtomicInteger();
+    private final AtomicInteger hotKeysReplayed = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong durationNanos = new AtomicLong(-1);
+    private volatile boolean restoredFromSnapshot;
+
+    @Autowired
+    public WarmupService(
+            CurrencyService currencyService,
+            CurrencyConversionService conversionService,
+            SimpleCache cache,
+            CacheSnapshotService snapshotService,
+            @Value("${warmup.enabled:true}") boolean enabled,
+            @Value("${warmup.parallelism:4}") int parallelism,
+            @Value("${warmup.timeout-seconds:30}") long timeoutSeconds,
+            @Value("${warmup.hot-keys-file:}") String hotKeysFile,
+            @Value("${warmup.hot-keys-limit:200}") int hotKeysLimit
+    ) {
+        this.currencyService = currencyService;
+        this.conversionService = conversionService;
+        this.cache = cache;
+        this.snapshotService = snapshotService;
+        this.enabled = enabled;
+        this.parallelism = parallelism;
+        this.timeoutSeconds = timeoutSeconds;
+        this.hotKeysFile = hotKeysFile;
+        this.hotKeysLimit = hotKeysLimit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    public void warmUp() {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "warmup-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            if (snapshotService.restore()) {
+                restoredFromSnapshot = true;
+            } else {
+                loadReferenceData(executor).get(timeoutSeconds, TimeUnit.SECONDS);
+            }
+            replayHotKeys(executor).get(Math.max(1, timeoutSeconds - elapsedSeconds(start)), TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            failures.incrementAndGet();
+            log.warn("Warm-up did not finish within {}s, continuing with a partially warm cache", timeoutSeconds);
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.warn("Warm-up failed, continuing with a partially warm cache", e);
+        } finally {
+            executor.shutdownNow();
+            durationNanos.set(System.nanoTime() - start);
+        }
+        log.info("Warm-up finished in {} ms: snapshot={}, currencies={}, rates from db={}, rates from api={}, hot keys={}, failures={}",
+                TimeUnit.NANOSECONDS.toMillis(durationNanos.get()), restoredFromSnapshot, currencies.get(),
+                ratesFromDb.get(), ratesFromApi.get(), hotKeysReplayed.get(), failures.get());
+    }
+
+    private CompletableFuture<Void> loadReferenceData(ExecutorService executor) {
+        LocalDate today = LocalDate.now();
+        CompletableFuture<List<CurrencyInfo>> allCurrencies =
+                CompletableFuture.supplyAsync(currencyService::getAllCurrencies, executor);
+        CompletableFuture<List<CurrencyRate>> todayRates =
+                CompletableFuture.supplyAsync(() -> currencyService.preloadRates(today), executor);
+
+        return allCurrencies.thenCombine(todayRates, (infos, rates) -> {
+            currencies.set(infos.size());
+            ratesFromDb.set(rates.size());
+            Set<Integer> loaded = new HashSet<>();
+            for (CurrencyRate rate : rates) {
+                loaded.add(rate.getCurrency().getCurId());
+            }
+            List<CompletableFuture<Void>> fetches = new ArrayList<>();
+            for (CurrencyInfo info : infos) {
+                if (!loaded.contains(info.getCurId())) {
+                    fetches.add(CompletableFuture.runAsync(() -> fetchRate(info), executor));
+                }
+            }
+            return fetches;
+        }).thenCompose(fetches -> CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0])));
+    }
+
+    private void fetchRate(CurrencyInfo info) {
+        try {
+            currencyService.fetchAndStoreRate(info);
+            ratesFromApi.incrementAndGet();
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.debug("Could not warm rate for currency {}: {}", info.getCurId(), e.getMessage());
+        }
+    }
+
+    private CompletableFuture<Void> replayHotKeys(ExecutorService executor) throws IOException {
+        if (hotKeysFile.isBlank() || !Files.isReadable(Path.of(hotKeysFile))) {
+            return CompletableFuture.completedFuture(null);
+        }
+        List<CompletableFuture<Void>> replays = new ArrayList<>();
+        for (String key : Files.readAllLines(Path.of(hotKeysFile), StandardCharsets.UTF_8)) {
+            if (!key.isBlank()) {
+                replays.add(CompletableFuture.runAsync(() -> replay(key.strip()), executor));
+            }
+        }
+        return CompletableFuture.allOf(replays.toArray(new CompletableFuture[0]));
+    }
+
+    void replay(String key) {
+        try {
+            CacheKey parsed = CacheKey.parse(key);
+            boolean replayed = switch (parsed.region()) {
+                case CONVERT -> conversionService.convertCurrency(parsed.curId(), parsed.toCurId(), parsed.amount()) != null;
+                case CURRENCY -> currencyService.getCurrencyById(parsed.curId()).isPresent();
+                case CURRENCY_WITH_RATES -> currencyService.getCurrencyByIdWithRates(parsed.curId()).isPresent();
+                default -> false;
+            };
+            if (replayed) {
+                hotKeysReplayed.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.debug("Could not replay hot key {}: {}", key, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void recordHotKeys() {
+        if (hotKeysFile.isBlank() || !cache.isTrackingKeys()) {
+            return;
+        }
+        List<String> keys = cache.getHotKeys(hotKeysLimit).stream().map(SimpleCache.HotKey::key).toList();
+        try {
+            Path path = Path.of(hotKeysFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.write(path, keys, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Could not record hot keys to {}", hotKeysFile, e);
+        }
+    }
+
+    public boolean isFinished() {
+        return !enabled || durationNanos.get() >= 0;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, durationNanos.get()));
+    }
+
+    public boolean isRestoredFromSnapshot() {
+        return restoredFromSnapshot;
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    private static long elapsedSeconds(long start) {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("warmup_duration_seconds", "gauge", "Time spent warming the cache at startup");
+        writer.sample("warmup_duration_seconds", Math.max(0, durationNanos.get()) / 1e9);
+        writer.metric("warmup_loaded", "gauge", "Entries loaded during warm-up per kind");
+        writer.sample("warmup_loaded", currencies.get(), "kind", "currency");
+        writer.sample("warmup_loaded", ratesFromDb.get(), "kind", "rate_db");
+        writer.sample("warmup_loaded", ratesFromApi.get(), "kind", "rate_api");
+        writer.sample("warmup_loaded", hotKeysReplayed.get(), "kind", "hot_key");
+        writer.metric("warmup_failures", "gauge", "Warm-up steps that failed or timed out");
+        writer.sample("warmup_failures", failures.get());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.currency.web;
+
+import com.example.currency.coherence.CacheChangeListener;
+import com.example.currency.metrics.LatencyHistogram;
+import com.example.currency.metrics.MetricsSource;
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CacheChange;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Rendered Thymeleaf fragments keyed by the data version they were rendered from. Currency changes,
+ * local or polled from other nodes, move the version of the currency list or of one currency, so a
+ * stale fragment is re-rendered on its next use; until then pages embed the cached markup without
+ * loading the data behind it.
+ */
+@Component
+public class FragmentCache implements CacheChangeListener, MetricsSource {
+
+    private record Rendered(long version, String html) {
+    }
+
+    private final ITemplateEngine templateEngine;
+    private final Map<String, Rendered> fragments = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> currencyVersions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile long listVersion;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LatencyHistogram renderLatency = new LatencyHistogram();
+
+    @Autowired
+    public FragmentCache(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * A fragment rendered from the currency list, e.g. {@code "currencies/fragments :: currencyRows"}.
+     */
+    public String currencyList(String fragment, Supplier<Map<String, Object>> variables) {
+        return render(fragment, listVersion, fragment, variables);
+    }
+
+    /**
+     * A fragment rendered from one currency and its rates.
+     */
+    public String currency(Integer currencyId, String fragment, Supplier<Map<String, Object>> variables) {
+        return render(fragment + ":" + currencyId, currencyVersions.getOrDefault(currencyId, 0L), fragment, variables);
+    }
+
+    private String render(String key, long version, String fragment, Supplier<Map<String, Object>> variables) {
+        // The version is read before the data, so markup rendered across a change is never reused.
+        Rendered cached = fragments.get(key);
+        if (cached != null && cached.version() == version) {
+            hits.increment();
+            return cached.html();
+        }
+        misses.increment();
+        long start = System.nanoTime();
+        int separator = fragment.indexOf("::");
+        String html = templateEngine.process(fragment.substring(0, separator).trim(),
+                Set.of(fragment.substring(separator + 2).trim()), context(variables.get()));
+        renderLatency.recordNanos(System.nanoTime() - start);
+        fragments.put(key, new Rendered(version, html));
+        return html;
+    }
+
+    private static WebContext context(Map<String, Object> variables) {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        HttpServletRequest request = attributes.getRequest();
+        IWebExchange exchange = JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, attributes.getResponse());
+        return new WebContext(exchange, LocaleContextHolder.getLocale(), variables);
+    }
+
+    @Override
+    public void onChange(CacheChange change) {
+        Integer currencyId = change.getCurrencyId();
+        if (change.getType() != CacheChange.Type.RATE_CHANGED) {
+            listVersion = sequence.incrementAndGet();
+        }
+        if (currencyId != null) {
+            currencyVersions.put(currencyId, sequence.incrementAndGet());
+            if (change.getType() == CacheChange.Type.CURRENCY_DELETED) {
+                fragments.keySet().removeIf(key -> key.endsWith(":" + currencyId));
+            }
+        }
+    }
+
+    public int size() {
+        return fragments.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public void collect(PrometheusWriter writer) {
+        writer.metric("fragment_cache_hits_total", "counter", "Fragments served from the rendered-fragment cache");
+        writer.sample("fragment_cache_hits_total", hits.sum());
+        writer.metric("fragment_cache_misses_total", "counter", "Fragments rendered because the cached copy was missing or stale");
+        writer.sample("fragment_cache_misses_total", misses.sum());
+        writer.metric("fragment_cache_entries", "gauge", "Rendered fragments held");
+        writer.sample("fragment_cache_entries", fragments.size());
+        writer.metric("fragment_render_seconds", "summary", "Fragment render time on a cache miss");
+        writer.sample("fragment_render_seconds", renderLatency.quantileMicros(0.5) / 1e6, "quantile", "0.5");
+        writer.sample("fragment_render_seconds", renderLatency.quantileMicros(0.99) / 1e6, "quantile", "0.99");
+        writer.sample("fragment_render_seconds_sum", renderLatency.getSumMicros() / 1e6);
+        writer.sample("fragment_render_seconds_count", renderLatency.getCount());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.currency.wire;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.models.RateView;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Serves rates and currencies, single or in lists, as {@code application/x-protobuf} using
+ * {@link ProtobufWireFormat}. Rate entities are written through {@link RateView}; only views and
+ * currencies are read. Other body types are left to the remaining converters.
+ */
+public class ProtobufViewHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public ProtobufViewHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return messageType(clazz) != null;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        Class<?> messageType = messageType(type);
+        return messageType != null && messageType != CurrencyRate.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return messageType(type != null ? type : clazz) != null && canWrite(mediaType);
+    }
+
+    /**
+     * Lists arrive here as their runtime class; {@link #canWrite(Type, Class, MediaType)} has
+     * already checked the element type.
+     */
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return getSupportedMediaTypes();
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes;
+        if (body instanceof RateView rate) {
+            bytes = ProtobufWireFormat.encodeRate(rate);
+        } else if (body instanceof CurrencyRate rate) {
+            bytes = ProtobufWireFormat.encodeRate(RateView.of(rate));
+        } else if (body instanceof CurrencyInfo currency) {
+            bytes = ProtobufWireFormat.encodeCurrency(currency);
+        } else if (messageType(type) == CurrencyInfo.class || firstElement(body) instanceof CurrencyInfo) {
+            bytes = ProtobufWireFormat.encodeCurrencies(list(body));
+        } else if (messageType(type) == CurrencyRate.class || firstElement(body) instanceof CurrencyRate) {
+            bytes = ProtobufWireFormat.encodeRates(ProtobufViewHttpMessageConverter.<CurrencyRate>list(body).stream()
+                    .map(RateView::of)
+                    .toList());
+        } else {
+            bytes = ProtobufWireFormat.encodeRates(list(body));
+        }
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        byte[] bytes = inputMessage.getBody().readAllBytes();
+        Class<?> messageType = messageType(type);
+        boolean list = !(type instanceof Class<?>);
+        if (messageType == RateView.class) {
+            return list ? ProtobufWireFormat.decodeRates(bytes) : ProtobufWireFormat.decodeRate(bytes);
+        }
+        if (messageType == CurrencyInfo.class && list) {
+            return ProtobufWireFormat.decodeCurrencies(bytes);
+        }
+        throw new HttpMessageNotReadableException("Cannot read " + type + " from protobuf", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    /**
+     * The message class behind {@code type}: the view itself or the element type of a list of views.
+     */
+    static Class<?> messageType(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz == RateView.class || clazz == CurrencyRate.class || clazz == CurrencyInfo.class ? clazz : null;
+        }
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw
+                && Collection.class.isAssignableFrom(raw)
+                && raw.isAssignableFrom(List.class)) {
+            return messageType(parameterized.getActualTypeArguments()[0]);
+        }
+        return null;
+    }
+
+    private static Object firstElement(Object body) {
+        return body instanceof List<?> list && !list.isEmpty() ? list.get(0) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> list(Object body) {
+        return (List<T>) body;
+    }
+}
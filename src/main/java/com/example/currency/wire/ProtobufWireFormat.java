@@ -0,0 +1,278 @@
+package com.example.currency.wire;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.RateView;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encoder and decoder for the messages in {@code src/main/proto/currency.proto}, written directly
+ * against the protobuf wire format so the lean views need no generated message classes.
+ */
+public final class ProtobufWireFormat {
+
+    static final int LIST_FIELD = 1;
+
+    private static final int RATE_ID = 1;
+    private static final int RATE_CUR_ID = 2;
+    private static final int RATE_DATE = 3;
+    private static final int RATE_UNSCALED = 4;
+    private static final int RATE_SCALE = 5;
+    private static final int RATE_CUR_SCALE = 6;
+    private static final int RATE_DECIMAL = 7;
+
+    private static final int CURRENCY_ID = 1;
+    private static final int CURRENCY_CODE = 2;
+    private static final int CURRENCY_ABBREVIATION = 3;
+    private static final int CURRENCY_NAME = 4;
+    private static final int CURRENCY_SCALE = 5;
+
+    private ProtobufWireFormat() {
+    }
+
+    public static byte[] encodeRates(List<RateView> rates) {
+        int size = 0;
+        for (RateView rate : rates) {
+            int rateSize = rateSize(rate);
+            size += CodedOutputStream.computeTagSize(LIST_FIELD) + CodedOutputStream.computeUInt32SizeNoTag(rateSize) + rateSize;
+        }
+        byte[] bytes = new byte[size];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            for (RateView rate : rates) {
+                output.writeTag(LIST_FIELD, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(rateSize(rate));
+                writeRate(output, rate);
+            }
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode rates", e);
+        }
+        return bytes;
+    }
+
+    public static byte[] encodeRate(RateView rate) {
+        byte[] bytes = new byte[rateSize(rate)];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            writeRate(output, rate);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode rate", e);
+        }
+        return bytes;
+    }
+
+    public static byte[] encodeCurrencies(List<CurrencyInfo> currencies) {
+        int size = 0;
+        for (CurrencyInfo currency : currencies) {
+            int currencySize = currencySize(currency);
+            size += CodedOutputStream.computeTagSize(LIST_FIELD) + CodedOutputStream.computeUInt32SizeNoTag(currencySize) + currencySize;
+        }
+        byte[] bytes = new byte[size];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            for (CurrencyInfo currency : currencies) {
+                output.writeTag(LIST_FIELD, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                output.writeUInt32NoTag(currencySize(currency));
+                writeCurrency(output, currency);
+            }
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode currencies", e);
+        }
+        return bytes;
+    }
+
+    public static byte[] encodeCurrency(CurrencyInfo currency) {
+        byte[] bytes = new byte[currencySize(currency)];
+        CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            writeCurrency(output, currency);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not encode currency", e);
+        }
+        return bytes;
+    }
+
+    public static List<RateView> decodeRates(byte[] bytes) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        List<RateView> rates = new ArrayList<>();
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == LIST_FIELD) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                rates.add(readRate(input));
+                input.popLimit(limit);
+            } else {
+                input.skipField(tag);
+            }
+        }
+        return rates;
+    }
+
+    public static RateView decodeRate(byte[] bytes) throws IOException {
+        return readRate(CodedInputStream.newInstance(bytes));
+    }
+
+    public static List<CurrencyInfo> decodeCurrencies(byte[] bytes) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(bytes);
+        List<CurrencyInfo> currencies = new ArrayList<>();
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == LIST_FIELD) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                currencies.add(readCurrency(input));
+                input.popLimit(limit);
+            } else {
+                input.skipField(tag);
+            }
+        }
+        return currencies;
+    }
+
+    private static int rateSize(RateView rate) {
+        int size = 0;
+        if (rate.id() != null) {
+            size += CodedOutputStream.computeInt32Size(RATE_ID, rate.id());
+        }
+        if (rate.curId() != null) {
+            size += CodedOutputStream.computeInt32Size(RATE_CUR_ID, rate.curId());
+        }
+        if (rate.date() != null) {
+            size += CodedOutputStream.computeSInt32Size(RATE_DATE, (int) rate.date().toEpochDay());
+        }
+        BigDecimal value = rate.curOfficialRate();
+        if (value != null) {
+            if (fitsLong(value)) {
+                size += CodedOutputStream.computeSInt64Size(RATE_UNSCALED, value.unscaledValue().longValue());
+                size += CodedOutputStream.computeInt32Size(RATE_SCALE, value.scale());
+            } else {
+                size += CodedOutputStream.computeStringSize(RATE_DECIMAL, value.toString());
+            }
+        }
+        if (rate.curScale() != null) {
+            size += CodedOutputStream.computeInt32Size(RATE_CUR_SCALE, rate.curScale());
+        }
+        return size;
+    }
+
+    private static void writeRate(CodedOutputStream output, RateView rate) throws IOException {
+        if (rate.id() != null) {
+            output.writeInt32(RATE_ID, rate.id());
+        }
+        if (rate.curId() != null) {
+            output.writeInt32(RATE_CUR_ID, rate.curId());
+        }
+        if (rate.date() != null) {
+            output.writeSInt32(RATE_DATE, (int) rate.date().toEpochDay());
+        }
+        BigDecimal value = rate.curOfficialRate();
+        if (value != null) {
+            if (fitsLong(value)) {
+                output.writeSInt64(RATE_UNSCALED, value.unscaledValue().longValue());
+                output.writeInt32(RATE_SCALE, value.scale());
+            } else {
+                output.writeString(RATE_DECIMAL, value.toString());
+            }
+        }
+        if (rate.curScale() != null) {
+            output.writeInt32(RATE_CUR_SCALE, rate.curScale());
+        }
+    }
+
+    private static RateView readRate(CodedInputStream input) throws IOException {
+        Integer id = null;
+        Integer curId = null;
+        LocalDate date = null;
+        Long unscaled = null;
+        int scale = 0;
+        BigDecimal decimal = null;
+        Integer curScale = null;
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case RATE_ID -> id = input.readInt32();
+                case RATE_CUR_ID -> curId = input.readInt32();
+                case RATE_DATE -> date = LocalDate.ofEpochDay(input.readSInt32());
+                case RATE_UNSCALED -> unscaled = input.readSInt64();
+                case RATE_SCALE -> scale = input.readInt32();
+                case RATE_CUR_SCALE -> curScale = input.readInt32();
+                case RATE_DECIMAL -> decimal = new BigDecimal(input.readString());
+                default -> input.skipField(tag);
+            }
+        }
+        if (decimal == null && unscaled != null) {
+            decimal = BigDecimal.valueOf(unscaled, scale);
+        }
+        return new RateView(id, curId, date, decimal, curScale);
+    }
+
+    private static int currencySize(CurrencyInfo currency) {
+        int size = 0;
+        if (currency.getCurId() != null) {
+            size += CodedOutputStream.computeInt32Size(CURRENCY_ID, currency.getCurId());
+        }
+        if (currency.getCurCode() != null) {
+            size += CodedOutputStream.computeStringSize(CURRENCY_CODE, currency.getCurCode());
+        }
+        if (currency.getCurAbbreviation() != null) {
+            size += CodedOutputStream.computeStringSize(CURRENCY_ABBREVIATION, currency.getCurAbbreviation());
+        }
+        if (currency.getCurName() != null) {
+            size += CodedOutputStream.computeStringSize(CURRENCY_NAME, currency.getCurName());
+        }
+        if (currency.getCurScale() != null) {
+            size += CodedOutputStream.computeInt32Size(CURRENCY_SCALE, currency.getCurScale());
+        }
+        return size;
+    }
+
+    private static void writeCurrency(CodedOutputStream output, CurrencyInfo currency) throws IOException {
+        if (currency.getCurId() != null) {
+            output.writeInt32(CURRENCY_ID, currency.getCurId());
+        }
+        if (currency.getCurCode() != null) {
+            output.writeString(CURRENCY_CODE, currency.getCurCode());
+        }
+        if (currency.getCurAbbreviation() != null) {
+            output.writeString(CURRENCY_ABBREVIATION, currency.getCurAbbreviation());
+        }
+        if (currency.getCurName() != null) {
+            output.writeString(CURRENCY_NAME, currency.getCurName());
+        }
+        if (currency.getCurScale() != null) {
+            output.writeInt32(CURRENCY_SCALE, currency.getCurScale());
+        }
+    }
+
+    private static CurrencyInfo readCurrency(CodedInputStream input) throws IOException {
+        CurrencyInfo currency = new CurrencyInfo();
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case CURRENCY_ID -> currency.setCurId(input.readInt32());
+                case CURRENCY_CODE -> currency.setCurCode(input.readString());
+                case CURRENCY_ABBREVIATION -> currency.setCurAbbreviation(input.readString());
+                case CURRENCY_NAME -> currency.setCurName(input.readString());
+                case CURRENCY_SCALE -> currency.setCurScale(input.readInt32());
+                default -> input.skipField(tag);
+            }
+        }
+        return currency;
+    }
+
+    private static boolean fitsLong(BigDecimal value) {
+        BigInteger unscaled = value.unscaledValue();
+        return unscaled.bitLength() < 64;
+    }
+}
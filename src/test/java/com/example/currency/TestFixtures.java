@@ -0,0 +1,42 @@
+package com.example.currency;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Unsaved entities for tests. Currencies have a scale of 1, as do rates unless one is given.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static CurrencyInfo currency(String abbreviation) {
+        return currency(abbreviation, abbreviation, abbreviation);
+    }
+
+    public static CurrencyInfo currency(String abbreviation, String code, String name) {
+        CurrencyInfo info = new CurrencyInfo();
+        info.setCurAbbreviation(abbreviation);
+        info.setCurCode(code);
+        info.setCurName(name);
+        info.setCurScale(1);
+        return info;
+    }
+
+    public static CurrencyRate rate(CurrencyInfo currency, LocalDate date, String value) {
+        return rate(currency, date, value, 1);
+    }
+
+    public static CurrencyRate rate(CurrencyInfo currency, LocalDate date, String value, int scale) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurrency(currency);
+        rate.setDate(date);
+        rate.setCurOfficialRate(new BigDecimal(value));
+        rate.setCurScale(scale);
+        return rate;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.currency.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private void runWindow(AdaptiveConcurrencyLimiter limiter, int concurrency, long latencyMillis) {
+        int acquired = 0;
+        for (int i = 0; i < concurrency; i++) {
+            if (limiter.tryAcquire()) {
+                acquired++;
+            }
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(101));
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+    }
+
+    @Test
+    public void testRejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, clock::get);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.release(1000);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, clock::get);
+        for (int i = 0; i < 20; i++) {
+            runWindow(limiter, 200, 1);
+        }
+        assertTrue(limiter.getLimit() > 20, "limit should grow, was " + limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, clock::get);
+        runWindow(limiter, 50, 1);
+        int before = limiter.getLimit();
+        for (int i = 0; i < 10; i++) {
+            runWindow(limiter, 100, 20);
+        }
+        assertTrue(limiter.getLimit() < before, "limit should shrink, was " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 1);
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenUnderutilized() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 1, 100, clock::get);
+        for (int i = 0; i < 10; i++) {
+            runWindow(limiter, 2, 1);
+        }
+        assertEquals(40, limiter.getLimit());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.currency.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionManagerTest {
+
+    // Starting limits are half the maxima: CRITICAL 10, STANDARD 5, BULK 2.
+    private final AdmissionManager manager = new AdmissionManager(true, 1, 20, 10, 4);
+
+    @Test
+    public void testCriticalPressureShedsOtherClassesFirst() {
+        for (int i = 0; i < 7; i++) {
+            assertTrue(manager.tryAdmit(EndpointClass.CRITICAL));
+        }
+        assertTrue(manager.tryAdmit(EndpointClass.STANDARD));
+        manager.complete(EndpointClass.STANDARD, 1_000_000);
+
+        // 8 of 10 critical permits in use reaches the 0.8 reservation.
+        assertTrue(manager.tryAdmit(EndpointClass.CRITICAL));
+        assertFalse(manager.tryAdmit(EndpointClass.STANDARD));
+        assertFalse(manager.tryAdmit(EndpointClass.BULK));
+        assertEquals(1, manager.getLimiter(EndpointClass.STANDARD).getRejected());
+        assertEquals(1, manager.getLimiter(EndpointClass.BULK).getRejected());
+
+        assertTrue(manager.tryAdmit(EndpointClass.CRITICAL));
+        assertTrue(manager.tryAdmit(EndpointClass.CRITICAL));
+        assertFalse(manager.tryAdmit(EndpointClass.CRITICAL));
+
+        manager.complete(EndpointClass.CRITICAL, 1_000_000);
+        manager.complete(EndpointClass.CRITICAL, 1_000_000);
+        manager.complete(EndpointClass.CRITICAL, 1_000_000);
+        assertTrue(manager.tryAdmit(EndpointClass.BULK));
+    }
+
+    @Test
+    public void testClassesHaveSeparateLimits() {
+        assertTrue(manager.tryAdmit(EndpointClass.BULK));
+        assertTrue(manager.tryAdmit(EndpointClass.BULK));
+        assertFalse(manager.tryAdmit(EndpointClass.BULK));
+        assertTrue(manager.tryAdmit(EndpointClass.STANDARD));
+        assertEquals(2, manager.getLimiter(EndpointClass.BULK).getInFlight());
+        assertEquals(1, manager.getLimiter(EndpointClass.STANDARD).getInFlight());
+    }
+}
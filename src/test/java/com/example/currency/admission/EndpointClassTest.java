@@ -0,0 +1,50 @@
+package com.example.currency.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointClassTest {
+
+    @Test
+    public void testConversionIsCriticalForAnyMethod() {
+        assertEquals(EndpointClass.CRITICAL, classOf("GET", "/api/currency/rates/convert"));
+        assertEquals(EndpointClass.CRITICAL, classOf("POST", "/currencies/convert"));
+    }
+
+    @Test
+    public void testListsAndBatchesAreBulk() {
+        assertEquals(EndpointClass.BULK, classOf("GET", "/api/currency/rates"));
+        assertEquals(EndpointClass.BULK, classOf("GET", "/api/currency/info/db"));
+        assertEquals(EndpointClass.BULK, classOf("GET", "/currencies"));
+        assertEquals(EndpointClass.BULK, classOf("POST", "/api/currency/rates/bulk-rates"));
+        assertEquals(EndpointClass.BULK, classOf("POST", "/api/analytics/portfolio/valuation"));
+    }
+
+    @Test
+    public void testEverythingElseIsStandard() {
+        assertEquals(EndpointClass.STANDARD, classOf("POST", "/api/currency/rates"));
+        assertEquals(EndpointClass.STANDARD, classOf("GET", "/api/currency/rates/5"));
+        assertEquals(EndpointClass.STANDARD, classOf("GET", "/api/currency/rates/bulk-rates"));
+    }
+
+    @Test
+    public void testProbesAndMetricsAreExempt() {
+        assertTrue(EndpointClass.isExempt(new MockHttpServletRequest("GET", "/health/live")));
+        assertTrue(EndpointClass.isExempt(new MockHttpServletRequest("GET", "/health/ready")));
+        assertTrue(EndpointClass.isExempt(new MockHttpServletRequest("GET", "/metrics")));
+        assertFalse(EndpointClass.isExempt(new MockHttpServletRequest("GET", "/api/currency/rates")));
+    }
+
+    @Test
+    public void testContextPathIsIgnored() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/api/currency/rates/convert");
+        request.setContextPath("/app");
+        assertEquals(EndpointClass.CRITICAL, EndpointClass.of(request));
+    }
+
+    private static EndpointClass classOf(String method, String path) {
+        return EndpointClass.of(new MockHttpServletRequest(method, path));
+    }
+}
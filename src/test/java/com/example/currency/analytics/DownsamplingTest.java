@@ -0,0 +1,83 @@
+package com.example.currency.analytics;
+
+import com.example.currency.models.RateRollup.Granularity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DownsamplingTest {
+
+    @Test
+    void testLttbKeepsEndpointsAndSpike() {
+        int n = 10_000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        Random random = new Random(3);
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = 3 + random.nextDouble() * 0.01;
+        }
+        y[6_543] = 9;
+
+        int[] selected = Downsampling.lttb(x, y, 200);
+
+        assertEquals(200, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(n - 1, selected[selected.length - 1]);
+        assertTrue(isStrictlyIncreasing(selected));
+        assertTrue(Arrays.stream(selected).anyMatch(i -> i == 6_543));
+    }
+
+    @Test
+    void testMinMaxKeepsGlobalExtremes() {
+        int n = 5_000;
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = Math.sin(i / 50.0);
+        }
+        y[1_234] = -5;
+        y[4_321] = 5;
+
+        int[] selected = Downsampling.minMax(y, 100);
+
+        assertTrue(selected.length <= 100);
+        assertTrue(isStrictlyIncreasing(selected));
+        assertEquals(0, selected[0]);
+        assertEquals(n - 1, selected[selected.length - 1]);
+        assertTrue(Arrays.stream(selected).anyMatch(i -> i == 1_234));
+        assertTrue(Arrays.stream(selected).anyMatch(i -> i == 4_321));
+    }
+
+    @Test
+    void testShortSeriesIsReturnedWhole() {
+        double[] x = {1, 2, 3};
+        double[] y = {5, 6, 7};
+
+        assertArrayEquals(new int[]{0, 1, 2}, Downsampling.lttb(x, y, 10));
+        assertArrayEquals(new int[]{0, 1, 2}, Downsampling.minMax(y, 10));
+        assertArrayEquals(new int[0], Downsampling.lttb(new double[0], new double[0], 10));
+    }
+
+    @Test
+    void testGranularityGrowsWithRange() {
+        LocalDate from = LocalDate.of(2000, 1, 1);
+
+        assertEquals(Granularity.DAY, ChartSeriesService.granularityFor(from, from.plusDays(365), 2000));
+        assertEquals(Granularity.WEEK, ChartSeriesService.granularityFor(from, from.plusYears(20), 2000));
+        assertEquals(Granularity.MONTH, ChartSeriesService.granularityFor(from, from.plusYears(20), 400));
+        assertEquals(Granularity.YEAR, ChartSeriesService.granularityFor(from, from.plusYears(20), 16));
+    }
+
+    private static boolean isStrictlyIncreasing(int[] indices) {
+        for (int i = 1; i < indices.length; i++) {
+            if (indices[i] <= indices[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
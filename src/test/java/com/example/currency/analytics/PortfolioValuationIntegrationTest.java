@@ -0,0 +1,119 @@
+package com.example.currency.analytics;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static com.example.currency.TestFixtures.currency;
+import static com.example.currency.TestFixtures.rate;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "nbrb.api.base-url=http://127.0.0.1:9/exrates/",
+        "analytics.valuation.chunk-days=3"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class PortfolioValuationIntegrationTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testValuationIsStreamedInDateOrder() throws Exception {
+        CurrencyInfo usd = currencyService.createCurrency(currency("PVU"));
+        CurrencyInfo eur = currencyService.createCurrency(currency("PVE"));
+        // Thursday 2024-02-01: both rates; the USD rate changes on Tuesday 2024-02-06.
+        LocalDate thursday = LocalDate.of(2024, 2, 1);
+        conversionService.createRate(rate(usd, thursday, "3.20"));
+        conversionService.createRate(rate(eur, thursday, "3.50"));
+        conversionService.createRate(rate(usd, thursday.plusDays(5), "3.30"));
+
+        MvcResult started = mockMvc.perform(post("/api/analytics/portfolio/valuation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"holdings\":[{\"curId\":" + usd.getCurId() + ",\"amount\":100},"
+                                + "{\"curId\":" + usd.getCurId() + ",\"amount\":50}],"
+                                + "\"base\":" + eur.getCurId() + ",\"from\":\"2024-01-30\",\"to\":\"2024-02-07\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.base").value(eur.getCurId()))
+                .andExpect(jsonPath("$.holdings").value(1))
+                .andExpect(jsonPath("$.values.length()").value(5))
+                .andExpect(jsonPath("$.values[0].date").value("2024-02-01"))
+                .andExpect(jsonPath("$.values[0].value").value(137.14))
+                .andExpect(jsonPath("$.values[2].date").value("2024-02-05"))
+                .andExpect(jsonPath("$.values[2].value").value(137.14))
+                .andExpect(jsonPath("$.values[3].date").value("2024-02-06"))
+                .andExpect(jsonPath("$.values[3].value").value(141.43));
+    }
+
+    @Test
+    void testCurrencyWithoutRatesIsRejectedBeforeStreaming() throws Exception {
+        CurrencyInfo empty = currencyService.createCurrency(currency("PVN"));
+
+        mockMvc.perform(post("/api/analytics/portfolio/valuation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"holdings\":[{\"curId\":" + empty.getCurId() + ",\"amount\":1}],"
+                                + "\"from\":\"2024-01-01\",\"to\":\"2024-01-31\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/analytics/portfolio/valuation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"holdings\":[],\"from\":\"2024-01-01\",\"to\":\"2024-01-31\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBynValuationHasNullBase() throws Exception {
+        CurrencyInfo usd = currencyService.createCurrency(currency("PVB"));
+        conversionService.createRate(rate(usd, LocalDate.of(2024, 2, 1), "3.20"));
+
+        MvcResult started = mockMvc.perform(post("/api/analytics/portfolio/valuation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"holdings\":[{\"curId\":" + usd.getCurId() + ",\"amount\":10}],"
+                                + "\"from\":\"2024-02-01\",\"to\":\"2024-02-01\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.base").value(nullValue()))
+                .andExpect(jsonPath("$.values[0].value").value(32.00));
+    }
+
+    @Test
+    void testOversizedHoldingsAreRejectedBeforeStreaming() throws Exception {
+        CurrencyInfo usd = currencyService.createCurrency(currency("PVO"));
+        conversionService.createRate(rate(usd, LocalDate.of(2024, 2, 1), "3.20"));
+
+        mockMvc.perform(post("/api/analytics/portfolio/valuation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"holdings\":[{\"curId\":" + usd.getCurId() + ",\"amount\":1e17}],"
+                                + "\"from\":\"2024-02-01\",\"to\":\"2024-02-29\"}"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.currency.analytics;
+
+import com.example.currency.history.RateSeries;
+import com.example.currency.service.ConversionArithmetic;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PortfolioValuationTest {
+
+    // Monday 2024-01-01 to Sunday 2024-01-14.
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    @Test
+    public void testWeekdaysCarryTheLatestRateForward() {
+        RateSeries usd = series(MONDAY, "3.000000", MONDAY.plusDays(3), "3.100000");
+        PortfolioValuation valuation = new PortfolioValuation(List.of(usd), List.of(new BigDecimal("100")), null);
+
+        PortfolioValuation.Chunk chunk = valuation.value(MONDAY, MONDAY.plusDays(13));
+
+        assertEquals(10, chunk.length());
+        for (int i = 0; i < chunk.length(); i++) {
+            LocalDate date = LocalDate.ofEpochDay(chunk.days()[i]);
+            assertTrue(date.getDayOfWeek().getValue() <= DayOfWeek.FRIDAY.getValue());
+            assertEquals(date.isBefore(MONDAY.plusDays(3)) ? 30000 : 31000, chunk.values()[i], date.toString());
+        }
+    }
+
+    @Test
+    public void testValuesMatchConversionOfEachHolding() {
+        RateSeries usd = series(MONDAY, "3.241800", MONDAY.plusDays(7), "3.250100");
+        RateSeries eur = series(MONDAY.plusDays(2), "3.527700");
+        RateSeries rub = series(MONDAY, "0.035512");
+        BigDecimal usdAmount = new BigDecimal("1250.75");
+        BigDecimal eurAmount = new BigDecimal("80.5");
+        PortfolioValuation valuation = new PortfolioValuation(List.of(usd, eur), List.of(usdAmount, eurAmount), rub);
+
+        assertEquals(MONDAY.plusDays(2), valuation.firstValuedDate());
+        PortfolioValuation.Chunk chunk = valuation.value(MONDAY, MONDAY.plusDays(13));
+        assertEquals(8, chunk.length());
+        for (int i = 0; i < chunk.length(); i++) {
+            LocalDate date = LocalDate.ofEpochDay(chunk.days()[i]);
+            BigDecimal expected = convert(usdAmount, rateOn(usd, date), rateOn(rub, date))
+                    .add(convert(eurAmount, rateOn(eur, date), rateOn(rub, date)));
+            assertEquals(expected, BigDecimal.valueOf(chunk.values()[i], 2), date.toString());
+        }
+    }
+
+    @Test
+    public void testAmountsBeyondLongPrecisionUseTheReference() {
+        RateSeries usd = series(MONDAY, "3.241800");
+        BigDecimal amount = new BigDecimal("1234567.123456789012345678901");
+        PortfolioValuation valuation = new PortfolioValuation(List.of(usd), List.of(amount), null);
+
+        PortfolioValuation.Chunk chunk = valuation.value(MONDAY, MONDAY);
+
+        assertEquals(convert(amount, new BigDecimal("3.241800"), BigDecimal.ONE), BigDecimal.valueOf(chunk.values()[0], 2));
+    }
+
+    @Test
+    public void testFitsChunkBoundsTheLargestDay() {
+        RateSeries usd = series(MONDAY, "3.000000", MONDAY.plusDays(3), "9.000000");
+        RateSeries rub = series(MONDAY, "0.035512");
+        BigDecimal large = new BigDecimal("6000000000000000");
+
+        assertTrue(new PortfolioValuation(List.of(usd), List.of(large), null).fitsChunk());
+        // Each holding fits on its own; together, or against a cheap base, they do not.
+        assertFalse(new PortfolioValuation(List.of(usd, usd), List.of(large, large), null).fitsChunk());
+        assertFalse(new PortfolioValuation(List.of(usd), List.of(large), rub).fitsChunk());
+        assertFalse(new PortfolioValuation(List.of(usd), List.of(large.negate().multiply(BigDecimal.TEN)), null).fitsChunk());
+    }
+
+    @Test
+    public void testForkedChunksMatchOneSequentialPass() {
+        int[] days = new int[3000];
+        long[] rates = new long[3000];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = (int) LocalDate.of(2015, 1, 1).toEpochDay() + i + i / 5;
+            rates[i] = 3_000_000L + (i * 7919L) % 400_000L;
+        }
+        RateSeries usd = RateSeries.of(days, rates, days.length);
+        PortfolioValuation valuation = new PortfolioValuation(List.of(usd), List.of(new BigDecimal("1000.00")), null);
+        LocalDate from = LocalDate.of(2015, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+
+        PortfolioValuation.Chunk sequential = valuation.value(from, to);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int offset = 0;
+            for (ForkJoinTask<PortfolioValuation.Chunk> task : valuation.fork(pool, from, to, 100)) {
+                PortfolioValuation.Chunk chunk = task.join();
+                for (int i = 0; i < chunk.length(); i++, offset++) {
+                    assertEquals(sequential.days()[offset], chunk.days()[i]);
+                    assertEquals(sequential.values()[offset], chunk.values()[i]);
+                }
+            }
+            assertEquals(sequential.length(), offset);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static BigDecimal convert(BigDecimal amount, BigDecimal from, BigDecimal to) {
+        return ConversionArithmetic.convertExact(amount, from, 1, to, 1);
+    }
+
+    private static BigDecimal rateOn(RateSeries series, LocalDate date) {
+        return series.rate(series.floorIndex(date));
+    }
+
+    private static RateSeries series(Object... dateRatePairs) {
+        int[] days = new int[dateRatePairs.length / 2];
+        long[] rates = new long[days.length];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = (int) ((LocalDate) dateRatePairs[2 * i]).toEpochDay();
+            rates[i] = new BigDecimal((String) dateRatePairs[2 * i + 1]).unscaledValue().longValueExact();
+        }
+        return RateSeries.of(days, rates, days.length);
+    }
+}
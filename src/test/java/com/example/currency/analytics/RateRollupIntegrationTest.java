@@ -0,0 +1,138 @@
+package com.example.currency.analytics;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.models.RateRollup;
+import com.example.currency.repository.RateRollupRepository;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.currency.TestFixtures.currency;
+import static com.example.currency.TestFixtures.rate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "nbrb.api.base-url=http://127.0.0.1:9/exrates/")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class RateRollupIntegrationTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private RateRollupService rollupService;
+
+    @Autowired
+    private RateRollupRepository rollupRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testRollupsFollowRateChanges() {
+        CurrencyInfo currency = currencyService.createCurrency(currency("CHF"));
+        LocalDate start = LocalDate.of(2022, 12, 20);
+        List<CurrencyRate> created = new ArrayList<>();
+        for (int day = 0; day < 80; day++) {
+            created.add(conversionService.createRate(rate(currency, start.plusDays(day), "3." + (10 + day * 7 % 89))));
+        }
+        LocalDate from = LocalDate.of(2022, 12, 25);
+        LocalDate to = LocalDate.of(2023, 2, 27);
+        assertStatsMatchRaw(currency, created, from, to);
+        assertTrue(rollupRepository.findByCurrencyIdAndGranularityAndBucketStart(
+                currency.getCurId(), RateRollup.Granularity.YEAR, LocalDate.of(2023, 1, 1)).isPresent());
+
+        CurrencyRate changed = created.get(30);
+        CurrencyRate update = rate(currency, changed.getDate(), "9.5");
+        created.set(30, conversionService.updateRate(changed.getId().longValue(), update));
+        assertEquals(new BigDecimal("9.500000"), rollupService.rangeStats(currency.getCurId(), from, to).getMax());
+        assertStatsMatchRaw(currency, created, from, to);
+
+        CurrencyRate removed = created.remove(31);
+        conversionService.deleteRate(removed.getId().longValue());
+        assertStatsMatchRaw(currency, created, from, to);
+
+        int rebuilt = rollupService.rebuild();
+        assertTrue(rebuilt > 0);
+        assertStatsMatchRaw(currency, created, from, to);
+    }
+
+    @Test
+    void testAnalyticsEndpoints() throws Exception {
+        CurrencyInfo base = currencyService.createCurrency(currency("SEK"));
+        CurrencyInfo quote = currencyService.createCurrency(currency("NOK"));
+        LocalDate day = LocalDate.of(2021, 6, 1);
+        conversionService.createRate(rate(base, day, "0.30"));
+        conversionService.createRate(rate(base, day.plusDays(1), "0.33"));
+        conversionService.createRate(rate(quote, day, "0.30"));
+        conversionService.createRate(rate(quote, day.plusDays(1), "0.30"));
+
+        mockMvc.perform(get("/api/analytics/currencies/" + base.getCurId() + "/stats")
+                        .param("from", "2021-05-01").param("to", "2021-06-30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.min").value(0.3))
+                .andExpect(jsonPath("$.max").value(0.33))
+                .andExpect(jsonPath("$.changePercent").value(10.0));
+
+        mockMvc.perform(get("/api/analytics/currencies/" + base.getCurId() + "/series")
+                        .param("granularity", "DAY").param("from", "2021-06-01").param("to", "2021-06-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(get("/api/analytics/pairs")
+                        .param("base", base.getCurId().toString()).param("quote", quote.getCurId().toString())
+                        .param("from", "2021-06-01").param("to", "2021-06-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.open").value(1.0))
+                .andExpect(jsonPath("$.close").value(1.1));
+
+        mockMvc.perform(get("/api/analytics/chart")
+                        .param("base", base.getCurId().toString()).param("quote", quote.getCurId().toString())
+                        .param("from", "2021-05-01").param("to", "2021-06-30").param("points", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("DAY"))
+                .andExpect(jsonPath("$.dates.length()").value(2))
+                .andExpect(jsonPath("$.values[1]").value(1.1));
+
+        mockMvc.perform(get("/api/analytics/currencies/" + base.getCurId() + "/stats")
+                        .param("from", "2021-07-01").param("to", "2021-06-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void assertStatsMatchRaw(CurrencyInfo currency, List<CurrencyRate> rates, LocalDate from, LocalDate to) {
+        RollupStats expected = RollupStats.empty();
+        rates.stream()
+                .filter(rate -> !rate.getDate().isBefore(from) && !rate.getDate().isAfter(to))
+                .sorted((a, b) -> a.getDate().compareTo(b.getDate()))
+                .forEach(rate -> expected.merge(RollupStats.of(rate.getDate(),
+                        RollupStats.perUnit(rate.getCurOfficialRate(), rate.getCurScale()))));
+        RollupStats actual = rollupService.rangeStats(currency.getCurId(), from, to);
+
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getAverage(), actual.getAverage());
+        assertEquals(expected.getStdDev(), actual.getStdDev());
+        assertEquals(expected.getFirstRate(), actual.getFirstRate());
+        assertEquals(expected.getLastRate(), actual.getLastRate());
+        assertEquals(expected.getVolatility(), actual.getVolatility(), 1e-9);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.currency.analytics;
+
+import com.example.currency.models.RateRollup.Granularity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollupStatsTest {
+
+    @Test
+    void testPlanCoversRangeWithoutGapsOrOverlaps() {
+        Random random = new Random(42);
+        LocalDate origin = LocalDate.of(2019, 1, 1);
+        for (int i = 0; i < 500; i++) {
+            LocalDate from = origin.plusDays(random.nextInt(2000));
+            LocalDate to = from.plusDays(random.nextInt(1500));
+            List<RateRollupService.Bucket> plan = RateRollupService.plan(from, to);
+
+            LocalDate expected = from;
+            for (RateRollupService.Bucket bucket : plan) {
+                assertEquals(expected, bucket.start());
+                assertEquals(bucket.start(), bucket.granularity().bucketStart(bucket.start()));
+                expected = bucket.granularity().bucketEnd(bucket.start()).plusDays(1);
+            }
+            assertEquals(to.plusDays(1), expected);
+        }
+    }
+
+    @Test
+    void testPlanUsesCoarseBucketsForLongRanges() {
+        List<RateRollupService.Bucket> plan = RateRollupService.plan(LocalDate.of(2015, 12, 30), LocalDate.of(2024, 2, 3));
+
+        assertTrue(plan.size() < 20, "plan has " + plan.size() + " buckets");
+        assertEquals(8, plan.stream().filter(b -> b.granularity() == Granularity.YEAR).count());
+    }
+
+    @Test
+    void testPlanRejectsInvertedRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RateRollupService.plan(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    void testMergedBucketsMatchDirectComputation() {
+        Random random = new Random(7);
+        LocalDate start = LocalDate.of(2023, 3, 1);
+        List<BigDecimal> rates = new ArrayList<>();
+        RollupStats direct = RollupStats.empty();
+        RollupStats byWeek = RollupStats.empty();
+        RollupStats week = RollupStats.empty();
+        for (int day = 0; day < 60; day++) {
+            BigDecimal rate = BigDecimal.valueOf(3_000_000 + random.nextInt(100_000), 6);
+            rates.add(rate);
+            LocalDate date = start.plusDays(day);
+            direct.merge(RollupStats.of(date, rate));
+            week.merge(RollupStats.of(date, rate));
+            if (day % 7 == 6) {
+                byWeek.merge(week);
+                week = RollupStats.empty();
+            }
+        }
+        byWeek.merge(week);
+
+        assertEquals(direct.getCount(), byWeek.getCount());
+        assertEquals(direct.getAverage(), byWeek.getAverage());
+        assertEquals(direct.getStdDev(), byWeek.getStdDev());
+        assertEquals(rates.stream().reduce(BigDecimal::min).orElseThrow(), byWeek.getMin());
+        assertEquals(rates.stream().reduce(BigDecimal::max).orElseThrow(), byWeek.getMax());
+        assertEquals(rates.get(0), byWeek.getFirstRate());
+        assertEquals(rates.get(rates.size() - 1), byWeek.getLastRate());
+        assertEquals(naiveVolatility(rates), byWeek.getVolatility(), 1e-12);
+    }
+
+    @Test
+    void testEmptyStatsHaveOnlyCount() {
+        RollupStats stats = RollupStats.empty().merge(RollupStats.empty());
+
+        assertTrue(stats.isEmpty());
+        assertEquals(1, stats.toSummary().size());
+        assertNull(stats.getVolatility());
+    }
+
+    private static double naiveVolatility(List<BigDecimal> rates) {
+        List<Double> returns = new ArrayList<>();
+        for (int i = 1; i < rates.size(); i++) {
+            returns.add(Math.log(rates.get(i).doubleValue() / rates.get(i - 1).doubleValue()));
+        }
+        double mean = returns.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double squares = returns.stream().mapToDouble(r -> (r - mean) * (r - mean)).sum();
+        return Math.sqrt(squares / (returns.size() - 1));
+    }
+}
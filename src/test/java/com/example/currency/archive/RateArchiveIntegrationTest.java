@@ -0,0 +1,116 @@
+package com.example.currency.archive;
+
+import com.example.currency.history.RateHistoryStore;
+import com.example.currency.history.RateSeries;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.repository.CurrencyRateRepository;
+import com.example.currency.repository.RateArchiveSegmentRepository;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.currency.TestFixtures.currency;
+import static com.example.currency.TestFixtures.rate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "nbrb.api.base-url=http://127.0.0.1:9/exrates/",
+        "spring.datasource.url=jdbc:h2:mem:rate_archive;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DATE,VALUE",
+        "rates.archive.enabled=true",
+        "rates.archive.keep-years=2",
+        "rates.archive.initial-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class RateArchiveIntegrationTest {
+
+    private static final LocalDate OLD = LocalDate.of(2015, 3, 2);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private CurrencyRateRepository currencyRateRepository;
+
+    @Autowired
+    private RateArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private RateArchiver archiver;
+
+    @Autowired
+    private RateHistoryStore historyStore;
+
+    @Test
+    void testArchivedRatesStayReadableByDate() throws Exception {
+        CurrencyInfo currency = currencyService.createCurrency(currency("ARC", "990", "ARC archive test"));
+        createRate(currency, OLD, "2.5000");
+        createRate(currency, OLD.plusDays(1), "2.6000");
+        CurrencyRate current = createRate(currency, LocalDate.now(), "3.1000");
+
+        assertEquals(2, archiver.archiveColdYears());
+        assertEquals(List.of(current.getId()),
+                currencyRateRepository.findAllViews().stream().map(view -> view.id()).toList());
+
+        List<CurrencyRate> archived = currencyRateRepository.findByCurrencyIdAndDate(currency.getCurId(), OLD);
+        assertEquals(1, archived.size());
+        assertEquals(0, new BigDecimal("2.5").compareTo(archived.get(0).getCurOfficialRate()));
+        assertEquals("ARC", currencyRateRepository.findByDateWithCurrency(OLD).get(0).getCurrency().getCurAbbreviation());
+        // Another node reads the same archive from the database.
+        assertEquals(2, new RateArchive(segmentRepository, true, 2).read(OLD.getYear()).stream()
+                .filter(rate -> currency.getCurId().equals(rate.curId()))
+                .count());
+        mockMvc.perform(get("/api/currency/rates/by-abbreviation")
+                        .param("abbreviation", "ARC")
+                        .param("date", OLD.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value(OLD.plusDays(1).toString()))
+                .andExpect(jsonPath("$[0].curOfficialRate").value(2.6));
+
+        historyStore.reload();
+        RateSeries history = historyStore.history(currency.getCurId());
+        assertEquals(3, history.size());
+        assertEquals(OLD, history.date(0));
+        assertEquals(LocalDate.now(), history.date(2));
+    }
+
+    @Test
+    void testRateAddedToArchivedYearIsArchivedOnNextRun() throws Exception {
+        CurrencyInfo currency = currencyService.createCurrency(currency("ARD", "991", "ARD archive test"));
+        createRate(currency, OLD, "1.0000");
+        archiver.archiveColdYears();
+
+        CurrencyRate late = createRate(currency, OLD, "1.1000");
+        assertEquals(2, currencyRateRepository.findByCurrencyIdAndDate(currency.getCurId(), OLD).size());
+        assertEquals(1, archiver.archiveColdYears());
+
+        List<CurrencyRate> rates = currencyRateRepository.findByCurrencyAbbreviationAndDate("ARD", OLD);
+        assertEquals(2, rates.size());
+        assertEquals(late.getId(), rates.get(1).getId());
+        assertTrue(currencyRateRepository.findAllRateValuesOrdered().stream()
+                .anyMatch(row -> late.getId().equals(row[4])));
+    }
+
+    private CurrencyRate createRate(CurrencyInfo currency, LocalDate date, String value) {
+        return conversionService.createRate(rate(currency, date, value));
+    }
+}
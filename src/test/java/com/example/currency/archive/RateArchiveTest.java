@@ -0,0 +1,72 @@
+package com.example.currency.archive;
+
+import com.example.currency.models.RateArchiveSegment;
+import com.example.currency.models.RateView;
+import com.example.currency.repository.RateArchiveSegmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RateArchiveTest {
+
+    @Mock
+    private RateArchiveSegmentRepository segments;
+
+    @Test
+    public void testSegmentsRoundTrip() {
+        RateView usd = new RateView(1, 431, LocalDate.of(2015, 3, 2), new BigDecimal("1.2345"), 1);
+        RateView undated = new RateView(2, null, LocalDate.of(2015, 3, 3), null, null);
+
+        assertEquals(List.of(usd, undated), RateArchive.decode(RateArchive.encode(List.of(usd, undated)), 2));
+    }
+
+    @Test
+    public void testYearIsReadInHistoryOrderAndReloadedForANewSegment() {
+        RateArchive archive = new RateArchive(segments, true, 2);
+        RateView usd = new RateView(1, 431, LocalDate.of(2015, 3, 2), new BigDecimal("1.2345"), 1);
+        RateView rub = new RateView(2, 456, LocalDate.of(2015, 3, 2), new BigDecimal("3.5000"), 100);
+        RateView usdNext = new RateView(3, 431, LocalDate.of(2015, 3, 3), new BigDecimal("1.2400"), 1);
+        RateArchiveSegment first = segment(1L, 2015, List.of(rub, usd));
+        RateArchiveSegment second = segment(2L, 2015, List.of(usdNext));
+        when(segments.findLastIdByYear(2015)).thenReturn(1L, 1L, 2L);
+        when(segments.findByYearOrderById(2015)).thenReturn(List.of(first), List.of(first, second));
+
+        assertEquals(List.of(usd, rub), archive.read(2015));
+        assertEquals(List.of(usd, rub), archive.onDate(LocalDate.of(2015, 3, 2)));
+        assertEquals(List.of(usd, usdNext, rub), archive.read(2015));
+        verify(segments, times(2)).findByYearOrderById(2015);
+        assertEquals(List.of(), archive.read(2016));
+    }
+
+    @Test
+    public void testOnlyDatesBeforeCutoffAreArchived() {
+        RateArchive archive = new RateArchive(segments, true, 2);
+        LocalDate cutoff = archive.cutoff();
+        LocalDate old = cutoff.minusDays(1);
+
+        assertEquals(LocalDate.now().getYear() - 2, cutoff.getYear());
+        assertTrue(archive.isArchived(old));
+        assertFalse(archive.isArchived(cutoff));
+        assertEquals(List.of(), archive.onDate(cutoff));
+        assertFalse(new RateArchive(segments, false, 2).isArchived(old));
+        verifyNoInteractions(segments);
+    }
+
+    private static RateArchiveSegment segment(long id, int year, List<RateView> rates) {
+        RateArchiveSegment segment = new RateArchiveSegment();
+        segment.setId(id);
+        segment.setYear(year);
+        segment.setRateCount(rates.size());
+        segment.setRates(RateArchive.encode(rates));
+        return segment;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.currency.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RatePartitionsTest {
+
+    @Test
+    public void testPartitionByCoversEveryMonthAndTheFuture() {
+        assertEquals("ALTER TABLE currency_rate PARTITION BY RANGE COLUMNS(`date`) ("
+                        + "PARTITION p202311 VALUES LESS THAN ('2023-12-01'), "
+                        + "PARTITION p202312 VALUES LESS THAN ('2024-01-01'), "
+                        + "PARTITION p202401 VALUES LESS THAN ('2024-02-01'), "
+                        + "PARTITION pfuture VALUES LESS THAN (MAXVALUE))",
+                RatePartitions.partitionBy(YearMonth.of(2023, 11), YearMonth.of(2024, 1)));
+    }
+
+    @Test
+    public void testRolloverSplitsTheFuturePartition() {
+        List<RatePartitions.Partition> existing = List.of(
+                new RatePartitions.Partition("p202401", LocalDate.of(2024, 2, 1)),
+                new RatePartitions.Partition("p202402", LocalDate.of(2024, 3, 1)),
+                new RatePartitions.Partition("pfuture", null));
+
+        assertEquals(Optional.of("ALTER TABLE currency_rate REORGANIZE PARTITION pfuture INTO ("
+                        + "PARTITION p202403 VALUES LESS THAN ('2024-04-01'), "
+                        + "PARTITION p202404 VALUES LESS THAN ('2024-05-01'), "
+                        + "PARTITION pfuture VALUES LESS THAN (MAXVALUE))"),
+                RatePartitions.rollover(existing, YearMonth.of(2024, 4)));
+        assertEquals(Optional.empty(), RatePartitions.rollover(existing, YearMonth.of(2024, 2)));
+    }
+
+    @Test
+    public void testRolloverWithoutFuturePartitionAddsMonths() {
+        List<RatePartitions.Partition> existing = List.of(new RatePartitions.Partition("p202412", LocalDate.of(2025, 1, 1)));
+
+        assertEquals(Optional.of("ALTER TABLE currency_rate ADD PARTITION ("
+                        + "PARTITION p202501 VALUES LESS THAN ('2025-02-01'))"),
+                RatePartitions.rollover(existing, YearMonth.of(2025, 1)));
+    }
+
+    @Test
+    public void testPartitionsBeforeCutoff() {
+        List<RatePartitions.Partition> existing = List.of(
+                new RatePartitions.Partition("p202311", LocalDate.of(2023, 12, 1)),
+                new RatePartitions.Partition("p202312", LocalDate.of(2024, 1, 1)),
+                new RatePartitions.Partition("p202401", LocalDate.of(2024, 2, 1)),
+                new RatePartitions.Partition("pfuture", null));
+
+        assertEquals(List.of("p202311", "p202312"), RatePartitions.before(existing, LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    public void testParseBound() {
+        assertEquals(LocalDate.of(2024, 2, 1), RatePartitions.parseBound("'2024-02-01'"));
+        assertNull(RatePartitions.parseBound("MAXVALUE"));
+    }
+}
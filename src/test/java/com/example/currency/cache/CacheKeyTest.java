@@ -0,0 +1,75 @@
+package com.example.currency.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheKeyTest {
+
+    @Test
+    public void testStringFormRoundTrips() {
+        List<String> keys = List.of("allCurrencies", "allCurrenciesFromDb", "allRates", "currency:431",
+                "currencyWithRates:-1", "rate:431:2024-05-01", "rateByAbbreviation:USD:2024-05-01",
+                "rates:EUR:1969-12-31", "rateById:12345678901", "convert:431:456:100.50");
+
+        for (String key : keys) {
+            assertEquals(key, CacheKey.parse(key).toString());
+        }
+        assertSame(CacheKey.ALL_RATES, CacheKey.parse("allRates"));
+    }
+
+    @Test
+    public void testEqualityFollowsComponents() {
+        LocalDate date = LocalDate.of(2024, 5, 1);
+
+        assertEquals(CacheKey.rate(431, date), CacheKey.rate(431, date.toEpochDay()));
+        assertEquals(CacheKey.rate(431, date).hashCode(), CacheKey.parse("rate:431:2024-05-01").hashCode());
+        assertNotEquals(CacheKey.rate(431, date), CacheKey.rate(431, date.plusDays(1)));
+        assertNotEquals(CacheKey.currency(431), CacheKey.currencyWithRates(431));
+        assertNotEquals(CacheKey.rateByAbbreviation("USD", date), CacheKey.rates("USD", date));
+        assertEquals(CacheKey.convert(1, 2, new BigDecimal("10")), CacheKey.convert(1, 2, new BigDecimal("10")));
+        assertNotEquals(CacheKey.convert(1, 2, new BigDecimal("10")), CacheKey.convert(1, 2, new BigDecimal("10.0")));
+        assertNotEquals(CacheKey.convert(1, 2, BigDecimal.TEN), CacheKey.convert(2, 1, BigDecimal.TEN));
+    }
+
+    @Test
+    public void testCurrencyAndAbbreviationMatching() {
+        LocalDate date = LocalDate.of(2024, 5, 1);
+
+        assertTrue(CacheKey.convert(456, 431, BigDecimal.ONE).isForCurrency(431));
+        assertTrue(CacheKey.rate(431, date).isForCurrency(431));
+        assertFalse(CacheKey.rateById(431).isForCurrency(431));
+        assertTrue(CacheKey.rates("USD", date).isForAbbreviation("USD"));
+        assertFalse(CacheKey.rateByAbbreviation("USD", date).isForAbbreviation("USX"));
+        assertFalse(CacheKey.currency(1).isForAbbreviation("USD"));
+    }
+
+    @Test
+    public void testParsedConversionExposesItsComponents() {
+        CacheKey key = CacheKey.parse("convert:431:456:100.50");
+
+        assertEquals(CacheKey.Region.CONVERT, key.region());
+        assertEquals(431, key.curId());
+        assertEquals(456, key.toCurId());
+        assertEquals(new BigDecimal("100.50"), key.amount());
+        assertEquals(431, CacheKey.parse("currencyWithRates:431").curId());
+    }
+
+    @Test
+    public void testMalformedKeysAreRejected() {
+        for (String key : List.of("", "unknown:1", "currency", "currency:x", "rate:431", "rate:431:2024-13-01",
+                "convert:1:2", "allRates:1")) {
+            assertThrows(IllegalArgumentException.class, () -> CacheKey.parse(key), key);
+        }
+    }
+
+    @Test
+    public void testCurrentDayMatchesClock() {
+        assertEquals(LocalDate.now(), CurrentDay.date());
+        assertEquals(LocalDate.now().toEpochDay(), CurrentDay.epochDay());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.currency.cache;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import org.hibernate.collection.spi.PersistentBag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTripSharesCurrencies() throws IOException {
+        CurrencyInfo usd = currency(431, "USD");
+        CurrencyRate rate = rate(usd, "3.2456", LocalDate.of(2024, 5, 1));
+        Map<String, Object> entries = new LinkedHashMap<>();
+        entries.put("allCurrencies", List.of(usd));
+        entries.put("rate:431:2024-05-01", List.of(rate));
+        entries.put("rateByAbbreviation:USD:2024-05-01", rate);
+        entries.put("convert:431:456:100", new BigDecimal("-12345678901234567890.12"));
+        entries.put("unsupported", new Object());
+
+        Path file = dir.resolve("cache.snapshot");
+        assertEquals(4, CacheSnapshot.write(file, 42L, entries));
+        CacheSnapshot.Contents contents = CacheSnapshot.read(file);
+
+        assertEquals(42L, contents.dataVersion());
+        assertEquals(4, contents.entries().size());
+        CurrencyInfo restoredUsd = ((List<CurrencyInfo>) contents.entries().get("allCurrencies")).get(0);
+        CurrencyRate restoredRate = (CurrencyRate) contents.entries().get("rateByAbbreviation:USD:2024-05-01");
+        assertEquals("USD", restoredUsd.getCurAbbreviation());
+        assertSame(restoredUsd, restoredRate.getCurrency());
+        assertEquals(new BigDecimal("3.2456"), restoredRate.getCurOfficialRate());
+        assertEquals(LocalDate.of(2024, 5, 1), restoredRate.getDate());
+        assertEquals(new BigDecimal("-12345678901234567890.12"), contents.entries().get("convert:431:456:100"));
+    }
+
+    @Test
+    public void testRoundTripKeepsLoadedRates() throws IOException {
+        CurrencyInfo withRates = currency(431, "USD");
+        withRates.getRates().add(rate(withRates, "3.2456", LocalDate.of(2024, 5, 1)));
+        CurrencyInfo lazy = currency(431, "USD");
+        lazy.setRates(new PersistentBag<>());
+        Map<String, Object> entries = new LinkedHashMap<>();
+        entries.put("allCurrencies", List.of(lazy));
+        entries.put("currency:431", withRates);
+        entries.put("allCurrenciesFromDb", List.of(withRates));
+
+        Path file = dir.resolve("cache.snapshot");
+        CacheSnapshot.write(file, 1L, entries);
+        Map<String, Object> restored = CacheSnapshot.read(file).entries();
+
+        CurrencyInfo usd = (CurrencyInfo) restored.get("currency:431");
+        assertEquals(1, usd.getRates().size());
+        CurrencyRate rate = usd.getRates().get(0);
+        assertSame(usd, rate.getCurrency());
+        assertEquals(new BigDecimal("3.2456"), rate.getCurOfficialRate());
+        assertEquals(LocalDate.of(2024, 5, 1), rate.getDate());
+        assertSame(usd, ((List<CurrencyInfo>) restored.get("allCurrenciesFromDb")).get(0));
+    }
+
+    @Test
+    public void testCorruptedPayloadIsRejected() throws IOException {
+        Path file = dir.resolve("cache.snapshot");
+        CacheSnapshot.write(file, 1L, Map.of("currency:1", currency(1, "EUR")));
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x5A;
+        Files.write(file, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> CacheSnapshot.read(file));
+        assertTrue(e.getMessage().contains("checksum"));
+    }
+
+    @Test
+    public void testTruncatedFileIsRejected() throws IOException {
+        Path file = dir.resolve("cache.snapshot");
+        CacheSnapshot.write(file, 1L, Map.of("currency:1", currency(1, "EUR")));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> CacheSnapshot.read(file));
+    }
+
+    @Test
+    public void testServiceRestoresOnlyMatchingDataVersion() {
+        AtomicLong version = new AtomicLong(7);
+        Path file = dir.resolve("cache.snapshot");
+        SimpleCache source = new SimpleCache(false);
+        source.put(CacheKey.currency(1), currency(1, "EUR"));
+        source.put(CacheKey.currencyWithRates(1), currency(1, "EUR"));
+        snapshotService(source, version, file).write();
+
+        SimpleCache restored = new SimpleCache(false);
+        assertTrue(snapshotService(restored, version, file).restore());
+        assertTrue(restored.get(CacheKey.currency(1)).isPresent());
+        assertFalse(restored.get(CacheKey.currencyWithRates(1)).isPresent());
+
+        version.set(8);
+        SimpleCache stale = new SimpleCache(false);
+        assertFalse(snapshotService(stale, version, file).restore());
+        assertFalse(stale.get(CacheKey.currency(1)).isPresent());
+    }
+
+    private static CacheSnapshotService snapshotService(SimpleCache cache, AtomicLong version, Path file) {
+        return new CacheSnapshotService(cache, version::get, true, file.toString(), Set.of("currency", "rate"), 60);
+    }
+
+    private static CurrencyInfo currency(int id, String abbreviation) {
+        CurrencyInfo info = new CurrencyInfo();
+        info.setCurId(id);
+        info.setCurCode(String.valueOf(id));
+        info.setCurAbbreviation(abbreviation);
+        info.setCurName(abbreviation + " name");
+        info.setCurScale(1);
+        return info;
+    }
+
+    private static CurrencyRate rate(CurrencyInfo currency, String value, LocalDate date) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setId(1);
+        rate.setCurOfficialRate(new BigDecimal(value));
+        rate.setCurScale(1);
+        rate.setDate(date);
+        rate.setCurrency(currency);
+        return rate;
+    }
+}
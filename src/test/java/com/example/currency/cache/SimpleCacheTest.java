@@ -0,0 +1,69 @@
+package com.example.currency.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimpleCacheTest {
+
+    private CacheRegionStats region(SimpleCache cache, String name) {
+        return cache.getRegionStats().stream()
+                .filter(stats -> stats.getRegion().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    public void testHitsAndMissesPerRegion() {
+        SimpleCache cache = new SimpleCache(false);
+        assertEquals(Optional.empty(), cache.get(CacheKey.convert(1, 2, BigDecimal.TEN)));
+        cache.put(CacheKey.convert(1, 2, BigDecimal.TEN), new BigDecimal("3.50"));
+        assertEquals(Optional.of(new BigDecimal("3.50")), cache.get(CacheKey.convert(1, 2, BigDecimal.TEN)));
+        cache.get(CacheKey.convert(1, 2, BigDecimal.TEN));
+        cache.get(CacheKey.rateById(7));
+
+        CacheRegionStats convert = region(cache, "convert");
+        assertEquals(2, convert.getHits());
+        assertEquals(1, convert.getMisses());
+        assertEquals(1, convert.getEntries());
+        assertEquals(1, convert.getLoads());
+        assertTrue(convert.getEstimatedBytes() > 0);
+        assertEquals(1, region(cache, "rateById").getMisses());
+    }
+
+    @Test
+    public void testEvictionsReleaseEstimatedBytes() {
+        SimpleCache cache = new SimpleCache(false);
+        cache.put(CacheKey.ALL_RATES, List.of("a", "b", "c"));
+        cache.put(CacheKey.currency(1), "USD");
+        cache.put(CacheKey.currency(2), "EUR");
+        cache.remove(CacheKey.currency(1));
+        cache.clear();
+
+        CacheRegionStats currency = region(cache, "currency");
+        assertEquals(2, currency.getEvictions());
+        assertEquals(0, currency.getEntries());
+        assertEquals(0, currency.getEstimatedBytes());
+        assertEquals(0, region(cache, "allRates").getEntries());
+    }
+
+    @Test
+    public void testHotKeys() {
+        SimpleCache cache = new SimpleCache(true);
+        cache.put(CacheKey.currency(1), "USD");
+        cache.put(CacheKey.currency(2), "EUR");
+        for (int i = 0; i < 3; i++) {
+            cache.get(CacheKey.currency(2));
+        }
+        cache.get(CacheKey.currency(1));
+
+        List<SimpleCache.HotKey> hotKeys = cache.getHotKeys(1);
+        assertEquals(1, hotKeys.size());
+        assertEquals("currency:2", hotKeys.get(0).key());
+        assertEquals(3, hotKeys.get(0).hits());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.currency.client;
+
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.perf.NbrbStubServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgedRateProviderTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 1);
+
+    private final StubRateProvider primary = new StubRateProvider("primary").withRate(431, "3.2500", 1, TODAY);
+    private final StubRateProvider backup = new StubRateProvider("backup").withRate(431, "3.2500", 1, TODAY);
+    private HedgedRateProvider provider;
+
+    @AfterEach
+    public void tearDown() {
+        if (provider != null) {
+            provider.shutdown();
+        }
+    }
+
+    @Test
+    public void testFastPrimaryIsNotHedged() {
+        provider = hedged(200, 0);
+
+        assertEquals(new BigDecimal("3.2500"), provider.getCurrencyRate(431).getCurOfficialRate());
+        assertEquals(1, primary.getCallCount());
+        assertEquals(0, backup.getCallCount());
+    }
+
+    @Test
+    public void testSlowPrimaryIsHedgedAndCancelled() throws Exception {
+        primary.withLatency(5000);
+        provider = hedged(50, 0);
+
+        long start = System.nanoTime();
+        CurrencyRate rate = provider.getCurrencyRate(431);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(new BigDecimal("3.2500"), rate.getCurOfficialRate());
+        assertEquals(1, backup.getCallCount());
+        awaitTrue(() -> primary.getInterruptedCount() == 1);
+        assertTrue(metrics().contains("rate_provider_hedge_wins_total{provider=\"backup\"} 1"));
+    }
+
+    @Test
+    public void testFailingPrimaryFailsOverWithoutWaiting() {
+        primary.failingWith("primary down");
+        provider = hedged(10_000, 0);
+
+        long start = System.nanoTime();
+        assertEquals(new BigDecimal("3.2500"), provider.getCurrencyRate(431).getCurOfficialRate());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    public void testPrimaryErrorIsReportedWhenNoProviderAnswers() {
+        primary.failingWith("primary down");
+        backup.failingWith("backup down");
+        provider = hedged(10_000, 0);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> provider.getCurrencyRate(431));
+        assertEquals("primary down", error.getMessage());
+    }
+
+    @Test
+    public void testDisagreeingSecondaryIsNoLongerHedgedTo() throws Exception {
+        backup.withRate(431, "3.3000", 1, TODAY);
+        provider = hedged(20, 1.0);
+
+        assertEquals(new BigDecimal("3.2500"), provider.getCurrencyRate(431).getCurOfficialRate());
+        awaitTrue(() -> metrics().contains("rate_provider_quarantined{provider=\"backup\"} 1"));
+        assertTrue(metrics().contains("rate_provider_disagreements_total{provider=\"backup\"} 1"));
+
+        primary.withLatency(200);
+        assertEquals(new BigDecimal("3.2500"), provider.getCurrencyRate(431).getCurOfficialRate());
+        assertTrue(metrics().contains("rate_provider_hedges_total 0"));
+    }
+
+    @Test
+    public void testAgreementComparesRatePerUnitOnTheSameDate() {
+        CurrencyRate perUnit = rate("0.0325", 1, TODAY);
+        assertTrue(HedgedRateProvider.agrees(perUnit, rate("3.2500", 100, TODAY)));
+        assertFalse(HedgedRateProvider.agrees(perUnit, rate("0.0325", 1, TODAY.minusDays(1))));
+        assertFalse(HedgedRateProvider.agrees(perUnit, rate("0.0326", 1, TODAY)));
+        assertFalse(HedgedRateProvider.agrees(perUnit, null));
+    }
+
+    @Test
+    public void testHedgeDelayFollowsPrimaryLatency() throws Exception {
+        primary.withLatency(30);
+        provider = hedged(5000, 0);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5000), provider.hedgeDelayNanos());
+
+        for (int i = 0; i < 25; i++) {
+            provider.getCurrencyRate(431);
+        }
+        Thread.sleep(1100);
+
+        long delay = provider.hedgeDelayNanos();
+        assertTrue(delay >= TimeUnit.MILLISECONDS.toNanos(29), "delay " + delay);
+        assertTrue(delay < TimeUnit.MILLISECONDS.toNanos(1000), "delay " + delay);
+        assertEquals(0, backup.getCallCount());
+    }
+
+    @Test
+    public void testNbrbMirrorTakesOverFromSlowPrimary() throws Exception {
+        try (NbrbStubServer slow = new NbrbStubServer(3).withLatency(3000, 0);
+             NbrbStubServer mirror = new NbrbStubServer(3)) {
+            RestTemplateBuilder builder = new RestTemplateBuilder();
+            provider = new HedgedRateProvider(new NbrbApiClient(builder, slow.getBaseUrl()),
+                    List.of(new NbrbApiClient(builder, mirror.getBaseUrl())), 4, 0.95, 100, 10, 0, 600_000);
+
+            long start = System.nanoTime();
+            CurrencyRate rate = provider.getCurrencyRate(NbrbStubServer.FIRST_CURRENCY_ID + 1);
+
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(2500));
+            assertEquals(0, new BigDecimal("1.37").compareTo(rate.getCurOfficialRate()));
+            assertEquals(1, mirror.getRequestCount());
+        }
+    }
+
+    private HedgedRateProvider hedged(long initialDelayMs, double agreementSampleRate) {
+        return new HedgedRateProvider(primary, List.of(backup), 4, 0.95, initialDelayMs, 10, agreementSampleRate, 600_000);
+    }
+
+    private String metrics() {
+        PrometheusWriter writer = new PrometheusWriter();
+        provider.collect(writer);
+        return writer.toString();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static CurrencyRate rate(String value, int scale, LocalDate date) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurOfficialRate(new BigDecimal(value));
+        rate.setCurScale(scale);
+        rate.setDate(date);
+        return rate;
+    }
+}
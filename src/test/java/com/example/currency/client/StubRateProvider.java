@@ -0,0 +1,97 @@
+package com.example.currency.client;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory {@link RateProvider} with fixed rates, configurable latency and failure injection.
+ * Counts calls and calls interrupted while waiting out their latency.
+ */
+public class StubRateProvider implements RateProvider {
+
+    private final String name;
+    private final Map<Integer, CurrencyRate> rates = new ConcurrentHashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger interrupted = new AtomicInteger();
+    private volatile long latencyMillis;
+    private volatile String failure;
+
+    public StubRateProvider(String name) {
+        this.name = name;
+    }
+
+    public StubRateProvider withRate(int curId, String value, int scale, LocalDate date) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurOfficialRate(new BigDecimal(value));
+        rate.setCurScale(scale);
+        rate.setDate(date);
+        rates.put(curId, rate);
+        return this;
+    }
+
+    public StubRateProvider withLatency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    public StubRateProvider failingWith(String message) {
+        this.failure = message;
+        return this;
+    }
+
+    public int getCallCount() {
+        return calls.get();
+    }
+
+    public int getInterruptedCount() {
+        return interrupted.get();
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public List<CurrencyInfo> getAllCurrencies() {
+        simulate();
+        return List.of();
+    }
+
+    @Override
+    public CurrencyRate getCurrencyRate(Integer curId) {
+        simulate();
+        CurrencyRate rate = rates.get(curId);
+        if (rate == null) {
+            throw new RuntimeException("Failed to fetch rate for currency ID " + curId + ": 404 Not Found");
+        }
+        CurrencyRate copy = new CurrencyRate();
+        copy.setCurOfficialRate(rate.getCurOfficialRate());
+        copy.setCurScale(rate.getCurScale());
+        copy.setDate(rate.getDate());
+        return copy;
+    }
+
+    private void simulate() {
+        calls.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted");
+            }
+        }
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+}
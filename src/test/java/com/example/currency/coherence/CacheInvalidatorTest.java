@@ -0,0 +1,93 @@
+package com.example.currency.coherence;
+
+import com.example.currency.cache.CacheKey;
+import com.example.currency.models.CacheChange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheInvalidatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 1);
+
+    @Test
+    public void testRateChangeEvictsOnlyThatCurrencyAndDay() {
+        CacheChange change = change(CacheChange.Type.RATE_CHANGED, 431, "USD");
+        change.setRateId(77L);
+        change.setRateDate(TODAY);
+
+        Predicate<CacheKey> affected = CacheInvalidator.affectedKeys(change, TODAY);
+
+        assertTrue(affected.test(key("rate:431:2024-05-01")));
+        assertTrue(affected.test(key("rateByAbbreviation:USD:2024-05-01")));
+        assertTrue(affected.test(key("rates:USD:2024-05-01")));
+        assertTrue(affected.test(key("rateById:77")));
+        assertTrue(affected.test(key("currencyWithRates:431")));
+        assertTrue(affected.test(key("currency:431")));
+        assertTrue(affected.test(key("allCurrenciesFromDb")));
+        assertTrue(affected.test(key("convert:431:456:100")));
+        assertTrue(affected.test(key("convert:456:431:100")));
+        assertFalse(affected.test(key("rate:431:2024-04-30")));
+        assertFalse(affected.test(key("rate:4310:2024-05-01")));
+        assertFalse(affected.test(key("convert:4310:456:100")));
+        assertFalse(affected.test(key("currency:4310")));
+        assertFalse(affected.test(key("allCurrencies")));
+    }
+
+    @Test
+    public void testHistoricRateChangeKeepsConversions() {
+        CacheChange change = change(CacheChange.Type.RATE_CHANGED, 431, "USD");
+        change.setRateDate(TODAY.minusDays(3));
+
+        assertFalse(CacheInvalidator.affectedKeys(change, TODAY).test(key("convert:431:456:100")));
+    }
+
+    @Test
+    public void testCurrencyUpdateCoversPreviousAbbreviation() {
+        CacheChange change = change(CacheChange.Type.CURRENCY_UPDATED, 431, "USX");
+        change.setPreviousAbbreviation("USD");
+
+        Predicate<CacheKey> affected = CacheInvalidator.affectedKeys(change, TODAY);
+
+        assertTrue(affected.test(key("allCurrencies")));
+        assertTrue(affected.test(key("currency:431")));
+        assertTrue(affected.test(key("rate:431:2024-01-01")));
+        assertTrue(affected.test(key("rateByAbbreviation:USD:2024-05-01")));
+        assertTrue(affected.test(key("rateByAbbreviation:USX:2024-05-01")));
+        assertFalse(affected.test(key("currency:432")));
+        assertFalse(affected.test(key("convert:431:456:100")));
+    }
+
+    @Test
+    public void testCurrencyDeleteEvictsConversions() {
+        Predicate<CacheKey> affected = CacheInvalidator.affectedKeys(change(CacheChange.Type.CURRENCY_DELETED, 431, "USD"), TODAY);
+
+        assertTrue(affected.test(key("convert:456:431:5")));
+        assertFalse(affected.test(key("convert:456:432:5")));
+    }
+
+    @Test
+    public void testCurrencyCreateEvictsOnlyLists() {
+        Predicate<CacheKey> affected = CacheInvalidator.affectedKeys(change(CacheChange.Type.CURRENCY_CREATED, 500, "NEW"), TODAY);
+
+        assertTrue(affected.test(key("allCurrencies")));
+        assertTrue(affected.test(key("allCurrenciesFromDb")));
+        assertFalse(affected.test(key("currency:500")));
+        assertFalse(affected.test(key("allRates")));
+    }
+
+    private static CacheKey key(String key) {
+        return CacheKey.parse(key);
+    }
+
+    private static CacheChange change(CacheChange.Type type, Integer currencyId, String abbreviation) {
+        CacheChange change = new CacheChange();
+        change.setType(type);
+        change.setCurrencyId(currencyId);
+        change.setAbbreviation(abbreviation);
+        return change;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.currency.coherence;
+
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.models.CacheChange;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.repository.CacheChangeRepository;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static com.example.currency.TestFixtures.currency;
+import static com.example.currency.TestFixtures.rate;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "nbrb.api.base-url=http://127.0.0.1:9/exrates/",
+        "coherence.poll-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class ChangeLogIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private CacheChangeRepository changeRepository;
+
+    @Autowired
+    private ChangeLogPoller poller;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private SimpleCache cache;
+
+    @Test
+    void testUpdateWritesChangeAndEvictsLocally() {
+        CurrencyInfo currency = currencyService.createCurrency(currency("GBP"));
+        long before = changeLog.currentVersion();
+        cache.put(CacheKey.currency(currency.getCurId()), currency);
+        cache.put(CacheKey.currency(-1), currency);
+
+        currency.setCurName("Pound sterling");
+        currencyService.updateCurrency(currency.getCurId(), currency);
+
+        assertTrue(changeLog.currentVersion() > before);
+        CacheChange change = changeRepository.findById(changeLog.currentVersion()).orElseThrow();
+        assertEquals(CacheChange.Type.CURRENCY_UPDATED, change.getType());
+        assertEquals(changeLog.getNodeId(), change.getOriginNode());
+        assertFalse(cache.get(CacheKey.currency(currency.getCurId())).isPresent());
+        assertTrue(cache.get(CacheKey.currency(-1)).isPresent());
+    }
+
+    @Test
+    void testRemoteChangeIsAppliedByPoller() {
+        poller.pollOnce();
+        cache.put(CacheKey.currency(9001), currency("JPY"));
+
+        CacheChange remote = new CacheChange();
+        remote.setType(CacheChange.Type.CURRENCY_UPDATED);
+        remote.setCurrencyId(9001);
+        remote.setAbbreviation("JPY");
+        remote.setOriginNode("another-node");
+        remote.setCreatedAt(Instant.now());
+        changeRepository.save(remote);
+
+        assertEquals(1, poller.pollOnce());
+        assertFalse(cache.get(CacheKey.currency(9001)).isPresent());
+        assertEquals(changeLog.currentVersion(), poller.getLastVersion());
+    }
+
+    @Test
+    void testNewRateShowsUpInCachedCurrency() throws Exception {
+        CurrencyInfo currency = currencyService.createCurrency(currency("CHF"));
+        String path = "/api/currency/info/" + currency.getCurId();
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates", hasSize(0)));
+
+        conversionService.createRate(rate(currency, LocalDate.of(2024, 3, 1), "2.75"));
+
+        mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates", hasSize(1)))
+                .andExpect(jsonPath("$.rates[0].curOfficialRate").value(2.75));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.currency.coherence;
+
+import com.example.currency.models.CacheChange;
+import com.example.currency.repository.CacheChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeLogPollerTest {
+
+    @Mock
+    private CacheChangeRepository repository;
+
+    @Mock
+    private CacheInvalidator invalidator;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    private ChangeLogPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        when(changeLog.getNodeId()).thenReturn("self");
+        poller = new ChangeLogPoller(repository, invalidator, changeLog, true, 100, 60_000, 24);
+        when(repository.findMaxId()).thenReturn(10L);
+        poller.init();
+    }
+
+    @Test
+    public void testAppliesRemoteChangesAndSkipsOwn() {
+        CacheChange remote = change(11, "other");
+        CacheChange own = change(12, "self");
+        when(repository.findAfter(eq(10L), any(Pageable.class))).thenReturn(List.of(remote, own));
+
+        assertEquals(1, poller.pollOnce());
+
+        verify(invalidator).apply(remote);
+        verify(invalidator, never()).apply(own);
+        assertEquals(12, poller.getLastVersion());
+    }
+
+    @Test
+    public void testLateCommittedChangeInGapIsApplied() {
+        CacheChange later = change(13, "other");
+        CacheChange late = change(12, "other");
+        when(repository.findAfter(eq(10L), any(Pageable.class))).thenReturn(List.of(change(11, "other"), later));
+        poller.pollOnce();
+
+        when(repository.findByIdIn(Set.of(12L))).thenReturn(List.of(late));
+        when(repository.findAfter(eq(13L), any(Pageable.class))).thenReturn(List.of());
+        assertEquals(1, poller.pollOnce());
+
+        verify(invalidator).apply(late);
+        assertEquals(13, poller.getLastVersion());
+    }
+
+    @Test
+    public void testNoChangesLeavesVersion() {
+        when(repository.findAfter(anyLong(), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, poller.pollOnce());
+        assertEquals(10, poller.getLastVersion());
+        verifyNoInteractions(invalidator);
+    }
+
+    private static CacheChange change(long id, String origin) {
+        CacheChange change = new CacheChange();
+        change.setId(id);
+        change.setType(CacheChange.Type.RATE_CHANGED);
+        change.setOriginNode(origin);
+        change.setCreatedAt(Instant.now());
+        return change;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.currency.config;
+
+import com.example.currency.admission.AdmissionManager;
+import com.example.currency.admission.EndpointClass;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlFilterTest {
+
+    private final AdmissionManager manager = new AdmissionManager(true, 3, 20, 10, 2);
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(manager);
+
+    @Test
+    public void testShedRequestGets503WithRetryAfter() throws Exception {
+        assertTrue(manager.tryAdmit(EndpointClass.BULK));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/currency/rates"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("3", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("retry later"));
+        assertNull(chain.getRequest());
+        assertEquals(1, manager.getLimiter(EndpointClass.BULK).getRejected());
+    }
+
+    @Test
+    public void testAdmittedRequestReleasesItsPermit() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/currency/rates"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(0, manager.getLimiter(EndpointClass.BULK).getInFlight());
+    }
+
+    @Test
+    public void testPermitIsReleasedWhenTheChainFails() {
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException {
+                throw new ServletException("boom");
+            }
+        });
+
+        assertThrows(ServletException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/currency/rates/convert"), new MockHttpServletResponse(), chain));
+        assertEquals(0, manager.getLimiter(EndpointClass.CRITICAL).getInFlight());
+    }
+
+    @Test
+    public void testAsyncRequestHoldsItsPermitUntilCompletion() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/currency/rates");
+        request.setAsyncSupported(true);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.startAsync();
+            }
+        });
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertEquals(1, manager.getLimiter(EndpointClass.BULK).getInFlight());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(0, manager.getLimiter(EndpointClass.BULK).getInFlight());
+    }
+
+    @Test
+    public void testProbesAndMetricsAreNotShed() throws Exception {
+        while (manager.tryAdmit(EndpointClass.STANDARD)) {
+            // Take every standard permit.
+        }
+        long rejected = manager.getLimiter(EndpointClass.STANDARD).getRejected();
+
+        for (String path : new String[] {"/health/live", "/health/ready", "/metrics"}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("GET", path), response, chain);
+
+            assertEquals(200, response.getStatus(), path);
+            assertNotNull(chain.getRequest(), path);
+        }
+        assertEquals(rejected, manager.getLimiter(EndpointClass.STANDARD).getRejected());
+    }
+
+    @Test
+    public void testDisabledManagerAdmitsEverything() throws Exception {
+        AdmissionManager disabled = new AdmissionManager(false, 1, 20, 10, 2);
+        disabled.tryAdmit(EndpointClass.BULK);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        new AdmissionControlFilter(disabled).doFilter(new MockHttpServletRequest("GET", "/api/currency/rates"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+}
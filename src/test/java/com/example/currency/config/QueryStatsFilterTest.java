@@ -0,0 +1,60 @@
+package com.example.currency.config;
+
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.sql.SqlMetrics;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryStatsFilterTest {
+
+    private static final String ROUTE = "/api/analytics/portfolio/valuation";
+
+    private final SqlMetrics sqlMetrics = new SqlMetrics(5);
+    private final QueryStatsFilter filter = new QueryStatsFilter(sqlMetrics, true, false);
+
+    @Test
+    public void testRequestIsRecordedOnce() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", ROUTE), new MockHttpServletResponse(), chain(false));
+
+        assertTrue(export().contains("sql_requests_total{method=\"POST\",route=\"" + ROUTE + "\"} 1"));
+    }
+
+    @Test
+    public void testAsyncRequestIsRecordedWhenItCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", ROUTE);
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain(true));
+        assertFalse(export().contains("sql_requests_total{method=\"POST\""));
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertTrue(export().contains("sql_requests_total{method=\"POST\",route=\"" + ROUTE + "\"} 1"));
+    }
+
+    private String export() {
+        PrometheusWriter writer = new PrometheusWriter();
+        sqlMetrics.collect(writer);
+        return writer.toString();
+    }
+
+    private static MockFilterChain chain(boolean async) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+                if (async) {
+                    request.startAsync();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.currency.config;
+
+import com.example.currency.routing.ReplicaRouting;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(60);
+
+    @Test
+    public void testSessionReachesTheAsyncWorkerThread() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/analytics/portfolio");
+        request.setAsyncSupported(true);
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, "42"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CompletableFuture<Long> seenByWorker = new CompletableFuture<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException {
+                WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+                asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+                try {
+                    asyncManager.startCallableProcessing(new WebAsyncTask<>(10_000L, new SimpleAsyncTaskExecutor(), () -> {
+                        seenByWorker.complete(ReplicaRouting.sessionVersion());
+                        return null;
+                    }));
+                } catch (Exception e) {
+                    throw new ServletException(e);
+                }
+            }
+        });
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(42L, seenByWorker.get(5, TimeUnit.SECONDS));
+        assertEquals(0, ReplicaRouting.sessionVersion());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.currency.config;
+
+import com.example.currency.metrics.PrometheusWriter;
+import com.example.currency.metrics.RequestMetrics;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCounterFilterTest {
+
+    private final RequestMetrics metrics = new RequestMetrics(60, 6);
+    private final RequestCounterFilter filter = new RequestCounterFilter(metrics);
+
+    @Test
+    public void testRequestIsRecordedUnderItsRoutePattern() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/currency/rates/42"), response, chain(request -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/currency/rates/{id}");
+        }, 200));
+
+        assertEquals(1, metrics.getWindow("GET", "/api/currency/rates/{id}").getCount());
+        assertEquals(0, metrics.getWindow("GET", "/api/currency/rates/42").getCount());
+    }
+
+    @Test
+    public void testRequestWithoutHandlerIsUnmatched() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/favicon.ico"), new MockHttpServletResponse(), chain(request -> { }, 404));
+
+        assertEquals(1, metrics.getWindow("GET", "unmatched").getCount());
+        assertTrue(export().contains("http_requests_total{method=\"GET\",route=\"unmatched\",status=\"404\"} 1"));
+    }
+
+    @Test
+    public void testFailedRequestIsRecordedAs500() {
+        MockFilterChain failing = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/currency/info");
+                throw new ServletException("boom");
+            }
+        });
+
+        assertThrows(ServletException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/currency/info"), new MockHttpServletResponse(), failing));
+        assertTrue(export().contains("http_requests_total{method=\"GET\",route=\"/api/currency/info\",status=\"500\"} 1"));
+    }
+
+    @Test
+    public void testAsyncRequestIsRecordedWhenItCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/analytics/portfolio/valuation");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain(started -> {
+            started.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/analytics/portfolio/valuation");
+            started.startAsync();
+        }, 200));
+        assertEquals(0, metrics.getWindow("POST", "/api/analytics/portfolio/valuation").getCount());
+
+        response.setStatus(400);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertEquals(1, metrics.getWindow("POST", "/api/analytics/portfolio/valuation").getCount());
+        assertTrue(export().contains(
+                "http_requests_total{method=\"POST\",route=\"/api/analytics/portfolio/valuation\",status=\"400\"} 1"));
+    }
+
+    private String export() {
+        PrometheusWriter writer = new PrometheusWriter();
+        metrics.collect(writer);
+        return writer.toString();
+    }
+
+    private static MockFilterChain chain(Consumer<HttpServletRequest> handler, int status) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                handler.accept(request);
+                response.setStatus(status);
+            }
+        });
+    }
+}
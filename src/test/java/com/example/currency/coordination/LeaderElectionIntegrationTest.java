@@ -0,0 +1,126 @@
+package com.example.currency.coordination;
+
+import com.example.currency.repository.LeaderLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "nbrb.api.base-url=http://127.0.0.1:9/exrates/")
+@ActiveProfiles("embedded")
+public class LeaderElectionIntegrationTest {
+
+    private static final Duration TTL = Duration.ofSeconds(10);
+
+    @Autowired
+    private LeaderLeaseRepository repository;
+
+    private MutableClock clock;
+    private String leaseName;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2030-01-01T00:00:00Z"));
+        leaseName = "test-" + System.nanoTime();
+    }
+
+    @Test
+    void testOnlyOneNodeAcquiresLease() {
+        LeaderElection first = election("node-a");
+        LeaderElection second = election("node-b");
+
+        assertTrue(first.tryAcquireOrRenew());
+        assertFalse(second.tryAcquireOrRenew());
+        assertTrue(first.isLeader());
+        assertFalse(second.isLeader());
+        assertTrue(second.currentToken().isEmpty());
+
+        clock.advance(TTL.dividedBy(2));
+        assertTrue(first.tryAcquireOrRenew());
+        assertFalse(second.tryAcquireOrRenew());
+    }
+
+    @Test
+    void testExpiredLeaseIsTakenOverWithNewerToken() {
+        LeaderElection first = election("node-a");
+        LeaderElection second = election("node-b");
+        assertTrue(first.tryAcquireOrRenew());
+        long firstToken = first.currentToken().orElseThrow();
+
+        clock.advance(TTL.plusSeconds(1));
+        assertTrue(second.tryAcquireOrRenew());
+        long secondToken = second.currentToken().orElseThrow();
+
+        assertEquals(firstToken + 1, secondToken);
+        assertFalse(first.tryAcquireOrRenew());
+        assertDoesNotThrow(() -> second.fence(secondToken));
+    }
+
+    @Test
+    void testStaleTokenIsFenced() {
+        LeaderElection first = election("node-a");
+        LeaderElection second = election("node-b");
+        assertTrue(first.tryAcquireOrRenew());
+        long staleToken = first.currentToken().orElseThrow();
+
+        clock.advance(TTL.plusSeconds(1));
+        assertTrue(second.tryAcquireOrRenew());
+
+        assertThrows(IllegalStateException.class, () -> first.fence(staleToken));
+        second.fence(second.currentToken().orElseThrow());
+        assertEquals(1, repository.findById(leaseName).orElseThrow().getFencedWrites());
+    }
+
+    @Test
+    void testReleaseLetsAnotherNodeTakeOverImmediately() {
+        LeaderElection first = election("node-a");
+        LeaderElection second = election("node-b");
+        assertTrue(first.tryAcquireOrRenew());
+
+        first.release();
+        clock.advance(Duration.ofMillis(1));
+
+        assertFalse(first.isLeader());
+        assertTrue(second.tryAcquireOrRenew());
+    }
+
+    private LeaderElection election(String holder) {
+        return new LeaderElection(repository, leaseName, holder, TTL, clock, true);
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.currency.history;
+
+import com.example.currency.config.QueryStatsFilter;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static com.example.currency.TestFixtures.currency;
+import static com.example.currency.TestFixtures.rate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "nbrb.api.base-url=http://127.0.0.1:9/exrates/")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class RateHistoryIntegrationTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private RateHistoryStore rateHistory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testHistoryFollowsRateChanges() {
+        CurrencyInfo currency = currencyService.createCurrency(currency("HUF"));
+        LocalDate day = LocalDate.of(2020, 3, 2);
+        CurrencyRate first = conversionService.createRate(rate(currency, day, "0.75", 100));
+        CurrencyRate second = conversionService.createRate(rate(currency, day.plusDays(3), "0.80", 100));
+
+        assertEquals(Optional.of(new BigDecimal("0.007500")), rateHistory.rateOn(currency.getCurId(), day));
+        assertEquals(Optional.of(new BigDecimal("0.007500")), rateHistory.rateAtOrBefore(currency.getCurId(), day.plusDays(2)));
+        assertEquals(2, rateHistory.range(currency.getCurId(), day, day.plusDays(3)).size());
+
+        conversionService.updateRate(first.getId().longValue(), rate(currency, day.plusDays(1), "0.70", 100));
+        assertEquals(Optional.empty(), rateHistory.rateOn(currency.getCurId(), day));
+        assertEquals(Optional.of(new BigDecimal("0.007000")), rateHistory.rateOn(currency.getCurId(), day.plusDays(1)));
+
+        conversionService.deleteRate(second.getId().longValue());
+        assertEquals(1, rateHistory.history(currency.getCurId()).size());
+
+        currencyService.deleteCurrency(currency.getCurId());
+        assertTrue(rateHistory.history(currency.getCurId()).isEmpty());
+    }
+
+    @Test
+    void testHistoricalConversionReadsNoRows() throws Exception {
+        CurrencyInfo base = currencyService.createCurrency(currency("PLN"));
+        CurrencyInfo quote = currencyService.createCurrency(currency("DKK"));
+        LocalDate day = LocalDate.of(2019, 7, 1);
+        conversionService.createRate(rate(base, day, "0.60", 100));
+        conversionService.createRate(rate(quote, day, "0.30", 100));
+        conversionService.createRate(rate(base, day.plusDays(7), "0.90", 100));
+
+        mockMvc.perform(get("/api/currency/rates/convert")
+                        .param("from", base.getCurId().toString()).param("to", quote.getCurId().toString())
+                        .param("amount", "10").param("date", "2019-07-05"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryStatsFilter.STATEMENTS_HEADER, "0"))
+                .andExpect(jsonPath("$.result").value(20.0));
+
+        mockMvc.perform(get("/api/currency/rates/convert")
+                        .param("from", base.getCurId().toString()).param("to", quote.getCurId().toString())
+                        .param("amount", "10").param("date", "2019-06-30"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.currency.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateSeriesTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 2);
+
+    @Test
+    void testBuildKeepsLatestRowPerDayAndConvertsToPerUnit() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{431, START, new BigDecimal("3.25"), 1});
+        rows.add(new Object[]{431, START, new BigDecimal("3.30"), 1});
+        rows.add(new Object[]{431, START.plusDays(2), new BigDecimal("3.40"), 1});
+        rows.add(new Object[]{456, START, new BigDecimal("3.55"), 100});
+        rows.add(new Object[]{456, START.plusDays(1), null, 100});
+
+        Map<Integer, RateSeries> built = RateHistoryStore.build(rows.iterator());
+
+        RateSeries usd = built.get(431);
+        assertEquals(2, usd.size());
+        assertEquals(new BigDecimal("3.300000"), usd.rate(0));
+        assertEquals(START.plusDays(2), usd.date(1));
+        assertEquals(new BigDecimal("0.035500"), built.get(456).rate(0));
+        assertEquals(1, built.get(456).size());
+    }
+
+    @Test
+    void testLookups() {
+        RateSeries series = series(0, 1, 2, 5, 6);
+
+        assertEquals(3, series.indexOf(START.plusDays(5)));
+        assertEquals(-1, series.indexOf(START.plusDays(3)));
+        assertEquals(2, series.floorIndex(START.plusDays(4)));
+        assertEquals(4, series.floorIndex(START.plusDays(100)));
+        assertEquals(-1, series.floorIndex(START.minusDays(1)));
+
+        RateSeries range = series.range(START.plusDays(1), START.plusDays(5));
+        assertEquals(3, range.size());
+        assertEquals(START.plusDays(1), range.date(0));
+        assertEquals(START.plusDays(5), range.date(2));
+        assertEquals(1, range.indexOf(START.plusDays(2)));
+        assertEquals(-1, range.floorIndex(START));
+        assertTrue(series.range(START.plusDays(3), START.plusDays(4)).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> range.rate(3));
+    }
+
+    @Test
+    void testWritesCopyAndLeavePublishedSeriesUntouched() {
+        RateSeries original = series(0, 2, 4);
+
+        RateSeries appended = original.with(RateSeries.toEpochDay(START.plusDays(6)), 7_000_000L);
+        RateSeries inserted = appended.with(RateSeries.toEpochDay(START.plusDays(1)), 5_000_000L);
+        RateSeries replaced = inserted.with(RateSeries.toEpochDay(START), 9_000_000L);
+        RateSeries removed = replaced.without(RateSeries.toEpochDay(START.plusDays(2)));
+
+        assertEquals(3, original.size());
+        assertEquals(new BigDecimal("3.000000"), original.rate(0));
+        assertEquals(4, appended.size());
+        assertEquals(START.plusDays(6), appended.date(3));
+        assertEquals(START.plusDays(1), inserted.date(1));
+        assertEquals(new BigDecimal("9.000000"), replaced.rate(0));
+        assertEquals(new BigDecimal("3.000000"), inserted.rate(0));
+        assertEquals(4, removed.size());
+        assertEquals(-1, removed.indexOf(START.plusDays(2)));
+        assertSame(removed, removed.without(RateSeries.toEpochDay(START.plusDays(3))));
+        assertSame(replaced, replaced.with(RateSeries.toEpochDay(START), 9_000_000L));
+    }
+
+    @Test
+    void testFootprintIsTwelveBytesPerRate() {
+        int[] days = new int[10_000];
+        long[] rates = new long[10_000];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = RateSeries.toEpochDay(START) + i;
+            rates[i] = 3_000_000L + i;
+        }
+
+        RateSeries series = RateSeries.of(days, rates, days.length);
+
+        assertTrue(series.footprintBytes() <= 12L * days.length + 64);
+    }
+
+    private static RateSeries series(int... dayOffsets) {
+        int[] days = new int[dayOffsets.length];
+        long[] rates = new long[dayOffsets.length];
+        for (int i = 0; i < dayOffsets.length; i++) {
+            days[i] = RateSeries.toEpochDay(START.plusDays(dayOffsets[i]));
+            rates[i] = 3_000_000L + i * 10_000L;
+        }
+        return RateSeries.of(days, rates, days.length);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.currency.jobs;
+
+import com.example.currency.cache.CurrentDay;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.currency.TestFixtures.currency;
+import static com.example.currency.TestFixtures.rate;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "nbrb.api.base-url=http://127.0.0.1:9/exrates/",
+        "jobs.dir=target/conversion-jobs-test",
+        "jobs.chunk-bytes=32"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class ConversionJobIntegrationTest {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testSubmitPollAndDownload() throws Exception {
+        CurrencyInfo target = currencyService.createCurrency(currency("CJT"));
+        CurrencyInfo source = currencyService.createCurrency(currency("CJS"));
+        conversionService.createRate(rate(target, CurrentDay.date(), "2.00"));
+        conversionService.createRate(rate(source, CurrentDay.date(), "3.00"));
+
+        String location = mockMvc.perform(post("/api/jobs/conversions").param("to", "CJT")
+                        .contentType(new MediaType("text", "csv"))
+                        .content("amount,currency\n10,CJS\n4,CJT\n1,NOPE\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getHeader("Location");
+        String id = location.substring(location.lastIndexOf('/') + 1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        String state;
+        do {
+            assertTrue(System.nanoTime() < deadline, "job did not finish");
+            Thread.sleep(20);
+            state = JsonPath.read(mockMvc.perform(get("/api/jobs/conversions/{id}", id))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        } while (state.equals("QUEUED") || state.equals("RUNNING"));
+
+        mockMvc.perform(get("/api/jobs/conversions/{id}", id))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.lines").value(3))
+                .andExpect(jsonPath("$.failedLines").value(1))
+                .andExpect(jsonPath("$.progress").value(1.0));
+        mockMvc.perform(get("/api/jobs/conversions/{id}/result", id))
+                .andExpect(status().isOk())
+                .andExpect(content().string("amount,currency,amount_CJT,error\n"
+                        + "10,CJS,15.00,\n4,CJT,4.00,\n1,NOPE,,no rate for NOPE\n"));
+
+        mockMvc.perform(delete("/api/jobs/conversions/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/jobs/conversions/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUnknownTargetIsRejected() throws Exception {
+        mockMvc.perform(post("/api/jobs/conversions").param("to", "NOPE")
+                        .contentType(new MediaType("text", "csv"))
+                        .content("1,USD\n"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/jobs/conversions/{id}/result", "missing"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.currency.jobs;
+
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.ConversionArithmetic;
+import com.example.currency.service.CurrencyConversionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ConversionJobManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private final CurrencyConversionService conversionService = mock(CurrencyConversionService.class);
+    private final CurrencyRate usd = rate("3.2500", 1);
+    private final CurrencyRate eur = rate("3.5100", 1);
+    private ConversionJobManager manager;
+
+    @BeforeEach
+    public void setUp() {
+        when(conversionService.getRateByAbbreviation("USD")).thenReturn(usd);
+        when(conversionService.getRateByAbbreviation("EUR")).thenReturn(eur);
+        when(conversionService.getRateByAbbreviation("XXX")).thenThrow(new IllegalArgumentException("Currency not found"));
+        manager = new ConversionJobManager(conversionService, mock(PlatformTransactionManager.class), directory.toString(), 3, 64, 2, 24);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    public void testChunksAreWrittenInInputOrder() throws Exception {
+        StringBuilder csv = new StringBuilder("amount,currency\n");
+        StringBuilder expected = new StringBuilder("amount,currency,amount_USD,error\n");
+        for (int i = 1; i <= 500; i++) {
+            String amount = i + ".25";
+            csv.append(amount).append(",EUR\n");
+            expected.append(amount).append(",EUR,")
+                    .append(ConversionArithmetic.convert(new BigDecimal(amount), eur.getCurOfficialRate(), 1,
+                            usd.getCurOfficialRate(), 1).toPlainString())
+                    .append(",\n");
+        }
+        csv.append("1,XXX");
+        expected.append("1,XXX,,no rate for XXX\n");
+
+        ConversionJob job = manager.submit(stream(csv.toString()), "USD", 0, 1);
+        awaitFinished(job);
+
+        assertEquals(ConversionJob.Status.COMPLETED, job.getStatus());
+        Path result = manager.result(job).orElseThrow();
+        assertEquals(expected.toString(), Files.readString(result));
+        assertFalse(Files.exists(job.getInput()));
+        assertEquals(501L, job.toStatus().get("lines"));
+        assertEquals(1L, job.toStatus().get("failedLines"));
+        assertEquals(1.0, job.toStatus().get("progress"));
+    }
+
+    @Test
+    public void testUnknownTargetIsRejectedBeforeUpload() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> manager.submit(stream("1,USD\n"), "XXX", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> manager.submit(stream("1,USD\n"), "USD", 1, 1));
+        try (var entries = Files.list(directory)) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    @Test
+    public void testLineLongerThanAChunkFailsTheJob() throws Exception {
+        ConversionJob job = manager.submit(stream("1,USD," + "x".repeat(100) + "\n2,USD\n"), "USD", 0, 1);
+        awaitFinished(job);
+
+        assertEquals(ConversionJob.Status.FAILED, job.getStatus());
+        assertTrue(((String) job.toStatus().get("error")).contains("jobs.chunk-bytes"));
+        assertFalse(Files.exists(job.getDirectory()));
+    }
+
+    @Test
+    public void testCancelledJobStopsAndDeletesItsFiles() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(conversionService.getRateByAbbreviation("SLOW")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return usd;
+        });
+        try {
+            ConversionJob job = manager.submit(stream("1,SLOW\n".repeat(200)), "USD", 0, 1);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertEquals(ConversionJob.Status.RUNNING, job.getStatus());
+
+            manager.cancel(job.getId());
+            awaitFinished(job);
+
+            assertEquals(ConversionJob.Status.CANCELLED, job.getStatus());
+            assertTrue(manager.result(job).isEmpty());
+            assertFalse(Files.exists(job.getDirectory()));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testCancellingAFinishedJobDiscardsIt() throws Exception {
+        ConversionJob job = manager.submit(stream("1,USD\n"), "USD", 0, 1);
+        awaitFinished(job);
+
+        assertTrue(manager.cancel(job.getId()).isPresent());
+        assertTrue(manager.get(job.getId()).isEmpty());
+        assertFalse(Files.exists(job.getDirectory()));
+        assertEquals(List.of(), List.of(directory.toFile().list()));
+    }
+
+    private static void awaitFinished(ConversionJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!job.getStatus().isFinished()) {
+            assertTrue(System.nanoTime() < deadline, "job did not finish");
+            Thread.sleep(10);
+        }
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CurrencyRate rate(String value, int scale) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurOfficialRate(new BigDecimal(value));
+        rate.setCurScale(scale);
+        return rate;
+    }
+}
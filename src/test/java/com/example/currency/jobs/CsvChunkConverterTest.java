@@ -0,0 +1,64 @@
+package com.example.currency.jobs;
+
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.ConversionArithmetic;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvChunkConverterTest {
+
+    private static final CurrencyRate USD = rate("3.2500", 1);
+    private static final CurrencyRate RUB = rate("3.5000", 100);
+
+    private final CsvChunkConverter converter = new CsvChunkConverter(
+            new RateSnapshot(Map.of("RUB", RUB, "USD", USD)::get), "USD", USD, 0, 1);
+
+    @Test
+    public void testHeaderIsExtendedAndLinesAreConverted() {
+        CsvChunkConverter.Result result = convert("amount,currency,note\r\n1000,RUB,rent\n\n12.5,USD,\n", true);
+
+        String expected = "amount,currency,note,amount_USD,error\n"
+                + "1000,RUB,rent," + ConversionArithmetic.convert(new BigDecimal("1000"), RUB.getCurOfficialRate(), 100,
+                USD.getCurOfficialRate(), 1).toPlainString() + ",\n"
+                + "12.5,USD,," + ConversionArithmetic.convert(new BigDecimal("12.5"), USD.getCurOfficialRate(), 1,
+                USD.getCurOfficialRate(), 1).toPlainString() + ",\n";
+        assertEquals(expected, new String(result.output(), StandardCharsets.UTF_8));
+        assertEquals(2, result.lines());
+        assertEquals(0, result.failed());
+    }
+
+    @Test
+    public void testBadLinesAreKeptWithTheirError() {
+        CsvChunkConverter.Result result = convert("abc,USD\n5,XYZ\n7\n", false);
+
+        assertEquals("abc,USD,,invalid amount\n5,XYZ,,no rate for XYZ\n7,,missing column\n",
+                new String(result.output(), StandardCharsets.UTF_8));
+        assertEquals(3, result.lines());
+        assertEquals(3, result.failed());
+    }
+
+    @Test
+    public void testOnlyTheFirstChunkHasAHeader() {
+        assertEquals("amount,USD,,invalid amount\n",
+                new String(convert("amount,USD\n", false).output(), StandardCharsets.UTF_8));
+        assertEquals("amount,USD,amount_USD,error\n",
+                new String(convert("amount,USD\n", true).output(), StandardCharsets.UTF_8));
+    }
+
+    private CsvChunkConverter.Result convert(String csv, boolean firstChunk) {
+        return converter.convert(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)), firstChunk);
+    }
+
+    private static CurrencyRate rate(String value, int scale) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurOfficialRate(new BigDecimal(value));
+        rate.setCurScale(scale);
+        return rate;
+    }
+}
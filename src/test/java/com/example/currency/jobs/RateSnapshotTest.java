@@ -0,0 +1,43 @@
+package com.example.currency.jobs;
+
+import com.example.currency.models.CurrencyRate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateSnapshotTest {
+
+    @Test
+    public void testUnknownCurrencyIsRemembered() {
+        AtomicInteger lookups = new AtomicInteger();
+        RateSnapshot snapshot = new RateSnapshot(abbreviation -> {
+            lookups.incrementAndGet();
+            throw new IllegalArgumentException("Currency not found for abbreviation: " + abbreviation);
+        });
+
+        assertTrue(snapshot.rate("XYZ").isEmpty());
+        assertTrue(snapshot.rate("XYZ").isEmpty());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    public void testTransientFailureIsNotRemembered() {
+        CurrencyRate usd = new CurrencyRate();
+        usd.setCurOfficialRate(new BigDecimal("3.25"));
+        usd.setCurScale(1);
+        AtomicInteger lookups = new AtomicInteger();
+        RateSnapshot snapshot = new RateSnapshot(abbreviation -> {
+            if (lookups.incrementAndGet() == 1) {
+                throw new IllegalStateException("NBRB unavailable");
+            }
+            return usd;
+        });
+
+        assertThrows(IllegalStateException.class, () -> snapshot.rate("USD"));
+        assertEquals(0, snapshot.size());
+        assertSame(usd, snapshot.rate("USD").orElseThrow());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.currency.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsAreContiguousAndBounded() {
+        int previous = -1;
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1, "gap at " + value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+            previous = index;
+        }
+    }
+
+    @Test
+    public void testQuantilesWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.recordMicros(micros);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000, histogram.quantileMicros(0.5), 500);
+        assertEquals(99_000, histogram.quantileMicros(0.99), 990);
+        assertEquals(99_900, histogram.quantileMicros(0.999), 999);
+        assertEquals(100_000, histogram.getMaxMicros());
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        assertEquals(0, new LatencyHistogram().quantileMicros(0.99));
+    }
+
+    @Test
+    public void testRollingWindowDropsExpiredSlices() {
+        AtomicLong clock = new AtomicLong();
+        RollingHistogram rolling = new RollingHistogram(3, TimeUnit.SECONDS.toNanos(1), clock::get);
+        rolling.recordNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        rolling.recordNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(2, rolling.snapshot().getCount());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        LatencyHistogram snapshot = rolling.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(5_000, snapshot.quantileMicros(1.0), 50);
+    }
+}
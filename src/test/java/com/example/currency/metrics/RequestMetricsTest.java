@@ -0,0 +1,53 @@
+package com.example.currency.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestMetricsTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final RequestMetrics metrics = new RequestMetrics(60, 6, clock::get);
+
+    @Test
+    public void testSamplesAreLabelledByRouteAndStatus() {
+        metrics.record("GET", "/api/currency/rates/{id}", 200, TimeUnit.MILLISECONDS.toNanos(2));
+        metrics.record("GET", "/api/currency/rates/{id}", 200, TimeUnit.MILLISECONDS.toNanos(4));
+        metrics.record("GET", "/api/currency/rates/{id}", 404, TimeUnit.MILLISECONDS.toNanos(1));
+
+        PrometheusWriter writer = new PrometheusWriter();
+        metrics.collect(writer);
+        String text = writer.toString();
+
+        assertTrue(text.contains("http_requests_total{method=\"GET\",route=\"/api/currency/rates/{id}\",status=\"200\"} 2"), text);
+        assertTrue(text.contains("http_requests_total{method=\"GET\",route=\"/api/currency/rates/{id}\",status=\"404\"} 1"), text);
+        assertTrue(text.contains("http_request_duration_seconds_count{method=\"GET\",route=\"/api/currency/rates/{id}\"} 3"), text);
+        assertTrue(text.contains("http_request_duration_seconds{method=\"GET\",route=\"/api/currency/rates/{id}\",quantile=\"0.99\"}"), text);
+        assertEquals(3, metrics.getTotalRequests());
+    }
+
+    @Test
+    public void testQuantilesCoverOnlyTheWindowWhileCountsAccumulate() {
+        metrics.record("GET", "/api/currency/info", 200, TimeUnit.MILLISECONDS.toNanos(100));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        metrics.record("GET", "/api/currency/info", 200, TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(2, metrics.getWindow("GET", "/api/currency/info").getCount());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(35));
+        LatencyHistogram window = metrics.getWindow("GET", "/api/currency/info");
+        assertEquals(1, window.getCount());
+        assertEquals(5_000, window.quantileMicros(0.99), 50);
+
+        PrometheusWriter writer = new PrometheusWriter();
+        metrics.collect(writer);
+        assertTrue(writer.toString().contains("http_request_duration_seconds_count{method=\"GET\",route=\"/api/currency/info\"} 2"));
+    }
+
+    @Test
+    public void testUnknownRouteHasAnEmptyWindow() {
+        assertEquals(0, metrics.getWindow("GET", "/nothing").getCount());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.currency.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupReportTest {
+
+    @Test
+    public void testSlowestBeansExcludeNestedInstantiation() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(64);
+        StartupStep outer = startup.start("spring.beans.instantiate").tag("beanName", "service");
+        StartupStep inner = startup.start("spring.beans.instantiate").tag("beanName", "repository");
+        Thread.sleep(40);
+        inner.end();
+        Thread.sleep(5);
+        outer.end();
+        startup.start("spring.context.refresh").end();
+
+        List<StartupReport.BeanTiming> beans = StartupReport.slowestBeans(startup.getBufferedTimeline().getEvents(), 10);
+
+        assertEquals(2, beans.size());
+        assertEquals("repository", beans.get(0).bean());
+        assertEquals("service", beans.get(1).bean());
+        assertTrue(beans.get(1).duration().toMillis() < 40);
+    }
+
+    @Test
+    public void testSlowestBeansRespectsLimit() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(64);
+        for (int i = 0; i < 5; i++) {
+            startup.start("spring.beans.instantiate").tag("beanName", "bean" + i).end();
+        }
+
+        assertEquals(3, StartupReport.slowestBeans(startup.getBufferedTimeline().getEvents(), 3).size());
+    }
+}
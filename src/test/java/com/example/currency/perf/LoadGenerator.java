@@ -0,0 +1,115 @@
+package com.example.currency.perf;
+
+import com.example.currency.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator: each worker issues its next request as soon as the previous one
+ * completes, so measured latency includes any queueing inside the application.
+ */
+public class LoadGenerator {
+
+    public interface RequestFactory {
+        HttpRequest create(URI baseUri, Random random);
+    }
+
+    public record WeightedRequest(int weight, RequestFactory factory) {
+    }
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+
+    public LoadGenerator(URI baseUri) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    public LoadReport run(String scenario, List<WeightedRequest> mix, int concurrency, Duration warmup, Duration duration)
+            throws InterruptedException {
+        firstError.set(null);
+        if (!warmup.isZero()) {
+            execute(mix, concurrency, warmup, new LatencyHistogram(), new LongAdder(), new LongAdder(), new LongAdder());
+        }
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder shed = new LongAdder();
+        long start = System.nanoTime();
+        execute(mix, concurrency, duration, latency, requests, errors, shed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new LoadReport(scenario, requests.sum(), errors.sum(), shed.sum(), seconds, latency, firstError.get());
+    }
+
+    private void execute(List<WeightedRequest> mix, int concurrency, Duration duration, LatencyHistogram latency,
+                         LongAdder requests, LongAdder errors, LongAdder shed) throws InterruptedException {
+        int totalWeight = mix.stream().mapToInt(WeightedRequest::weight).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> {
+                Random random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = pick(mix, totalWeight, random).create(baseUri, random);
+                    long sent = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latency.recordNanos(System.nanoTime() - sent);
+                    requests.increment();
+                    if (status == 503) {
+                        shed.increment();
+                    } else if (status < 200 || status >= 400) {
+                        errors.increment();
+                        firstError.compareAndSet(null, status + " " + request.method() + " " + request.uri().getPath());
+                    }
+                }
+            }));
+        }
+        workers.shutdown();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed", e.getCause());
+            }
+        }
+    }
+
+    private static RequestFactory pick(List<WeightedRequest> mix, int totalWeight, Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (WeightedRequest request : mix) {
+            roll -= request.weight();
+            if (roll < 0) {
+                return request.factory();
+            }
+        }
+        return mix.get(mix.size() - 1).factory();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.currency.perf;
+
+import com.example.currency.metrics.LatencyHistogram;
+
+import java.util.Locale;
+
+public record LoadReport(String scenario, long requests, long errors, long shed, double seconds, LatencyHistogram latency,
+                         String firstError) {
+
+    public double throughput() {
+        return seconds == 0 ? 0 : requests / seconds;
+    }
+
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    public double p50Millis() {
+        return latency.quantileMicros(0.5) / 1000.0;
+    }
+
+    public double p99Millis() {
+        return latency.quantileMicros(0.99) / 1000.0;
+    }
+
+    public double p999Millis() {
+        return latency.quantileMicros(0.999) / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%-14s requests=%-8d rps=%-9.1f p50=%-8.2fms p99=%-8.2fms p999=%-8.2fms max=%-8.2fms errors=%d shed=%d%s",
+                scenario, requests, throughput(), p50Millis(), p99Millis(), p999Millis(),
+                latency.getMaxMicros() / 1000.0, errors, shed, firstError == null ? "" : " firstError=" + firstError);
+    }
+}
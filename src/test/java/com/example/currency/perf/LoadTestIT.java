@@ -0,0 +1,186 @@
+package com.example.currency.perf;
+
+import com.example.currency.cache.SimpleCache;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("embedded")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class LoadTestIT {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestIT.class);
+
+    private static final int CURRENCIES = 30;
+    private static final int CONCURRENCY = Integer.getInteger("perf.concurrency", 16);
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("perf.duration-seconds", 10));
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("perf.warmup-seconds", 3));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("perf.tolerance", "0.25"));
+    private static final Path REPORT = Path.of("target", "perf", "report.txt");
+
+    private static NbrbStubServer stub;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SimpleCache cache;
+
+    private LoadGenerator generator;
+    private PerformanceBaselines baselines;
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) throws IOException {
+        stub = new NbrbStubServer(CURRENCIES)
+                .withLatency(Long.getLong("perf.stub-latency-ms", 20), Long.getLong("perf.stub-jitter-ms", 30))
+                .withFailureRate(Double.parseDouble(System.getProperty("perf.stub-failure-rate", "0.0")));
+        registry.add("nbrb.api.base-url", stub::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException, InterruptedException {
+        URI baseUri = URI.create("http://127.0.0.1:" + port);
+        generator = new LoadGenerator(baseUri);
+        baselines = new PerformanceBaselines("perf/baselines.properties", TOLERANCE);
+        HttpResponse<Void> seed = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(baseUri.resolve("/api/currency/info")).build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, seed.statusCode(), "seeding currencies from the NBRB stub failed");
+    }
+
+    private static int currencyId(Random random) {
+        return NbrbStubServer.FIRST_CURRENCY_ID + random.nextInt(CURRENCIES);
+    }
+
+    private static String abbreviation(Random random) {
+        return String.format(Locale.ROOT, "C%02d", random.nextInt(CURRENCIES));
+    }
+
+    private static HttpRequest convert(URI base, Random random) {
+        String amount = (1 + random.nextInt(200)) + ".00";
+        return HttpRequest.newBuilder(base.resolve("/api/currency/rates/convert?from=" + currencyId(random)
+                + "&to=" + currencyId(random) + "&amount=" + amount)).build();
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).build();
+    }
+
+    private static HttpRequest bulkRates(URI base, Random random) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 10; i++) {
+            body.append(i > 0 ? "," : "").append('"').append(abbreviation(random)).append('"');
+        }
+        body.append(']');
+        return HttpRequest.newBuilder(base.resolve("/api/currency/rates/bulk-rates"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private static HttpRequest updateCurrency(URI base, Random random) {
+        int index = random.nextInt(CURRENCIES);
+        String body = String.format(Locale.ROOT,
+                "{\"curCode\":\"%d\",\"curAbbreviation\":\"C%02d\",\"curName\":\"Currency %d\",\"curScale\":%d}",
+                800 + index, index, index, index % 3 == 0 ? 100 : 1);
+        return HttpRequest.newBuilder(base.resolve("/api/currency/info/" + (NbrbStubServer.FIRST_CURRENCY_ID + index)))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest createRate(URI base, Random random) {
+        String form = "currencyId=" + currencyId(random) + "&curOfficialRate=" + (1 + random.nextInt(5)) + ".1234"
+                + "&curScale=1&date=" + LocalDate.now().minusDays(1 + random.nextInt(3650));
+        return HttpRequest.newBuilder(base.resolve("/rates"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private void runAndCheck(String scenario, List<LoadGenerator.WeightedRequest> mix, Duration warmup, Duration duration)
+            throws InterruptedException, IOException {
+        LoadReport report = generator.run(scenario, mix, CONCURRENCY, warmup, duration);
+        log.info("[perf] {}", report);
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report + System.lineSeparator(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        List<String> violations = baselines.check(report);
+        assertTrue(violations.isEmpty(), String.join("; ", violations));
+    }
+
+    @Test
+    @Order(1)
+    public void coldStart() throws Exception {
+        cache.clear();
+        runAndCheck("cold-start", List.of(
+                new LoadGenerator.WeightedRequest(9, LoadTestIT::convert),
+                new LoadGenerator.WeightedRequest(1, (base, random) -> get(base, "/api/currency/info/" + currencyId(random)))
+        ), Duration.ZERO, Duration.ofSeconds(Math.max(2, DURATION.toSeconds() / 3)));
+    }
+
+    @Test
+    @Order(2)
+    public void convertHeavy() throws Exception {
+        runAndCheck("convert-heavy", List.of(
+                new LoadGenerator.WeightedRequest(9, LoadTestIT::convert),
+                new LoadGenerator.WeightedRequest(1, (base, random) -> get(base, "/api/currency/info/" + currencyId(random)))
+        ), WARMUP, DURATION);
+    }
+
+    @Test
+    @Order(3)
+    public void bulkRate() throws Exception {
+        runAndCheck("bulk-rate", List.of(
+                new LoadGenerator.WeightedRequest(5, LoadTestIT::bulkRates),
+                new LoadGenerator.WeightedRequest(3, (base, random) -> get(base, "/api/currency/rates")),
+                new LoadGenerator.WeightedRequest(2, (base, random) -> get(base,
+                        "/api/currency/rates/by-abbreviation?abbreviation=" + abbreviation(random) + "&date=" + LocalDate.now()))
+        ), WARMUP, DURATION);
+    }
+
+    @Test
+    @Order(4)
+    public void crudMixed() throws Exception {
+        runAndCheck("crud-mixed", List.of(
+                new LoadGenerator.WeightedRequest(3, (base, random) -> get(base, "/api/currency/info/" + currencyId(random))),
+                new LoadGenerator.WeightedRequest(2, (base, random) -> get(base, "/api/currency/info/db")),
+                new LoadGenerator.WeightedRequest(2, LoadTestIT::convert),
+                new LoadGenerator.WeightedRequest(2, LoadTestIT::createRate),
+                new LoadGenerator.WeightedRequest(1, LoadTestIT::updateCurrency)
+        ), WARMUP, DURATION);
+    }
+}
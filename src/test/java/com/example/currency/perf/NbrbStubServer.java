@@ -0,0 +1,135 @@
+package com.example.currency.perf;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for api.nbrb.by serving /currencies and /rates/{id} with configurable latency
+ * and failure injection. Payloads use the field names NbrbApiClient binds to.
+ */
+public class NbrbStubServer implements AutoCloseable {
+
+    public static final int FIRST_CURRENCY_ID = 1;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int currencyCount;
+    private final AtomicLong requests = new AtomicLong();
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double failureRate;
+
+    public NbrbStubServer(int currencyCount) throws IOException {
+        this.currencyCount = currencyCount;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newFixedThreadPool(16);
+        server.setExecutor(executor);
+        server.createContext("/exrates/currencies", this::handleCurrencies);
+        server.createContext("/exrates/rates/", this::handleRate);
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/exrates/";
+    }
+
+    public NbrbStubServer withLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        return this;
+    }
+
+    public NbrbStubServer withFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+        return this;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public int getCurrencyCount() {
+        return currencyCount;
+    }
+
+    private void handleCurrencies(HttpExchange exchange) throws IOException {
+        if (!simulate(exchange)) {
+            return;
+        }
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < currencyCount; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(String.format(Locale.ROOT,
+                    "{\"curCode\":\"%d\",\"curAbbreviation\":\"C%02d\",\"curName\":\"Currency %d\",\"curScale\":%d}",
+                    800 + i, i, i, scaleOf(i)));
+        }
+        body.append(']');
+        respond(exchange, 200, body.toString());
+    }
+
+    private void handleRate(HttpExchange exchange) throws IOException {
+        if (!simulate(exchange)) {
+            return;
+        }
+        String path = exchange.getRequestURI().getPath();
+        int curId = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+        int index = curId - FIRST_CURRENCY_ID;
+        if (index < 0 || index >= currencyCount) {
+            respond(exchange, 404, "{\"message\":\"Not found\"}");
+            return;
+        }
+        String body = String.format(Locale.ROOT,
+                "{\"curOfficialRate\":%.4f,\"curScale\":%d,\"date\":\"%s\"}",
+                1.0 + index * 0.37, scaleOf(index), LocalDate.now());
+        respond(exchange, 200, body);
+    }
+
+    private boolean simulate(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            respond(exchange, 503, "{\"message\":\"Injected failure\"}");
+            return false;
+        }
+        return true;
+    }
+
+    private static int scaleOf(int index) {
+        return index % 3 == 0 ? 100 : 1;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.currency.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Stored performance floor per scenario, read from perf/baselines.properties. A run fails when
+ * throughput drops, or p99 latency grows, by more than perf.tolerance relative to the baseline.
+ */
+public class PerformanceBaselines {
+
+    private final Properties baselines = new Properties();
+    private final double tolerance;
+
+    public PerformanceBaselines(String resource, double tolerance) throws IOException {
+        try (InputStream in = PerformanceBaselines.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Baseline resource not found: " + resource);
+            }
+            baselines.load(in);
+        }
+        this.tolerance = tolerance;
+    }
+
+    public List<String> check(LoadReport report) {
+        List<String> violations = new ArrayList<>();
+        String prefix = report.scenario() + ".";
+
+        String minThroughput = baselines.getProperty(prefix + "min-throughput");
+        if (minThroughput != null && report.throughput() < Double.parseDouble(minThroughput) * (1 - tolerance)) {
+            violations.add(String.format(Locale.ROOT, "%s throughput %.1f rps is below baseline %s rps",
+                    report.scenario(), report.throughput(), minThroughput));
+        }
+        String maxP99 = baselines.getProperty(prefix + "max-p99-ms");
+        if (maxP99 != null && report.p99Millis() > Double.parseDouble(maxP99) * (1 + tolerance)) {
+            violations.add(String.format(Locale.ROOT, "%s p99 %.2f ms exceeds baseline %s ms",
+                    report.scenario(), report.p99Millis(), maxP99));
+        }
+        String maxErrorRate = baselines.getProperty(prefix + "max-error-rate");
+        if (maxErrorRate != null && report.errorRate() > Double.parseDouble(maxErrorRate)) {
+            violations.add(String.format(Locale.ROOT, "%s error rate %.4f exceeds %s",
+                    report.scenario(), report.errorRate(), maxErrorRate));
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.currency.routing;
+
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.coherence.ChangeLog;
+import com.example.currency.config.ReadYourWritesFilter;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.service.CurrencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.currency.TestFixtures.currency;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "nbrb.api.base-url=http://127.0.0.1:9/exrates/",
+        "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "datasource.replica.max-lag-ms=200",
+        "datasource.replica.check-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class ReplicaRoutingIntegrationTest {
+
+    static final String PRIMARY_URL =
+            "jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DATE,VALUE";
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DATE,VALUE";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @Autowired
+    private SimpleCache cache;
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testReadOnlyMethodsUseReplicaAndWritesUsePrimary() throws Exception {
+        CurrencyInfo created = currencyService.createCurrency(currency("RRA", "901", "Primary name"));
+        replicate();
+        renameOnReplica(created.getCurId(), "Replica name");
+
+        cache.clear();
+        assertEquals("Replica name", currencyService.getCurrencyById(created.getCurId()).orElseThrow().getCurName());
+
+        created.setCurName("Updated name");
+        currencyService.updateCurrency(created.getCurId(), created);
+        assertEquals("Updated name", nameIn(PRIMARY_URL, created.getCurId()));
+        assertEquals("Replica name", nameIn(REPLICA_URL, created.getCurId()));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() throws Exception {
+        replicate();
+        CurrencyInfo created = currencyService.createCurrency(currency("RRB", "902", "Not replicated"));
+        Thread.sleep(250);
+        monitor.refresh();
+
+        assertFalse(monitor.isWithinLag());
+        assertTrue(monitor.getLagMillis() >= 200);
+        cache.clear();
+        assertTrue(currencyService.getCurrencyById(created.getCurId()).isPresent());
+
+        replicate();
+        renameOnReplica(created.getCurId(), "Caught up");
+        assertTrue(monitor.isWithinLag());
+        cache.clear();
+        assertEquals("Caught up", currencyService.getCurrencyById(created.getCurId()).orElseThrow().getCurName());
+    }
+
+    @Test
+    void testSessionReadsItsOwnWrites() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/currency/info")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"curAbbreviation\":\"RRC\",\"curCode\":\"903\",\"curName\":\"Primary name\",\"curScale\":1}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        Cookie readAfter = result.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(readAfter);
+        assertEquals(changeLog.currentVersion(), Long.parseLong(readAfter.getValue()));
+        Integer id = objectMapper.readValue(result.getResponse().getContentAsByteArray(), CurrencyInfo.class).getCurId();
+
+        replicate();
+        renameOnReplica(id, "Replica name");
+        // A write the replica has not seen yet, e.g. one committed through another node.
+        Cookie ahead = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(changeLog.currentVersion() + 1));
+
+        cache.clear();
+        mockMvc.perform(get("/api/currency/info/" + id).cookie(ahead))
+                .andExpect(jsonPath("$.curName").value("Primary name"));
+        cache.clear();
+        mockMvc.perform(get("/api/currency/info/" + id).cookie(readAfter))
+                .andExpect(jsonPath("$.curName").value("Replica name"));
+    }
+
+    /**
+     * Copies the primary into the replica and takes a fresh lag sample.
+     */
+    private void replicate() throws Exception {
+        List<String> script = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement();
+             ResultSet resultSet = statement.executeQuery("SCRIPT")) {
+            while (resultSet.next()) {
+                script.add(resultSet.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        }
+        monitor.refresh();
+    }
+
+    private static void renameOnReplica(Integer curId, String name) throws Exception {
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             PreparedStatement statement = replica.prepareStatement("UPDATE currency_info SET cur_name = ? WHERE cur_id = ?")) {
+            statement.setString(1, name);
+            statement.setInt(2, curId);
+            assertEquals(1, statement.executeUpdate());
+        }
+    }
+
+    private static String nameIn(String url, Integer curId) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement statement = connection.prepareStatement("SELECT cur_name FROM currency_info WHERE cur_id = ?")) {
+            statement.setInt(1, curId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                return resultSet.getString(1);
+            }
+        }
+    }
+}
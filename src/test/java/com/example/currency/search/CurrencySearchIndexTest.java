@@ -0,0 +1,112 @@
+package com.example.currency.search;
+
+import com.example.currency.models.CacheChange;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.repository.CurrencyInfoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CurrencySearchIndexTest {
+
+    @Mock
+    private CurrencyInfoRepository repository;
+
+    private CurrencySearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAll()).thenReturn(List.of(
+                currency(431, "USD", "840", "Доллар США"),
+                currency(451, "EUR", "978", "Евро"),
+                currency(456, "RUB", "643", "Российский рубль"),
+                currency(449, "UAH", "980", "Гривна"),
+                currency(500, "SEK", "752", "Шведская крона"),
+                currency(501, "ISK", "352", "Исландская крона"),
+                currency(502, "CZK", "203", "Česká koruna")));
+        index = new CurrencySearchIndex(repository);
+        index.reload();
+    }
+
+    @Test
+    void testAbbreviationMatchRanksFirst() {
+        List<CurrencySearchIndex.SearchResult> results = index.search("us", 5);
+
+        assertEquals("USD", results.get(0).curAbbreviation());
+    }
+
+    @Test
+    void testFoldsCaseAndDiacritics() {
+        assertEquals("CZK", index.search("ceska", 5).get(0).curAbbreviation());
+        assertEquals("CZK", index.search("KORUNA", 5).get(0).curAbbreviation());
+        assertEquals("RUB", index.search("российскии", 5).get(0).curAbbreviation());
+    }
+
+    @Test
+    void testAllQueryWordsMustMatch() {
+        List<CurrencySearchIndex.SearchResult> results = index.search("шв крон", 5);
+
+        assertEquals(1, results.size());
+        assertEquals("SEK", results.get(0).curAbbreviation());
+        assertEquals(2, index.search("крона", 5).size());
+    }
+
+    @Test
+    void testCodeAndLimit() {
+        assertEquals("USD", index.search("840", 5).get(0).curAbbreviation());
+        assertEquals(1, index.search("к", 1).size());
+        assertTrue(index.search("  ", 5).isEmpty());
+        assertTrue(index.search("zzz", 5).isEmpty());
+    }
+
+    @Test
+    void testChangesUpdateOnlyAffectedCurrency() {
+        when(repository.findById(451)).thenReturn(Optional.of(currency(451, "EUR", "978", "Euro")));
+        index.onChange(change(CacheChange.Type.CURRENCY_UPDATED, 451));
+
+        assertTrue(index.search("евро", 5).isEmpty());
+        assertEquals("EUR", index.search("euro", 5).get(0).curAbbreviation());
+
+        index.onChange(change(CacheChange.Type.CURRENCY_DELETED, 431));
+        assertTrue(index.search("usd", 5).isEmpty());
+        assertEquals(6, index.size());
+
+        when(repository.findById(900)).thenReturn(Optional.of(currency(900, "GBP", "826", "Фунт стерлингов")));
+        index.onChange(change(CacheChange.Type.CURRENCY_CREATED, 900));
+        assertEquals("GBP", index.search("фунт", 5).get(0).curAbbreviation());
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void testRateChangesAreIgnored() {
+        index.onChange(change(CacheChange.Type.RATE_CHANGED, 431));
+
+        verify(repository, never()).findById(anyInt());
+    }
+
+    private static CacheChange change(CacheChange.Type type, Integer currencyId) {
+        CacheChange change = new CacheChange();
+        change.setType(type);
+        change.setCurrencyId(currencyId);
+        return change;
+    }
+
+    private static CurrencyInfo currency(int id, String abbreviation, String code, String name) {
+        CurrencyInfo info = new CurrencyInfo();
+        info.setCurId(id);
+        info.setCurAbbreviation(abbreviation);
+        info.setCurCode(code);
+        info.setCurName(name);
+        info.setCurScale(1);
+        return info;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.currency.search;
+
+import com.example.currency.config.QueryStatsFilter;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.service.CurrencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.example.currency.TestFixtures.currency;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "nbrb.api.base-url=http://127.0.0.1:9/exrates/")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class CurrencySearchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencySearchIndex searchIndex;
+
+    @Test
+    void testSearchFollowsCurrencyCrudWithoutQueries() throws Exception {
+        searchIndex.search("warm", 1);
+        CurrencyInfo created = currencyService.createCurrency(currency("QAR", "634", "Катарский риал"));
+
+        mockMvc.perform(get("/api/currency/info/search").param("q", "катарск"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryStatsFilter.STATEMENTS_HEADER, "0"))
+                .andExpect(jsonPath("$[0].curAbbreviation").value("QAR"));
+
+        created.setCurName("Qatari riyal");
+        currencyService.updateCurrency(created.getCurId(), created);
+        mockMvc.perform(get("/api/currency/info/search").param("q", "qatari"))
+                .andExpect(jsonPath("$[0].curId").value(created.getCurId()));
+        mockMvc.perform(get("/api/currency/info/search").param("q", "катарск"))
+                .andExpect(jsonPath("$.length()").value(0));
+
+        currencyService.deleteCurrency(created.getCurId());
+        mockMvc.perform(get("/api/currency/info/search").param("q", "qar"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.currency.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConversionArithmeticTest {
+
+    private static final int[] CURRENCY_SCALES = {1, 10, 100, 1000, 10_000, 100_000, 1_000_000};
+
+    @Test
+    void testMatchesReferenceForRealisticInputs() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            BigDecimal amount = randomDecimal(random, 1 + random.nextInt(12), random.nextInt(9) - 1);
+            BigDecimal fromRate = randomDecimal(random, 1 + random.nextInt(8), random.nextInt(7));
+            BigDecimal toRate = randomDecimal(random, 1 + random.nextInt(8), random.nextInt(7));
+            int fromScale = CURRENCY_SCALES[random.nextInt(CURRENCY_SCALES.length)];
+            int toScale = CURRENCY_SCALES[random.nextInt(CURRENCY_SCALES.length)];
+
+            assertIdentical(amount, fromRate, fromScale, toRate, toScale);
+        }
+    }
+
+    @Test
+    void testMatchesReferenceOnRoundingTies() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            // Per-unit rates that land exactly on a half millionth, and amounts that land on a half cent.
+            int scale = CURRENCY_SCALES[1 + random.nextInt(CURRENCY_SCALES.length - 1)];
+            BigDecimal halfStep = BigDecimal.valueOf(5L * scale, 7);
+            BigDecimal fromRate = BigDecimal.valueOf(random.nextInt(1_000_000), 6).multiply(BigDecimal.valueOf(scale)).add(halfStep);
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(100_000) * 10L + 5, 3);
+
+            assertIdentical(amount, fromRate, scale, BigDecimal.ONE, 1);
+            assertIdentical(amount, BigDecimal.ONE, 1, BigDecimal.ONE, 1);
+        }
+    }
+
+    @Test
+    void testFallsBackOnlyWhenLongsOverflow() {
+        BigDecimal rate = new BigDecimal("3.2418");
+
+        assertNotNull(ConversionArithmetic.tryFixedPoint(new BigDecimal("1000000000.00"), rate, 1, rate, 100));
+        assertNull(ConversionArithmetic.tryFixedPoint(new BigDecimal("1e14"), rate, 1, new BigDecimal("0.000001"), 1));
+        assertNull(ConversionArithmetic.tryFixedPoint(new BigDecimal("12345678901234567890.5"), rate, 1, rate, 1));
+        assertNull(ConversionArithmetic.tryFixedPoint(new BigDecimal("1.00000000000000000001"), rate, 1, rate, 1));
+
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            BigDecimal amount = randomDecimal(random, 10 + random.nextInt(20), random.nextInt(30) - 5);
+            BigDecimal fromRate = randomDecimal(random, 1 + random.nextInt(20), random.nextInt(25));
+            BigDecimal toRate = randomDecimal(random, 1 + random.nextInt(20), random.nextInt(12));
+            assertIdentical(amount, fromRate, CURRENCY_SCALES[random.nextInt(CURRENCY_SCALES.length)], toRate, 1);
+        }
+    }
+
+    @Test
+    void testFailuresMatchReference() {
+        BigDecimal rate = new BigDecimal("3.2418");
+
+        assertSameFailure(BigDecimal.TEN, rate, 0, rate, 1);
+        assertSameFailure(BigDecimal.TEN, rate, 1, new BigDecimal("0.0000001"), 1);
+        assertSameFailure(BigDecimal.TEN, rate, 1, rate, null);
+    }
+
+    @Test
+    void testDivideHalfUpMatchesBigDecimal() {
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long dividend = random.nextLong() >> random.nextInt(63);
+            long divisor = random.nextLong() >> random.nextInt(63);
+            if (divisor == 0) {
+                continue;
+            }
+            BigDecimal expected = new BigDecimal(dividend).divide(new BigDecimal(divisor), 0, RoundingMode.HALF_UP);
+            assertEquals(expected.longValueExact(), ConversionArithmetic.divideHalfUp(dividend, divisor));
+        }
+    }
+
+    private static void assertIdentical(BigDecimal amount, BigDecimal fromRate, Integer fromScale,
+                                        BigDecimal toRate, Integer toScale) {
+        BigDecimal expected;
+        try {
+            expected = ConversionArithmetic.convertExact(amount, fromRate, fromScale, toRate, toScale);
+        } catch (ArithmeticException e) {
+            assertSameFailure(amount, fromRate, fromScale, toRate, toScale);
+            return;
+        }
+        BigDecimal actual = ConversionArithmetic.convert(amount, fromRate, fromScale, toRate, toScale);
+        assertEquals(expected, actual, () -> amount + " " + fromRate + "/" + fromScale + " -> " + toRate + "/" + toScale);
+    }
+
+    private static void assertSameFailure(BigDecimal amount, BigDecimal fromRate, Integer fromScale,
+                                          BigDecimal toRate, Integer toScale) {
+        RuntimeException expected = assertThrows(RuntimeException.class,
+                () -> ConversionArithmetic.convertExact(amount, fromRate, fromScale, toRate, toScale));
+        RuntimeException actual = assertThrows(RuntimeException.class,
+                () -> ConversionArithmetic.convert(amount, fromRate, fromScale, toRate, toScale));
+        // Messages are not compared: once hot, the JIT may throw preallocated exceptions without one.
+        assertEquals(expected.getClass(), actual.getClass());
+    }
+
+    private static BigDecimal randomDecimal(Random random, int digits, int scale) {
+        BigInteger unscaled = new BigInteger(digits * 4, random).mod(BigInteger.TEN.pow(digits)).add(BigInteger.ONE);
+        return new BigDecimal(unscaled, scale);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.currency.service;
 
+import com.example.currency.analytics.RateRollupService;
+import com.example.currency.cache.CacheKey;
 import com.example.currency.cache.SimpleCache;
 import com.example.currency.models.CurrencyRate;
 import com.example.currency.repository.CurrencyRateRepository;
@@ -30,6 +32,9 @@ public class CurrencyConversionServiceTest {
     @Mock
     private SimpleCache cacheService;
 
+    @Mock
+    private RateRollupService rollups;
+
     @InjectMocks
     private CurrencyConversionService conversionService;
 
@@ -73,6 +78,17 @@ public class CurrencyConversionServiceTest {
         assertEquals("Currency not found for abbreviation: XYZ", exception.getMessage());
     }
 
+    @Test
+    public void testGetBulkRatesWithNullAbbreviation() {
+        List<String> abbreviations = Arrays.asList("USD", null);
+        CurrencyRate usdRate = mock(CurrencyRate.class);
+        when(currencyService.getCurrencyRateByAbbreviation("USD")).thenReturn(usdRate);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                conversionService.getBulkRates(abbreviations));
+        assertEquals("Currency abbreviation cannot be null", exception.getMessage());
+    }
+
     @Test
     public void testGetBulkRatesWithCache() {
         List<String> abbreviations = Arrays.asList("USD", "EUR");
@@ -81,8 +97,8 @@ public class CurrencyConversionServiceTest {
         when(usdRate.getCurOfficialRate()).thenReturn(new BigDecimal("1.0"));
         when(eurRate.getCurOfficialRate()).thenReturn(new BigDecimal("0.85"));
 
-        when(cacheService.get("rateByAbbreviation:USD:" + java.time.LocalDate.now())).thenReturn(Optional.of(usdRate));
-        when(cacheService.get("rateByAbbreviation:EUR:" + java.time.LocalDate.now())).thenReturn(Optional.of(eurRate));
+        when(cacheService.get(CacheKey.rateByAbbreviation("USD", java.time.LocalDate.now()))).thenReturn(Optional.of(usdRate));
+        when(cacheService.get(CacheKey.rateByAbbreviation("EUR", java.time.LocalDate.now()))).thenReturn(Optional.of(eurRate));
 
         List<CurrencyRate> rates = conversionService.getBulkRates(abbreviations);
 
@@ -100,8 +116,8 @@ public class CurrencyConversionServiceTest {
         when(usdRate.getCurOfficialRate()).thenReturn(new BigDecimal("1.0"));
         when(eurRate.getCurOfficialRate()).thenReturn(new BigDecimal("0.85"));
 
-        when(cacheService.get("rateByAbbreviation:USD:" + java.time.LocalDate.now())).thenReturn(Optional.of(usdRate));
-        when(cacheService.get("rateByAbbreviation:EUR:" + java.time.LocalDate.now())).thenReturn(Optional.empty());
+        when(cacheService.get(CacheKey.rateByAbbreviation("USD", java.time.LocalDate.now()))).thenReturn(Optional.of(usdRate));
+        when(cacheService.get(CacheKey.rateByAbbreviation("EUR", java.time.LocalDate.now()))).thenReturn(Optional.empty());
         when(currencyService.getCurrencyRateByAbbreviation("EUR")).thenReturn(eurRate);
 
         List<CurrencyRate> rates = conversionService.getBulkRates(abbreviations);
@@ -110,6 +126,6 @@ public class CurrencyConversionServiceTest {
         assertEquals(usdRate, rates.get(0));
         assertEquals(eurRate, rates.get(1));
         verify(currencyService, times(1)).getCurrencyRateByAbbreviation("EUR");
-        verify(cacheService, times(1)).put("rateByAbbreviation:EUR:" + java.time.LocalDate.now(), eurRate);
+        verify(cacheService, times(1)).put(CacheKey.rateByAbbreviation("EUR", java.time.LocalDate.now()), eurRate);
     }
 }
\ No newline at end of file
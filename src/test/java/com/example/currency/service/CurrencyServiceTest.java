@@ -1,7 +1,10 @@
 package com.example.currency.service;
 
+import com.example.currency.analytics.RateRollupService;
+import com.example.currency.cache.CacheKey;
 import com.example.currency.cache.SimpleCache;
 import com.example.currency.client.NbrbApiClient;
+import com.example.currency.coherence.ChangeLog;
 import com.example.currency.models.CurrencyInfo;
 import com.example.currency.models.CurrencyRate;
 import com.example.currency.repository.CurrencyInfoRepository;
@@ -16,6 +19,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,6 +43,15 @@ public class CurrencyServiceTest {
     @Mock
     private SimpleCache cacheService;
 
+    @Mock
+    private RateIngestionService rateIngestion;
+
+    @Mock
+    private RateRollupService rollups;
+
+    @Mock
+    private ChangeLog changeLog;
+
     @InjectMocks
     private CurrencyService currencyService;
 
@@ -46,7 +61,7 @@ public class CurrencyServiceTest {
         CurrencyRate cachedRate = mock(CurrencyRate.class);
         when(cachedRate.getCurOfficialRate()).thenReturn(new BigDecimal("1.0"));
         when(cachedRate.getDate()).thenReturn(LocalDate.now());
-        when(cacheService.get("rateByAbbreviation:USD:" + LocalDate.now())).thenReturn(Optional.of(cachedRate));
+        when(cacheService.get(CacheKey.rateByAbbreviation("USD", LocalDate.now()))).thenReturn(Optional.of(cachedRate));
 
         CurrencyRate result = currencyService.getCurrencyRateByAbbreviation(abbreviation);
 
@@ -70,13 +85,13 @@ public class CurrencyServiceTest {
         when(rates.isEmpty()).thenReturn(false);
         when(rates.get(0)).thenReturn(rate);
 
-        when(cacheService.get("rateByAbbreviation:USD:" + LocalDate.now())).thenReturn(Optional.empty());
+        when(cacheService.get(CacheKey.rateByAbbreviation("USD", LocalDate.now()))).thenReturn(Optional.empty());
         when(currencyInfoRepository.findByCurAbbreviation(abbreviation)).thenReturn(Optional.of(currency));
 
         CurrencyRate result = currencyService.getCurrencyRateByAbbreviation(abbreviation);
 
         assertEquals(rate, result);
-        verify(cacheService).put("rateByAbbreviation:USD:" + LocalDate.now(), rate);
+        verify(cacheService).put(CacheKey.rateByAbbreviation("USD", LocalDate.now()), rate);
         verify(apiClient, never()).getCurrencyRate(anyInt());
         verify(currencyRateRepository, never()).save(any(CurrencyRate.class));
     }
@@ -94,7 +109,7 @@ public class CurrencyServiceTest {
         when(rate.getCurOfficialRate()).thenReturn(new BigDecimal("1.0"));
         when(rate.getDate()).thenReturn(LocalDate.now());
 
-        when(cacheService.get("rateByAbbreviation:USD:" + LocalDate.now())).thenReturn(Optional.empty());
+        when(cacheService.get(CacheKey.rateByAbbreviation("USD", LocalDate.now()))).thenReturn(Optional.empty());
         when(currencyInfoRepository.findByCurAbbreviation(abbreviation)).thenReturn(Optional.of(currency));
         when(apiClient.getCurrencyRate(1)).thenReturn(rate);
         when(currencyRateRepository.save(any(CurrencyRate.class))).thenReturn(rate);
@@ -102,7 +117,7 @@ public class CurrencyServiceTest {
         CurrencyRate result = currencyService.getCurrencyRateByAbbreviation(abbreviation);
 
         assertEquals(rate, result);
-        verify(cacheService).put("rateByAbbreviation:USD:" + LocalDate.now(), rate);
+        verify(cacheService).put(CacheKey.rateByAbbreviation("USD", LocalDate.now()), rate);
         verify(currencyRateRepository).save(rate);
         verify(apiClient).getCurrencyRate(1);
     }
@@ -110,7 +125,7 @@ public class CurrencyServiceTest {
     @Test
     public void testGetCurrencyRateByAbbreviationNotFound() {
         String abbreviation = "XYZ";
-        when(cacheService.get("rateByAbbreviation:XYZ:" + LocalDate.now())).thenReturn(Optional.empty());
+        when(cacheService.get(CacheKey.rateByAbbreviation("XYZ", LocalDate.now()))).thenReturn(Optional.empty());
         when(currencyInfoRepository.findByCurAbbreviation(abbreviation)).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
@@ -125,7 +140,7 @@ public class CurrencyServiceTest {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
                 currencyService.getCurrencyRateByAbbreviation(null));
         assertEquals("Currency abbreviation cannot be null", exception.getMessage());
-        verify(cacheService, never()).get(anyString());
+        verify(cacheService, never()).get(any(CacheKey.class));
         verify(currencyInfoRepository, never()).findByCurAbbreviation(anyString());
         verify(apiClient, never()).getCurrencyRate(anyInt());
         verify(currencyRateRepository, never()).save(any(CurrencyRate.class));
@@ -136,7 +151,7 @@ public class CurrencyServiceTest {
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
                 currencyService.getCurrencyRateByAbbreviation(""));
         assertEquals("Currency abbreviation cannot be empty", exception.getMessage());
-        verify(cacheService, never()).get(anyString());
+        verify(cacheService, never()).get(any(CacheKey.class));
         verify(currencyInfoRepository, never()).findByCurAbbreviation(anyString());
         verify(apiClient, never()).getCurrencyRate(anyInt());
         verify(currencyRateRepository, never()).save(any(CurrencyRate.class));
@@ -152,7 +167,7 @@ public class CurrencyServiceTest {
         when(currency.getRates()).thenReturn(rates);
         when(rates.isEmpty()).thenReturn(true);
 
-        when(cacheService.get("rateByAbbreviation:USD:" + LocalDate.now())).thenReturn(Optional.empty());
+        when(cacheService.get(CacheKey.rateByAbbreviation("USD", LocalDate.now()))).thenReturn(Optional.empty());
         when(currencyInfoRepository.findByCurAbbreviation(abbreviation)).thenReturn(Optional.of(currency));
         when(apiClient.getCurrencyRate(1)).thenThrow(new RuntimeException("API failure"));
 
@@ -160,6 +175,39 @@ public class CurrencyServiceTest {
                 currencyService.getCurrencyRateByAbbreviation(abbreviation));
         assertEquals("API failure", exception.getMessage());
         verify(currencyRateRepository, never()).save(any(CurrencyRate.class));
-        verify(cacheService, never()).put(anyString(), any());
+        verify(cacheService, never()).put(any(CacheKey.class), any());
+    }
+
+    @Test
+    public void testConcurrentRateMissesShareOneFetch() throws Exception {
+        CurrencyInfo currency = new CurrencyInfo();
+        currency.setCurId(1);
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurOfficialRate(new BigDecimal("3.25"));
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(cacheService.get(any())).thenReturn(Optional.empty());
+        when(currencyInfoRepository.findById(1)).thenReturn(Optional.of(currency));
+        when(rateIngestion.isEnabled()).thenReturn(true);
+        when(apiClient.getCurrencyRate(1)).thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return rate;
+        });
+
+        FutureTask<CurrencyRate> first = new FutureTask<>(() -> currencyService.getCurrencyRate(1));
+        FutureTask<CurrencyRate> second = new FutureTask<>(() -> currencyService.getCurrencyRate(1));
+        new Thread(first).start();
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        Thread follower = new Thread(second);
+        follower.start();
+        while (follower.getState() != Thread.State.WAITING && follower.isAlive()) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertSame(rate, first.get(5, TimeUnit.SECONDS));
+        assertSame(rate, second.get(5, TimeUnit.SECONDS));
+        verify(apiClient, times(1)).getCurrencyRate(1);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,126 @@
+package com.example.currency.service;
+
+import com.example.currency.analytics.RateRollupService;
+import com.example.currency.client.NbrbApiClient;
+import com.example.currency.coherence.ChangeLog;
+import com.example.currency.coordination.LeaderElection;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.repository.CurrencyInfoRepository;
+import com.example.currency.repository.CurrencyRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RateIngestionServiceTest {
+
+    @Mock
+    private CurrencyInfoRepository currencyInfoRepository;
+
+    @Mock
+    private CurrencyRateRepository currencyRateRepository;
+
+    @Mock
+    private NbrbApiClient apiClient;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Mock
+    private RateRollupService rollups;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RateIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RateIngestionService(currencyInfoRepository, currencyRateRepository, apiClient,
+                leaderElection, changeLog, rollups, transactionManager, true);
+    }
+
+    @Test
+    void testFollowerDoesNotCallApi() {
+        when(leaderElection.currentToken()).thenReturn(OptionalLong.empty());
+
+        assertEquals(0, service.ingest());
+        verifyNoInteractions(apiClient, currencyRateRepository);
+    }
+
+    @Test
+    void testLeaderFetchesOnlyMissingRatesUnderFence() {
+        CurrencyInfo usd = currency(431, "USD");
+        CurrencyInfo eur = currency(451, "EUR");
+        CurrencyRate stored = rate(usd, LocalDate.now());
+        when(leaderElection.currentToken()).thenReturn(OptionalLong.of(7));
+        when(currencyRateRepository.findByDateWithCurrency(LocalDate.now())).thenReturn(List.of(stored));
+        when(currencyInfoRepository.findAll()).thenReturn(List.of(usd, eur));
+        when(apiClient.getCurrencyRate(451)).thenReturn(rate(null, LocalDate.now()));
+
+        assertEquals(1, service.ingest());
+        verify(apiClient, never()).getCurrencyRate(431);
+        verify(leaderElection).fence(7);
+        verify(currencyRateRepository).save(argThat(rate -> rate.getCurrency() == eur));
+        verify(changeLog).rateChanged(any(CurrencyRate.class));
+        verify(rollups).rateChanged(eur, LocalDate.now());
+    }
+
+    @Test
+    void testRateForAnotherDayIsSkipped() {
+        CurrencyInfo usd = currency(431, "USD");
+        when(leaderElection.currentToken()).thenReturn(OptionalLong.of(7));
+        when(currencyInfoRepository.findAll()).thenReturn(List.of(usd));
+        when(apiClient.getCurrencyRate(431)).thenReturn(rate(null, LocalDate.now().minusDays(1)));
+
+        assertEquals(0, service.ingest());
+        verify(currencyRateRepository, never()).save(any());
+    }
+
+    @Test
+    void testLostLeaseStopsIngestion() {
+        CurrencyInfo usd = currency(431, "USD");
+        CurrencyInfo eur = currency(451, "EUR");
+        when(leaderElection.currentToken()).thenReturn(OptionalLong.of(7));
+        when(currencyInfoRepository.findAll()).thenReturn(List.of(usd, eur));
+        when(apiClient.getCurrencyRate(431)).thenReturn(rate(null, LocalDate.now()));
+        doThrow(new IllegalStateException("fenced")).when(leaderElection).fence(7);
+
+        assertEquals(0, service.ingest());
+        verify(apiClient, never()).getCurrencyRate(451);
+        verify(currencyRateRepository, never()).save(any());
+        verify(changeLog, never()).rateChanged(any(CurrencyRate.class));
+    }
+
+    private static CurrencyInfo currency(int id, String abbreviation) {
+        CurrencyInfo info = new CurrencyInfo();
+        info.setCurId(id);
+        info.setCurAbbreviation(abbreviation);
+        return info;
+    }
+
+    private static CurrencyRate rate(CurrencyInfo currency, LocalDate date) {
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurrency(currency);
+        rate.setCurOfficialRate(new BigDecimal("3.2"));
+        rate.setCurScale(1);
+        rate.setDate(date);
+        return rate;
+    }
+}
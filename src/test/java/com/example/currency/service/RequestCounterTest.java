@@ -1,5 +1,6 @@
 package com.example.currency.service;
 
+import com.example.currency.metrics.RequestMetrics;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -7,7 +8,7 @@ public class RequestCounterTest {
 
     @Test
     public void testIncrement() {
-        RequestCounter counter = new RequestCounter();
+        RequestCounter counter = new RequestCounter(new RequestMetrics(60, 6));
         counter.increment();
         assertEquals(1, counter.getCount());
         counter.increment();
@@ -16,7 +17,7 @@ public class RequestCounterTest {
 
     @Test
     public void testReset() {
-        RequestCounter counter = new RequestCounter();
+        RequestCounter counter = new RequestCounter(new RequestMetrics(60, 6));
         counter.increment();
         counter.increment();
         assertEquals(2, counter.getCount());
@@ -26,7 +27,7 @@ public class RequestCounterTest {
 
     @Test
     public void testInitialCount() {
-        RequestCounter counter = new RequestCounter();
+        RequestCounter counter = new RequestCounter(new RequestMetrics(60, 6));
         assertEquals(0, counter.getCount());
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.example.currency.sql;
+
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.config.QueryStatsFilter;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.repository.CurrencyInfoRepository;
+import com.example.currency.repository.CurrencyRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = "nbrb.api.base-url=http://127.0.0.1:9/exrates/")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyInfoRepository currencyInfoRepository;
+
+    @Autowired
+    private CurrencyRateRepository currencyRateRepository;
+
+    @Autowired
+    private SimpleCache cache;
+
+    private Integer usdId;
+    private Integer eurId;
+
+    @BeforeEach
+    void setUp() {
+        currencyRateRepository.deleteAll();
+        currencyInfoRepository.deleteAll();
+        cache.clear();
+        usdId = saveCurrencyWithTodayRate("USD", "3.2500", 1);
+        eurId = saveCurrencyWithTodayRate("EUR", "3.5000", 1);
+    }
+
+    @Test
+    void testConvertOnWarmDayIssuesNoQueries() throws Exception {
+        MockHttpServletResponse cold = convert("100");
+        assertEquals(200, cold.getStatus());
+        assertTrue(Long.parseLong(cold.getHeader(QueryStatsFilter.STATEMENTS_HEADER)) > 0);
+
+        MockHttpServletResponse sameAmount = convert("100");
+        assertEquals("0", sameAmount.getHeader(QueryStatsFilter.STATEMENTS_HEADER));
+
+        MockHttpServletResponse otherAmount = convert("250");
+        assertEquals(200, otherAmount.getStatus());
+        assertEquals("0", otherAmount.getHeader(QueryStatsFilter.STATEMENTS_HEADER));
+        assertEquals("0", otherAmount.getHeader(QueryStatsFilter.ROWS_HEADER));
+    }
+
+    @Test
+    void testMeasureCountsStatementsAndRows() {
+        QueryStats stats = QueryStatsContext.measure(() -> currencyInfoRepository.findAll());
+
+        assertEquals(1, stats.getStatements());
+        assertEquals(2, stats.getRows());
+        assertTrue(stats.getNanos() > 0);
+    }
+
+    @Test
+    void testMeasureDetectsRepeatedStatements() {
+        QueryStats stats = QueryStatsContext.measure(() -> {
+            for (int i = 0; i < 3; i++) {
+                currencyInfoRepository.findByCurAbbreviation("USD");
+            }
+        });
+
+        assertEquals(3, stats.getStatements());
+        assertEquals(1, stats.getExecutionsBySql().size());
+        assertEquals(3, stats.getExecutionsBySql().values().iterator().next());
+    }
+
+    private MockHttpServletResponse convert(String amount) throws Exception {
+        return mockMvc.perform(get("/api/currency/rates/convert")
+                        .param("from", usdId.toString())
+                        .param("to", eurId.toString())
+                        .param("amount", amount))
+                .andReturn().getResponse();
+    }
+
+    private Integer saveCurrencyWithTodayRate(String abbreviation, String rateValue, int scale) {
+        CurrencyInfo info = new CurrencyInfo();
+        info.setCurCode(abbreviation);
+        info.setCurAbbreviation(abbreviation);
+        info.setCurName(abbreviation);
+        info.setCurScale(scale);
+        info = currencyInfoRepository.save(info);
+
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurOfficialRate(new BigDecimal(rateValue));
+        rate.setCurScale(scale);
+        rate.setDate(LocalDate.now());
+        rate.setCurrency(info);
+        currencyRateRepository.save(rate);
+        return info.getCurId();
+    }
+}
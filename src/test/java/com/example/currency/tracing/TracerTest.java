@@ -0,0 +1,55 @@
+package com.example.currency.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracerTest {
+
+    @Test
+    public void testRingBufferDropsWhenFull() {
+        SpanRingBuffer buffer = new SpanRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(1, 0, "Type", "method" + i, 10, null));
+        }
+        assertFalse(buffer.offer(1, 0, "Type", "overflow", 10, null));
+        assertEquals(1, buffer.getDropped());
+
+        List<String> methods = new ArrayList<>();
+        assertEquals(4, buffer.drain((traceId, depth, type, method, duration, error) -> methods.add(method), 16));
+        assertEquals(List.of("method0", "method1", "method2", "method3"), methods);
+        assertTrue(buffer.offer(1, 0, "Type", "again", 10, null));
+    }
+
+    @Test
+    public void testNestedSpansShareTraceId() throws InterruptedException {
+        SpanRingBuffer buffer = new SpanRingBuffer(16);
+        List<long[]> spans = new ArrayList<>();
+        Tracer tracer = new Tracer(true, 1.0, buffer, (traceId, depth, type, method, duration, error) -> { });
+        tracer.shutdown();
+
+        long outer = tracer.enter();
+        long inner = tracer.enter();
+        tracer.exit(inner, "Service", "inner", null);
+        tracer.exit(outer, "Controller", "outer", null);
+
+        buffer.drain((traceId, depth, type, method, duration, error) -> spans.add(new long[]{traceId, depth}), 16);
+        assertEquals(2, spans.size());
+        assertEquals(spans.get(0)[0], spans.get(1)[0]);
+        assertEquals(1, spans.get(0)[1]);
+        assertEquals(0, spans.get(1)[1]);
+    }
+
+    @Test
+    public void testDisabledTracerRecordsNothing() {
+        SpanRingBuffer buffer = new SpanRingBuffer(16);
+        Tracer tracer = new Tracer(false, 1.0, buffer, (traceId, depth, type, method, duration, error) -> { });
+        long start = tracer.enter();
+        assertEquals(Tracer.NOT_SAMPLED, start);
+        tracer.exit(start, null, null, null);
+        assertEquals(0, buffer.size());
+    }
+}
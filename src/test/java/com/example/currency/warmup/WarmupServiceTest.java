@@ -0,0 +1,144 @@
+package com.example.currency.warmup;
+
+import com.example.currency.cache.CacheKey;
+import com.example.currency.cache.CacheSnapshotService;
+import com.example.currency.cache.SimpleCache;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WarmupServiceTest {
+
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private CurrencyConversionService conversionService;
+
+    @Mock
+    private CacheSnapshotService snapshotService;
+
+    private SimpleCache cache;
+    private CurrencyInfo usd;
+    private CurrencyInfo eur;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SimpleCache(true);
+        usd = currency(1, "USD");
+        eur = currency(2, "EUR");
+    }
+
+    @Test
+    public void testFetchesOnlyRatesMissingFromDatabase() {
+        CurrencyRate usdRate = new CurrencyRate();
+        usdRate.setCurrency(usd);
+        when(currencyService.getAllCurrencies()).thenReturn(List.of(usd, eur));
+        when(currencyService.preloadRates(any())).thenReturn(List.of(usdRate));
+
+        WarmupService warmup = warmupService("");
+        assertFalse(warmup.isFinished());
+        warmup.warmUp();
+
+        verify(currencyService).fetchAndStoreRate(eur);
+        verify(currencyService, never()).fetchAndStoreRate(usd);
+        assertTrue(warmup.isFinished());
+        assertEquals(0, warmup.getFailures());
+    }
+
+    @Test
+    public void testRestoredSnapshotSkipsReferenceDataLoad() {
+        when(snapshotService.restore()).thenReturn(true);
+
+        WarmupService warmup = warmupService("");
+        warmup.warmUp();
+
+        assertTrue(warmup.isRestoredFromSnapshot());
+        verify(currencyService, never()).getAllCurrencies();
+        verify(currencyService, never()).preloadRates(any());
+    }
+
+    @Test
+    public void testApiFailureIsCountedAndDoesNotBlockReadiness() {
+        when(currencyService.getAllCurrencies()).thenReturn(List.of(usd));
+        when(currencyService.preloadRates(any())).thenReturn(List.of());
+        when(currencyService.fetchAndStoreRate(usd)).thenThrow(new RuntimeException("NBRB unavailable"));
+
+        WarmupService warmup = warmupService("");
+        warmup.warmUp();
+
+        assertTrue(warmup.isFinished());
+        assertEquals(1, warmup.getFailures());
+    }
+
+    @Test
+    public void testReplaysRecordedHotKeys(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("hot-keys.txt");
+        Files.write(file, List.of("convert:1:2:100", "currency:2", "rate:1:2024-01-01", ""));
+        when(currencyService.getAllCurrencies()).thenReturn(List.of());
+        when(currencyService.preloadRates(any())).thenReturn(List.of());
+        when(currencyService.getCurrencyById(2)).thenReturn(Optional.of(eur));
+        when(conversionService.convertCurrency(1, 2, new BigDecimal("100"))).thenReturn(new BigDecimal("92.86"));
+
+        warmupService(file.toString()).warmUp();
+
+        verify(conversionService).convertCurrency(1, 2, new BigDecimal("100"));
+        verify(currencyService).getCurrencyById(2);
+    }
+
+    @Test
+    public void testReplayCountsMalformedKeysAsFailures() {
+        when(currencyService.getCurrencyByIdWithRates(1)).thenReturn(Optional.of(usd));
+        WarmupService warmup = warmupService("");
+
+        warmup.replay("currencyWithRates:1");
+        warmup.replay("currency:USD");
+        warmup.replay("convert:1:2");
+        warmup.replay("nosuch:1");
+
+        verify(currencyService).getCurrencyByIdWithRates(1);
+        verifyNoMoreInteractions(currencyService, conversionService);
+        assertEquals(3, warmup.getFailures());
+    }
+
+    @Test
+    public void testRecordsHotKeysOnShutdown(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("state").resolve("hot-keys.txt");
+        cache.put(CacheKey.currency(1), usd);
+        cache.get(CacheKey.currency(1));
+        cache.get(CacheKey.currency(1));
+
+        warmupService(file.toString()).recordHotKeys();
+
+        assertEquals(List.of("currency:1"), Files.readAllLines(file));
+    }
+
+    private WarmupService warmupService(String hotKeysFile) {
+        return new WarmupService(currencyService, conversionService, cache, snapshotService, true, 2, 10, hotKeysFile, 10);
+    }
+
+    private static CurrencyInfo currency(int id, String abbreviation) {
+        CurrencyInfo info = new CurrencyInfo();
+        info.setCurId(id);
+        info.setCurAbbreviation(abbreviation);
+        return info;
+    }
+}
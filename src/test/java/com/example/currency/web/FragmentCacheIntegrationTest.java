@@ -0,0 +1,103 @@
+package com.example.currency.web;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static com.example.currency.TestFixtures.currency;
+import static com.example.currency.TestFixtures.rate;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "nbrb.api.base-url=http://127.0.0.1:9/exrates/")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class FragmentCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private FragmentCache fragmentCache;
+
+    @Test
+    void testCurrencyListFragmentsFollowCurrencyChanges() throws Exception {
+        CurrencyInfo currency = currencyService.createCurrency(currency("MDL", "MDL", "Молдавский лей"));
+        String option = "<option value=\"" + currency.getCurId() + "\">MDL</option>";
+
+        mockMvc.perform(get("/currencies/convert"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(option)));
+        long misses = fragmentCache.getMisses();
+        long hits = fragmentCache.getHits();
+        mockMvc.perform(get("/currencies/convert"))
+                .andExpect(content().string(containsString(option)));
+        assertEquals(misses, fragmentCache.getMisses());
+        assertEquals(hits + 1, fragmentCache.getHits());
+
+        currency.setCurAbbreviation("MDX");
+        currencyService.updateCurrency(currency.getCurId(), currency);
+        mockMvc.perform(get("/currencies/convert"))
+                .andExpect(content().string(not(containsString(option))))
+                .andExpect(content().string(containsString(">MDX</option>")));
+        mockMvc.perform(get("/currencies"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Молдавский лей")))
+                .andExpect(content().string(containsString("/currencies/" + currency.getCurId() + "/edit")));
+
+        currencyService.deleteCurrency(currency.getCurId());
+        mockMvc.perform(get("/currencies"))
+                .andExpect(content().string(not(containsString("Молдавский лей"))));
+    }
+
+    @Test
+    void testDetailFragmentFollowsRateChangesAndResultsRenderPerRequest() throws Exception {
+        CurrencyInfo base = currencyService.createCurrency(currency("GEL", "GEL", "Грузинский лари"));
+        CurrencyInfo quote = currencyService.createCurrency(currency("AMD", "AMD", "Армянский драм"));
+        conversionService.createRate(rate(base, LocalDate.now(), "1.20"));
+
+        mockMvc.perform(get("/currencies/" + base.getCurId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Грузинский лари")))
+                .andExpect(content().string(containsString("1.20")));
+        conversionService.createRate(rate(quote, LocalDate.now(), "0.60"));
+        mockMvc.perform(get("/currencies/" + base.getCurId()))
+                .andExpect(content().string(not(containsString("0.60"))));
+
+        CurrencyRate changed = conversionService.createRate(rate(base, LocalDate.now().minusDays(1), "1.50"));
+        mockMvc.perform(get("/currencies/" + base.getCurId()))
+                .andExpect(content().string(containsString("/rates/" + changed.getId() + "/edit")));
+
+        mockMvc.perform(post("/currencies/convert")
+                        .param("from", base.getCurId().toString())
+                        .param("to", quote.getCurId().toString())
+                        .param("amount", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<span>GEL</span> = <span>20.00</span> <span>AMD</span>")));
+        mockMvc.perform(post("/currencies/convert")
+                        .param("from", base.getCurId().toString())
+                        .param("to", quote.getCurId().toString())
+                        .param("amount", "3"))
+                .andExpect(content().string(containsString("<span>6.00</span>")));
+    }
+}
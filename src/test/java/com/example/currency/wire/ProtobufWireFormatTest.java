@@ -0,0 +1,70 @@
+package com.example.currency.wire;
+
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.RateView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProtobufWireFormatTest {
+
+    @Test
+    void testRatesRoundTrip() throws Exception {
+        List<RateView> rates = List.of(
+                new RateView(1, 431, LocalDate.of(2024, 3, 1), new BigDecimal("3.2418"), 1),
+                new RateView(2, 456, LocalDate.of(1969, 12, 31), new BigDecimal("-0.0001"), 100),
+                new RateView(3, null, null, null, null),
+                new RateView(4, 451, LocalDate.of(2024, 3, 1), new BigDecimal("123456789012345678901234.5"), 1),
+                new RateView(0, 0, LocalDate.ofEpochDay(0), BigDecimal.ZERO, 0));
+
+        assertEquals(rates, ProtobufWireFormat.decodeRates(ProtobufWireFormat.encodeRates(rates)));
+        assertEquals(rates.get(0), ProtobufWireFormat.decodeRate(ProtobufWireFormat.encodeRate(rates.get(0))));
+        assertEquals(List.of(), ProtobufWireFormat.decodeRates(ProtobufWireFormat.encodeRates(List.of())));
+    }
+
+    @Test
+    void testRateIsCompact() {
+        RateView rate = new RateView(123_456, 431, LocalDate.of(2024, 3, 1), new BigDecimal("3.2418"), 1);
+
+        assertTrue(ProtobufWireFormat.encodeRate(rate).length <= 20);
+    }
+
+    @Test
+    void testCurrenciesRoundTripWithoutRates() throws Exception {
+        CurrencyInfo currency = new CurrencyInfo();
+        currency.setCurId(431);
+        currency.setCurCode("840");
+        currency.setCurAbbreviation("USD");
+        currency.setCurName("Доллар США");
+        currency.setCurScale(1);
+        CurrencyInfo sparse = new CurrencyInfo();
+        sparse.setCurId(1);
+
+        List<CurrencyInfo> decoded = ProtobufWireFormat.decodeCurrencies(
+                ProtobufWireFormat.encodeCurrencies(List.of(currency, sparse)));
+
+        assertEquals(List.of(currency, sparse), decoded);
+    }
+
+    @Test
+    void testMessageTypeResolution() throws Exception {
+        assertEquals(RateView.class, ProtobufViewHttpMessageConverter.messageType(RateView.class));
+        assertEquals(RateView.class, ProtobufViewHttpMessageConverter.messageType(
+                getClass().getDeclaredMethod("rateList").getGenericReturnType()));
+        assertNull(ProtobufViewHttpMessageConverter.messageType(
+                getClass().getDeclaredMethod("stringList").getGenericReturnType()));
+        assertNull(ProtobufViewHttpMessageConverter.messageType(String.class));
+    }
+
+    private static List<RateView> rateList() {
+        return List.of();
+    }
+
+    private static List<String> stringList() {
+        return List.of();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.currency.wire;
+
+import com.example.currency.cache.CurrentDay;
+import com.example.currency.models.CurrencyInfo;
+import com.example.currency.models.CurrencyRate;
+import com.example.currency.models.RateView;
+import com.example.currency.service.CurrencyConversionService;
+import com.example.currency.service.CurrencyService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.currency.TestFixtures.currency;
+import static com.example.currency.TestFixtures.rate;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "nbrb.api.base-url=http://127.0.0.1:9/exrates/")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+public class WireFormatIntegrationTest {
+
+    private static final TypeReference<List<RateView>> RATE_LIST = new TypeReference<>() {
+    };
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    @Autowired
+    private CurrencyConversionService conversionService;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void testRateListIsNegotiatedPerFormat() throws Exception {
+        CurrencyInfo currency = new CurrencyInfo();
+        currency.setCurCode("978");
+        currency.setCurAbbreviation("XWF");
+        currency.setCurName("Wire format");
+        currency.setCurScale(1);
+        currency = currencyService.createCurrency(currency);
+        CurrencyRate rate = new CurrencyRate();
+        rate.setCurrency(currency);
+        rate.setDate(LocalDate.of(2024, 3, 1));
+        rate.setCurOfficialRate(new BigDecimal("3.52"));
+        rate.setCurScale(1);
+        rate = conversionService.createRate(rate);
+
+        MvcResult json = mockMvc.perform(get("/api/currency/rates"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[?(@.id == " + rate.getId() + ")].date").value("2024-03-01"))
+                .andExpect(jsonPath("$[?(@.id == " + rate.getId() + ")].curOfficialRate").value(3.52))
+                .andExpect(jsonPath("$[0].curId").doesNotExist())
+                .andReturn();
+        List<RateView> expected = conversionService.getAllRates();
+        Integer curId = currency.getCurId();
+        RateView created = expected.stream().filter(view -> curId.equals(view.curId())).findFirst().orElseThrow();
+        assertEquals(new BigDecimal("3.52"), created.curOfficialRate());
+        assertTrue(json.getResponse().getContentAsString().startsWith("[{\"id\":"));
+
+        byte[] cbor = fetch("application/cbor");
+        byte[] smile = fetch("application/x-jackson-smile");
+        byte[] protobuf = fetch("application/x-protobuf");
+
+        assertEquals(expected, cborConverter.getObjectMapper().readValue(cbor, RATE_LIST));
+        assertEquals(expected, smileConverter.getObjectMapper().readValue(smile, RATE_LIST));
+        assertEquals(expected, ProtobufWireFormat.decodeRates(protobuf));
+        assertTrue(protobuf.length < json.getResponse().getContentAsByteArray().length / 2);
+    }
+
+    @Test
+    void testRateLookupsKeepEntityJson() throws Exception {
+        CurrencyInfo currency = currencyService.createCurrency(currency("XWE"));
+        String today = CurrentDay.date().toString();
+        conversionService.createRate(rate(currency, CurrentDay.date(), "2.75"));
+
+        mockMvc.perform(get("/api/currency/rates/by-abbreviation").param("abbreviation", "XWE").param("date", today))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].curOfficialRate").value(2.75))
+                .andExpect(jsonPath("$[0].curId").doesNotExist());
+        mockMvc.perform(post("/api/currency/rates/bulk-rates").contentType(MediaType.APPLICATION_JSON).content("[\"XWE\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].curOfficialRate").value(2.75))
+                .andExpect(jsonPath("$[0].curId").doesNotExist());
+
+        byte[] protobuf = mockMvc.perform(get("/api/currency/rates/by-abbreviation")
+                        .param("abbreviation", "XWE").param("date", today).accept("application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<RateView> rates = ProtobufWireFormat.decodeRates(protobuf);
+        assertEquals(1, rates.size());
+        assertEquals(currency.getCurId(), rates.get(0).curId());
+    }
+
+    @Test
+    void testProtobufIsNotOfferedForOtherBodies() throws Exception {
+        mockMvc.perform(get("/api/currency/info/db").accept("application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"));
+        mockMvc.perform(get("/api/cache/stats").accept("application/x-protobuf"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    private byte[] fetch(String mediaType) throws Exception {
+        return mockMvc.perform(get("/api/currency/rates").accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}